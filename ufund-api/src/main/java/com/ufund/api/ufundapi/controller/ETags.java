@@ -0,0 +1,118 @@
+package com.ufund.api.ufundapi.controller;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+/**
+ * Builds strong entity tags from the version counters of the DAOs a response
+ * is read from, so unchanged resources can be answered with Not Modified
+ * before anything is read or serialized
+ * <br>
+ * Versions must be read before the body they describe: a body newer than its
+ * tag only costs the client one more full response, while the reverse would
+ * leave it holding stale data.
+ *
+ * @author Ethan Hartman
+ */
+class ETags {
+    private ETags() {
+    }
+
+    /**
+     * Creates the entity tag of a response read at the given versions
+     *
+     * @param versions The versions of every DAO the response depends on
+     *
+     * @return The quoted, strong entity tag
+     */
+    static String of(long... versions) {
+        StringBuilder tag = new StringBuilder("\"");
+        for (int i = 0; i < versions.length; ++i) {
+            if (i > 0)
+                tag.append('-');
+            tag.append(Long.toHexString(versions[i]));
+        }
+        return tag.append('"').toString();
+    }
+
+    /**
+     * Creates the entity tag of a response belonging to one user, read at the
+     * given versions
+     * <br>
+     * The owner is encoded into the tag, so a client switching sessions never
+     * matches a tag cached for another user
+     *
+     * @param owner    The username of the user the response belongs to
+     * @param versions The versions of every DAO the response depends on
+     *
+     * @return The quoted, strong entity tag
+     */
+    static String of(String owner, long... versions) {
+        String tag = of(versions);
+        return "\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(owner.getBytes(StandardCharsets.UTF_8))
+                + "." + tag.substring(1);
+    }
+
+    /**
+     * Checks whether a client already holds the representation with the given
+     * tag
+     *
+     * @param ifNoneMatch The If-None-Match header of the request, may be null
+     * @param etag        The entity tag of the current representation
+     *
+     * @return true if the header lists the tag or is a wildcard
+     */
+    static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null)
+            return false;
+        for (String candidate : ifNoneMatch.split(",")) {
+            candidate = candidate.trim();
+            if (candidate.startsWith("W/"))
+                candidate = candidate.substring(2); // If-None-Match compares weakly
+            if (candidate.equals("*") || candidate.equals(etag))
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Checks whether the representation a client's change is based on is still
+     * the current one
+     *
+     * @param ifMatch The If-Match header of the request
+     * @param etag    The entity tag of the current representation
+     *
+     * @return true if the header lists the tag or is a wildcard, weak tags
+     *         never match as If-Match compares strongly
+     */
+    static boolean matchesStrongly(String ifMatch, String etag) {
+        for (String candidate : ifMatch.split(",")) {
+            candidate = candidate.trim();
+            if (candidate.equals("*") || candidate.equals(etag))
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * @param etag The entity tag the client already holds
+     *
+     * @return ResponseEntity with HTTP status of NOT_MODIFIED and the tag
+     */
+    static <T> ResponseEntity<T> notModified(String etag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+    }
+
+    /**
+     * @param body The body of the response
+     * @param etag The entity tag of the body
+     *
+     * @return ResponseEntity with the body, the tag and HTTP status of OK
+     */
+    static <T> ResponseEntity<T> ok(T body, String etag) {
+        return ResponseEntity.status(HttpStatus.OK).eTag(etag).body(body);
+    }
+}
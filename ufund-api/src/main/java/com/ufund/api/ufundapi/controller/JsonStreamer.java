@@ -0,0 +1,153 @@
+package com.ufund.api.ufundapi.controller;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Writes collections straight to the response body, one element at a time,
+ * instead of serializing a whole array into a buffer first
+ * <br>
+ * Clients get a JSON array byte-identical to the buffered response, or
+ * newline delimited JSON when their Accept header asks for
+ * {@value #NDJSON_VALUE}.
+ *
+ * @author Ethan Hartman
+ */
+class JsonStreamer {
+    static final String NDJSON_VALUE = "application/x-ndjson";
+    static final MediaType NDJSON = MediaType.parseMediaType(NDJSON_VALUE);
+
+    private static final Logger LOG = Logger.getLogger(JsonStreamer.class.getName());
+    // Thrown by Tomcat and Jetty when the client closes the connection mid-response, matched by name as either
+    // container may be missing. A plain EOFException is a real failure to read, so it is not among them
+    private static final Set<String> CLIENT_ABORT_EXCEPTIONS = Set.of(
+            "org.apache.catalina.connector.ClientAbortException", "org.eclipse.jetty.io.EofException");
+
+    private final ObjectMapper objectMapper; // Serializes each element with the same settings as buffered responses
+
+    /**
+     * Supplies the elements of a streamed collection
+     */
+    interface Source<T> {
+        /**
+         * Passes every element, in order, to the given sink
+         *
+         * @param sink Receives the elements
+         *
+         * @throws IOException if the elements cannot be read or written
+         */
+        void forEach(Sink<T> sink) throws IOException;
+    }
+
+    /**
+     * Receives the elements of a streamed collection
+     */
+    interface Sink<T> {
+        void accept(T element) throws IOException;
+    }
+
+    /**
+     * Creates a streamer which serializes elements with the given mapper
+     *
+     * @param objectMapper Provides Java Object to JSON Object serialization
+     */
+    JsonStreamer(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Checks whether a client asked for newline delimited JSON
+     *
+     * @param accept The client's Accept header, may be null
+     *
+     * @return true if {@value #NDJSON_VALUE} is acceptable to the client
+     */
+    static boolean acceptsNdjson(String accept) {
+        if (accept == null)
+            return false;
+        for (MediaType mediaType : MediaType.parseMediaTypes(accept))
+            if (NDJSON.equalsTypeAndSubtype(mediaType))
+                return true;
+        return false;
+    }
+
+    /**
+     * Checks whether a write failed because the client disconnected, which
+     * servlet containers report with their own exception types. Only those
+     * types count, so any other failure is still logged as one
+     *
+     * @param e The failure
+     *
+     * @return true if the failure, or one of its causes, is a client abort
+     */
+    static boolean isClientAbort(IOException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause())
+            if (CLIENT_ABORT_EXCEPTIONS.contains(cause.getClass().getName()))
+                return true;
+        return false;
+    }
+
+    /**
+     * Streams the given elements as the body of an OK response
+     *
+     * @param accept The client's Accept header, may be null
+     * @param source Supplies the elements
+     *
+     * @return ResponseEntity whose body writes the elements as they are supplied
+     */
+    <T> ResponseEntity<StreamingResponseBody> stream(String accept, Source<T> source) {
+        boolean ndjson = acceptsNdjson(accept);
+        StreamingResponseBody body = out -> {
+            try {
+                write(out, ndjson, source);
+            } catch (IOException e) {
+                // The status is already sent, all that is left is to cut the body short
+                if (isClientAbort(e))
+                    LOG.log(Level.FINE, "Client went away mid-stream", e);
+                else
+                    LOG.log(Level.WARNING, "Failed to stream response body", e);
+                throw e;
+            }
+        };
+        return ResponseEntity.status(HttpStatus.OK)
+                .contentType(ndjson ? NDJSON : MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+
+    /**
+     * Writes the elements supplied by the source to the given stream
+     *
+     * @param out    The stream to write to, left open
+     * @param ndjson Whether to write one element per line instead of an array
+     * @param source Supplies the elements
+     *
+     * @throws IOException if the elements cannot be read or written
+     */
+    <T> void write(OutputStream out, boolean ndjson, Source<T> source) throws IOException {
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            if (ndjson) {
+                generator.setRootValueSeparator(null);
+                source.forEach(element -> {
+                    generator.writeObject(element);
+                    generator.writeRaw('\n');
+                });
+            } else {
+                generator.writeStartArray();
+                source.forEach(generator::writeObject);
+                generator.writeEndArray();
+            }
+        }
+    }
+}
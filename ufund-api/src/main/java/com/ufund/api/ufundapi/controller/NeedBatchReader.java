@@ -0,0 +1,130 @@
+package com.ufund.api.ufundapi.controller;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.http.MediaType;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ufund.api.ufundapi.model.Need;
+
+/**
+ * Reads a batch of {@linkplain Need needs} from a request body as it arrives,
+ * without buffering the body first
+ * <br>
+ * Bodies may be a JSON array, newline delimited JSON, or CSV with
+ * {@value #CSV_HEADER} columns and an optional header row.
+ *
+ * @author Ethan Hartman
+ */
+class NeedBatchReader {
+    static final String CSV_VALUE = "text/csv";
+    static final MediaType CSV = MediaType.parseMediaType(CSV_VALUE);
+    static final String CSV_HEADER = "name,cost,quantity";
+
+    private static final String MalformedCsvException = "Malformed CSV at line %d";
+
+    private final ObjectMapper objectMapper; // Deserializes JSON needs with the same settings as single requests
+
+    /**
+     * Creates a reader which deserializes JSON with the given mapper
+     *
+     * @param objectMapper Provides JSON Object to Java Object deserialization
+     */
+    NeedBatchReader(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Reads every {@linkplain Need need} in the given body
+     *
+     * @param contentType The request's Content-Type header, may be null for JSON
+     * @param body        The request body
+     *
+     * @return The {@link Need needs} in body order
+     *
+     * @throws IllegalArgumentException if the body is malformed
+     * @throws IOException              if the body cannot be read
+     */
+    List<Need> read(String contentType, InputStream body) throws IOException {
+        if (contentType != null && CSV.equalsTypeAndSubtype(MediaType.parseMediaType(contentType)))
+            return readCsv(body);
+
+        // A root level array is unwrapped, otherwise values are read one after another
+        List<Need> batch = new ArrayList<>();
+        try (MappingIterator<Need> needs = objectMapper.readerFor(Need.class).readValues(body)) {
+            while (needs.hasNextValue())
+                batch.add(needs.nextValue());
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException(e.getOriginalMessage(), e);
+        }
+        return batch;
+    }
+
+    /**
+     * Reads {@linkplain Need needs} from CSV rows
+     */
+    private List<Need> readCsv(InputStream body) throws IOException {
+        List<Need> batch = new ArrayList<>();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        int lineNumber = 0;
+        for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+            ++lineNumber;
+            if (line.isBlank() || lineNumber == 1 && CSV_HEADER.equalsIgnoreCase(line.replace(" ", "")))
+                continue;
+
+            List<String> fields = split(line);
+            if (fields == null || fields.size() != 3)
+                throw new IllegalArgumentException(String.format(MalformedCsvException, lineNumber));
+            try {
+                batch.add(new Need(fields.get(0), Double.parseDouble(fields.get(1).trim()),
+                        Integer.parseInt(fields.get(2).trim())));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException(String.format(MalformedCsvException, lineNumber), e);
+            }
+        }
+        return batch;
+    }
+
+    /**
+     * Splits a CSV row into its fields, unquoting any quoted field
+     *
+     * @param line The row to split
+     *
+     * @return The fields of the row, or null if a quote is left open
+     */
+    static List<String> split(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); ++i) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c != '"')
+                    field.append(c);
+                else if (i + 1 < line.length() && line.charAt(i + 1) == '"')
+                    field.append(line.charAt(++i)); // escaped quote
+                else
+                    quoted = false;
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted)
+            return null;
+        fields.add(field.toString());
+        return fields;
+    }
+}
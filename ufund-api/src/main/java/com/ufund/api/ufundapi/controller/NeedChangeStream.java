@@ -0,0 +1,280 @@
+package com.ufund.api.ufundapi.controller;
+
+import java.io.IOException;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.ufund.api.ufundapi.model.Need;
+import com.ufund.api.ufundapi.model.NeedChange;
+import com.ufund.api.ufundapi.persistence.NeedChangeListener;
+import com.ufund.api.ufundapi.persistence.NeedDAO;
+
+/**
+ * Pushes every change to the {@linkplain Need needs} to Server-Sent Event
+ * subscribers
+ * <br>
+ * Each change is sent as an event named after its {@link NeedChange.Type type}
+ * with the resulting version as its id. Subscribers hold no thread while idle.
+ * Changes are queued per subscriber in a bounded buffer and sent from a small
+ * shared pool, so a slow subscriber never delays the DAO or the others; one
+ * whose buffer fills is disconnected and has to re-fetch the needs.
+ *
+ * {@literal @}Component Spring annotation instantiates a single instance of
+ * this class and injects the instance into other classes as needed
+ *
+ * @author Ethan Hartman
+ */
+@Component
+public class NeedChangeStream implements NeedChangeListener {
+    private static final Logger LOG = Logger.getLogger(NeedChangeStream.class.getName());
+
+    static final int DEFAULT_BUFFER = 256;
+    static final long DEFAULT_HEARTBEAT_MS = 15_000;
+    static final int DEFAULT_THREADS = 4;
+    static final String VERSION_EVENT = "version";
+
+    private final NeedDAO needDao;
+    private final int buffer; // Changes queued for a subscriber before it is disconnected
+    private final long heartbeatMs; // Idle time between keep-alive comments
+    private final int threads; // Threads sending to subscribers
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet(); // Every connected subscriber
+    private ScheduledExecutorService executor; // Sends events, started by the first subscriber
+
+    /**
+     * A connected subscriber and the changes not yet sent to it
+     */
+    private class Subscriber implements Runnable {
+        private final SseEmitter emitter;
+        private final ArrayBlockingQueue<NeedChange> pending;
+        // Whether a send is queued or running, held until the version has been sent
+        private final AtomicBoolean scheduled = new AtomicBoolean(true);
+        private volatile boolean heartbeatDue; // Whether a keep-alive comment should be sent
+
+        private Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+            this.pending = new ArrayBlockingQueue<>(buffer);
+        }
+
+        /**
+         * Queues a change, disconnecting the subscriber if its buffer is full
+         */
+        private void offer(NeedChange change) {
+            if (pending.offer(change))
+                schedule();
+            else
+                disconnect(this, null);
+        }
+
+        /**
+         * Queues a send unless one is already queued or running
+         */
+        private void schedule() {
+            if (scheduled.compareAndSet(false, true))
+                execute(this);
+        }
+
+        /**
+         * Sends every queued change
+         */
+        @Override
+        public void run() {
+            try {
+                if (heartbeatDue) {
+                    heartbeatDue = false;
+                    emitter.send(SseEmitter.event().comment(""));
+                }
+                for (NeedChange change = pending.poll(); change != null; change = pending.poll())
+                    emitter.send(SseEmitter.event().id(Long.toString(change.getVersion()))
+                            .name(change.getType().name().toLowerCase(Locale.ROOT))
+                            .data(change, MediaType.APPLICATION_JSON));
+            } catch (IOException | IllegalStateException e) {
+                disconnect(this, e); // gone or already completed
+                return;
+            }
+            release();
+        }
+
+        /**
+         * Allows the next send to be queued, queueing it now if a change was
+         * offered while sends were held
+         */
+        private void release() {
+            scheduled.set(false);
+            if (!pending.isEmpty())
+                schedule();
+        }
+    }
+
+    /**
+     * Creates a stream of the changes to the given DAO's {@linkplain Need needs}
+     * with the default buffer, heartbeat and threads
+     *
+     * @param needDao The {@link NeedDAO Need Data Access Object} to listen to
+     */
+    public NeedChangeStream(NeedDAO needDao) {
+        this(needDao, DEFAULT_BUFFER, DEFAULT_HEARTBEAT_MS, DEFAULT_THREADS);
+    }
+
+    /**
+     * Creates a stream of the changes to the given DAO's {@linkplain Need needs}
+     *
+     * @param needDao     The {@link NeedDAO Need Data Access Object} to listen to
+     * @param buffer      The number of changes queued for a subscriber before it
+     *                    is disconnected
+     * @param heartbeatMs The idle time between keep-alive comments, which also
+     *                    detect closed connections
+     * @param threads     The number of threads sending to subscribers
+     */
+    @Autowired
+    public NeedChangeStream(NeedDAO needDao, @Value("${needs.stream.buffer:" + DEFAULT_BUFFER + "}") int buffer,
+            @Value("${needs.stream.heartbeat.ms:" + DEFAULT_HEARTBEAT_MS + "}") long heartbeatMs,
+            @Value("${needs.stream.threads:" + DEFAULT_THREADS + "}") int threads) {
+        this.needDao = needDao;
+        this.buffer = buffer;
+        this.heartbeatMs = heartbeatMs;
+        this.threads = threads;
+        needDao.addChangeListener(this);
+    }
+
+    /**
+     * Connects a new subscriber, which first receives a
+     * {@value #VERSION_EVENT} event holding the current version
+     * <br>
+     * A change racing the subscription may follow with a version no greater
+     * than it, such changes are already reflected in the current version
+     *
+     * @return The emitter to return from the request, it never times out
+     */
+    public SseEmitter subscribe() {
+        return subscribe(new SseEmitter(0L));
+    }
+
+    /**
+     * Connects the given emitter as a subscriber
+     *
+     * @param emitter The emitter to send events to
+     *
+     * @return The emitter
+     */
+    SseEmitter subscribe(SseEmitter emitter) {
+        Subscriber subscriber = new Subscriber(emitter);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+        subscribers.add(subscriber); // before reading the version, so no later change is missed
+        startExecutor();
+        try {
+            long version = needDao.getVersion();
+            emitter.send(SseEmitter.event().id(Long.toString(version)).name(VERSION_EVENT).data(version));
+        } catch (IOException e) {
+            disconnect(subscriber, e);
+            return emitter;
+        }
+        subscriber.release(); // changes queued meanwhile follow the version
+        return emitter;
+    }
+
+    /**
+     * Queues the change for every subscriber
+     * <br>
+     * Called while the DAO holds its lock, so it only ever queues
+     */
+    @Override
+    public void needChanged(NeedChange change) {
+        for (Subscriber subscriber : subscribers)
+            subscriber.offer(change);
+    }
+
+    /**
+     * @return the number of connected subscribers
+     */
+    int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    /**
+     * Starts the sending threads and the heartbeat on the first subscription
+     */
+    private synchronized void startExecutor() {
+        if (executor != null)
+            return;
+        executor = Executors.newScheduledThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "need-stream");
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (heartbeatMs > 0)
+            executor.scheduleWithFixedDelay(this::heartbeat, heartbeatMs, heartbeatMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Queues a keep-alive comment for every subscriber
+     */
+    private void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.heartbeatDue = true;
+            subscriber.schedule();
+        }
+    }
+
+    /**
+     * Runs a task on the sending threads, or drops it once the stream is closed
+     */
+    private synchronized void execute(Runnable task) {
+        try {
+            if (executor != null)
+                executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            // closed, every subscriber has been completed
+        }
+    }
+
+    /**
+     * Disconnects a subscriber, completing its emitter on a sending thread so a
+     * blocked send never holds up the caller
+     *
+     * @param subscriber The subscriber to disconnect
+     * @param cause      Why it failed, or null if it fell too far behind
+     */
+    private void disconnect(Subscriber subscriber, Throwable cause) {
+        if (!subscribers.remove(subscriber))
+            return; // already disconnected
+        if (cause == null)
+            LOG.warning("Disconnected a need stream subscriber more than " + buffer + " changes behind");
+        else
+            LOG.log(Level.FINE, "Need stream subscriber disconnected: " + cause.getLocalizedMessage());
+        execute(subscriber.emitter::complete);
+    }
+
+    /**
+     * Completes every subscriber and stops the sending threads
+     */
+    @PreDestroy
+    public void close() {
+        needDao.removeChangeListener(this);
+        for (Subscriber subscriber : subscribers)
+            subscriber.emitter.complete();
+        subscribers.clear();
+        synchronized (this) {
+            if (executor != null)
+                executor.shutdown();
+        }
+    }
+}
@@ -1,6 +1,9 @@
 package com.ufund.api.ufundapi.controller;
 
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -8,14 +11,29 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import com.ufund.api.ufundapi.exceptions.NeedVersionConflictException;
 import com.ufund.api.ufundapi.model.Need;
+import com.ufund.api.ufundapi.model.NeedBatchResult;
+import com.ufund.api.ufundapi.model.NeedDelta;
+import com.ufund.api.ufundapi.model.NeedStats;
+import com.ufund.api.ufundapi.model.NeedSummary;
+import com.ufund.api.ufundapi.model.Page;
 import com.ufund.api.ufundapi.persistence.NeedDAO;
+import com.ufund.api.ufundapi.persistence.NeedOrder;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collection;
+import java.util.List;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -23,6 +41,10 @@ import javax.management.openmbean.KeyAlreadyExistsException;
 
 /**
  * Handles the REST API requests for the Need resource
+ * <br>
+ * Each GET request on the needs matches at most one query, so a request
+ * combining the parameters of different queries, such as names with stream,
+ * is answered with HTTP status of BAD_REQUEST instead of dropping any of them
  * 
  * @author Ethan Hartman
  */
@@ -32,17 +54,52 @@ import javax.management.openmbean.KeyAlreadyExistsException;
 public class NeedController {
     private static final Logger LOG = Logger.getLogger(NeedController.class.getName());
     private final NeedDAO needDao;
+    private final JsonStreamer streamer;
+    private final NeedBatchReader batchReader;
+    private final NeedChangeStream changeStream;
 
     /**
-     * Creates a REST API controller to reponds to requests
+     * Creates a REST API controller to reponds to requests, streaming with a
+     * default object mapper
      * 
      * @param needDao The {@link NeedDAO Need Data Access Object} to perform CRUD
      *                operations
-     *                <br>
-     *                This dependency is injected by the Spring Framework
      */
     public NeedController(NeedDAO needDao) {
+        this(needDao, new ObjectMapper());
+    }
+
+    /**
+     * Creates a REST API controller to reponds to requests, with its own stream
+     * of changes
+     * 
+     * @param needDao      The {@link NeedDAO Need Data Access Object} to perform
+     *                     CRUD operations
+     * @param objectMapper Serializes streamed {@link Need needs} the same way as
+     *                     buffered responses
+     */
+    public NeedController(NeedDAO needDao, ObjectMapper objectMapper) {
+        this(needDao, objectMapper, new NeedChangeStream(needDao));
+    }
+
+    /**
+     * Creates a REST API controller to reponds to requests
+     * 
+     * @param needDao      The {@link NeedDAO Need Data Access Object} to perform
+     *                     CRUD operations
+     * @param objectMapper Serializes streamed {@link Need needs} the same way as
+     *                     buffered responses
+     * @param changeStream The {@link NeedChangeStream stream} of changes to the
+     *                     {@link Need needs}
+     *                     <br>
+     *                     These dependencies are injected by the Spring Framework
+     */
+    @Autowired
+    public NeedController(NeedDAO needDao, ObjectMapper objectMapper, NeedChangeStream changeStream) {
         this.needDao = needDao;
+        this.streamer = new JsonStreamer(objectMapper);
+        this.batchReader = new NeedBatchReader(objectMapper);
+        this.changeStream = changeStream;
     }
 
     /**
@@ -50,8 +107,8 @@ public class NeedController {
      * 
      * @param name The name used to locate the {@link Need need}
      * 
-     * @return ResponseEntity with {@link Need need} object and HTTP status of OK if
-     *         found<br>
+     * @return ResponseEntity with {@link Need need} object, its entity tag for
+     *         conditional updates and HTTP status of OK if found<br>
      *         ResponseEntity with HTTP status of NOT_FOUND if not found<br>
      *         ResponseEntity with HTTP status of INTERNAL_SERVER_ERROR otherwise
      */
@@ -61,7 +118,7 @@ public class NeedController {
         try {
             Need need = needDao.getNeed(name);
             if (need != null)
-                return new ResponseEntity<Need>(need, HttpStatus.OK);
+                return ETags.ok(need, ETags.of(need.getVersion()));
             else
                 return new ResponseEntity<>(HttpStatus.NOT_FOUND);
         } catch (IOException e) {
@@ -73,16 +130,202 @@ public class NeedController {
     /**
      * Responds to the GET request for all {@linkplain Need needs}
      * 
+     * @param ifNoneMatch The If-None-Match header, holding the entity tag of the
+     *                    {@link Need needs} the client already has
+     * 
      * @return ResponseEntity with array of {@link Need need} objects (may be empty)
      *         and
      *         HTTP status of OK<br>
+     *         ResponseEntity with HTTP status of NOT_MODIFIED if the client's
+     *         {@link Need needs} are current<br>
      *         ResponseEntity with HTTP status of INTERNAL_SERVER_ERROR otherwise
      */
-    @GetMapping("")
-    public ResponseEntity<Need[]> getNeeds() {
+    @GetMapping(value = "", params = { "!names", "!sinceVersion", "!stream", "!limit", "!cursor", "!sort",
+            "!minCost", "!maxCost", "!minQuantity", "!maxQuantity" })
+    public ResponseEntity<Need[]> getNeeds(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         LOG.info("GET /needs");
         try {
-            return new ResponseEntity<Need[]>(needDao.getNeeds(), HttpStatus.OK);
+            String etag = ETags.of(needDao.getVersion());
+            if (ETags.matches(ifNoneMatch, etag))
+                return ETags.notModified(etag);
+            return ETags.ok(needDao.getNeeds(), etag);
+        } catch (IOException e) {
+            LOG.log(Level.SEVERE, e.getLocalizedMessage());
+            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    /**
+     * Responds to the GET request for the {@linkplain Need needs} with the given
+     * names, all read from the same version of the cupboard
+     * 
+     * @param names The names of the {@link Need needs}, separated by commas
+     * 
+     * @return ResponseEntity with array of the {@link Need need} objects found,
+     *         in the order named (may be empty), and HTTP status of OK. Names with
+     *         no matching need are left out<br>
+     *         ResponseEntity with HTTP status of INTERNAL_SERVER_ERROR otherwise
+     *         <p>
+     *         Example: Get the needs in a basket in one round trip
+     *         GET http://localhost:8080/needs?names=Soap,Shampoo
+     */
+    @GetMapping(value = "", params = { "names", "!sinceVersion", "!stream", "!limit", "!cursor", "!sort",
+            "!minCost", "!maxCost", "!minQuantity", "!maxQuantity" })
+    public ResponseEntity<Need[]> getNeedsNamed(@RequestParam List<String> names) {
+        LOG.info("GET /needs?names=" + names);
+        try {
+            Collection<Need> needs = needDao.getNeeds(names).values();
+            return new ResponseEntity<Need[]>(needs.toArray(new Need[needs.size()]), HttpStatus.OK);
+        } catch (IOException e) {
+            LOG.log(Level.SEVERE, e.getLocalizedMessage());
+            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    /**
+     * Responds to the GET request for the changes to the {@linkplain Need needs}
+     * since a version the client already has
+     * 
+     * @param sinceVersion The version of the client's {@link Need needs}, from an
+     *                     earlier entity tag or delta
+     * 
+     * @return ResponseEntity with the {@link NeedDelta delta} and HTTP status of
+     *         OK. The delta holds only the needs changed or deleted since that
+     *         version, or every need as a resync once those changes are no
+     *         longer known<br>
+     *         ResponseEntity with HTTP status of INTERNAL_SERVER_ERROR otherwise
+     *         <p>
+     *         Example: Catch up from version 1700000000123
+     *         GET http://localhost:8080/needs?sinceVersion=1700000000123
+     */
+    @GetMapping(value = "", params = { "sinceVersion", "!names", "!stream", "!limit", "!cursor", "!sort",
+            "!minCost", "!maxCost", "!minQuantity", "!maxQuantity" })
+    public ResponseEntity<NeedDelta> getNeedsSince(@RequestParam long sinceVersion) {
+        LOG.info("GET /needs?sinceVersion=" + sinceVersion);
+        try {
+            return new ResponseEntity<NeedDelta>(needDao.getNeedsSince(sinceVersion), HttpStatus.OK);
+        } catch (IOException e) {
+            LOG.log(Level.SEVERE, e.getLocalizedMessage());
+            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    /**
+     * Responds to the GET request for all {@linkplain Need needs}, writing each
+     * one to the response as it is serialized
+     * 
+     * @param accept The Accept header, asking for one {@link Need need} per line
+     *               if it includes application/x-ndjson
+     * 
+     * @return ResponseEntity streaming a JSON array of {@link Need need} objects,
+     *         or newline delimited {@link Need need} objects, and HTTP status of
+     *         OK<br>
+     *         ResponseEntity with HTTP status of INTERNAL_SERVER_ERROR otherwise
+     *         <p>
+     *         Example: Stream every need one per line
+     *         GET http://localhost:8080/needs?stream
+     *         Accept: application/x-ndjson
+     */
+    @GetMapping(value = "", params = { "stream", "!names", "!sinceVersion", "!limit", "!cursor", "!sort",
+            "!minCost", "!maxCost", "!minQuantity", "!maxQuantity" })
+    public ResponseEntity<StreamingResponseBody> streamNeeds(
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        LOG.info("GET /needs?stream");
+        try {
+            Need[] needs = needDao.getNeeds();
+            return streamer.stream(accept, sink -> {
+                for (Need need : needs)
+                    sink.accept(need);
+            });
+        } catch (IOException e) {
+            LOG.log(Level.SEVERE, e.getLocalizedMessage());
+            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    /**
+     * Responds to the GET request for one page of {@linkplain Need needs}, in
+     * name order
+     * 
+     * @param cursor The cursor returned with the previous page, omitted for the
+     *               first page
+     * @param limit  The most {@link Need needs} on the page
+     * 
+     * @return ResponseEntity with a {@link Page page} of {@link Need need}
+     *         objects and HTTP status of OK<br>
+     *         ResponseEntity with HTTP status of BAD_REQUEST if the cursor or
+     *         limit is invalid<br>
+     *         ResponseEntity with HTTP status of INTERNAL_SERVER_ERROR otherwise
+     *         <p>
+     *         Example: Get the 50 needs after the previous page
+     *         GET http://localhost:8080/needs?limit=50&cursor=VGVzdCAx
+     */
+    @GetMapping(value = "", params = { "limit", "!names", "!sinceVersion", "!stream", "!sort", "!minCost",
+            "!maxCost", "!minQuantity", "!maxQuantity" })
+    public ResponseEntity<Page<Need>> getNeeds(@RequestParam(required = false) String cursor,
+            @RequestParam int limit) {
+        LOG.info("GET /needs?limit=" + limit + "&cursor=" + cursor);
+        try {
+            return new ResponseEntity<Page<Need>>(needDao.getNeeds(cursor, limit), HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        } catch (IOException e) {
+            LOG.log(Level.SEVERE, e.getLocalizedMessage());
+            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    /**
+     * Responds to the GET request for one page of the {@linkplain Need needs}
+     * whose cost or quantity falls in a range, served from the index of the
+     * sorted attribute
+     * 
+     * @param sort        cost for cheapest first, bounded by minCost and
+     *                    maxCost, or quantity for most remaining first, bounded
+     *                    by minQuantity and maxQuantity
+     * @param minCost     The smallest cost included, if any
+     * @param maxCost     The largest cost included, if any
+     * @param minQuantity The smallest quantity included, if any
+     * @param maxQuantity The largest quantity included, if any
+     * @param cursor      The cursor returned with the previous page, omitted for
+     *                    the first page
+     * @param limit       The most {@link Need needs} on the page, 100 by default
+     * 
+     * @return ResponseEntity with a {@link Page page} of {@link Need need}
+     *         objects and HTTP status of OK<br>
+     *         ResponseEntity with HTTP status of BAD_REQUEST if the sort is not
+     *         indexed, bounds are given for the other attribute, or the cursor or
+     *         limit is invalid. Bounds without a sort match no other GET request
+     *         and are answered with BAD_REQUEST too<br>
+     *         ResponseEntity with HTTP status of INTERNAL_SERVER_ERROR otherwise
+     *         <p>
+     *         Example: Get the cheapest needs under $50
+     *         GET http://localhost:8080/needs?sort=cost&maxCost=50
+     */
+    @GetMapping(value = "", params = { "sort", "!names", "!sinceVersion", "!stream" })
+    public ResponseEntity<Page<Need>> findNeedsInRange(@RequestParam String sort,
+            @RequestParam(required = false) Double minCost, @RequestParam(required = false) Double maxCost,
+            @RequestParam(required = false) Integer minQuantity, @RequestParam(required = false) Integer maxQuantity,
+            @RequestParam(required = false) String cursor, @RequestParam(defaultValue = "100") int limit) {
+        LOG.info("GET /needs?sort=" + sort + "&minCost=" + minCost + "&maxCost=" + maxCost + "&minQuantity="
+                + minQuantity + "&maxQuantity=" + maxQuantity + "&limit=" + limit + "&cursor=" + cursor);
+        try {
+            NeedOrder order = NeedOrder.parse(sort);
+            Double min;
+            Double max;
+            if (order == NeedOrder.COST && minQuantity == null && maxQuantity == null) {
+                min = minCost;
+                max = maxCost;
+            } else if (order == NeedOrder.QUANTITY && minCost == null && maxCost == null) {
+                min = minQuantity != null ? Double.valueOf(minQuantity) : null;
+                max = maxQuantity != null ? Double.valueOf(maxQuantity) : null;
+            } else
+                return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+            return new ResponseEntity<Page<Need>>(needDao.findNeedsInRange(order, min, max, cursor, limit),
+                    HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
         } catch (IOException e) {
             LOG.log(Level.SEVERE, e.getLocalizedMessage());
             return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
@@ -94,28 +337,168 @@ public class NeedController {
      * contains
      * the text in name
      * 
-     * @param name The name parameter which contains the text used to find the
-     *             {@link Need needs}
+     * @param name       The name parameter which contains the text used to find
+     *                   the {@link Need needs}
+     * @param ignoreCase Whether differences in case are ignored, false by default
      * 
      * @return ResponseEntity with array of {@link Need need} objects (may be empty)
      *         and
      *         HTTP status of OK<br>
      *         ResponseEntity with HTTP status of INTERNAL_SERVER_ERROR otherwise
      *         <p>
-     *         Example: Find all needs whose name contain the text "ma"
-     *         GET http://localhost:8080/needs/?name=ma
+     *         Example: Find all needs whose name contain the text "ma" in any case
+     *         GET http://localhost:8080/needs/?name=ma&ignoreCase=true
      */
     @GetMapping("/")
-    public ResponseEntity<Need[]> searchNeeds(@RequestParam String name) {
-        LOG.info("GET /needs/?name=" + name);
+    public ResponseEntity<Need[]> searchNeeds(@RequestParam String name,
+            @RequestParam(defaultValue = "false") boolean ignoreCase) {
+        LOG.info("GET /needs/?name=" + name + "&ignoreCase=" + ignoreCase);
+        try {
+            return new ResponseEntity<Need[]>(needDao.findNeeds(name, ignoreCase), HttpStatus.OK);
+        } catch (IOException e) {
+            LOG.log(Level.SEVERE, e.getLocalizedMessage());
+            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    /**
+     * Responds to the GET request for all {@linkplain Need needs} whose name
+     * contains the text in name, writing each one to the response as it is
+     * serialized
+     * 
+     * @param name       The name parameter which contains the text used to find
+     *                   the {@link Need needs}
+     * @param ignoreCase Whether differences in case are ignored, false by default
+     * @param accept     The Accept header, asking for one {@link Need need} per
+     *                   line if it includes application/x-ndjson
+     * 
+     * @return ResponseEntity streaming the matching {@link Need need} objects and
+     *         HTTP status of OK<br>
+     *         ResponseEntity with HTTP status of INTERNAL_SERVER_ERROR otherwise
+     *         <p>
+     *         Example: Stream all needs whose name contain the text "ma"
+     *         GET http://localhost:8080/needs/?name=ma&stream
+     */
+    @GetMapping(value = "/", params = "stream")
+    public ResponseEntity<StreamingResponseBody> streamSearchNeeds(@RequestParam String name,
+            @RequestParam(defaultValue = "false") boolean ignoreCase,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        LOG.info("GET /needs/?name=" + name + "&ignoreCase=" + ignoreCase + "&stream");
+        try {
+            Need[] needs = needDao.findNeeds(name, ignoreCase);
+            return streamer.stream(accept, sink -> {
+                for (Need need : needs)
+                    sink.accept(need);
+            });
+        } catch (IOException e) {
+            LOG.log(Level.SEVERE, e.getLocalizedMessage());
+            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    /**
+     * Responds to the GET request for the names of {@linkplain Need needs}
+     * starting with the given prefix, for search-as-you-type
+     * 
+     * @param prefix The text every suggested name starts with
+     * @param limit  The most names to suggest, 10 by default
+     * @param sort   How the best suggestions are ranked: name, quantity (most
+     *               remaining first) or cost (cheapest first), name by default
+     * 
+     * @return ResponseEntity with array of {@link Need need} names (may be empty)
+     *         and HTTP status of OK<br>
+     *         ResponseEntity with HTTP status of BAD_REQUEST if the limit is
+     *         negative or the sort is unknown<br>
+     *         ResponseEntity with HTTP status of INTERNAL_SERVER_ERROR otherwise
+     *         <p>
+     *         Example: Suggest the five needs starting with "ca" with the most
+     *         remaining
+     *         GET http://localhost:8080/needs/suggest?prefix=ca&limit=5&sort=quantity
+     */
+    @GetMapping("/suggest")
+    public ResponseEntity<String[]> suggestNeeds(@RequestParam String prefix,
+            @RequestParam(defaultValue = "10") int limit, @RequestParam(defaultValue = "name") String sort) {
+        LOG.info("GET /needs/suggest?prefix=" + prefix + "&limit=" + limit + "&sort=" + sort);
+        NeedOrder order;
+        try {
+            order = NeedOrder.parse(sort);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        if (limit < 0)
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+
         try {
-            return new ResponseEntity<Need[]>(needDao.findNeeds(name), HttpStatus.OK);
+            return new ResponseEntity<String[]>(needDao.suggestNeeds(prefix, limit, order), HttpStatus.OK);
         } catch (IOException e) {
             LOG.log(Level.SEVERE, e.getLocalizedMessage());
             return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
         }
     }
 
+    /**
+     * Responds to the GET request for totals and distributions over every
+     * {@linkplain Need need}
+     * 
+     * @return ResponseEntity with the {@link NeedStats stats} of the cupboard and
+     *         HTTP status of OK<br>
+     *         ResponseEntity with HTTP status of INTERNAL_SERVER_ERROR otherwise
+     *         <p>
+     *         Example: Get the value of the cupboard
+     *         GET http://localhost:8080/needs/stats
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<NeedStats> getNeedStats() {
+        LOG.info("GET /needs/stats");
+        try {
+            return new ResponseEntity<NeedStats>(needDao.getNeedStats(), HttpStatus.OK);
+        } catch (IOException e) {
+            LOG.log(Level.SEVERE, e.getLocalizedMessage());
+            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    /**
+     * Responds to the GET request for the totals of the cupboard an admin
+     * dashboard shows
+     * 
+     * @return ResponseEntity with the {@link NeedSummary summary} of the cupboard
+     *         and HTTP status of OK<br>
+     *         ResponseEntity with HTTP status of INTERNAL_SERVER_ERROR otherwise
+     *         <p>
+     *         Example: Get the outstanding cost and low stock needs
+     *         GET http://localhost:8080/needs/summary
+     */
+    @GetMapping("/summary")
+    public ResponseEntity<NeedSummary> getNeedSummary() {
+        LOG.info("GET /needs/summary");
+        try {
+            return new ResponseEntity<NeedSummary>(needDao.getNeedSummary(), HttpStatus.OK);
+        } catch (IOException e) {
+            LOG.log(Level.SEVERE, e.getLocalizedMessage());
+            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    /**
+     * Responds to the GET request for a stream of changes to the
+     * {@linkplain Need needs}, replacing polling
+     * 
+     * @return ResponseEntity with a Server-Sent Event stream and HTTP status of
+     *         OK. The stream starts with a version event holding the current
+     *         version, followed by a created, updated or deleted event for every
+     *         change with the resulting version as its id. Subscribers which fall
+     *         too far behind are disconnected and should re-fetch the needs
+     *         <p>
+     *         Example: Watch the cupboard
+     *         GET http://localhost:8080/needs/stream
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamChanges() {
+        LOG.info("GET /needs/stream");
+        return new ResponseEntity<SseEmitter>(changeStream.subscribe(), HttpStatus.OK);
+    }
+
     /**
      * Creates a {@linkplain Need need} with the provided need object
      * 
@@ -124,7 +507,7 @@ public class NeedController {
      * @return ResponseEntity with created {@link Need need} object and HTTP status
      *         of CREATED<br>
      *         ResponseEntity with HTTP status of CONFLICT if {@link Need need}
-     *         object already exists<br>
+     *         object already exists, or its name is taken by a /needs route<br>
      *         ResponseEntity with HTTP status of INTERNAL_SERVER_ERROR otherwise
      */
     @PostMapping("")
@@ -145,22 +528,111 @@ public class NeedController {
      * Updates the {@linkplain Need need} with the provided {@linkplain Need need}
      * object, if it exists
      * 
-     * @param need The {@link Need need} to update
+     * @param need    The {@link Need need} to update
+     * @param ifMatch The If-Match header, holding the entity tag of the
+     *                {@link Need need} the update was based on, null to update
+     *                unconditionally
      * 
-     * @return ResponseEntity with updated {@link Need need} object and HTTP status
-     *         of OK if updated<br>
+     * @return ResponseEntity with updated {@link Need need} object, its new
+     *         entity tag and HTTP status of OK if updated<br>
      *         ResponseEntity with HTTP status of NOT_FOUND if not found<br>
+     *         ResponseEntity with HTTP status of PRECONDITION_FAILED if the
+     *         {@link Need need} does not exist or has changed since the
+     *         client's tag<br>
      *         ResponseEntity with HTTP status of INTERNAL_SERVER_ERROR otherwise
      */
     @PutMapping("")
-    public ResponseEntity<Need> updateNeed(@RequestBody Need need) {
+    public ResponseEntity<Need> updateNeed(@RequestBody Need need,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         LOG.info("PUT /needs " + need);
         try {
-            Need updatedNeed = needDao.updateNeed(need);
+            Need updatedNeed;
+            if (ifMatch == null)
+                updatedNeed = needDao.updateNeed(need);
+            else {
+                // The tag is checked against the need read here, and the update
+                // only applies if the need is still at that version
+                Need current = needDao.getNeed(need.getName());
+                if (current == null || !ETags.matchesStrongly(ifMatch, ETags.of(current.getVersion())))
+                    return new ResponseEntity<>(HttpStatus.PRECONDITION_FAILED);
+                updatedNeed = needDao.updateNeed(need, current.getVersion());
+                if (updatedNeed == null)
+                    return new ResponseEntity<>(HttpStatus.PRECONDITION_FAILED); // deleted since
+            }
             if (updatedNeed != null)
-                return new ResponseEntity<Need>(updatedNeed, HttpStatus.OK);
+                return ETags.ok(updatedNeed, ETags.of(updatedNeed.getVersion()));
             else
                 return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        } catch (NeedVersionConflictException e) {
+            LOG.log(Level.SEVERE, e.getLocalizedMessage());
+            return new ResponseEntity<>(HttpStatus.PRECONDITION_FAILED);
+        } catch (IOException e) {
+            LOG.log(Level.SEVERE, e.getLocalizedMessage());
+            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    /**
+     * Creates every {@linkplain Need need} in the request body, or none of them
+     * 
+     * @param contentType The Content-Type header, either JSON, newline delimited
+     *                    JSON or CSV
+     * @param body        The {@link Need needs} to create
+     * 
+     * @return ResponseEntity with the {@link NeedBatchResult result} of each
+     *         {@link Need need} and HTTP status of CREATED if all were
+     *         created<br>
+     *         ResponseEntity with the {@link NeedBatchResult results} and HTTP
+     *         status of CONFLICT if any could not be, in which case none were<br>
+     *         ResponseEntity with HTTP status of BAD_REQUEST if the body is
+     *         malformed<br>
+     *         ResponseEntity with HTTP status of INTERNAL_SERVER_ERROR otherwise
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<NeedBatchResult[]> createNeeds(
+            @RequestHeader(value = HttpHeaders.CONTENT_TYPE, required = false) String contentType,
+            InputStream body) {
+        LOG.info("POST /needs/batch");
+        return applyBatch(contentType, body, true);
+    }
+
+    /**
+     * Updates every {@linkplain Need need} in the request body, or none of them
+     * 
+     * @param contentType The Content-Type header, either JSON, newline delimited
+     *                    JSON or CSV
+     * @param body        The {@link Need needs} to update
+     * 
+     * @return ResponseEntity with the {@link NeedBatchResult result} of each
+     *         {@link Need need} and HTTP status of OK if all were updated<br>
+     *         ResponseEntity with the {@link NeedBatchResult results} and HTTP
+     *         status of CONFLICT if any could not be, in which case none were<br>
+     *         ResponseEntity with HTTP status of BAD_REQUEST if the body is
+     *         malformed<br>
+     *         ResponseEntity with HTTP status of INTERNAL_SERVER_ERROR otherwise
+     */
+    @PutMapping("/batch")
+    public ResponseEntity<NeedBatchResult[]> updateNeeds(
+            @RequestHeader(value = HttpHeaders.CONTENT_TYPE, required = false) String contentType,
+            InputStream body) {
+        LOG.info("PUT /needs/batch");
+        return applyBatch(contentType, body, false);
+    }
+
+    /**
+     * Reads a batch of {@linkplain Need needs} and creates or updates them
+     */
+    private ResponseEntity<NeedBatchResult[]> applyBatch(String contentType, InputStream body, boolean create) {
+        try {
+            List<Need> batch = batchReader.read(contentType, body);
+            NeedBatchResult[] results = create ? needDao.createNeeds(batch) : needDao.updateNeeds(batch);
+            for (NeedBatchResult result : results)
+                if (!result.getStatus().isSuccess())
+                    return new ResponseEntity<NeedBatchResult[]>(results, HttpStatus.CONFLICT);
+            return new ResponseEntity<NeedBatchResult[]>(results, create ? HttpStatus.CREATED : HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            LOG.log(Level.SEVERE, e.getLocalizedMessage());
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
         } catch (IOException e) {
             LOG.log(Level.SEVERE, e.getLocalizedMessage());
             return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
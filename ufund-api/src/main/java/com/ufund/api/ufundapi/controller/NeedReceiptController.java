@@ -5,15 +5,23 @@ import java.util.Map;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 import com.ufund.api.ufundapi.model.Need;
 import com.ufund.api.ufundapi.model.NeedReceipt;
+import com.ufund.api.ufundapi.model.Page;
 import com.ufund.api.ufundapi.model.Supporter;
 import com.ufund.api.ufundapi.persistence.NeedReceiptDAO;
 
@@ -27,17 +35,32 @@ import com.ufund.api.ufundapi.persistence.NeedReceiptDAO;
 public class NeedReceiptController {
     private static final Logger LOG = Logger.getLogger(NeedReceiptController.class.getName());
     private final NeedReceiptDAO needReceiptDao;
+    private final JsonStreamer streamer;
+
+    /**
+     * Creates a REST API controller to reponds to requests, streaming with a default object mapper
+     * 
+     * @param needReceiptDao The {@link NeedReceiptDAO Need Receipt Data Access Object} to perform CRUD
+     *                operations
+     */
+    public NeedReceiptController(NeedReceiptDAO needReceiptDao) {
+        this(needReceiptDao, new ObjectMapper());
+    }
 
     /**
      * Creates a REST API controller to reponds to requests
      * 
      * @param needReceiptDao The {@link NeedReceiptDAO Need Receipt Data Access Object} to perform CRUD
      *                operations
+     * 
+     * @param objectMapper Serializes streamed {@link NeedReceipt needReceipts} the same way as buffered responses
      *                <br>
-     *                This dependency is injected by the Spring Framework
+     *                These dependencies are injected by the Spring Framework
      */
-    public NeedReceiptController(NeedReceiptDAO needReceiptDao) {
+    @Autowired
+    public NeedReceiptController(NeedReceiptDAO needReceiptDao, ObjectMapper objectMapper) {
         this.needReceiptDao = needReceiptDao;
+        this.streamer = new JsonStreamer(objectMapper);
     }
     
     /**
@@ -65,15 +88,75 @@ public class NeedReceiptController {
     /**
      * Responds to the GET request to retrieve all {@linkplain NeedReceipt needReceipts}
      * 
+     * @param ifNoneMatch The If-None-Match header, holding the entity tag of the
+     *                    {@link NeedReceipt needReceipts} the client already has
+     * 
      * @return ResponseEntity with {@link NeedReceipt needReceipt} objects and HTTP status of OK 
      *          <br>
+     *         ResponseEntity with HTTP status of NOT_MODIFIED if the client's {@link NeedReceipt needReceipts} are current
+     *          <br>
      *         ResponseEntity with HTTP status of INTERNAL_SERVER_ERROR otherwise
      */
     @GetMapping("")
-    public ResponseEntity<NeedReceipt[]> getNeedReceipts() {
+    public ResponseEntity<NeedReceipt[]> getNeedReceipts(@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         LOG.info("GET /receipts");
         try {
-            return new ResponseEntity<>(needReceiptDao.getReceipts(), HttpStatus.OK);
+            String etag = ETags.of(needReceiptDao.getVersion());
+            if (ETags.matches(ifNoneMatch, etag))
+                return ETags.notModified(etag);
+            return ETags.ok(needReceiptDao.getReceipts(), etag);
+        } catch (IOException e) {
+            LOG.log(Level.SEVERE, e.getLocalizedMessage());
+            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    /**
+     * Responds to the GET request to retrieve all {@linkplain NeedReceipt needReceipts}, writing them to
+     * the response a page at a time so the ledger is never copied whole
+     * 
+     * @param accept The Accept header, asking for one {@link NeedReceipt needReceipt} per line if it
+     *               includes application/x-ndjson
+     * 
+     * @return ResponseEntity streaming the {@link NeedReceipt needReceipt} objects and HTTP status of OK
+     *          <br>
+     *         The body is cut short if the receipts cannot be read part way through
+     */
+    @GetMapping(value = "", params = "stream")
+    public ResponseEntity<StreamingResponseBody> streamNeedReceipts(@RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        LOG.info("GET /receipts?stream");
+        return streamer.stream(accept, sink -> {
+            String cursor = null;
+            do {
+                Page<NeedReceipt> page = needReceiptDao.getReceipts(cursor, Page.MAX_LIMIT);
+                for (NeedReceipt needReceipt : page.getItems())
+                    sink.accept(needReceipt);
+                cursor = page.getNext();
+            } while (cursor != null);
+        });
+    }
+
+    /**
+     * Responds to the GET request to retrieve one page of {@linkplain NeedReceipt needReceipts},
+     * ordered by supporter username then {@linkplain Need need} name
+     * 
+     * @param cursor The cursor returned with the previous page, omitted for the first page
+     * 
+     * @param limit The most {@link NeedReceipt needReceipts} on the page
+     * 
+     * @return ResponseEntity with a {@link Page page} of {@link NeedReceipt needReceipt} objects and HTTP status of OK
+     *          <br>
+     *         ResponseEntity with HTTP status of BAD_REQUEST if the cursor or limit is invalid
+     *          <br>
+     *         ResponseEntity with HTTP status of INTERNAL_SERVER_ERROR otherwise
+     */
+    @GetMapping(value = "", params = "limit")
+    public ResponseEntity<Page<NeedReceipt>> getNeedReceipts(@RequestParam(required = false) String cursor, @RequestParam int limit) {
+        LOG.info("GET /receipts?limit=" + limit + "&cursor=" + cursor);
+        try {
+            return new ResponseEntity<>(needReceiptDao.getReceipts(cursor, limit), HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
         } catch (IOException e) {
             LOG.log(Level.SEVERE, e.getLocalizedMessage());
             return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
@@ -83,14 +166,22 @@ public class NeedReceiptController {
     /**
      * Responds to the GET request to retrieve all {@linkplain NeedReceipt needReceipts} of the given supporter
      * 
+     * @param supporterUsername The username of the {@link Supporter supporter} whose receipts to get
+     * 
+     * @param ifNoneMatch The If-None-Match header, holding the entity tag of the
+     *                    {@link NeedReceipt needReceipts} the client already has
+     * 
      * @return ResponseEntity with {@link NeedReceipt needReceipt} objects and HTTP status of OK 
      *          <br>
-     *         ResponseEntity with HTTP status of INTERNAL_SERVER_ERROR otherwise
+     *         ResponseEntity with HTTP status of NOT_MODIFIED if the client's {@link NeedReceipt needReceipts} are current
      */
     @GetMapping("/{supporterUsername}")
-    public ResponseEntity<NeedReceipt[]> getNeedReceipts(@PathVariable String supporterUsername) {
+    public ResponseEntity<NeedReceipt[]> getNeedReceipts(@PathVariable String supporterUsername, @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         LOG.info("GET /receipts/" + supporterUsername);
-        return new ResponseEntity<>(needReceiptDao.getReceipts(supporterUsername), HttpStatus.OK);
+        String etag = ETags.of(needReceiptDao.getVersion());
+        if (ETags.matches(ifNoneMatch, etag))
+            return ETags.notModified(etag);
+        return ETags.ok(needReceiptDao.getReceipts(supporterUsername), etag);
     }
 
     /**
@@ -1,11 +1,13 @@
 package com.ufund.api.ufundapi.controller;
 
 import java.io.IOException;
+import java.util.List;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import javax.management.openmbean.KeyAlreadyExistsException;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -14,6 +16,7 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -24,6 +27,7 @@ import com.ufund.api.ufundapi.model.Need;
 import com.ufund.api.ufundapi.model.NeedMessage;
 import com.ufund.api.ufundapi.model.Supporter;
 import com.ufund.api.ufundapi.model.User;
+import com.ufund.api.ufundapi.persistence.NeedDAO;
 import com.ufund.api.ufundapi.persistence.UserDAO;
 
 /**
@@ -36,18 +40,48 @@ import com.ufund.api.ufundapi.persistence.UserDAO;
 @RequestMapping("users")
 public class UserController {
     private static final Logger LOG = Logger.getLogger(UserController.class.getName());
+    /**
+     * The header carrying the session token issued at login, which every
+     * request acting for the signed in user sends back
+     */
+    public static final String SESSION_HEADER = "Session-Token";
     private final UserDAO userDAO;
 
+    private final NeedDAO needDAO;
+
     /**
      * Creates a REST API controller to reponds to requests
      * 
      * @param userDAO The {@link UserDAO User Data Access Object} to perform CRUD
      *                operations
+     * 
+     * @param needDAO The {@link NeedDAO Need Data Access Object} the basket is
+     *                checked against
      *                <br>
-     *                This dependency is injected by the Spring Framework
+     *                These dependencies are injected by the Spring Framework
      */
-    public UserController(UserDAO userDAO) {
+    public UserController(UserDAO userDAO, NeedDAO needDAO) {
         this.userDAO = userDAO;
+        this.needDAO = needDAO;
+    }
+
+    /**
+     * Gets the {@linkplain Supporter supporter} signed in with the session,
+     * before any entity tag is compared, so a request which could not read the
+     * resource is never answered Not Modified
+     * 
+     * @param session The session token issued at login
+     * 
+     * @return The signed in {@link User user}, never the admin
+     * 
+     * @throws SupporterNotSignedInException if no supporter is signed in with
+     *                                       the session
+     */
+    private User getCurSupporter(String session) throws SupporterNotSignedInException {
+        User user = userDAO.getCurUser(session);
+        if (user.isAdmin())
+            throw new SupporterNotSignedInException();
+        return user;
     }
 
     /**
@@ -57,8 +91,9 @@ public class UserController {
      * 
      * @param username The username used to locate the {@link User user}
      * 
-     * @return ResponseEntity with {@link User user} object and HTTP status of OK if
-     *         found<br>
+     * @return ResponseEntity with {@link User user} object, the new session's
+     *         token in the {@value #SESSION_HEADER} header and HTTP status of OK
+     *         if found<br>
      *         ResponseEntity with HTTP status of NOT_FOUND if not found<br>
      *         ResponseEntity with HTTP status of INTERNAL_SERVER_ERROR otherwise
      */
@@ -67,9 +102,11 @@ public class UserController {
         LOG.info("GET /users/" + username);
         try {
             User user = userDAO.getUser(username);
-            if (user != null) {
-                userDAO.loginUser(user);
-                return new ResponseEntity<User>(user, HttpStatus.OK);
+            String session = user != null ? userDAO.loginUser(user) : null;
+            if (session != null) {
+                HttpHeaders headers = new HttpHeaders();
+                headers.set(SESSION_HEADER, session);
+                return new ResponseEntity<User>(user, headers, HttpStatus.OK);
             } else
                 return new ResponseEntity<>(HttpStatus.NOT_FOUND);
         } catch (IOException e) {
@@ -107,15 +144,17 @@ public class UserController {
      * Responds to the GET request for a curUser with the current user's
      * username
      * 
+     * @param session The session token issued at login
+     * 
      * @return ResponseEntity with {@link User user} object and HTTP status of OK if
      *       user is logged in<br>
      *       ResponseEntity with HTTP status of FORBIDDEN otherwise
      */
     @GetMapping("/curUser")
-    public ResponseEntity<User> getCurUser() {
+    public ResponseEntity<User> getCurUser(@RequestHeader(value = SESSION_HEADER, required = false) String session) {
         LOG.info("GET /user/curUser");
         try {
-            User user = userDAO.getCurUser();
+            User user = userDAO.getCurUser(session);
             return new ResponseEntity<User>(user, HttpStatus.OK);
         } catch (SupporterNotSignedInException e) {
             LOG.log(Level.SEVERE, e.getLocalizedMessage());
@@ -128,12 +167,14 @@ public class UserController {
      * Responds to the GET request for logging out
      * Will log out the current user, if there is one
      * 
+     * @param session The session token issued at login
+     * 
      * @return ResponseEntity with a boolean value of True and HTTP status of OK
      */
     @GetMapping("/logout")
-    public ResponseEntity<Boolean> logout() {
+    public ResponseEntity<Boolean> logout(@RequestHeader(value = SESSION_HEADER, required = false) String session) {
         LOG.info("GET /logout");
-        userDAO.logoutCurUser();
+        userDAO.logoutCurUser(session);
         return new ResponseEntity<>(true, HttpStatus.OK);
     }
 
@@ -142,15 +183,28 @@ public class UserController {
     /**
      * Responds to the GET request for retreiving the current user's basket
      * 
+     * @param session     The session token issued at login
+     * 
+     * @param ifNoneMatch The If-None-Match header, holding the entity tag of the
+     *                    basket the client already has
+     * 
      * @return ResponseEntity with list of {@link Need need} keys and a status of OK
      *         if supporter is signed in<br>
+     *         ResponseEntity with HTTP status of NOT_MODIFIED if the client's
+     *         basket is current<br>
      *         ResponseEntity with HTTP status of FORBIDDEN otherwise
      */
     @GetMapping("/basket")
-    public ResponseEntity<Need[]> getCurBasket() {
+    public ResponseEntity<Need[]> getCurBasket(@RequestHeader(value = SESSION_HEADER, required = false) String session,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         LOG.info("GET /basket");
         try {
-            return new ResponseEntity<Need[]>(userDAO.getCurBasket(), HttpStatus.OK);
+            // Baskets are trimmed to the cupboard, so they change with either
+            String etag = ETags.of(getCurSupporter(session).getUsername(), userDAO.getVersion(),
+                    needDAO.getVersion());
+            if (ETags.matches(ifNoneMatch, etag))
+                return ETags.notModified(etag);
+            return ETags.ok(userDAO.getCurBasket(session), etag);
         } catch (SupporterNotSignedInException e) {
             LOG.log(Level.SEVERE, e.getLocalizedMessage());
             return new ResponseEntity<>(HttpStatus.FORBIDDEN);
@@ -163,6 +217,8 @@ public class UserController {
     /**
      * Responds to the Get request for getting a {@linkplain Need need} in the current user's basket
      * 
+     * @param session The session token issued at login
+     * 
      * @param needName The name of the {@link Need need} in the basket
      * 
      * @return ResponseEntity with a {@link Need need} and HTTP status of OK if the
@@ -174,10 +230,10 @@ public class UserController {
      *         ResponseEntity with HTTP status of INTERNAL_SERVER_ERROR otherwise
      */
     @GetMapping("/basket/{needKey}")
-    public ResponseEntity<BasketNeed> getBasketNeed(@PathVariable String needKey){
+    public ResponseEntity<BasketNeed> getBasketNeed(@RequestHeader(value = SESSION_HEADER, required = false) String session, @PathVariable String needKey){
         LOG.info("GET /basket/" + needKey);
         try {
-            return new ResponseEntity<BasketNeed>(userDAO.getBasketOrNormalNeed(needKey), HttpStatus.OK);
+            return new ResponseEntity<BasketNeed>(userDAO.getBasketOrNormalNeed(session, needKey), HttpStatus.OK);
         } catch (SupporterNotSignedInException e) {
             LOG.log(Level.SEVERE, e.getLocalizedMessage());
             return new ResponseEntity<>(HttpStatus.FORBIDDEN);
@@ -193,6 +249,8 @@ public class UserController {
     /**
      * Responds to the PUT request for updating a {@linkplain Need need} in the current user's basket
      * 
+     * @param session The session token issued at login
+     * 
      * @param needName The name of the {@link Need need} to add to the basket
      * 
      * @param quantity The quantity of the {@link Need need} to update the basket to
@@ -207,10 +265,10 @@ public class UserController {
      *         ResponseEntity with HTTP status of INTERNAL_SERVER_ERROR otherwise
      */
     @PutMapping("/basket")
-    public ResponseEntity<Void> updateNeedInBasket(@RequestBody Need need) {
+    public ResponseEntity<Void> updateNeedInBasket(@RequestHeader(value = SESSION_HEADER, required = false) String session, @RequestBody Need need) {
         LOG.info("PUT update need in basket: " + need);
         try {
-            userDAO.updateNeedInCurBasket(need.getName(), need.getQuantity());
+            userDAO.updateNeedInCurBasket(session, need.getName(), need.getQuantity());
             return new ResponseEntity<>(HttpStatus.OK);
         } catch (SupporterNotSignedInException e) {
             LOG.log(Level.SEVERE, e.getLocalizedMessage());
@@ -228,6 +286,8 @@ public class UserController {
      * Responds to the DELETE request for removing a {@linkplain Need need} from the
      * current user's basket based on the {@link Need need}'s name
      * 
+     * @param session The session token issued at login
+     * 
      * @param needName The name of the {@link Need need} to remove from the basket
      * 
      * @return ResponseEntity with an HTTP status of OK if
@@ -240,10 +300,10 @@ public class UserController {
      *         ResponseEntity with HTTP status of INTERNAL_SERVER_ERROR otherwise
      */
     @DeleteMapping("/basket/{needKey}")
-    public ResponseEntity<Void> removeFromBasket(@PathVariable String needKey) {
+    public ResponseEntity<Void> removeFromBasket(@RequestHeader(value = SESSION_HEADER, required = false) String session, @PathVariable String needKey) {
         LOG.info("DELETE /basket/" + needKey);
         try {
-            userDAO.updateNeedInCurBasket(needKey, 0);
+            userDAO.updateNeedInCurBasket(session, needKey, 0);
             return new ResponseEntity<>(HttpStatus.OK);
         } catch (SupporterNotSignedInException e) {
             LOG.log(Level.SEVERE, e.getLocalizedMessage());
@@ -260,6 +320,8 @@ public class UserController {
     /**
      * Responds to the GET request for checking out the current user's basket
      * 
+     * @param session The session token issued at login
+     * 
      * @return ResponseEntity with an HTTP status of OK and body of true if the basket was checked
      *         out<br>
      *         ResponseEntity with HTTP status of FORBIDDEN if no supporter is
@@ -267,10 +329,10 @@ public class UserController {
      *         ResponseEntity with HTTP status of INTERNAL_SERVER_ERROR otherwise
      */
     @GetMapping("/checkout")
-    public ResponseEntity<Boolean> checkoutBasket() {
+    public ResponseEntity<Boolean> checkoutBasket(@RequestHeader(value = SESSION_HEADER, required = false) String session) {
         LOG.info("GET /checkout");
         try {
-            return new ResponseEntity<>(userDAO.checkoutCurBasket(), HttpStatus.OK);
+            return new ResponseEntity<>(userDAO.checkoutCurBasket(session), HttpStatus.OK);
         } catch (SupporterNotSignedInException e) {
             LOG.log(Level.SEVERE, e.getLocalizedMessage());
             return new ResponseEntity<>(HttpStatus.FORBIDDEN);
@@ -284,15 +346,29 @@ public class UserController {
      * Responds to the GET request for getting the {@linkplain Need needs} which are
      * available to add to the current user's basket
      * 
+     * @param session     The session token issued at login
+     * 
+     * @param ifNoneMatch The If-None-Match header, holding the entity tag of the
+     *                    needs the client already has
+     * 
      * @return ResponseEntity with list of {@link Need need} objects and a status of
      *         OK if supporter is signed in<br>
+     *         ResponseEntity with HTTP status of NOT_MODIFIED if the client's
+     *         needs are current<br>
      *         ResponseEntity with HTTP status of FORBIDDEN otherwise
      */
     @GetMapping("/basketable")
-    public ResponseEntity<Need[]> getBasketableNeeds() {
+    public ResponseEntity<List<Need>> getBasketableNeeds(
+            @RequestHeader(value = SESSION_HEADER, required = false) String session,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         LOG.info("GET /basketable");
         try {
-            return new ResponseEntity<Need[]>(userDAO.getBasketableNeeds(), HttpStatus.OK);
+            // The cupboard less the basket, so it changes with either
+            String etag = ETags.of(getCurSupporter(session).getUsername(), userDAO.getVersion(),
+                    needDAO.getVersion());
+            if (ETags.matches(ifNoneMatch, etag))
+                return ETags.notModified(etag);
+            return ETags.ok(userDAO.getBasketableNeeds(session), etag);
         } catch (SupporterNotSignedInException e) {
             LOG.log(Level.SEVERE, e.getLocalizedMessage());
             return new ResponseEntity<>(HttpStatus.FORBIDDEN);
@@ -305,15 +381,26 @@ public class UserController {
     /**
      * Responds to the GET request for getting the {@linkplain NeedMessage message}s the current user has
      * 
+     * @param session     The session token issued at login
+     * 
+     * @param ifNoneMatch The If-None-Match header, holding the entity tag of the
+     *                    inbox the client already has
+     * 
      * @return ResponseEntity with list of {@link NeedMessage message} objects and a status of
      *         OK if supporter is signed in<br>
+     *         ResponseEntity with HTTP status of NOT_MODIFIED if the client's
+     *         inbox is current<br>
      *         ResponseEntity with HTTP status of FORBIDDEN otherwise
      */
     @GetMapping("/inbox")
-    public ResponseEntity<NeedMessage[]> getInbox() {
+    public ResponseEntity<NeedMessage[]> getInbox(@RequestHeader(value = SESSION_HEADER, required = false) String session,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         LOG.info("GET /inbox");
         try {
-            return new ResponseEntity<NeedMessage[]>(userDAO.getCurMessages(), HttpStatus.OK);
+            String etag = ETags.of(getCurSupporter(session).getUsername(), userDAO.getVersion());
+            if (ETags.matches(ifNoneMatch, etag))
+                return ETags.notModified(etag);
+            return ETags.ok(userDAO.getCurMessages(session), etag);
         } catch (SupporterNotSignedInException e) {
             LOG.log(Level.SEVERE, e.getLocalizedMessage());
             return new ResponseEntity<>(HttpStatus.FORBIDDEN);
@@ -346,16 +433,18 @@ public class UserController {
     /**
      * Responds to the DELETE request for deleting a {@linkplain NeedMessage message} from the current user
      * 
+     * @param session The session token issued at login
+     * 
      * @param needName The name of the {@link Need need} to send
      * 
      * @return ResponseEntity with an HTTP status of OK if the message was sent<br>
      *         ResponseEntity with HTTP status of INTERNAL_SERVER_ERROR otherwise
      */
     @DeleteMapping("/inbox/{needName}")
-    public ResponseEntity<Void> deleteMessage(@PathVariable String needName) {
+    public ResponseEntity<Void> deleteMessage(@RequestHeader(value = SESSION_HEADER, required = false) String session, @PathVariable String needName) {
         LOG.info("DELETE /inbox/" + needName);
         try {
-            userDAO.deleteCurMessage(needName);
+            userDAO.deleteCurMessage(session, needName);
             return new ResponseEntity<>(HttpStatus.OK);
         } catch (IOException e) {
             LOG.log(Level.SEVERE, e.getLocalizedMessage());
@@ -0,0 +1,14 @@
+package com.ufund.api.ufundapi.exceptions;
+
+/**
+ * Defines the exception thrown when a need was changed since the version a
+ * conditional write expected
+ *
+ * @author Ethan Hartman
+ */
+public class NeedVersionConflictException extends Exception {
+    private static final String MESSAGE = "Need with the given key '%s' is at version %d, not %d";
+    public NeedVersionConflictException(String key, long expectedVersion, long actualVersion) {
+        super(String.format(MESSAGE, key, actualVersion, expectedVersion));
+    }
+}
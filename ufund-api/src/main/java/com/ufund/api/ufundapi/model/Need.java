@@ -1,5 +1,6 @@
 package com.ufund.api.ufundapi.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
 /**
@@ -18,6 +19,8 @@ public class Need implements Comparable<Need>{
     private double cost;
     @JsonProperty("quantity")
     private int quantity;
+    @JsonIgnore
+    private long version; // Version of the needs this need was last written at, stamped by the DAO
 
     /**
      * Create a need with the given name, cost, quantity
@@ -52,6 +55,16 @@ public class Need implements Comparable<Need>{
         this.quantity = quantity;
     }
 
+    /**
+     * Stamps the need with the version of the needs it was written at
+     * 
+     * @param version The version the need was written at
+     */
+    @JsonIgnore
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
     /**
      * Retrieves the name of the need
      * 
@@ -81,6 +94,17 @@ public class Need implements Comparable<Need>{
         return quantity;
     }
 
+    /**
+     * Retrieves the version the need was last written at, which changes with
+     * every write to it and is not serialized
+     * 
+     * @return The version of the need
+     */
+    @JsonIgnore
+    public long getVersion() {
+        return version;
+    }
+
     /**
      * {@inheritDoc}
      */
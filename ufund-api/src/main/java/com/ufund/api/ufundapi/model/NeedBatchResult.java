@@ -0,0 +1,85 @@
+package com.ufund.api.ufundapi.model;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Represents the outcome of a single {@linkplain Need need} in a batch import
+ * or update
+ * <br>
+ * Batches are all-or-nothing: when any item fails, every other item is
+ * reported as {@link Status#VALID valid} but nothing is applied.
+ *
+ * @author Ethan Hartman
+ */
+public class NeedBatchResult {
+    static final String STRING_FORMAT = "Need Batch Result [index=%d,name=%s,status=%s]";
+
+    /**
+     * The outcome of a batch item
+     */
+    public enum Status {
+        CREATED, // The need was created
+        UPDATED, // The need was updated
+        VALID, // The need could be applied, but another item failed
+        INVALID, // The need has no name, or a negative cost or quantity
+        DUPLICATE, // An earlier item in the batch has the same name
+        CONFLICT, // A need with the same name already exists, or the name is taken by a /needs route
+        NOT_FOUND; // No need with the name exists to update
+
+        /**
+         * @return whether the item can be applied
+         */
+        public boolean isSuccess() {
+            return this == CREATED || this == UPDATED || this == VALID;
+        }
+    }
+
+    @JsonProperty("index") private int index;
+    @JsonProperty("name") private String name;
+    @JsonProperty("status") private Status status;
+
+    /**
+     * Create a result for the batch item at the given index
+     *
+     * @param index  The position of the {@link Need need} in the batch
+     *
+     * @param name   The name of the {@link Need need}, may be null
+     *
+     * @param status The {@link Status outcome} of the item
+     */
+    public NeedBatchResult(@JsonProperty("index") int index, @JsonProperty("name") String name,
+            @JsonProperty("status") Status status) {
+        this.index = index;
+        this.name = name;
+        this.status = status;
+    }
+
+    /**
+     * @return the position of the {@linkplain Need need} in the batch
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    /**
+     * @return the name of the {@linkplain Need need}, may be null
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return the outcome of the item
+     */
+    public Status getStatus() {
+        return status;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return String.format(STRING_FORMAT, index, name, status);
+    }
+}
@@ -0,0 +1,75 @@
+package com.ufund.api.ufundapi.model;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Represents a single change to the {@linkplain Need needs}, tagged with the
+ * version it produced
+ *
+ * @author Ethan Hartman
+ */
+public class NeedChange {
+    static final String STRING_FORMAT = "Need Change [type=%s,version=%d,need=%s]";
+
+    /**
+     * The kind of change
+     */
+    public enum Type {
+        CREATED, // The need was created
+        UPDATED, // The need's cost or quantity changed
+        DELETED; // The need was removed, the change holds its last state
+    }
+
+    @JsonProperty("type") private Type type;
+    @JsonProperty("version") private long version;
+    @JsonProperty("need") private Need need;
+
+    /**
+     * Create a change to the given {@linkplain Need need}
+     *
+     * @param type    The {@link Type kind} of change
+     *
+     * @param version The version of the {@link Need needs} once the change was
+     *                applied
+     *
+     * @param need    The {@link Need need} after the change, or before it for
+     *                deletions
+     */
+    public NeedChange(@JsonProperty("type") Type type, @JsonProperty("version") long version,
+            @JsonProperty("need") Need need) {
+        this.type = type;
+        this.version = version;
+        this.need = need;
+    }
+
+    /**
+     * @return the kind of change
+     */
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * @return the version of the {@linkplain Need needs} once the change was
+     *         applied
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * @return the {@linkplain Need need} after the change, or before it for
+     *         deletions
+     */
+    public Need getNeed() {
+        return need;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return String.format(STRING_FORMAT, type, version, need);
+    }
+}
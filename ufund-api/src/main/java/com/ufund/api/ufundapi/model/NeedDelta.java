@@ -0,0 +1,98 @@
+package com.ufund.api.ufundapi.model;
+
+import java.util.Arrays;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Represents the changes to the {@linkplain Need needs} since a version a
+ * client already has
+ * <br>
+ * Every changed {@link Need need} appears once, either with its latest state or
+ * as the name of a deleted need. When the changes are no longer known, the delta
+ * is a resync holding every need instead.
+ *
+ * @author Ethan Hartman
+ */
+public class NeedDelta {
+    static final String STRING_FORMAT = "Need Delta [version=%d,resync=%b,upserts=%s,deletes=%s]";
+
+    @JsonProperty("version") private long version;
+    @JsonProperty("resync") private boolean resync;
+    @JsonProperty("upserts") private Need[] upserts;
+    @JsonProperty("deletes") private String[] deletes;
+
+    /**
+     * Create a delta
+     *
+     * @param version The version of the {@link Need needs} once the delta is
+     *                applied
+     *
+     * @param resync  Whether the delta replaces every {@link Need need} the
+     *                client has rather than changing them
+     *
+     * @param upserts The created or updated {@link Need needs}, or every
+     *                {@link Need need} for a resync
+     *
+     * @param deletes The names of the deleted {@link Need needs}
+     */
+    public NeedDelta(@JsonProperty("version") long version, @JsonProperty("resync") boolean resync,
+            @JsonProperty("upserts") Need[] upserts, @JsonProperty("deletes") String[] deletes) {
+        this.version = version;
+        this.resync = resync;
+        this.upserts = upserts;
+        this.deletes = deletes;
+    }
+
+    /**
+     * Create a resync holding every {@linkplain Need need}
+     *
+     * @param version The version of the {@link Need needs}
+     *
+     * @param needs   Every {@link Need need}
+     *
+     * @return The resync
+     */
+    public static NeedDelta resync(long version, Need[] needs) {
+        return new NeedDelta(version, true, needs, new String[0]);
+    }
+
+    /**
+     * @return the version of the {@linkplain Need needs} once the delta is
+     *         applied
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * @return whether the delta replaces every {@linkplain Need need} the client
+     *         has
+     */
+    public boolean isResync() {
+        return resync;
+    }
+
+    /**
+     * @return the created or updated {@linkplain Need needs}, or every need for a
+     *         resync
+     */
+    public Need[] getUpserts() {
+        return upserts;
+    }
+
+    /**
+     * @return the names of the deleted {@linkplain Need needs}
+     */
+    public String[] getDeletes() {
+        return deletes;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return String.format(STRING_FORMAT, version, resync, Arrays.toString(upserts), Arrays.toString(deletes));
+    }
+}
@@ -0,0 +1,131 @@
+package com.ufund.api.ufundapi.model;
+
+import java.util.Arrays;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Represents totals and distributions over every {@linkplain Need need} in the
+ * cupboard
+ * <br>
+ * Costs fall into the buckets under $1, under $10, under $100, under $1000 and
+ * $1000 or more. Quantities fall into the buckets 0, 1-9, 10-99, 100-999 and
+ * 1000 or more.
+ *
+ * @author Ethan Hartman
+ */
+public class NeedStats {
+    static final String STRING_FORMAT = "Need Stats [count=%d,inStock=%d,units=%d,value=%.2f,costs=%s,quantities=%s]";
+
+    /**
+     * The number of buckets in each distribution
+     */
+    public static final int BUCKETS = 5;
+
+    @JsonProperty("count") private int count;
+    @JsonProperty("inStock") private int inStock;
+    @JsonProperty("units") private long units;
+    @JsonProperty("value") private double value;
+    @JsonProperty("costs") private int[] costs;
+    @JsonProperty("quantities") private int[] quantities;
+
+    /**
+     * Create the stats of a cupboard
+     *
+     * @param count      The number of {@link Need needs}
+     *
+     * @param inStock    The number of {@link Need needs} with any quantity left
+     *
+     * @param units      The total quantity of every {@link Need need}
+     *
+     * @param value      The total cost of every unit, in dollars
+     *
+     * @param costs      The number of {@link Need needs} in each cost bucket
+     *
+     * @param quantities The number of {@link Need needs} in each quantity bucket
+     */
+    public NeedStats(@JsonProperty("count") int count, @JsonProperty("inStock") int inStock,
+            @JsonProperty("units") long units, @JsonProperty("value") double value,
+            @JsonProperty("costs") int[] costs, @JsonProperty("quantities") int[] quantities) {
+        this.count = count;
+        this.inStock = inStock;
+        this.units = units;
+        this.value = value;
+        this.costs = costs;
+        this.quantities = quantities;
+    }
+
+    /**
+     * Finds the cost bucket of a {@linkplain Need need}
+     *
+     * @param cents The cost of the {@link Need need} in cents
+     *
+     * @return the index of its bucket in {@link #getCosts()}
+     */
+    public static int costBucket(long cents) {
+        return cents < 100 ? 0 : cents < 1_000 ? 1 : cents < 10_000 ? 2 : cents < 100_000 ? 3 : 4;
+    }
+
+    /**
+     * Finds the quantity bucket of a {@linkplain Need need}
+     *
+     * @param quantity The quantity of the {@link Need need}
+     *
+     * @return the index of its bucket in {@link #getQuantities()}
+     */
+    public static int quantityBucket(int quantity) {
+        return quantity <= 0 ? 0 : quantity < 10 ? 1 : quantity < 100 ? 2 : quantity < 1_000 ? 3 : 4;
+    }
+
+    /**
+     * @return the number of {@linkplain Need needs}
+     */
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * @return the number of {@linkplain Need needs} with any quantity left
+     */
+    public int getInStock() {
+        return inStock;
+    }
+
+    /**
+     * @return the total quantity of every {@linkplain Need need}
+     */
+    public long getUnits() {
+        return units;
+    }
+
+    /**
+     * @return the total cost of every unit of every {@linkplain Need need}, in
+     *         dollars
+     */
+    public double getValue() {
+        return value;
+    }
+
+    /**
+     * @return the number of {@linkplain Need needs} in each cost bucket
+     */
+    public int[] getCosts() {
+        return costs;
+    }
+
+    /**
+     * @return the number of {@linkplain Need needs} in each quantity bucket
+     */
+    public int[] getQuantities() {
+        return quantities;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return String.format(STRING_FORMAT, count, inStock, units, value, Arrays.toString(costs),
+                Arrays.toString(quantities));
+    }
+}
@@ -0,0 +1,81 @@
+package com.ufund.api.ufundapi.model;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Represents the totals of the cupboard an admin dashboard shows
+ * <br>
+ * A {@linkplain Need need} is low on stock once its quantity is at or below
+ * {@value #LOW_STOCK_QUANTITY}.
+ *
+ * @author Ethan Hartman
+ */
+public class NeedSummary {
+    static final String STRING_FORMAT = "Need Summary [count=%d,units=%d,value=%.2f,lowStock=%d]";
+
+    /**
+     * The quantity at or below which a {@linkplain Need need} is low on stock
+     */
+    public static final int LOW_STOCK_QUANTITY = 5;
+
+    @JsonProperty("count") private int count;
+    @JsonProperty("units") private long units;
+    @JsonProperty("value") private double value;
+    @JsonProperty("lowStock") private int lowStock;
+
+    /**
+     * Create the summary of a cupboard
+     *
+     * @param count    The number of {@link Need needs}
+     *
+     * @param units    The total quantity of every {@link Need need}
+     *
+     * @param value    The total outstanding cost of every unit, in dollars
+     *
+     * @param lowStock The number of {@link Need needs} low on stock
+     */
+    public NeedSummary(@JsonProperty("count") int count, @JsonProperty("units") long units,
+            @JsonProperty("value") double value, @JsonProperty("lowStock") int lowStock) {
+        this.count = count;
+        this.units = units;
+        this.value = value;
+        this.lowStock = lowStock;
+    }
+
+    /**
+     * @return the number of {@linkplain Need needs}
+     */
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * @return the total quantity of every {@linkplain Need need}
+     */
+    public long getUnits() {
+        return units;
+    }
+
+    /**
+     * @return the total outstanding cost of every unit of every
+     *         {@linkplain Need need}, in dollars
+     */
+    public double getValue() {
+        return value;
+    }
+
+    /**
+     * @return the number of {@linkplain Need needs} low on stock
+     */
+    public int getLowStock() {
+        return lowStock;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return String.format(STRING_FORMAT, count, units, value, lowStock);
+    }
+}
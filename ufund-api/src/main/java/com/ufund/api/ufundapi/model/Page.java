@@ -0,0 +1,95 @@
+package com.ufund.api.ufundapi.model;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Represents one page of a listing, along with the cursor of the page after it
+ * <br>
+ * Cursors are opaque to clients: they encode the keys of the last item on a
+ * page, so a listing resumes where it left off no matter how large it is.
+ * 
+ * @author Ethan Hartman
+ */
+public class Page<T> {
+    public static final int MAX_LIMIT = 1000;
+
+    private static final String KEY_SEPARATOR = "\0";
+
+    @JsonProperty("items") private List<T> items;
+    @JsonProperty("next") private String next;
+
+    /**
+     * Create a page with the given items and next cursor
+     * 
+     * @param items The items on the page
+     * 
+     * @param next  The cursor of the following page, null if this is the last
+     */
+    public Page(@JsonProperty("items") List<T> items, @JsonProperty("next") String next) {
+        this.items = items;
+        this.next = next;
+    }
+
+    /**
+     * @return the items on the page
+     */
+    public List<T> getItems() {
+        return items;
+    }
+
+    /**
+     * @return the cursor of the following page, null if this is the last
+     */
+    public String getNext() {
+        return next;
+    }
+
+    /**
+     * Encodes the keys of the last item on a page into a cursor
+     * 
+     * @param keys The keys of the item, most significant first
+     * 
+     * @return The opaque cursor
+     */
+    public static String encodeCursor(String... keys) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(String.join(KEY_SEPARATOR, keys).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes the keys of the last item on the previous page from a cursor
+     * 
+     * @param cursor    The opaque cursor
+     * 
+     * @param keyCount  The number of keys the cursor holds
+     * 
+     * @return The keys of the item, most significant first
+     * 
+     * @throws IllegalArgumentException if the cursor was not issued for this
+     *                                  listing
+     */
+    public static String[] decodeCursor(String cursor, int keyCount) {
+        String[] keys = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8)
+                .split(KEY_SEPARATOR, -1);
+        if (keys.length != keyCount)
+            throw new IllegalArgumentException("Malformed cursor");
+        return keys;
+    }
+
+    /**
+     * Checks that a requested page size is allowed
+     * 
+     * @param limit The requested page size
+     * 
+     * @throws IllegalArgumentException if it is not positive or above
+     *                                  {@link #MAX_LIMIT}
+     */
+    public static void checkLimit(int limit) {
+        if (limit < 1 || limit > MAX_LIMIT)
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_LIMIT);
+    }
+}
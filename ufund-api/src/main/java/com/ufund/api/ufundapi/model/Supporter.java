@@ -12,11 +12,12 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 public class Supporter extends User {
     static final String STRING_FORMAT = "Supporter [username=%s,isAdmin=%s,fundingBasket=%s,messages=%s]";
 
+    // Replaced rather than changed, so readers never need the supporter's lock
     @JsonProperty("funding_basket")
-    private Need[] fundingBasket;
+    private volatile Need[] fundingBasket;
 
     @JsonProperty("messages")
-    private NeedMessage[] messages;
+    private volatile NeedMessage[] messages;
 
     /**
      * Create a user with the given username and funding basket
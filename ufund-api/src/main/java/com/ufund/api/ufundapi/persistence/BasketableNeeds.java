@@ -0,0 +1,169 @@
+package com.ufund.api.ufundapi.persistence;
+
+import java.util.AbstractList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.TreeMap;
+
+import com.ufund.api.ufundapi.model.Need;
+
+/**
+ * Read-only view of the {@linkplain Need needs} a supporter can still add to
+ * their basket
+ * <br>
+ * The view shares the cupboard's array and only records how the supporter's
+ * basket lines change it: a need the basket holds all of is hidden, and a
+ * need the basket holds some of shows what remains. Building the view costs
+ * only the basket lines, however many needs the cupboard holds.
+ *
+ * @author Ethan Hartman
+ */
+final class BasketableNeeds extends AbstractList<Need> {
+    private final Need[] needs; // The cupboard's needs, shared and never modified
+    private final int[] changed; // Positions in the cupboard changed by the basket, ascending
+    private final Need[] remaining; // What each changed position shows, null if hidden
+    private final int size;
+
+    /**
+     * Creates the view of the given cupboard changed at the given positions
+     *
+     * @param needs     The cupboard's {@link Need needs}
+     * @param overrides What each changed position shows, null if hidden, keyed
+     *                  by position
+     */
+    private BasketableNeeds(Need[] needs, TreeMap<Integer, Need> overrides) {
+        this.needs = needs;
+        this.changed = new int[overrides.size()];
+        this.remaining = new Need[overrides.size()];
+        int hidden = 0;
+        int i = 0;
+        for (Map.Entry<Integer, Need> entry : overrides.entrySet()) {
+            changed[i] = entry.getKey();
+            remaining[i++] = entry.getValue();
+            if (entry.getValue() == null)
+                ++hidden;
+        }
+        this.size = needs.length - hidden;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <br>
+     * Costs the number of basket lines before the need, not the cupboard size
+     */
+    @Override
+    public Need get(int index) {
+        if (index < 0 || index >= size)
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        int position = index;
+        for (int c = 0; c < changed.length && changed[c] <= position; ++c) {
+            if (remaining[c] == null)
+                ++position; // skip past the hidden need
+            else if (changed[c] == position)
+                return remaining[c];
+        }
+        return needs[position];
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <br>
+     * Walks the cupboard and changes together, so a full pass costs one step
+     * per need
+     */
+    @Override
+    public Iterator<Need> iterator() {
+        return new Iterator<Need>() {
+            private int position = 0; // Next position in the cupboard
+            private int c = 0; // Next change at or after the position
+
+            @Override
+            public boolean hasNext() {
+                skipHidden();
+                return position < needs.length;
+            }
+
+            @Override
+            public Need next() {
+                if (!hasNext())
+                    throw new NoSuchElementException();
+                Need need = needs[position];
+                if (c < changed.length && changed[c] == position)
+                    need = remaining[c++];
+                ++position;
+                return need;
+            }
+
+            private void skipHidden() {
+                while (c < changed.length && changed[c] == position && remaining[c] == null) {
+                    ++c;
+                    ++position;
+                }
+            }
+        };
+    }
+
+    /**
+     * Cupboard indexed by name at one version, shared by every view derived
+     * from it
+     */
+    static final class Cupboard {
+        private final long version; // Version of the cupboard the needs were read at
+        private final Need[] needs; // The cupboard's needs, never modified
+        private final Map<String, Integer> positions; // Position of each need, by name
+
+        /**
+         * Indexes the given {@linkplain Need needs}
+         *
+         * @param version The version the {@link Need needs} were read at
+         * @param needs   The cupboard's {@link Need needs}, which must never be
+         *                modified
+         */
+        Cupboard(long version, Need[] needs) {
+            this.version = version;
+            this.needs = needs;
+            this.positions = new HashMap<>(needs.length * 2);
+            for (int i = 0; i < needs.length; ++i)
+                positions.put(needs[i].getName(), i);
+        }
+
+        /**
+         * @return the version of the cupboard the needs were read at
+         */
+        long getVersion() {
+            return version;
+        }
+
+        /**
+         * Derives the {@linkplain Need needs} still available beside the given
+         * basket
+         *
+         * @param basket The {@link Need needs} in the supporter's basket
+         *
+         * @return the view of the cupboard less the basket
+         */
+        BasketableNeeds without(Need[] basket) {
+            TreeMap<Integer, Need> overrides = new TreeMap<>();
+            for (Need basketNeed : basket) {
+                Integer position = positions.get(basketNeed.getName());
+                if (position == null)
+                    continue; // no longer in the cupboard
+                Need need = needs[position];
+                overrides.put(position, need.getQuantity() > basketNeed.getQuantity()
+                        ? new Need(need.getName(), need.getCost(), need.getQuantity() - basketNeed.getQuantity())
+                        : null);
+            }
+            return new BasketableNeeds(needs, overrides);
+        }
+    }
+}
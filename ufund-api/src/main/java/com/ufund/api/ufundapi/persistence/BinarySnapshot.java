@@ -0,0 +1,391 @@
+package com.ufund.api.ufundapi.persistence;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Array;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ufund.api.ufundapi.model.Need;
+import com.ufund.api.ufundapi.model.NeedMessage;
+import com.ufund.api.ufundapi.model.NeedReceipt;
+import com.ufund.api.ufundapi.model.Supporter;
+
+/**
+ * Compact binary copy of a JSON store file, written alongside it and
+ * preferred when loading
+ * <br>
+ * The JSON file stays the source of truth. A binary snapshot records the
+ * length and modification time of the JSON file it was written from, and is
+ * ignored whenever those no longer match, so editing the JSON by hand never
+ * loads stale data. Saving the JSON discards the snapshot, and the DAOs only
+ * write a new one when loading from JSON and when they close, keeping it off
+ * the write path.
+ * <br>
+ * Layout, all numbers big-endian:
+ * <ul>
+ * <li>magic {@code UFND}, format version byte, {@link Codec codec} id byte</li>
+ * <li>JSON file length and modification time, as longs</li>
+ * <li>string dictionary: count, then each string as a length-prefixed UTF-8
+ * run</li>
+ * <li>record count, then each record, with strings written as dictionary
+ * indexes and null as -1</li>
+ * </ul>
+ *
+ * @author Ethan Hartman
+ */
+final class BinarySnapshot {
+    static final String SUFFIX = ".bin";
+    static final byte FORMAT_VERSION = 1;
+
+    private static final Logger LOG = Logger.getLogger(BinarySnapshot.class.getName());
+    private static final int MAGIC = 0x55464E44; // "UFND"
+    private static final String UnknownStoreException = "Unknown store '%s', expected needs, receipts or supporters";
+
+    /**
+     * Writes and reads the records of one kind of store
+     */
+    abstract static class Codec<T> {
+        private final byte id; // Identifies the codec in the header
+        private final Class<T> type; // The type of the records
+
+        private Codec(int id, Class<T> type) {
+            this.id = (byte) id;
+            this.type = type;
+        }
+
+        /**
+         * Adds every string of the record to the dictionary
+         */
+        abstract void collect(T record, Dictionary dictionary);
+
+        /**
+         * Writes the record, with strings replaced by their dictionary indexes
+         */
+        abstract void write(T record, DataOutput out, Dictionary dictionary) throws IOException;
+
+        /**
+         * Reads a record, looking its strings up in the dictionary
+         */
+        abstract T read(DataInput in, String[] dictionary) throws IOException;
+    }
+
+    /**
+     * Assigns each distinct string an index, in order of first use
+     */
+    static final class Dictionary {
+        private final Map<String, Integer> indexes = new HashMap<>();
+        private final List<String> strings = new ArrayList<>();
+
+        void add(String string) {
+            if (string != null && indexes.putIfAbsent(string, strings.size()) == null)
+                strings.add(string);
+        }
+
+        int indexOf(String string) {
+            return string == null ? -1 : indexes.get(string);
+        }
+    }
+
+    static final Codec<Need> NEEDS = new Codec<>(1, Need.class) {
+        void collect(Need need, Dictionary dictionary) {
+            dictionary.add(need.getName());
+        }
+
+        void write(Need need, DataOutput out, Dictionary dictionary) throws IOException {
+            out.writeInt(dictionary.indexOf(need.getName()));
+            out.writeDouble(need.getCost());
+            out.writeInt(need.getQuantity());
+        }
+
+        Need read(DataInput in, String[] dictionary) throws IOException {
+            return new Need(lookup(dictionary, in.readInt()), in.readDouble(), in.readInt());
+        }
+    };
+
+    static final Codec<NeedReceipt> RECEIPTS = new Codec<>(2, NeedReceipt.class) {
+        void collect(NeedReceipt receipt, Dictionary dictionary) {
+            dictionary.add(receipt.getSupporterUsername());
+            dictionary.add(receipt.getName());
+        }
+
+        void write(NeedReceipt receipt, DataOutput out, Dictionary dictionary) throws IOException {
+            out.writeInt(dictionary.indexOf(receipt.getSupporterUsername()));
+            NEEDS.write(receipt, out, dictionary);
+        }
+
+        NeedReceipt read(DataInput in, String[] dictionary) throws IOException {
+            return new NeedReceipt(lookup(dictionary, in.readInt()), lookup(dictionary, in.readInt()),
+                    in.readDouble(), in.readInt());
+        }
+    };
+
+    static final Codec<Supporter> SUPPORTERS = new Codec<>(3, Supporter.class) {
+        void collect(Supporter supporter, Dictionary dictionary) {
+            dictionary.add(supporter.getUsername());
+            if (supporter.getFundingBasket() != null)
+                for (Need need : supporter.getFundingBasket())
+                    NEEDS.collect(need, dictionary);
+            if (supporter.getNeedMessages() != null)
+                for (NeedMessage message : supporter.getNeedMessages()) {
+                    dictionary.add(message.getSenderUsername());
+                    dictionary.add(message.getNeedName());
+                    dictionary.add(message.getMessage());
+                }
+        }
+
+        void write(Supporter supporter, DataOutput out, Dictionary dictionary) throws IOException {
+            out.writeInt(dictionary.indexOf(supporter.getUsername()));
+            Need[] basket = supporter.getFundingBasket();
+            out.writeInt(basket != null ? basket.length : -1);
+            if (basket != null)
+                for (Need need : basket)
+                    NEEDS.write(need, out, dictionary);
+            NeedMessage[] messages = supporter.getNeedMessages();
+            out.writeInt(messages != null ? messages.length : -1);
+            if (messages != null)
+                for (NeedMessage message : messages) {
+                    out.writeInt(dictionary.indexOf(message.getSenderUsername()));
+                    out.writeInt(dictionary.indexOf(message.getNeedName()));
+                    out.writeInt(dictionary.indexOf(message.getMessage()));
+                }
+        }
+
+        Supporter read(DataInput in, String[] dictionary) throws IOException {
+            String username = lookup(dictionary, in.readInt());
+            int basketSize = in.readInt();
+            Need[] basket = basketSize >= 0 ? new Need[basketSize] : null;
+            for (int i = 0; i < basketSize; ++i)
+                basket[i] = NEEDS.read(in, dictionary);
+            int messageCount = in.readInt();
+            NeedMessage[] messages = messageCount >= 0 ? new NeedMessage[messageCount] : null;
+            for (int i = 0; i < messageCount; ++i)
+                messages[i] = new NeedMessage(lookup(dictionary, in.readInt()), lookup(dictionary, in.readInt()),
+                        lookup(dictionary, in.readInt()));
+            return new Supporter(username, basket, messages);
+        }
+    };
+
+    private BinarySnapshot() {
+    }
+
+    private static String lookup(String[] dictionary, int index) {
+        return index < 0 ? null : dictionary[index];
+    }
+
+    /**
+     * @return the binary snapshot file kept alongside the given JSON file
+     */
+    static File binaryFile(File json) {
+        return new File(json.getPath() + SUFFIX);
+    }
+
+    /**
+     * Deletes the binary snapshot of the given JSON file, called before the JSON
+     * file is rewritten so a crash part way through never leaves a snapshot
+     * which looks current
+     *
+     * @param json The JSON file about to be written
+     *
+     * @throws IOException when the snapshot cannot be deleted
+     */
+    static void discard(File json) throws IOException {
+        Files.deleteIfExists(binaryFile(json).toPath());
+    }
+
+    /**
+     * Writes the given records to the binary snapshot of the given JSON file,
+     * which must already hold the same records
+     * <br>
+     * The snapshot is written to a temporary file and moved into place, so a
+     * crash never leaves a torn snapshot behind
+     *
+     * @param codec   The {@link Codec codec} of the store
+     * @param json    The JSON file the records were written to
+     * @param records The records, in order
+     *
+     * @throws IOException when the snapshot cannot be written
+     */
+    static <T> void write(Codec<T> codec, File json, T[] records) throws IOException {
+        write(codec, json.length(), json.lastModified(), binaryFile(json), records);
+    }
+
+    /**
+     * Writes the given records to the given binary file, stamped with the
+     * given JSON file length and modification time
+     */
+    private static <T> void write(Codec<T> codec, long jsonLength, long jsonModified, File binary, T[] records)
+            throws IOException {
+        Dictionary dictionary = new Dictionary();
+        for (T record : records)
+            codec.collect(record, dictionary);
+
+        File temporary = new File(binary.getPath() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(temporary), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeByte(FORMAT_VERSION);
+            out.writeByte(codec.id);
+            out.writeLong(jsonLength);
+            out.writeLong(jsonModified);
+            out.writeInt(dictionary.strings.size());
+            for (String string : dictionary.strings) {
+                byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+                out.writeInt(bytes.length);
+                out.write(bytes);
+            }
+            out.writeInt(records.length);
+            for (T record : records)
+                codec.write(record, out, dictionary);
+        }
+        Files.move(temporary.toPath(), binary.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Reads the records from the binary snapshot of the given JSON file
+     * <br>
+     * A snapshot which is missing, stale, of another format version, or
+     * unreadable is not an error: the caller falls back to the JSON file
+     *
+     * @param codec The {@link Codec codec} of the store
+     * @param json  The JSON file the snapshot must have been written from
+     *
+     * @return The records, or null if the snapshot cannot be used
+     */
+    static <T> T[] read(Codec<T> codec, File json) {
+        File binary = binaryFile(json);
+        if (!binary.exists() || !json.exists())
+            return null;
+        try {
+            return read(codec, binary, json.length(), json.lastModified());
+        } catch (IOException e) {
+            LOG.log(Level.WARNING, "Ignoring unreadable binary snapshot " + binary + ": " + e.getLocalizedMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Reads the records from the given binary file, checking it was written from
+     * a JSON file of the given length and modification time, unless the length
+     * is negative
+     *
+     * @return The records, or null if the file is stale or another version
+     */
+    private static <T> T[] read(Codec<T> codec, File binary, long jsonLength, long jsonModified)
+            throws IOException {
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(new FileInputStream(binary), 1 << 16))) {
+            if (in.readInt() != MAGIC || in.readByte() != FORMAT_VERSION || in.readByte() != codec.id)
+                return null;
+            long length = in.readLong();
+            long modified = in.readLong();
+            if (jsonLength >= 0 && (length != jsonLength || modified != jsonModified))
+                return null; // the JSON was written since
+
+            String[] dictionary = new String[in.readInt()];
+            for (int i = 0; i < dictionary.length; ++i) {
+                byte[] bytes = new byte[in.readInt()];
+                in.readFully(bytes);
+                dictionary[i] = new String(bytes, StandardCharsets.UTF_8);
+            }
+            @SuppressWarnings("unchecked")
+            T[] records = (T[]) Array.newInstance(codec.type, in.readInt());
+            for (int i = 0; i < records.length; ++i)
+                records[i] = codec.read(in, dictionary);
+            if (in.read() != -1)
+                throw new IOException("Trailing bytes after the last record");
+            return records;
+        } catch (EOFException | IndexOutOfBoundsException | NegativeArraySizeException e) {
+            throw new IOException("Truncated or corrupt binary snapshot", e);
+        }
+    }
+
+    /**
+     * Finds the codec of the named store
+     */
+    private static Codec<?> codec(String store) {
+        switch (store) {
+            case "needs":
+                return NEEDS;
+            case "receipts":
+                return RECEIPTS;
+            case "supporters":
+                return SUPPORTERS;
+            default:
+                throw new IllegalArgumentException(String.format(UnknownStoreException, store));
+        }
+    }
+
+    /**
+     * Converts a store file between JSON and binary, in the direction given by
+     * the input's extension
+     *
+     * @param codec  The {@link Codec codec} of the store
+     * @param input  The file to read, binary if it ends in {@value #SUFFIX}
+     * @param output The file to write
+     *
+     * @throws IOException when a file cannot be read or written
+     */
+    static <T> void convert(Codec<T> codec, File input, File output) throws IOException {
+        // Configured like the application's mapper, which skips derived properties such as admin
+        ObjectMapper objectMapper = new ObjectMapper()
+                .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        if (input.getName().endsWith(SUFFIX)) {
+            T[] records = read(codec, input, -1, 0);
+            if (records == null)
+                throw new IOException("Not a " + codec.type.getSimpleName() + " binary snapshot: " + input);
+            objectMapper.writeValue(output, records);
+        } else {
+            @SuppressWarnings("unchecked")
+            T[] records = (T[]) objectMapper.readValue(input, Array.newInstance(codec.type, 0).getClass());
+            // Stamped with the input, so it is used when it sits alongside it
+            write(codec, input.length(), input.lastModified(), output, records);
+        }
+    }
+
+    /**
+     * Converts a store file between JSON and binary
+     * <br>
+     * Usage: {@code BinarySnapshot <needs|receipts|supporters> <input> [output]}.
+     * The output defaults to the input with {@value #SUFFIX} added, or removed
+     * when the input is already binary.
+     *
+     * @param args The store, input file and optional output file
+     *
+     * @throws IOException when a file cannot be read or written
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: BinarySnapshot <needs|receipts|supporters> <input> [output]");
+            System.exit(2);
+        }
+        File input = new File(args[1]);
+        File output;
+        if (args.length > 2)
+            output = new File(args[2]);
+        else if (args[1].endsWith(SUFFIX))
+            output = new File(args[1].substring(0, args[1].length() - SUFFIX.length()));
+        else
+            output = binaryFile(input);
+        convert(codec(args[0]), input, output);
+    }
+}
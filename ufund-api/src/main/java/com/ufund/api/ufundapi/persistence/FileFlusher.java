@@ -0,0 +1,332 @@
+package com.ufund.api.ufundapi.persistence;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Shared write-behind flusher for the file based DAOs
+ * <br>
+ * Each DAO registers a {@link Store store} with the {@link Durability
+ * durability} it was configured with. Stores that are not
+ * {@link Durability#SYNC synchronous} only mark themselves dirty on commit,
+ * and a single background thread coalesces those commits into one write once
+ * the flush interval passes or enough commits are pending.
+ *
+ * {@literal @}Component Spring annotation instantiates a single instance of
+ * this class and injects the instance into other classes as needed
+ *
+ * @author Ethan Hartman
+ */
+@Component
+public class FileFlusher {
+    private static final Logger LOG = Logger.getLogger(FileFlusher.class.getName());
+
+    static final long DEFAULT_INTERVAL_MS = 50;
+    static final int DEFAULT_BATCH_SIZE = 64;
+    private static final long CLOSE_TIMEOUT_MS = 10_000; // Longest close waits for the flusher thread
+
+    private final long intervalMs; // Longest a commit waits before being written
+    private final int batchSize; // Pending commits which force an early write
+    private final List<Store> stores = new ArrayList<>(); // Every registered store
+    private ScheduledExecutorService executor; // Background flusher, started by the first deferred store
+
+    /**
+     * How durably a {@linkplain Store store} commits
+     */
+    public enum Durability {
+        /** Every commit is written in the requesting thread before it returns */
+        SYNC,
+        /** Commits are coalesced by the flusher, requests wait for their write */
+        GROUP,
+        /** Commits are coalesced by the flusher, requests do not wait */
+        ASYNC;
+
+        /**
+         * Parses a durability from its configuration value
+         *
+         * @param value The value, such as "sync", "group" or "async"
+         *
+         * @return The matching {@link Durability durability}
+         */
+        public static Durability parse(String value) {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        }
+    }
+
+    /**
+     * Writes the full state of a store to its file
+     */
+    @FunctionalInterface
+    public interface StoreWriter {
+        /**
+         * @throws IOException when file cannot be accessed or written to
+         */
+        void write() throws IOException;
+    }
+
+    /**
+     * A store registered with the flusher
+     */
+    public class Store {
+        private final String name; // Name used when logging failures
+        private final Durability durability; // How commits are written
+        private final StoreWriter writer; // Writes the store's state
+        private CompletableFuture<Void> pending; // Completes with the next write, null when clean
+        private int dirtyCount; // Commits since the last write
+
+        /**
+         * Creates a store
+         */
+        private Store(String name, Durability durability, StoreWriter writer) {
+            this.name = name;
+            this.durability = durability;
+            this.writer = writer;
+        }
+
+        /**
+         * @return the {@link Durability durability} of this store
+         */
+        public Durability getDurability() {
+            return durability;
+        }
+
+        /**
+         * Commits the state of the store without waiting for it to be written,
+         * unless the store is {@linkplain Durability#SYNC synchronous}
+         *
+         * @return a future completed once the committed state is written
+         *
+         * @throws IOException when a synchronous write fails
+         */
+        public CompletableFuture<Void> commitAsync() throws IOException {
+            if (durability == Durability.SYNC) {
+                writer.write();
+                return CompletableFuture.completedFuture(null);
+            }
+
+            CompletableFuture<Void> future;
+            boolean first;
+            boolean flushNow;
+            synchronized (this) {
+                first = pending == null;
+                if (first)
+                    pending = new CompletableFuture<>();
+                future = pending;
+                flushNow = ++dirtyCount == batchSize;
+            }
+            if (flushNow)
+                schedule(this, 0);
+            else if (first)
+                schedule(this, intervalMs);
+            return future;
+        }
+
+        /**
+         * Waits for the given commit to be written if the store is
+         * {@linkplain Durability#GROUP group committed}
+         * <br>
+         * Kept separate from {@link #commitAsync()} so callers can commit while
+         * holding their own lock and wait once they have released it
+         *
+         * @param commit The future returned by {@link #commitAsync()}
+         *
+         * @throws IOException when the write fails
+         */
+        public void await(CompletableFuture<Void> commit) throws IOException {
+            if (durability == Durability.GROUP)
+                FileFlusher.await(commit);
+        }
+
+        /**
+         * Commits the state of the store, waiting for the write unless the store
+         * is {@linkplain Durability#ASYNC asynchronous}
+         * <br>
+         * Must not be called while holding a lock the store's writer needs
+         *
+         * @throws IOException when the write fails
+         */
+        public void commit() throws IOException {
+            await(commitAsync());
+        }
+
+        /**
+         * Commits the state of the store and waits until it is written, whatever
+         * the durability of the store
+         *
+         * @throws IOException when the write fails
+         */
+        public void commitDurably() throws IOException {
+            CompletableFuture<Void> future = commitAsync();
+            if (!future.isDone())
+                schedule(this, 0);
+            FileFlusher.await(future);
+        }
+
+        /**
+         * Gets the commit covering every change committed so far, without
+         * committing or scheduling anything
+         * <br>
+         * Lets a caller whose change was committed by another wait for it
+         * with {@link #await}
+         *
+         * @return a future completed once every commit made so far is written
+         */
+        public synchronized CompletableFuture<Void> committed() {
+            return pending != null ? pending : CompletableFuture.completedFuture(null);
+        }
+
+        /**
+         * Waits for every commit made so far to be written
+         *
+         * @throws IOException when the write fails
+         */
+        public void flush() throws IOException {
+            CompletableFuture<Void> future;
+            synchronized (this) {
+                future = pending;
+            }
+            if (future != null) {
+                schedule(this, 0);
+                FileFlusher.await(future);
+            }
+        }
+
+        /**
+         * Writes the store if it has uncommitted changes, completing the futures
+         * of every commit it covers
+         */
+        private void write() {
+            CompletableFuture<Void> future;
+            synchronized (this) {
+                future = pending;
+                pending = null;
+                dirtyCount = 0;
+            }
+            if (future == null)
+                return; // already written by an earlier flush
+
+            try {
+                writer.write();
+                future.complete(null);
+            } catch (IOException | RuntimeException e) {
+                LOG.log(Level.SEVERE, "Failed to flush " + name + ": " + e.getLocalizedMessage());
+                future.completeExceptionally(e);
+            }
+        }
+    }
+
+    /**
+     * Creates a flusher with the default interval and batch size
+     */
+    public FileFlusher() {
+        this(DEFAULT_INTERVAL_MS, DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * Creates a flusher
+     *
+     * @param intervalMs The longest a commit waits before being written
+     * @param batchSize  The number of pending commits which force an early
+     *                   write
+     */
+    @Autowired
+    public FileFlusher(@Value("${flusher.interval.ms:" + DEFAULT_INTERVAL_MS + "}") long intervalMs,
+            @Value("${flusher.batch.size:" + DEFAULT_BATCH_SIZE + "}") int batchSize) {
+        this.intervalMs = intervalMs;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Registers a store with the flusher
+     *
+     * @param name       The name of the store
+     * @param durability How durably the store commits
+     * @param writer     Writes the full state of the store
+     *
+     * @return The registered {@link Store store}
+     */
+    public synchronized Store register(String name, Durability durability, StoreWriter writer) {
+        Store store = new Store(name, durability, writer);
+        stores.add(store);
+        if (durability != Durability.SYNC && executor == null) {
+            ScheduledThreadPoolExecutor flusherThread = new ScheduledThreadPoolExecutor(1, runnable -> {
+                Thread thread = new Thread(runnable, "file-flusher");
+                thread.setDaemon(true);
+                return thread;
+            });
+            // Close writes every store itself, so delayed writes need not hold it up
+            flusherThread.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+            executor = flusherThread;
+        }
+        return store;
+    }
+
+    /**
+     * Schedules a write of the given store on the flusher thread
+     */
+    private synchronized void schedule(Store store, long delayMs) {
+        if (executor != null && !executor.isShutdown())
+            executor.schedule(store::write, delayMs, TimeUnit.MILLISECONDS);
+        else
+            store.write();
+    }
+
+    /**
+     * Waits for the given write to complete
+     */
+    private static void await(CompletableFuture<Void> future) throws IOException {
+        try {
+            future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException(e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException)
+                throw (IOException) e.getCause();
+            throw new IOException(e.getCause());
+        }
+    }
+
+    /**
+     * Writes every store with pending commits and stops the flusher thread
+     * <br>
+     * Waits for writes the flusher thread already started, since a store it
+     * has taken the pending commits of looks clean until its write finishes
+     */
+    @PreDestroy
+    public void close() {
+        ScheduledExecutorService running;
+        List<Store> toFlush;
+        synchronized (this) {
+            running = executor;
+            if (running != null)
+                running.shutdown();
+            toFlush = new ArrayList<>(stores);
+        }
+        if (running != null) {
+            try {
+                if (!running.awaitTermination(CLOSE_TIMEOUT_MS, TimeUnit.MILLISECONDS))
+                    LOG.log(Level.SEVERE, "Flusher did not finish writing within " + CLOSE_TIMEOUT_MS + "ms");
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        for (Store store : toFlush)
+            store.write();
+    }
+}
@@ -0,0 +1,52 @@
+package com.ufund.api.ufundapi.persistence;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.function.Consumer;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Reads the elements of a JSON array file one at a time, so loading a store
+ * never holds the whole array alongside the map it is copied into
+ *
+ * @author Ethan Hartman
+ */
+final class JsonArrayReader {
+    private static final String NotAnArrayException = "Expected a JSON array in '%s'";
+
+    private JsonArrayReader() {
+    }
+
+    /**
+     * Parses each element of the array in the given file and passes it on as
+     * soon as it is parsed
+     *
+     * @param objectMapper Provides JSON Object to Java Object deserialization
+     * @param file         The file holding a JSON array
+     * @param type         The type of the elements
+     * @param sink         Receives each element, in order
+     *
+     * @return the number of elements read
+     *
+     * @throws IOException when the file cannot be read or is not a JSON array
+     */
+    static <T> int forEach(ObjectMapper objectMapper, File file, Class<T> type, Consumer<T> sink)
+            throws IOException {
+        int count = 0;
+        try (JsonParser parser = objectMapper.createParser(file)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY)
+                throw new JsonParseException(parser, String.format(NotAnArrayException, file));
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                if (parser.currentToken() == null)
+                    throw new JsonParseException(parser, String.format(NotAnArrayException, file));
+                sink.accept(objectMapper.readValue(parser, type)); // leaves the parser on the element's last token
+                ++count;
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,22 @@
+package com.ufund.api.ufundapi.persistence;
+
+import com.ufund.api.ufundapi.model.NeedChange;
+
+/**
+ * Receives every change made to the {@linkplain com.ufund.api.ufundapi.model.Need
+ * needs} of a {@link NeedDAO}
+ *
+ * @author Ethan Hartman
+ */
+@FunctionalInterface
+public interface NeedChangeListener {
+    /**
+     * Called once per changed need, in version order, while the DAO still holds
+     * its lock
+     * <br>
+     * Must return quickly and must not call back into the DAO
+     *
+     * @param change The {@link NeedChange change}
+     */
+    void needChanged(NeedChange change);
+}
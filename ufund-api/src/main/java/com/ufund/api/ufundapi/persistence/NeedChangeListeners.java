@@ -0,0 +1,70 @@
+package com.ufund.api.ufundapi.persistence;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.ufund.api.ufundapi.model.Need;
+import com.ufund.api.ufundapi.model.NeedChange;
+
+/**
+ * The {@linkplain NeedChangeListener listeners} registered with a need DAO
+ *
+ * @author Ethan Hartman
+ */
+final class NeedChangeListeners {
+    private static final Logger LOG = Logger.getLogger(NeedChangeListeners.class.getName());
+
+    private final List<NeedChangeListener> listeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * @param listener The {@link NeedChangeListener listener} to add
+     */
+    void add(NeedChangeListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * @param listener The {@link NeedChangeListener listener} to remove
+     */
+    void remove(NeedChangeListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Notifies every listener of a change to each of the given
+     * {@linkplain Need needs}
+     * <br>
+     * Called while holding the DAO's lock. The change is already applied, so a
+     * failing listener is logged rather than failing the mutation
+     *
+     * @param type    The {@link NeedChange.Type kind} of change
+     * @param version The version of the {@link Need needs} once changed
+     * @param needs   The changed {@link Need needs}
+     */
+    void publish(NeedChange.Type type, long version, Iterable<Need> needs) {
+        if (listeners.isEmpty())
+            return;
+
+        for (Need need : needs) {
+            NeedChange change = new NeedChange(type, version, need);
+            for (NeedChangeListener listener : listeners) {
+                try {
+                    listener.needChanged(change);
+                } catch (RuntimeException e) {
+                    LOG.log(Level.SEVERE, "Need change listener failed: " + e.getLocalizedMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Notifies every listener of a change to the given {@linkplain Need need}
+     *
+     * @see #publish(NeedChange.Type, long, Iterable)
+     */
+    void publish(NeedChange.Type type, long version, Need need) {
+        publish(type, version, List.of(need));
+    }
+}
@@ -0,0 +1,94 @@
+package com.ufund.api.ufundapi.persistence;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.ufund.api.ufundapi.model.Need;
+import com.ufund.api.ufundapi.model.NeedChange;
+import com.ufund.api.ufundapi.model.NeedDelta;
+
+/**
+ * A bounded ring of the most recent {@linkplain NeedChange changes} to the
+ * needs, which answers what changed since a version while that version's
+ * changes are still held
+ *
+ * @author Ethan Hartman
+ */
+final class NeedChangeLog implements NeedChangeListener {
+    static final int DEFAULT_CAPACITY = 1024;
+
+    private final NeedChange[] ring; // Oldest change at head, once full
+    private int head; // Index of the oldest change
+    private int size; // Changes held
+    private long floor; // Clients at or past this version can be answered
+    private long version; // Version of the newest change
+
+    /**
+     * Creates an empty log
+     *
+     * @param capacity The most changes held
+     * @param version  The version of the needs, no older version can be
+     *                 answered
+     */
+    NeedChangeLog(int capacity, long version) {
+        this.ring = new NeedChange[Math.max(1, capacity)];
+        this.floor = version;
+        this.version = version;
+    }
+
+    /**
+     * Appends a change, dropping the oldest when full
+     * <br>
+     * Called in version order while the DAO holds its lock
+     */
+    @Override
+    public synchronized void needChanged(NeedChange change) {
+        if (size == ring.length) {
+            // Clients before the dropped change's version can no longer catch up
+            floor = Math.max(floor, ring[head].getVersion());
+            ring[head] = change;
+            head = (head + 1) % ring.length;
+        } else {
+            ring[(head + size++) % ring.length] = change;
+        }
+        version = change.getVersion();
+    }
+
+    /**
+     * Collapses the changes after the given version into a delta, keeping only
+     * the latest change to each need, in the order those were made
+     *
+     * @param since The version the client has
+     *
+     * @return the {@link NeedDelta delta}, or null if the changes since that
+     *         version are no longer held or the version is unknown
+     */
+    synchronized NeedDelta since(long since) {
+        if (since < floor || since > version)
+            return null;
+
+        Map<String, NeedChange> latest = new LinkedHashMap<>();
+        for (int i = size - 1; i >= 0; --i) { // newest first, stopping at the client's version
+            NeedChange change = ring[(head + i) % ring.length];
+            if (change.getVersion() <= since)
+                break;
+            latest.putIfAbsent(change.getNeed().getName(), change);
+        }
+
+        List<NeedChange> changes = new ArrayList<>(latest.values());
+        Collections.reverse(changes);
+        List<Need> upserts = new ArrayList<>();
+        List<String> deletes = new ArrayList<>();
+        for (NeedChange change : changes) {
+            if (change.getType() == NeedChange.Type.DELETED)
+                deletes.add(change.getNeed().getName());
+            else
+                upserts.add(change.getNeed());
+        }
+        return new NeedDelta(version, false, upserts.toArray(new Need[upserts.size()]),
+                deletes.toArray(new String[deletes.size()]));
+    }
+}
@@ -0,0 +1,191 @@
+package com.ufund.api.ufundapi.persistence;
+
+import java.util.List;
+
+import com.ufund.api.ufundapi.model.Need;
+import com.ufund.api.ufundapi.model.NeedStats;
+
+/**
+ * Immutable columns holding the cost and quantity of every {@linkplain Need
+ * need} in a {@link NeedSnapshot snapshot} as primitives
+ * <br>
+ * A need's dense id is its position in the snapshot. Costs are kept as whole
+ * cents so totals are exact, and aggregates scan two flat arrays instead of
+ * dereferencing a need object per entry.
+ *
+ * @author Ethan Hartman
+ */
+final class NeedColumns {
+    private final long[] cents; // Cost of each need in cents, by dense id
+    private final int[] quantities; // Quantity of each need, by dense id
+
+    /**
+     * Creates the columns of the given {@linkplain Need needs}
+     *
+     * @param needs The {@link Need needs}, their positions becoming their ids
+     */
+    NeedColumns(Need[] needs) {
+        cents = new long[needs.length];
+        quantities = new int[needs.length];
+        for (int i = 0; i < needs.length; ++i) {
+            cents[i] = toCents(needs[i].getCost());
+            quantities[i] = needs[i].getQuantity();
+        }
+    }
+
+    private NeedColumns(long[] cents, int[] quantities) {
+        this.cents = cents;
+        this.quantities = quantities;
+    }
+
+    /**
+     * Copies the columns with some of the {@linkplain Need needs} replaced
+     *
+     * @param ids      The id of each replaced {@link Need need}
+     * @param replaced The {@link Need needs} replacing them, in the same order
+     *
+     * @return the new columns
+     */
+    NeedColumns replace(int[] ids, List<Need> replaced) {
+        long[] replacedCents = cents.clone();
+        int[] replacedQuantities = quantities.clone();
+        for (int i = 0; i < ids.length; ++i) {
+            replacedCents[ids[i]] = toCents(replaced.get(i).getCost());
+            replacedQuantities[ids[i]] = replaced.get(i).getQuantity();
+        }
+        return new NeedColumns(replacedCents, replacedQuantities);
+    }
+
+    /**
+     * Copies the columns with a {@linkplain Need need} inserted, shifting the
+     * ids after it up by one
+     *
+     * @param id   The id of the inserted {@link Need need}
+     * @param need The {@link Need need} to insert
+     *
+     * @return the new columns
+     */
+    NeedColumns insert(int id, Need need) {
+        long[] insertedCents = new long[cents.length + 1];
+        int[] insertedQuantities = new int[quantities.length + 1];
+        System.arraycopy(cents, 0, insertedCents, 0, id);
+        System.arraycopy(cents, id, insertedCents, id + 1, cents.length - id);
+        System.arraycopy(quantities, 0, insertedQuantities, 0, id);
+        System.arraycopy(quantities, id, insertedQuantities, id + 1, quantities.length - id);
+        insertedCents[id] = toCents(need.getCost());
+        insertedQuantities[id] = need.getQuantity();
+        return new NeedColumns(insertedCents, insertedQuantities);
+    }
+
+    /**
+     * Copies the columns without a {@linkplain Need need}, shifting the ids
+     * after it down by one
+     *
+     * @param id The id of the removed {@link Need need}
+     *
+     * @return the new columns
+     */
+    NeedColumns remove(int id) {
+        long[] remainingCents = new long[cents.length - 1];
+        int[] remainingQuantities = new int[quantities.length - 1];
+        System.arraycopy(cents, 0, remainingCents, 0, id);
+        System.arraycopy(cents, id + 1, remainingCents, id, remainingCents.length - id);
+        System.arraycopy(quantities, 0, remainingQuantities, 0, id);
+        System.arraycopy(quantities, id + 1, remainingQuantities, id, remainingQuantities.length - id);
+        return new NeedColumns(remainingCents, remainingQuantities);
+    }
+
+    /**
+     * Converts a cost to whole cents
+     *
+     * @param cost The cost in dollars
+     *
+     * @return the cost rounded to the nearest cent
+     */
+    static long toCents(double cost) {
+        return Math.round(cost * 100);
+    }
+
+    /**
+     * @return the number of {@link Need needs} in the columns
+     */
+    int size() {
+        return cents.length;
+    }
+
+    /**
+     * @return the cost in cents of the {@link Need need} with the given id
+     */
+    long getCents(int id) {
+        return cents[id];
+    }
+
+    /**
+     * @return the quantity of the {@link Need need} with the given id
+     */
+    int getQuantity(int id) {
+        return quantities[id];
+    }
+
+    /**
+     * @return the {@link NeedStats stats} of every {@link Need need}, from a
+     *         single pass over the columns
+     */
+    NeedStats stats() {
+        Tally tally = new Tally();
+        for (int i = 0; i < cents.length; ++i)
+            tally.add(cents[i], quantities[i]);
+        return tally.toStats();
+    }
+
+    /**
+     * Computes the stats of the given {@linkplain Need needs} from the objects,
+     * for cupboards without columns
+     *
+     * @param needs The {@link Need needs}
+     *
+     * @return the {@link NeedStats stats} of every {@link Need need}
+     */
+    static NeedStats stats(Need[] needs) {
+        Tally tally = new Tally();
+        for (Need need : needs)
+            tally.add(toCents(need.getCost()), need.getQuantity());
+        return tally.toStats();
+    }
+
+    /**
+     * Accumulates the {@linkplain NeedStats stats} of {@link Need needs} added
+     * one at a time
+     */
+    static final class Tally {
+        private int count;
+        private int inStock;
+        private long units;
+        private long value; // in cents
+        private final int[] costs = new int[NeedStats.BUCKETS];
+        private final int[] quantities = new int[NeedStats.BUCKETS];
+
+        /**
+         * Adds a {@linkplain Need need} to the tally
+         *
+         * @param cents    The cost of the {@link Need need} in cents
+         * @param quantity The quantity of the {@link Need need}
+         */
+        void add(long cents, int quantity) {
+            ++count;
+            if (quantity > 0)
+                ++inStock;
+            units += quantity;
+            value += cents * quantity;
+            ++costs[NeedStats.costBucket(cents)];
+            ++quantities[NeedStats.quantityBucket(quantity)];
+        }
+
+        /**
+         * @return the {@link NeedStats stats} of every {@link Need need} added
+         */
+        NeedStats toStats() {
+            return new NeedStats(count, inStock, units, value / 100.0, costs.clone(), quantities.clone());
+        }
+    }
+}
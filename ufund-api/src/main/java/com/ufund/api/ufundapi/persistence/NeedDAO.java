@@ -1,10 +1,19 @@
 package com.ufund.api.ufundapi.persistence;
 
 import java.io.IOException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 
 import javax.management.openmbean.KeyAlreadyExistsException;
 
+import com.ufund.api.ufundapi.exceptions.NeedVersionConflictException;
 import com.ufund.api.ufundapi.model.Need;
+import com.ufund.api.ufundapi.model.NeedBatchResult;
+import com.ufund.api.ufundapi.model.NeedDelta;
+import com.ufund.api.ufundapi.model.NeedStats;
+import com.ufund.api.ufundapi.model.NeedSummary;
+import com.ufund.api.ufundapi.model.Page;
 
 /**
  * Defines the interface for Need object persistence
@@ -21,6 +30,73 @@ public interface NeedDAO {
      */
     Need[] getNeeds() throws IOException;
 
+    /**
+     * Gets the version of the {@linkplain Need needs}, which increases with every
+     * change to them
+     * 
+     * @return The current version
+     */
+    long getVersion();
+
+    /**
+     * Retrieves only the changes to the {@linkplain Need needs} since the given
+     * version, or every {@link Need need} when those changes are no longer known
+     * 
+     * @param version A version previously returned by {@link #getVersion()} or
+     *                a {@link NeedDelta delta}
+     * 
+     * @return The {@link NeedDelta delta} bringing a client at that version up to
+     *         date
+     * 
+     * @throws IOException if an issue with underlying storage
+     */
+    NeedDelta getNeedsSince(long version) throws IOException;
+
+    /**
+     * Retrieves one page of {@linkplain Need needs}, in name order
+     * 
+     * @param cursor The cursor returned with the previous page, null for the
+     *               first page
+     * 
+     * @param limit  The most {@link Need needs} on the page
+     * 
+     * @return A {@link Page page} of {@link Need need} objects, may be empty
+     * 
+     * @throws IOException              if an issue with underlying storage
+     * 
+     * @throws IllegalArgumentException if the cursor or limit is invalid
+     */
+    Page<Need> getNeeds(String cursor, int limit) throws IOException;
+
+    /**
+     * Retrieves one page of the {@linkplain Need needs} whose cost or quantity
+     * falls in the given range
+     * 
+     * @param order  The {@link NeedOrder order} of the page, {@link NeedOrder#COST
+     *               cost} or {@link NeedOrder#QUANTITY quantity}, whose attribute
+     *               the range bounds
+     * 
+     * @param min    The smallest cost or quantity included, null for no lower
+     *               bound
+     * 
+     * @param max    The largest cost or quantity included, null for no upper
+     *               bound
+     * 
+     * @param cursor The cursor returned with the previous page, null for the
+     *               first page
+     * 
+     * @param limit  The most {@link Need needs} on the page
+     * 
+     * @return A {@link Page page} of {@link Need need} objects, may be empty
+     * 
+     * @throws IOException              if an issue with underlying storage
+     * 
+     * @throws IllegalArgumentException if the order is not indexed, or the
+     *                                  cursor or limit is invalid
+     */
+    Page<Need> findNeedsInRange(NeedOrder order, Double min, Double max, String cursor, int limit)
+            throws IOException;
+
     /**
      * Finds all {@linkplain Need needs} whose name contains the given text
      * 
@@ -33,6 +109,37 @@ public interface NeedDAO {
      */
     Need[] findNeeds(String containsText) throws IOException;
 
+    /**
+     * Finds all {@linkplain Need needs} whose name contains the given text,
+     * optionally ignoring case
+     * 
+     * @param containsText The text to match against
+     * 
+     * @param ignoreCase   Whether differences in case are ignored
+     * 
+     * @return An array of {@link Need needs} whose names contains the given text,
+     *         may be empty
+     * 
+     * @throws IOException if an issue with underlying storage
+     */
+    Need[] findNeeds(String containsText, boolean ignoreCase) throws IOException;
+
+    /**
+     * Suggests the names of {@linkplain Need needs} starting with the given prefix
+     * 
+     * @param prefix The text every suggested name starts with
+     * 
+     * @param limit  The most names to suggest
+     * 
+     * @param order  The {@link NeedOrder order} the best suggestions are ranked by
+     * 
+     * @return An array of at most limit {@link Need need} names in the given
+     *         order, may be empty
+     * 
+     * @throws IOException if an issue with underlying storage
+     */
+    String[] suggestNeeds(String prefix, int limit, NeedOrder order) throws IOException;
+
     /**
      * Retrieves a {@linkplain Need need} with the given name
      * 
@@ -46,6 +153,38 @@ public interface NeedDAO {
      */
     Need getNeed(String name) throws IOException;
 
+    /**
+     * Retrieves every {@linkplain Need need} with one of the given names, all
+     * read from the same version of the cupboard
+     * 
+     * @param names The names of the {@link Need needs} to get
+     * 
+     * @return The {@link Need needs} found, keyed by name in the order given.
+     *         Names with no matching {@link Need need} are left out
+     * 
+     * @throws IOException if an issue with underlying storage
+     */
+    Map<String, Need> getNeeds(Collection<String> names) throws IOException;
+
+    /**
+     * Computes totals and distributions over every {@linkplain Need need}
+     * 
+     * @return The {@link NeedStats stats} of the cupboard
+     * 
+     * @throws IOException if underlying storage cannot be accessed
+     */
+    NeedStats getNeedStats() throws IOException;
+
+    /**
+     * Gets the totals of the cupboard, kept up to date by every change rather
+     * than recomputed
+     * 
+     * @return The {@link NeedSummary summary} of the cupboard
+     * 
+     * @throws IOException if underlying storage cannot be accessed
+     */
+    NeedSummary getNeedSummary() throws IOException;
+
     /**
      * Creates and saves a {@linkplain Need need}
      * 
@@ -56,7 +195,8 @@ public interface NeedDAO {
      * @throws IOException               if an issue with underlying storage
      * 
      * @throws KeyAlreadyExistsException if a {@link Need need} with the same name
-     *                                   already exists
+     *                                   already exists, or the name is taken by
+     *                                   a /needs route
      */
     Need createNeed(Need need) throws IOException, KeyAlreadyExistsException;
 
@@ -72,6 +212,62 @@ public interface NeedDAO {
      */
     Need updateNeed(Need need) throws IOException;
 
+    /**
+     * Updates and saves a {@linkplain Need need}, only if it has not changed
+     * since the given version
+     * <br>
+     * The version is checked and the {@link Need need} replaced under the same
+     * lock, so of several writers reading the same version only one succeeds
+     * and the others retry against the new one
+     * 
+     * @param need            {@link Need need} object to be updated and saved
+     * 
+     * @param expectedVersion The {@link Need#getVersion() version} of the stored
+     *                        {@link Need need} the update was based on
+     * 
+     * @return updated {@link Need need}, stamped with its new version, if
+     *         successful, null if {@link Need need} could not be found
+     * 
+     * @throws IOException                  if underlying storage cannot be
+     *                                      accessed
+     * 
+     * @throws NeedVersionConflictException if the stored {@link Need need} is at
+     *                                      another version
+     */
+    Need updateNeed(Need need, long expectedVersion) throws IOException, NeedVersionConflictException;
+
+    /**
+     * Creates and saves every {@linkplain Need need} in the batch, or none of
+     * them
+     * <br>
+     * The batch is validated and applied under a single lock acquisition and
+     * saved in a single write, however many needs it holds
+     * 
+     * @param batch The {@link Need needs} to create, in order
+     * 
+     * @return the {@link NeedBatchResult result} of each {@link Need need}, in
+     *         batch order
+     * 
+     * @throws IOException if underlying storage cannot be accessed
+     */
+    NeedBatchResult[] createNeeds(List<Need> batch) throws IOException;
+
+    /**
+     * Updates and saves every {@linkplain Need need} in the batch, or none of
+     * them
+     * <br>
+     * The batch is validated and applied under a single lock acquisition and
+     * saved in a single write, however many needs it holds
+     * 
+     * @param batch The {@link Need needs} to update, in order
+     * 
+     * @return the {@link NeedBatchResult result} of each {@link Need need}, in
+     *         batch order
+     * 
+     * @throws IOException if underlying storage cannot be accessed
+     */
+    NeedBatchResult[] updateNeeds(List<Need> batch) throws IOException;
+
     /**
      * Deletes a {@linkplain Need need} with the given name
      * 
@@ -84,4 +280,90 @@ public interface NeedDAO {
      * @throws IOException if underlying storage cannot be accessed
      */
     boolean deleteNeed(String name) throws IOException;
+
+    /**
+     * Deletes a {@linkplain Need need} with the given name, only if it has not
+     * changed since the given version
+     * 
+     * @param name            The name of the {@link Need need}
+     * 
+     * @param expectedVersion The {@link Need#getVersion() version} of the stored
+     *                        {@link Need need} the delete was based on
+     * 
+     * @return true if the {@link Need need} was deleted
+     *         <br>
+     *         false if Need with the given name does not exist
+     * 
+     * @throws IOException                  if underlying storage cannot be
+     *                                      accessed
+     * 
+     * @throws NeedVersionConflictException if the stored {@link Need need} is at
+     *                                      another version
+     */
+    boolean deleteNeed(String name, long expectedVersion) throws IOException, NeedVersionConflictException;
+
+    /**
+     * Reserves stock of a {@linkplain Need need}, taking the quantity away from
+     * it
+     * 
+     * @param name     The name of the {@link Need need}
+     * 
+     * @param quantity How many to reserve
+     * 
+     * @return true if reserved
+     *         <br>
+     *         false if the {@link Need need} does not exist or holds less than
+     *         the quantity, in which case nothing is taken
+     * 
+     * @throws IOException              if underlying storage cannot be accessed
+     * 
+     * @throws IllegalArgumentException if the quantity is not positive
+     */
+    boolean reserveNeed(String name, int quantity) throws IOException;
+
+    /**
+     * Reserves stock of every {@linkplain Need need} given, or of none of them
+     * <br>
+     * Concurrent reservations never take more than a {@link Need need} holds. A
+     * {@link Need need} whose stock runs out is deleted, as fully funded needs
+     * leave the cupboard
+     * 
+     * @param quantities How many of each {@link Need need} to reserve, keyed by
+     *                   name
+     * 
+     * @return true if every quantity was reserved, which an empty reservation
+     *         always is, without changing the store
+     *         <br>
+     *         false if any {@link Need need} does not exist or holds less than
+     *         its quantity, in which case nothing is taken
+     * 
+     * @throws IOException              if underlying storage cannot be accessed
+     * 
+     * @throws IllegalArgumentException if any quantity is not positive
+     */
+    boolean reserveNeeds(Map<String, Integer> quantities) throws IOException;
+
+    /**
+     * Waits until every committed change to the {@linkplain Need needs} is
+     * written to underlying storage
+     * 
+     * @throws IOException if underlying storage cannot be accessed
+     */
+    void flush() throws IOException;
+
+    /**
+     * Registers a listener notified of every change to the {@linkplain Need
+     * needs}, once per changed {@link Need need} and in version order
+     * 
+     * @param listener The {@link NeedChangeListener listener} to notify
+     */
+    void addChangeListener(NeedChangeListener listener);
+
+    /**
+     * Stops notifying a listener registered with
+     * {@link #addChangeListener(NeedChangeListener)}
+     * 
+     * @param listener The {@link NeedChangeListener listener} to remove
+     */
+    void removeChangeListener(NeedChangeListener listener);
 }
\ No newline at end of file
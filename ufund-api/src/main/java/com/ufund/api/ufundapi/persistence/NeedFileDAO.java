@@ -3,36 +3,122 @@ package com.ufund.api.ufundapi.persistence;
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
 import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
 
+import javax.annotation.PreDestroy;
 import javax.management.openmbean.KeyAlreadyExistsException;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ufund.api.ufundapi.exceptions.NeedVersionConflictException;
 import com.ufund.api.ufundapi.model.Need;
+import com.ufund.api.ufundapi.model.NeedBatchResult;
+import com.ufund.api.ufundapi.model.NeedChange;
+import com.ufund.api.ufundapi.model.NeedDelta;
+import com.ufund.api.ufundapi.model.NeedStats;
+import com.ufund.api.ufundapi.model.NeedSummary;
+import com.ufund.api.ufundapi.model.Page;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Component;
 
 /**
  * Implements the functionality for JSON file-based peristance for Needs
+ * <br>
+ * By default every mutation rewrites the whole snapshot file. When the
+ * persistence mode is {@value #PERSISTENCE_JOURNAL}, mutations are instead
+ * appended to a {@link NeedJournal journal} next to the snapshot, which is
+ * checkpointed back into the snapshot every checkpoint interval records
+ * <br>
+ * Snapshot writes go through the shared {@link FileFlusher flusher}, so the
+ * configured durability decides whether they happen in the requesting thread
+ * or are coalesced in the background
+ * <br>
+ * Writers serialize on the map's lock, which the private helpers that change
+ * the map expect to be held, and publish an immutable
+ * {@link NeedSnapshot snapshot} after every mutation, which readers use
+ * without locking. A single need created, updated or deleted is patched into
+ * the previous snapshot, so it never walks the map. Name searches are
+ * narrowed by a trigram {@link NeedNameIndex index}, and cost and quantity
+ * ranges are served by {@link NeedRangeIndex range indexes}, all kept up to
+ * date alongside the map
+ * <br>
+ * When columnar, every snapshot also keeps the costs and quantities of its
+ * needs in primitive {@link NeedColumns columns}, so stats are a scan over two
+ * flat arrays rather than a walk over need objects
+ * <br>
+ * The cupboard's {@link NeedSummary summary} is kept in running
+ * {@link NeedTotals totals}, adjusted by every need written or removed and
+ * published with the snapshot, so it never needs a scan
+ * <br>
+ * Batches of needs are validated and applied under a single lock acquisition,
+ * then published and saved once
+ * <br>
+ * Every need written is stamped with the version of the snapshot publishing
+ * it, which conditional updates and deletes compare against under the lock
+ * <br>
+ * The remaining quantity of each need is mirrored in its {@link NeedStock
+ * stock}. Reservations take from the stock with compare-and-set, without the
+ * map's lock, so concurrent checkouts of a hot need never serialize on
+ * deciding whether it can be funded. Only publishing and saving the new
+ * quantities takes the lock, and a reservation finding its quantities already
+ * published by a concurrent one skips the write
  * 
  * {@literal @}Component Spring annotation instantiates a single instance of
  * this
- * class and injects the instance into other classes as needed
+ * class and injects the instance into other classes as needed, unless
+ * needs.store selects the {@link NeedMappedFileDAO mapped store}
  * 
  * @author Ethan Hartman
  */
 @Component
+@ConditionalOnProperty(name = "needs.store", havingValue = "file", matchIfMissing = true)
 public class NeedFileDAO implements NeedDAO {
     private static String NeedNameExistsException = "Need with the name '%s' already exists";
+    private static String UnknownPersistenceException = "Unknown needs persistence mode '%s'";
+    static String NeedNameReservedException = "Need name '%s' is taken by a /needs route";
+    // Names under /needs served by their own routes, which GET /needs/{name} could never reach
+    static final Set<String> RESERVED_NAMES = Set.of("batch", "stats", "stream", "suggest", "summary");
 
-    Map<String, Need> needs; // Cupboard map of needs, keyed by need name
+    static final String PERSISTENCE_SNAPSHOT = "snapshot";
+    static final String PERSISTENCE_JOURNAL = "journal";
+    static final int DEFAULT_CHECKPOINT_INTERVAL = 1000;
+
+    Map<String, Need> needs; // Cupboard map of needs, keyed by need name, guarded by its own lock
+    private volatile NeedSnapshot snapshot = NeedSnapshot.EMPTY; // Latest published view of the map for readers
+    private NeedNameIndex nameIndex; // Trigram index over the names in the map
+    private NeedRangeIndex costIndex; // Needs ordered by cost, cheapest first
+    private NeedRangeIndex quantityIndex; // Needs ordered by quantity, most remaining first
     private ObjectMapper objectMapper; // Used to serialize/deserialize Java Objects to/from JSON objects
     private String filename; // Filename to read from and write to
+    private NeedJournal journal; // Journal of mutations since the last snapshot, null in snapshot mode
+    private int checkpointInterval; // Journal records written before checkpointing a snapshot
+    private FileFlusher.Store store; // Commits snapshot writes with the configured durability
+    private boolean binary; // Whether a binary snapshot is kept alongside the JSON file
+    private boolean columnar; // Whether snapshots keep primitive columns of the needs
+    private final NeedChangeListeners listeners = new NeedChangeListeners(); // Notified of every change
+    private int changeCapacity; // Recent changes kept to answer delta requests
+    private NeedChangeLog changeLog; // Recent changes, created once loaded
+    private final Map<String, NeedStock> stock = new ConcurrentHashMap<>(); // Remaining quantity of each need
+    private final NeedTotals totals = new NeedTotals(); // Running totals of the map, guarded by its lock
+    private volatile NeedSummary summary = totals.toSummary(); // Totals published with the latest snapshot
 
     /**
-     * Creates a Need File Data Access Object
+     * Creates a Need File Data Access Object which rewrites the snapshot file on
+     * every mutation
      * 
      * @param filename     Filename to read from and write to
      * @param objectMapper Provides JSON Object to/from Java Object serialization
@@ -40,62 +126,240 @@ public class NeedFileDAO implements NeedDAO {
      * 
      * @throws IOException when file cannot be accessed or read from
      */
-    public NeedFileDAO(@Value("${needs.file}") String filename, ObjectMapper objectMapper) throws IOException {
+    public NeedFileDAO(String filename, ObjectMapper objectMapper) throws IOException {
+        this(filename, PERSISTENCE_SNAPSHOT, DEFAULT_CHECKPOINT_INTERVAL, FileFlusher.Durability.SYNC.name(),
+                false, false, NeedChangeLog.DEFAULT_CAPACITY, objectMapper, new FileFlusher(), new StoreLoader());
+    }
+
+    /**
+     * Creates a Need File Data Access Object
+     * 
+     * @param filename           Filename to read from and write to
+     * @param persistence        The persistence mode, either
+     *                           {@value #PERSISTENCE_SNAPSHOT} or
+     *                           {@value #PERSISTENCE_JOURNAL}
+     * @param checkpointInterval The number of journal records written before
+     *                           they are checkpointed into the snapshot file
+     * @param durability         The {@link FileFlusher.Durability durability} of
+     *                           snapshot writes
+     * @param binary             Whether a {@link BinarySnapshot binary snapshot}
+     *                           is kept alongside the snapshot file and
+     *                           preferred when loading
+     * @param columnar           Whether every {@link NeedSnapshot snapshot}
+     *                           keeps {@link NeedColumns columns} of the needs'
+     *                           costs and quantities for stats
+     * @param changeCapacity     The number of recent changes kept to answer
+     *                           {@link #getNeedsSince(long) delta} requests
+     * @param objectMapper       Provides JSON Object to/from Java Object
+     *                           serialization and deserialization
+     * @param flusher            The {@link FileFlusher flusher} which commits
+     *                           snapshot writes
+     * @param loader             The {@link StoreLoader loader} which loads the
+     *                           snapshot file
+     * 
+     * @throws IOException when file cannot be accessed or read from
+     */
+    @Autowired
+    public NeedFileDAO(@Value("${needs.file}") String filename,
+            @Value("${needs.persistence:" + PERSISTENCE_SNAPSHOT + "}") String persistence,
+            @Value("${needs.journal.checkpoint:" + DEFAULT_CHECKPOINT_INTERVAL + "}") int checkpointInterval,
+            @Value("${needs.durability:sync}") String durability,
+            @Value("${needs.binary:false}") boolean binary,
+            @Value("${needs.columnar:false}") boolean columnar,
+            @Value("${needs.changes.capacity:" + NeedChangeLog.DEFAULT_CAPACITY + "}") int changeCapacity,
+            ObjectMapper objectMapper, FileFlusher flusher, StoreLoader loader) throws IOException {
         this.filename = filename;
+        this.binary = binary;
+        this.columnar = columnar;
+        this.changeCapacity = changeCapacity;
         this.objectMapper = objectMapper;
-        load(); // load the needs from the file
+        this.checkpointInterval = checkpointInterval;
+        this.store = flusher.register("needs", FileFlusher.Durability.parse(durability), this::write);
+        if (PERSISTENCE_JOURNAL.equals(persistence))
+            this.journal = new NeedJournal(filename, objectMapper);
+        else if (!PERSISTENCE_SNAPSHOT.equals(persistence))
+            throw new IllegalArgumentException(String.format(UnknownPersistenceException, persistence));
+        loader.load("needs", this::load); // load the needs from the file
     }
 
     /**
-     * Generates an array of {@linkplain Need needs} from the tree map
-     * 
-     * @return The array of {@link Need needs}, may be empty
+     * Stamps a {@linkplain Need need} with the version of the next snapshot,
+     * which publishes it
+     * <br>
+     * Called before the {@link Need need} is put
      */
-    private Need[] getNeedsArray() {
-        return getNeedsArray(null);
+    private void stamp(Need need) {
+        need.setVersion(snapshot.getVersion() + 1);
     }
 
     /**
-     * Generates an array of {@linkplain Need needs} from the tree map for any
-     * {@linkplain Need needs} that contains the text specified by containsText
+     * Publishes a new {@linkplain NeedSnapshot snapshot} of the tree map for
+     * readers
      * <br>
-     * If containsText is null, the array contains all of the {@linkplain Need
-     * needs}
-     * in the tree map
+     * Called after loading and after batch mutations, before they are
+     * committed; a single need created, updated or deleted patches the current
+     * snapshot instead
+     */
+    private void publish() {
+        snapshot = NeedSnapshot.of(snapshot.getVersion() + 1, needs.values(), columnar);
+        summary = totals.toSummary();
+    }
+
+    /**
+     * Publishes a new {@linkplain NeedSnapshot snapshot} replacing only the
+     * given {@link Need needs}, without walking the tree map
+     * <br>
+     * Called in place of {@link #publish()} after a mutation which only
+     * replaced existing needs
      * 
-     * @return The array of {@link Need needs}, may be empty
+     * @param replaced The {@link Need needs} put in place of those of the same
+     *                 names
      */
-    private Need[] getNeedsArray(String containsText) { // if containsText == null, no filter
-        ArrayList<Need> needArrayList = new ArrayList<>();
-        for (Need need : needs.values())
-            if (containsText == null || need.getName().contains(containsText))
-                needArrayList.add(need);
+    private void publish(List<Need> replaced) {
+        snapshot = snapshot.replace(snapshot.getVersion() + 1, replaced);
+        summary = totals.toSummary();
+    }
 
-        Need[] needArray = new Need[needArrayList.size()];
-        needArrayList.toArray(needArray);
-        return needArray;
+    /**
+     * Publishes a new {@linkplain NeedSnapshot snapshot} with the given
+     * {@link Need need} inserted, without walking the tree map
+     * 
+     * @param created The {@link Need need} put under a new name
+     */
+    private void publishCreated(Need created) {
+        snapshot = snapshot.insert(snapshot.getVersion() + 1, created);
+        summary = totals.toSummary();
     }
 
     /**
-     * Saves the {@linkplain Need needs} from the map into the file as an array of
-     * JSON objects
+     * Publishes a new {@linkplain NeedSnapshot snapshot} without the
+     * {@link Need need} of the given name, without walking the tree map
      * 
-     * @return true if the {@link Need needs} were written successfully
+     * @param name The name of the {@link Need need} removed
+     */
+    private void publishRemoved(String name) {
+        snapshot = snapshot.remove(snapshot.getVersion() + 1, name);
+        summary = totals.toSummary();
+    }
+
+    /**
+     * Writes the {@linkplain Need needs} from the map into the file as an array of
+     * JSON objects
      * 
      * @throws IOException when file cannot be accessed or written to
      */
-    private boolean save() throws IOException {
-        Need[] needArray = getNeedsArray();
+    private void write() throws IOException {
+        Need[] needArray = snapshot.getNeeds();
+        File file = new File(filename);
+        if (binary)
+            BinarySnapshot.discard(file);
 
         // Serializes the Java Objects to JSON objects into the file
         // writeValue will thrown an IOException if there is an issue
         // with the file or reading from the file
-        objectMapper.writeValue(new File(filename), needArray);
-        return true;
+        objectMapper.writeValue(file, needArray);
+    }
+
+    /**
+     * Saves the {@linkplain StoreVersion version} of the cupboard and, when
+     * kept, its {@linkplain BinarySnapshot binary snapshot} once every commit
+     * is written
+     * <br>
+     * In journal mode the journal is checkpointed first, since the binary
+     * snapshot must match the JSON file it is stamped with
+     * 
+     * @throws IOException when file cannot be accessed or written to
+     */
+    @PreDestroy
+    public void close() throws IOException {
+        File file = new File(filename);
+        store.flush();
+        synchronized (needs) {
+            StoreVersion.save(file, snapshot.getVersion());
+            if (!binary)
+                return;
+            if (journal != null && journal.size() > 0)
+                checkpoint();
+            BinarySnapshot.write(BinarySnapshot.NEEDS, file, snapshot.getNeeds());
+        }
+    }
+
+    /**
+     * Commits the {@linkplain Need needs} from the map to the file as an array of
+     * JSON objects, with the configured durability
+     * <br>
+     * Callers wait on the returned commit with {@link FileFlusher.Store#await}
+     * once the map's lock is released
+     * 
+     * @return a future completed once the {@link Need needs} are written
+     * 
+     * @throws IOException when file cannot be accessed or written to
+     */
+    private CompletableFuture<Void> save() throws IOException {
+        return store.commitAsync();
+    }
+
+    /**
+     * Commits a single mutation of the map
+     * <br>
+     * In snapshot mode the whole map is saved, in journal mode the record is
+     * appended and a snapshot is only checkpointed once enough records build up
+     * 
+     * @param record The {@link NeedJournal.Record record} of the mutation
+     * 
+     * @return a future completed once the mutation is written
+     * 
+     * @throws IOException when file cannot be accessed or written to
+     */
+    private CompletableFuture<Void> save(NeedJournal.Record record) throws IOException {
+        if (journal == null)
+            return save();
+
+        journal.append(record);
+        if (journal.size() >= checkpointInterval)
+            checkpoint();
+        return CompletableFuture.completedFuture(null);
+    }
+
+    /**
+     * Commits a batch of mutations of the map in a single write
+     * <br>
+     * In journal mode a batch which would fill the journal is checkpointed
+     * straight into a snapshot instead of being appended first
+     * 
+     * @param records The {@link NeedJournal.Record records} of the mutations
+     * 
+     * @return a future completed once the mutations are written
+     * 
+     * @throws IOException when file cannot be accessed or written to
+     */
+    private CompletableFuture<Void> save(List<NeedJournal.Record> records) throws IOException {
+        if (journal == null)
+            return save();
+
+        if (journal.size() + records.size() >= checkpointInterval)
+            checkpoint();
+        else
+            journal.append(records);
+        return CompletableFuture.completedFuture(null);
+    }
+
+    /**
+     * Saves a snapshot of the map and discards the journal it now covers
+     * <br>
+     * Replaying journal records over a newer snapshot is harmless, so a crash
+     * between the two steps loses nothing
+     * 
+     * @throws IOException when file cannot be accessed or written to
+     */
+    private void checkpoint() throws IOException {
+        write();
+        journal.reset();
     }
 
     /**
-     * Loads {@linkplain Need needs} from the JSON file into the map
+     * Loads {@linkplain Need needs} from the JSON file into the map, or from its
+     * {@link BinarySnapshot binary snapshot} when one is kept and current
      * 
      * @return true if the file was read successfully
      * 
@@ -104,81 +368,598 @@ public class NeedFileDAO implements NeedDAO {
     private boolean load() throws IOException {
         needs = new TreeMap<>();
 
-        // Deserializes the JSON objects from the file into an array of needs
-        // readValue will throw an IOException if there's an issue with the file
-        // or reading from the file
-        Need[] needArray = objectMapper.readValue(new File(filename), Need[].class);
+        File file = new File(filename);
+        Need[] needArray = binary ? BinarySnapshot.read(BinarySnapshot.NEEDS, file) : null;
+        if (needArray != null) {
+            for (Need need : needArray)
+                needs.put(need.getName(), need);
+        } else {
+            // Deserializes the JSON objects from the file one at a time, adding each
+            // need to the tree map as it is parsed. Throws an IOException if there's
+            // an issue with the file or reading from the file
+            JsonArrayReader.forEach(objectMapper, file, Need.class, need -> needs.put(need.getName(), need));
+            if (binary) // faster the next time
+                BinarySnapshot.write(BinarySnapshot.NEEDS, file, needs.values().toArray(new Need[needs.size()]));
+        }
 
-        // Add each need to the tree map
-        for (Need need : needArray)
-            needs.put(need.getName(), need);
+        // Bring the snapshot up to date with any mutations journaled since
+        int replayed = journal != null ? journal.replay(needs) : 0;
+        nameIndex = new NeedNameIndex();
+        costIndex = new NeedRangeIndex(Need::getCost, false);
+        quantityIndex = new NeedRangeIndex(Need::getQuantity, true);
+        long version = StoreVersion.seed(file);
+        for (Need need : needs.values()) {
+            need.setVersion(version);
+            stock.put(need.getName(), new NeedStock(need.getQuantity()));
+            totals.put(need);
+            nameIndex.add(need.getName());
+            costIndex.put(need);
+            quantityIndex.put(need);
+        }
+        snapshot = NeedSnapshot.of(version, needs.values(), columnar);
+        summary = totals.toSummary();
+        changeLog = new NeedChangeLog(changeCapacity, snapshot.getVersion());
+        listeners.add(changeLog);
+        if (replayed >= checkpointInterval)
+            checkpoint();
         return true;
     }
 
     /**
      ** {@inheritDoc}
+     * <br>
+     * Served from the published snapshot without locking, the returned array is
+     * shared between callers and must not be modified
      */
     public Need[] getNeeds() {
-        synchronized (needs) {
-            return getNeedsArray();
+        return snapshot.getNeeds();
+    }
+
+    /**
+     ** {@inheritDoc}
+     */
+    public long getVersion() {
+        return snapshot.getVersion();
+    }
+
+    /**
+     ** {@inheritDoc}
+     * <br>
+     * Answered from the recent changes without locking the map, a resync is
+     * served from the published snapshot
+     */
+    public NeedDelta getNeedsSince(long version) {
+        NeedDelta delta = changeLog.since(version);
+        if (delta != null)
+            return delta;
+        NeedSnapshot current = snapshot;
+        return NeedDelta.resync(current.getVersion(), current.getNeeds());
+    }
+
+    /**
+     ** {@inheritDoc}
+     */
+    public Page<Need> getNeeds(String cursor, int limit) {
+        Page.checkLimit(limit);
+        NeedSnapshot current = snapshot;
+        int start = 0;
+        if (cursor != null) {
+            // Resume after the last name of the previous page, even if it was deleted since
+            int index = current.indexOf(Page.decodeCursor(cursor, 1)[0]);
+            start = index >= 0 ? index + 1 : -index - 1;
+        }
+        int end = Math.min(start + limit, current.size());
+        List<Need> items = new ArrayList<>(Arrays.asList(current.getNeeds()).subList(start, end));
+        return new Page<>(items, end < current.size() ? Page.encodeCursor(current.getNames()[end - 1]) : null);
+    }
+
+    /**
+     ** {@inheritDoc}
+     */
+    public Page<Need> findNeedsInRange(NeedOrder order, Double min, Double max, String cursor, int limit) {
+        Page.checkLimit(limit);
+        NeedRangeIndex index;
+        if (order == NeedOrder.COST)
+            index = costIndex;
+        else if (order == NeedOrder.QUANTITY)
+            index = quantityIndex;
+        else
+            throw new IllegalArgumentException("Needs are not indexed by " + order);
+
+        NeedRangeIndex.Key after = null;
+        if (cursor != null) {
+            String[] keys = Page.decodeCursor(cursor, 2);
+            after = new NeedRangeIndex.Key(Double.parseDouble(keys[0]), keys[1]);
         }
+
+        // One extra need tells whether there is another page
+        List<Map.Entry<NeedRangeIndex.Key, Need>> found = index.range(min, max, after, limit + 1);
+        List<Need> items = new ArrayList<>(Math.min(found.size(), limit));
+        for (int i = 0; i < found.size() && i < limit; ++i)
+            items.add(found.get(i).getValue());
+        String next = null;
+        if (found.size() > limit) {
+            NeedRangeIndex.Key last = found.get(limit - 1).getKey();
+            next = Page.encodeCursor(Double.toString(last.value), last.name);
+        }
+        return new Page<>(items, next);
     }
 
     /**
      ** {@inheritDoc}
      */
     public Need[] findNeeds(String containsText) {
-        synchronized (needs) {
-            return getNeedsArray(containsText);
+        return findNeeds(containsText, false);
+    }
+
+    /**
+     ** {@inheritDoc}
+     */
+    public Need[] findNeeds(String containsText, boolean ignoreCase) {
+        NeedSnapshot current = snapshot; // taken first, names are indexed before they are published
+        ArrayList<Need> needArrayList = new ArrayList<>();
+        List<String> candidates = nameIndex.candidates(containsText);
+        if (candidates == null) {
+            // Too short to index, check every need
+            for (Need need : current.getNeeds())
+                if (NeedNameIndex.matches(need.getName(), containsText, ignoreCase))
+                    needArrayList.add(need);
+        } else {
+            for (String name : candidates) {
+                Need need = current.getNeed(name);
+                if (need != null && NeedNameIndex.matches(name, containsText, ignoreCase))
+                    needArrayList.add(need);
+            }
         }
+        return needArrayList.toArray(new Need[needArrayList.size()]);
+    }
+
+    /**
+     ** {@inheritDoc}
+     */
+    public String[] suggestNeeds(String prefix, int limit, NeedOrder order) {
+        NeedSnapshot current = snapshot;
+        String[] names = current.getNames();
+        int start = current.indexOf(prefix);
+        if (start < 0)
+            start = -start - 1;
+
+        if (order == NeedOrder.NAME) {
+            // Names sharing the prefix are contiguous, the first few are the answer
+            ArrayList<String> suggestions = new ArrayList<>(Math.min(limit, 16));
+            for (int i = start; i < names.length && suggestions.size() < limit && names[i].startsWith(prefix); ++i)
+                suggestions.add(names[i]);
+            return suggestions.toArray(new String[suggestions.size()]);
+        }
+
+        // Keep the best limit needs of the range, worst on top of the heap
+        Comparator<Need> comparator = order.comparator();
+        PriorityQueue<Need> best = new PriorityQueue<>(comparator.reversed());
+        Need[] needs = current.getNeeds();
+        for (int i = start; i < names.length && names[i].startsWith(prefix); ++i) {
+            if (best.size() < limit)
+                best.add(needs[i]);
+            else if (limit > 0 && comparator.compare(needs[i], best.peek()) < 0) {
+                best.poll();
+                best.add(needs[i]);
+            }
+        }
+        String[] suggestions = new String[best.size()];
+        for (int i = suggestions.length - 1; i >= 0; --i)
+            suggestions[i] = best.poll().getName();
+        return suggestions;
     }
 
     /**
      ** {@inheritDoc}
      */
     public Need getNeed(String name) {
-        synchronized (needs) {
-            return needs.containsKey(name) ? needs.get(name) : null;
+        return snapshot.getNeed(name);
+    }
+
+    /**
+     ** {@inheritDoc}
+     * <br>
+     * Every name is looked up in the one published snapshot, without locking
+     */
+    public Map<String, Need> getNeeds(Collection<String> names) {
+        NeedSnapshot current = snapshot;
+        Map<String, Need> found = new LinkedHashMap<>();
+        for (String name : names) {
+            Need need = current.getNeed(name);
+            if (need != null)
+                found.put(name, need);
         }
+        return found;
+    }
+
+    /**
+     ** {@inheritDoc}
+     * <br>
+     * Computed from the published snapshot without locking
+     */
+    public NeedStats getNeedStats() {
+        return snapshot.getStats();
+    }
+
+    /**
+     ** {@inheritDoc}
+     * <br>
+     * Published with the snapshot, so it costs nothing to read
+     */
+    public NeedSummary getNeedSummary() {
+        return summary;
     }
 
     /**
      ** {@inheritDoc}
      */
     public Need createNeed(Need need) throws IOException, KeyAlreadyExistsException {
+        CompletableFuture<Void> commit;
+        if (RESERVED_NAMES.contains(need.getName()))
+            throw new KeyAlreadyExistsException(String.format(NeedNameReservedException, need.getName()));
         synchronized (needs) {
             if (needs.containsKey(need.getName()))
                 throw new KeyAlreadyExistsException(String.format(NeedNameExistsException, need.getName()));
+            stamp(need);
             needs.put(need.getName(), need);
-            save(); // may throw an IOException
-            return need;
+            stock.put(need.getName(), new NeedStock(need.getQuantity()));
+            totals.put(need);
+            nameIndex.add(need.getName());
+            costIndex.put(need);
+            quantityIndex.put(need);
+            publishCreated(need);
+            listeners.publish(NeedChange.Type.CREATED, snapshot.getVersion(), need);
+            commit = save(NeedJournal.Record.put(need)); // may throw an IOException
         }
+        store.await(commit); // may throw an IOException
+        return need;
     }
 
     /**
      ** {@inheritDoc}
      */
     public Need updateNeed(Need need) throws IOException {
+        CompletableFuture<Void> commit;
         synchronized (needs) {
             if (!needs.containsKey(need.getName()))
                 return null; // need does not exist
 
-            needs.put(need.getName(), need);
-            save(); // may throw an IOException
-            return need;
+            commit = replace(need); // may throw an IOException
+        }
+        store.await(commit); // may throw an IOException
+        return need;
+    }
+
+    /**
+     ** {@inheritDoc}
+     */
+    public Need updateNeed(Need need, long expectedVersion) throws IOException, NeedVersionConflictException {
+        CompletableFuture<Void> commit;
+        synchronized (needs) {
+            Need stored = needs.get(need.getName());
+            if (stored == null)
+                return null; // need does not exist
+            if (stored.getVersion() != expectedVersion)
+                throw new NeedVersionConflictException(need.getName(), expectedVersion, stored.getVersion());
+
+            commit = replace(need); // may throw an IOException
+        }
+        store.await(commit); // may throw an IOException
+        return need;
+    }
+
+    /**
+     * Replaces a stored {@linkplain Need need}, publishing and committing the
+     * change
+     * 
+     * @param need The {@link Need need} to store in place of the one with its
+     *             name
+     * 
+     * @return a future completed once the change is written
+     * 
+     * @throws IOException when file cannot be accessed or written to
+     */
+    private CompletableFuture<Void> replace(Need need) throws IOException {
+        stamp(need);
+        needs.put(need.getName(), need);
+        stock.put(need.getName(), new NeedStock(need.getQuantity())); // in-flight reservations retry against it
+        totals.put(need);
+        costIndex.put(need);
+        quantityIndex.put(need);
+        publish(List.of(need));
+        listeners.publish(NeedChange.Type.UPDATED, snapshot.getVersion(), need);
+        return save(NeedJournal.Record.put(need));
+    }
+
+    /**
+     ** {@inheritDoc}
+     */
+    public NeedBatchResult[] createNeeds(List<Need> batch) throws IOException {
+        return applyBatch(batch, true);
+    }
+
+    /**
+     ** {@inheritDoc}
+     */
+    public NeedBatchResult[] updateNeeds(List<Need> batch) throws IOException {
+        return applyBatch(batch, false);
+    }
+
+    /**
+     * Checks whether a batch item can be applied to a cupboard
+     * <br>
+     * Called while holding the cupboard's lock
+     * 
+     * @param need   The {@link Need need} to check
+     * @param create Whether the item is being created rather than updated
+     * @param seen   The names of the earlier items in the batch
+     * @param exists Whether a {@link Need need} with the given name is stored
+     * 
+     * @return the {@link NeedBatchResult.Status status} of the item
+     */
+    static NeedBatchResult.Status validate(Need need, boolean create, Set<String> seen, Predicate<String> exists) {
+        if (need == null || need.getName() == null || need.getName().isBlank() || !(need.getCost() >= 0)
+                || need.getQuantity() < 0)
+            return NeedBatchResult.Status.INVALID;
+        if (!seen.add(need.getName()))
+            return NeedBatchResult.Status.DUPLICATE;
+        boolean stored = exists.test(need.getName());
+        if (create && (stored || RESERVED_NAMES.contains(need.getName())))
+            return NeedBatchResult.Status.CONFLICT;
+        if (!create && !stored)
+            return NeedBatchResult.Status.NOT_FOUND;
+        return NeedBatchResult.Status.VALID;
+    }
+
+    /**
+     * Validates a batch and, when every item is valid, applies it to the map and
+     * commits it in a single write
+     * 
+     * @param batch  The {@link Need needs} to apply, in order
+     * @param create Whether the {@link Need needs} are created rather than
+     *               updated
+     * 
+     * @return the {@link NeedBatchResult result} of each {@link Need need}
+     * 
+     * @throws IOException when file cannot be accessed or written to
+     */
+    private NeedBatchResult[] applyBatch(List<Need> batch, boolean create) throws IOException {
+        NeedBatchResult[] results = new NeedBatchResult[batch.size()];
+        if (batch.isEmpty())
+            return results;
+
+        CompletableFuture<Void> commit;
+        synchronized (needs) {
+            boolean valid = true;
+            Set<String> seen = new HashSet<>();
+            for (int i = 0; i < results.length; ++i) {
+                Need need = batch.get(i);
+                NeedBatchResult.Status status = validate(need, create, seen, needs::containsKey);
+                valid &= status.isSuccess();
+                results[i] = new NeedBatchResult(i, need != null ? need.getName() : null, status);
+            }
+            if (!valid)
+                return results; // all-or-nothing, the map is untouched
+
+            NeedBatchResult.Status applied = create ? NeedBatchResult.Status.CREATED
+                    : NeedBatchResult.Status.UPDATED;
+            List<NeedJournal.Record> records = new ArrayList<>(results.length);
+            for (int i = 0; i < results.length; ++i) {
+                Need need = batch.get(i);
+                stamp(need);
+                needs.put(need.getName(), need);
+                stock.put(need.getName(), new NeedStock(need.getQuantity()));
+                if (create)
+                    nameIndex.add(need.getName());
+                totals.put(need);
+                costIndex.put(need);
+                quantityIndex.put(need);
+                records.add(NeedJournal.Record.put(need));
+                results[i] = new NeedBatchResult(i, need.getName(), applied);
+            }
+            publish(); // once for the whole batch
+            listeners.publish(create ? NeedChange.Type.CREATED : NeedChange.Type.UPDATED, snapshot.getVersion(),
+                    batch);
+            commit = save(records); // may throw an IOException
         }
+        store.await(commit); // may throw an IOException
+        return results;
     }
 
     /**
      ** {@inheritDoc}
      */
     public boolean deleteNeed(String name) throws IOException {
+        CompletableFuture<Void> commit;
         synchronized (needs) {
-            if (needs.containsKey(name)) {
-                needs.remove(name);
-                return save();
-            } else
+            if (!needs.containsKey(name))
                 return false;
+
+            commit = remove(name); // may throw an IOException
+        }
+        store.await(commit); // may throw an IOException
+        return true;
+    }
+
+    /**
+     ** {@inheritDoc}
+     */
+    public boolean deleteNeed(String name, long expectedVersion) throws IOException, NeedVersionConflictException {
+        CompletableFuture<Void> commit;
+        synchronized (needs) {
+            Need stored = needs.get(name);
+            if (stored == null)
+                return false;
+            if (stored.getVersion() != expectedVersion)
+                throw new NeedVersionConflictException(name, expectedVersion, stored.getVersion());
+
+            commit = remove(name); // may throw an IOException
         }
+        store.await(commit); // may throw an IOException
+        return true;
+    }
+
+    /**
+     * Removes a stored {@linkplain Need need}, publishing and committing the
+     * change
+     * 
+     * @param name The name of the stored {@link Need need}
+     * 
+     * @return a future completed once the change is written
+     * 
+     * @throws IOException when file cannot be accessed or written to
+     */
+    private CompletableFuture<Void> remove(String name) throws IOException {
+        Need removed = needs.remove(name);
+        stock.remove(name);
+        totals.remove(name);
+        publishRemoved(name);
+        listeners.publish(NeedChange.Type.DELETED, snapshot.getVersion(), removed);
+        nameIndex.remove(name);
+        costIndex.remove(name);
+        quantityIndex.remove(name);
+        return save(NeedJournal.Record.delete(name));
+    }
+
+    /**
+     ** {@inheritDoc}
+     */
+    public boolean reserveNeed(String name, int quantity) throws IOException {
+        return reserveNeeds(Map.of(name, quantity));
+    }
+
+    /**
+     ** {@inheritDoc}
+     * <br>
+     * Stock is taken from each need's {@link NeedStock stock} without locking,
+     * and given back if a later need falls short. The reservation only holds
+     * once the lock confirms every stock taken from still belongs to its need,
+     * otherwise a need deleted, and perhaps created again, since its stock was
+     * looked up would be funded from stock nobody reads; the stock is given
+     * back and the reservation tried again against the current needs. Updating
+     * a need replaces its stock for the same reason, as a quantity set by an
+     * update would otherwise overwrite stock taken but not yet published
+     */
+    public boolean reserveNeeds(Map<String, Integer> quantities) throws IOException {
+        for (int quantity : quantities.values())
+            if (quantity <= 0)
+                throw new IllegalArgumentException("Reserved quantities must be positive");
+        if (quantities.isEmpty())
+            return true; // nothing to reserve
+
+        while (true) {
+            List<String> names = new ArrayList<>(quantities.size()); // Taken from so far
+            List<NeedStock> held = new ArrayList<>(quantities.size());
+            List<Integer> taken = new ArrayList<>(quantities.size());
+            boolean reserved = true;
+            for (Map.Entry<String, Integer> entry : quantities.entrySet()) {
+                NeedStock needStock = stock.get(entry.getKey());
+                if (needStock == null || !needStock.take(entry.getValue())) {
+                    reserved = false;
+                    break;
+                }
+                names.add(entry.getKey());
+                held.add(needStock);
+                taken.add(entry.getValue());
+            }
+            if (held.isEmpty())
+                return false; // nothing was taken, so nothing can have been published
+
+            // Also publishes stock given back, which a concurrent reservation may have published as taken
+            CompletableFuture<Void> commit;
+            synchronized (needs) {
+                boolean current = true;
+                for (int i = 0; i < held.size(); ++i)
+                    current &= stock.get(names.get(i)) == held.get(i); // stocks are only replaced under the lock
+                for (int i = 0; i < held.size(); ++i)
+                    held.get(i).release(reserved && current ? 0 : taken.get(i)); // all-or-nothing
+                if (!current)
+                    continue; // a need was replaced since its stock was looked up
+                commit = applyStock(names); // may throw an IOException
+            }
+            store.await(commit); // may throw an IOException
+            return reserved;
+        }
+    }
+
+    /**
+     * Brings the stored {@linkplain Need needs} up to date with their
+     * {@link NeedStock stock}, deleting those sold out, then publishes and
+     * commits the changes in a single write
+     * 
+     * @param names The names of the {@link Need needs} whose stock was taken
+     * 
+     * @return a future completed once the changes are written
+     * 
+     * @throws IOException when file cannot be accessed or written to
+     */
+    private CompletableFuture<Void> applyStock(Iterable<String> names) throws IOException {
+        List<Need> updated = new ArrayList<>();
+        List<Need> removed = new ArrayList<>();
+        List<NeedJournal.Record> records = new ArrayList<>();
+        for (String name : names) {
+            Need stored = needs.get(name);
+            NeedStock needStock = stock.get(name);
+            if (stored == null || needStock == null)
+                continue; // deleted since the stock was taken
+            int remaining = needStock.getQuantity();
+            boolean soldOut = needStock.isSoldOut();
+            if (remaining == stored.getQuantity() && !soldOut)
+                continue; // already applied by a concurrent reservation
+
+            if (!soldOut) {
+                Need need = new Need(name, stored.getCost(), remaining);
+                stamp(need);
+                needs.put(name, need);
+                totals.put(need);
+                costIndex.put(need);
+                quantityIndex.put(need);
+                records.add(NeedJournal.Record.put(need));
+                updated.add(need);
+            } else {
+                needs.remove(name);
+                stock.remove(name);
+                totals.remove(name);
+                nameIndex.remove(name);
+                costIndex.remove(name);
+                quantityIndex.remove(name);
+                records.add(NeedJournal.Record.delete(name));
+                removed.add(stored);
+            }
+        }
+        if (records.isEmpty())
+            return store.committed(); // written with the concurrent reservation's commit
+
+        if (removed.isEmpty()) // only quantities changed, so the names and their order are kept
+            publish(updated);
+        else if (updated.isEmpty() && removed.size() == 1) // a single need sold out
+            publishRemoved(removed.get(0).getName());
+        else
+            publish();
+        listeners.publish(NeedChange.Type.UPDATED, snapshot.getVersion(), updated);
+        listeners.publish(NeedChange.Type.DELETED, snapshot.getVersion(), removed);
+        return save(records);
+    }
+
+    /**
+     ** {@inheritDoc}
+     */
+    public void flush() throws IOException {
+        store.flush();
+    }
+
+    /**
+     ** {@inheritDoc}
+     */
+    public void addChangeListener(NeedChangeListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     ** {@inheritDoc}
+     */
+    public void removeChangeListener(NeedChangeListener listener) {
+        listeners.remove(listener);
     }
-}
\ No newline at end of file
+}
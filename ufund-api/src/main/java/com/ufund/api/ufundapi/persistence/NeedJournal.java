@@ -0,0 +1,202 @@
+package com.ufund.api.ufundapi.persistence;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ufund.api.ufundapi.model.Need;
+
+/**
+ * Append-only log of {@linkplain Need need} mutations written alongside the
+ * cupboard snapshot file
+ * <br>
+ * Each mutation is a single JSON line, so appending one costs the same no
+ * matter how large the cupboard is. The log is replayed over the snapshot on
+ * load and reset whenever the owner checkpoints a fresh snapshot.
+ *
+ * @author Ethan Hartman
+ */
+class NeedJournal {
+    static final String SUFFIX = ".journal";
+    static final String PUT = "put";
+    static final String DELETE = "delete";
+
+    private static final String CorruptJournalException = "Journal '%s' is corrupt at line %d";
+
+    private final File file; // The log segment appended to
+    private final ObjectMapper objectMapper; // Used to serialize/deserialize records
+    private OutputStream out; // Open append stream, created on first append
+    private int records; // Number of records since the last reset
+
+    /**
+     * Represents a single journaled mutation
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    static class Record {
+        @JsonProperty("op")
+        final String op;
+        @JsonProperty("name")
+        final String name;
+        @JsonProperty("need")
+        final Need need;
+
+        /**
+         * Create a record of the given operation
+         *
+         * @param op   The operation, either {@link NeedJournal#PUT put} or
+         *             {@link NeedJournal#DELETE delete}
+         * @param name The name of the deleted {@link Need need}, null for puts
+         * @param need The stored {@link Need need}, null for deletes
+         */
+        Record(@JsonProperty("op") String op, @JsonProperty("name") String name, @JsonProperty("need") Need need) {
+            this.op = op;
+            this.name = name;
+            this.need = need;
+        }
+
+        /**
+         * Creates a record storing the given {@linkplain Need need}
+         */
+        static Record put(Need need) {
+            return new Record(PUT, null, need);
+        }
+
+        /**
+         * Creates a record removing the {@linkplain Need need} with the given name
+         */
+        static Record delete(String name) {
+            return new Record(DELETE, name, null);
+        }
+
+        /**
+         * Applies this record to the given cupboard map
+         *
+         * @param needs The map of {@link Need needs}, keyed by name
+         */
+        void applyTo(Map<String, Need> needs) {
+            if (PUT.equals(op))
+                needs.put(need.getName(), need);
+            else
+                needs.remove(name);
+        }
+    }
+
+    /**
+     * Creates a journal for the given snapshot file
+     *
+     * @param snapshotFilename The cupboard snapshot the journal belongs to
+     * @param objectMapper     Provides JSON Object to/from Java Object
+     *                         serialization and deserialization
+     */
+    NeedJournal(String snapshotFilename, ObjectMapper objectMapper) {
+        this.file = new File(snapshotFilename + SUFFIX);
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Replays every record in the journal over the given map
+     * <br>
+     * A torn final line, left by a crash part way through an append, is
+     * ignored since its mutation never completed
+     *
+     * @param needs The map of {@link Need needs} loaded from the snapshot
+     *
+     * @return the number of records replayed
+     *
+     * @throws IOException when the journal cannot be read or is corrupt
+     */
+    int replay(Map<String, Need> needs) throws IOException {
+        records = 0;
+        if (!file.exists())
+            return 0;
+
+        try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
+            String line = reader.readLine();
+            while (line != null) {
+                String next = reader.readLine();
+                if (!line.isBlank()) {
+                    try {
+                        objectMapper.readValue(line, Record.class).applyTo(needs);
+                        records++;
+                    } catch (JsonProcessingException e) {
+                        if (next != null)
+                            throw new IOException(String.format(CorruptJournalException, file, records + 1), e);
+                    }
+                }
+                line = next;
+            }
+        }
+        return records;
+    }
+
+    /**
+     * Appends a record to the end of the journal
+     *
+     * @param record The {@link Record record} to append
+     *
+     * @throws IOException when the journal cannot be written to
+     */
+    void append(Record record) throws IOException {
+        append(List.of(record));
+    }
+
+    /**
+     * Appends the given records to the end of the journal in a single write
+     *
+     * @param batch The {@link Record records} to append, in order
+     *
+     * @throws IOException when the journal cannot be written to
+     */
+    void append(List<Record> batch) throws IOException {
+        if (out == null)
+            out = new FileOutputStream(file, true);
+
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        for (Record record : batch) {
+            buffer.write(objectMapper.writeValueAsBytes(record));
+            buffer.write('\n');
+        }
+        out.write(buffer.toByteArray()); // a single write keeps each record whole
+        records += batch.size();
+    }
+
+    /**
+     * Discards every record, called once they are captured in a snapshot
+     *
+     * @throws IOException when the journal cannot be truncated
+     */
+    void reset() throws IOException {
+        close();
+        new FileOutputStream(file).close(); // truncates the segment
+        records = 0;
+    }
+
+    /**
+     * Closes the append stream, it is reopened on the next append
+     *
+     * @throws IOException when the stream cannot be closed
+     */
+    void close() throws IOException {
+        if (out != null) {
+            out.close();
+            out = null;
+        }
+    }
+
+    /**
+     * @return the number of records written since the last reset
+     */
+    int size() {
+        return records;
+    }
+}
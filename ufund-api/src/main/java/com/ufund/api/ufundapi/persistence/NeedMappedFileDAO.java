@@ -0,0 +1,907 @@
+package com.ufund.api.ufundapi.persistence;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import javax.annotation.PreDestroy;
+import javax.management.openmbean.KeyAlreadyExistsException;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ufund.api.ufundapi.exceptions.NeedVersionConflictException;
+import com.ufund.api.ufundapi.model.Need;
+import com.ufund.api.ufundapi.model.NeedBatchResult;
+import com.ufund.api.ufundapi.model.NeedChange;
+import com.ufund.api.ufundapi.model.NeedDelta;
+import com.ufund.api.ufundapi.model.NeedStats;
+import com.ufund.api.ufundapi.model.NeedSummary;
+import com.ufund.api.ufundapi.model.Page;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Implements {@linkplain Need need} persistence in a memory-mapped file of
+ * fixed-width records, for cupboards too large to comfortably keep on the
+ * heap
+ * <br>
+ * Each need is a {@value #RECORD_BYTES} byte record in the
+ * {@value #RECORDS_SUFFIX} file holding the offset and length of its name,
+ * its quantity, its cost and a live flag. Names are appended to the
+ * {@value #NAMES_SUFFIX} file. Only the name index, mapping each name to its
+ * record slot, lives on the heap: costs and quantities are read straight from
+ * the mapping and updated in place, so an update writes a few bytes instead
+ * of the whole cupboard. Deleted slots are reused by later creates, while
+ * names of deleted needs are left in the names file.
+ * <br>
+ * When the records file does not exist yet, it is imported from the JSON
+ * file along with any {@link NeedJournal journal} left beside it. Closing the
+ * store exports the cupboard back to the JSON file, so the
+ * {@link NeedFileDAO file store} picks up every change made here. The store
+ * is imported again when the file store has saved a later
+ * {@link StoreVersion version} since, so switching between the two stores
+ * after a clean shutdown loses nothing either way.
+ * <br>
+ * Mutations are committed through the shared {@link FileFlusher flusher},
+ * like the other stores: with {@link FileFlusher.Durability#SYNC sync}
+ * durability each is forced to disk before it returns, while group and async
+ * durability coalesce the forces in the background, group waiting for them.
+ * <br>
+ * The cupboard's {@link NeedTotals totals} are adjusted by the records each
+ * write replaces, so the summary never scans the mapping.
+ * <br>
+ * Readers share a read lock and writers take the write lock, so a reader
+ * never sees a need half updated. The private helpers reading or writing
+ * slots expect the caller to hold the lock. The version each slot was last written at
+ * is kept on the heap rather than in the record, so the file format is
+ * unchanged and every need starts at the version the store was opened at.
+ *
+ * {@literal @}Component Spring annotation instantiates a single instance of
+ * this class and injects the instance into other classes as needed when
+ * needs.store is mapped
+ *
+ * @author Ethan Hartman
+ */
+@Component
+@ConditionalOnProperty(name = "needs.store", havingValue = "mapped")
+public class NeedMappedFileDAO implements NeedDAO {
+    private static String NeedNameExistsException = "Need with the name '%s' already exists";
+    private static String CorruptStoreException = "Need store '%s' is corrupt";
+
+    static final String RECORDS_SUFFIX = ".records";
+    static final String NAMES_SUFFIX = ".names";
+    static final int HEADER_BYTES = 16;
+    static final int RECORD_BYTES = 32;
+    static final int MIN_CAPACITY = 1024;
+
+    private static final int MAGIC = 0x55464E52; // "UFNR"
+    private static final int FORMAT_VERSION = 1;
+    private static final int SLOTS_USED = 8; // header offset of the slots in use
+    private static final int NAME_OFFSET = 0; // record offsets of each field
+    private static final int NAME_LENGTH = 8;
+    private static final int QUANTITY = 12;
+    private static final int COST = 16;
+    private static final int LIVE = 24;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock(); // Guards the index and the mapping
+    private final TreeMap<String, Integer> slots = new TreeMap<>(); // Record slot of each need, in name order
+    private final ArrayDeque<Integer> free = new ArrayDeque<>(); // Slots of deleted needs, reused first
+    private final AtomicLong version = new AtomicLong(); // Increased after every change to the needs
+    private final String filename; // The JSON file the store is named after
+    private final ObjectMapper objectMapper; // Imports and exports the JSON file
+    private final FileFlusher.Store store; // Forces commits to disk with the configured durability
+    private final NeedChangeListeners listeners = new NeedChangeListeners(); // Notified of every change
+    private final int changeCapacity; // Recent changes kept to answer delta requests
+    private NeedChangeLog changeLog; // Recent changes, created once opened
+    private FileChannel recordsChannel; // Channel the records are mapped from
+    private FileChannel namesChannel; // Channel names are appended to
+    private MappedByteBuffer records; // The mapped header and records
+    private long[] stamps = new long[0]; // Version each slot was last written at
+    private final NeedTotals totals = new NeedTotals(); // Running totals of the stored needs
+    private int slotsUsed; // Slots ever used, free or not
+    private int capacity; // Slots the current mapping holds
+
+    /**
+     * Creates a Need Mapped File Data Access Object which forces every mutation
+     * to disk
+     *
+     * @param filename     The JSON file the store is named after, imported when
+     *                     the store does not exist yet
+     * @param objectMapper Provides JSON Object to Java Object deserialization
+     *
+     * @throws IOException when a file cannot be accessed or read from
+     */
+    public NeedMappedFileDAO(String filename, ObjectMapper objectMapper) throws IOException {
+        this(filename, FileFlusher.Durability.SYNC.name(), NeedChangeLog.DEFAULT_CAPACITY, objectMapper,
+                new FileFlusher(), new StoreLoader());
+    }
+
+    /**
+     * Creates a Need Mapped File Data Access Object
+     *
+     * @param filename     The JSON file the store is named after, imported when
+     *                     the store does not exist yet
+     * @param durability   The {@link FileFlusher.Durability durability} with
+     *                     which mutations are forced to disk
+     * @param changeCapacity The number of recent changes kept to answer
+     *                     {@link #getNeedsSince(long) delta} requests
+     * @param objectMapper Provides JSON Object to/from Java Object
+     *                     serialization and deserialization
+     * @param flusher      The shared {@link FileFlusher flusher} which forces
+     *                     deferred commits to disk
+     * @param loader       The {@link StoreLoader loader} which opens the store
+     *
+     * @throws IOException when a file cannot be accessed or read from
+     */
+    @Autowired
+    public NeedMappedFileDAO(@Value("${needs.file}") String filename,
+            @Value("${needs.durability:sync}") String durability,
+            @Value("${needs.changes.capacity:" + NeedChangeLog.DEFAULT_CAPACITY + "}") int changeCapacity,
+            ObjectMapper objectMapper, FileFlusher flusher, StoreLoader loader) throws IOException {
+        this.filename = filename;
+        this.objectMapper = objectMapper;
+        this.changeCapacity = changeCapacity;
+        this.store = flusher.register("needs", FileFlusher.Durability.parse(durability), this::write);
+        loader.load("needs", this::open);
+    }
+
+    /**
+     * Opens the store's files, importing the JSON file if the store does not
+     * exist yet or the file store has saved the JSON file since this store
+     * last exported it
+     */
+    private void open() throws IOException {
+        File json = new File(filename);
+        File recordsFile = new File(filename + RECORDS_SUFFIX);
+        long exported = StoreVersion.saved(recordsFile); // -1 for stores from before exports were versioned
+        boolean current = recordsFile.length() > 0 // an empty file is an import that never finished
+                && (exported < 0 || StoreVersion.saved(json) <= exported);
+        recordsChannel = new RandomAccessFile(recordsFile, "rw").getChannel();
+        namesChannel = new RandomAccessFile(filename + NAMES_SUFFIX, "rw").getChannel();
+        try {
+            if (current)
+                load(recordsFile);
+            else
+                importJson(json);
+        } catch (IOException e) {
+            recordsChannel.close();
+            namesChannel.close();
+            throw e;
+        }
+        version.set(StoreVersion.seed(new File(filename)));
+        Arrays.fill(stamps, 0, slotsUsed, version.get());
+        changeLog = new NeedChangeLog(changeCapacity, version.get());
+        listeners.add(changeLog);
+    }
+
+    /**
+     * Maps the records file with room for the given number of slots
+     */
+    private void map(int slotCapacity) throws IOException {
+        if (records != null)
+            records.force();
+        capacity = slotCapacity;
+        stamps = Arrays.copyOf(stamps, slotCapacity);
+        records = recordsChannel.map(FileChannel.MapMode.READ_WRITE, 0,
+                HEADER_BYTES + (long) slotCapacity * RECORD_BYTES);
+    }
+
+    /**
+     * @return the position of the given slot's record in the mapping
+     */
+    private static int position(int slot) {
+        return HEADER_BYTES + slot * RECORD_BYTES;
+    }
+
+    /**
+     * Rebuilds the name index from an existing store
+     */
+    private void load(File recordsFile) throws IOException {
+        long slotBytes = recordsChannel.size() - HEADER_BYTES;
+        if (slotBytes < 0 || slotBytes % RECORD_BYTES != 0)
+            throw new IOException(String.format(CorruptStoreException, recordsFile));
+        map(Math.max(MIN_CAPACITY, (int) (slotBytes / RECORD_BYTES)));
+        if (records.getInt(0) != MAGIC || records.getInt(4) != FORMAT_VERSION)
+            throw new IOException(String.format(CorruptStoreException, recordsFile));
+        slotsUsed = records.getInt(SLOTS_USED);
+
+        // Names are only needed once, to build the index
+        MappedByteBuffer names = namesChannel.map(FileChannel.MapMode.READ_ONLY, 0, namesChannel.size());
+        for (int slot = 0; slot < slotsUsed; ++slot) {
+            int position = position(slot);
+            if (records.get(position + LIVE) == 0) {
+                free.add(slot);
+                continue;
+            }
+            byte[] name = new byte[records.getInt(position + NAME_LENGTH)];
+            names.position((int) records.getLong(position + NAME_OFFSET));
+            names.get(name);
+            String key = new String(name, StandardCharsets.UTF_8);
+            slots.put(key, slot);
+            totals.add(read(key, slot));
+        }
+    }
+
+    /**
+     * Creates the store, holding the {@linkplain Need needs} of the given JSON
+     * file if it exists with any {@link NeedJournal journal} the file store
+     * left beside it replayed over them
+     */
+    private void importJson(File json) throws IOException {
+        recordsChannel.truncate(0);
+        namesChannel.truncate(0);
+        map(MIN_CAPACITY);
+        records.putInt(0, MAGIC);
+        records.putInt(4, FORMAT_VERSION);
+        if (new File(filename + NeedJournal.SUFFIX).length() > 0) {
+            // Journaled changes can delete needs, so they are applied on the heap first
+            TreeMap<String, Need> needs = new TreeMap<>();
+            if (json.exists())
+                JsonArrayReader.forEach(objectMapper, json, Need.class, need -> needs.put(need.getName(), need));
+            new NeedJournal(filename, objectMapper).replay(needs);
+            for (Need need : needs.values())
+                insert(need);
+        } else if (json.exists()) {
+            try {
+                // Each need is stored as it is parsed, the mapping grows as needed
+                JsonArrayReader.forEach(objectMapper, json, Need.class, need -> {
+                    try {
+                        if (!slots.containsKey(need.getName()))
+                            insert(need);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        }
+        force();
+    }
+
+    /**
+     * Forces the mapping and the names to disk
+     */
+    private void force() throws IOException {
+        namesChannel.force(false);
+        records.force();
+    }
+
+    /**
+     * Stamps the written {@linkplain Need needs} with the new version and
+     * publishes the mutation to the listeners, then commits it with the
+     * configured durability
+     *
+     * @return a future completed once the mutation is forced to disk
+     */
+    private CompletableFuture<Void> commit(NeedChange.Type type, Iterable<Need> changed) throws IOException {
+        long next = version.incrementAndGet();
+        if (type != NeedChange.Type.DELETED) {
+            for (Need need : changed) {
+                stamps[slots.get(need.getName())] = next;
+                need.setVersion(next);
+            }
+        }
+        listeners.publish(type, next, changed);
+        return store.commitAsync(); // may throw an IOException
+    }
+
+    /**
+     * Reads the {@linkplain Need need} stored in the given slot
+     */
+    private Need read(String name, int slot) {
+        int position = position(slot);
+        Need need = new Need(name, records.getDouble(position + COST), records.getInt(position + QUANTITY));
+        need.setVersion(stamps[slot]);
+        return need;
+    }
+
+    /**
+     * Stores a new {@linkplain Need need} in a free slot, appending its name
+     * <br>
+     * The record is only marked live once it is complete, so a crash never
+     * leaves a need without its name
+     */
+    private void insert(Need need) throws IOException {
+        Integer slot = free.poll();
+        if (slot == null) {
+            if (slotsUsed == capacity)
+                map(Math.max(MIN_CAPACITY, capacity * 2));
+            slot = slotsUsed++;
+        }
+        byte[] name = need.getName().getBytes(StandardCharsets.UTF_8);
+        long offset = namesChannel.size();
+        namesChannel.write(ByteBuffer.wrap(name), offset);
+
+        int position = position(slot);
+        records.putLong(position + NAME_OFFSET, offset);
+        records.putInt(position + NAME_LENGTH, name.length);
+        records.putInt(position + QUANTITY, need.getQuantity());
+        records.putDouble(position + COST, need.getCost());
+        records.put(position + LIVE, (byte) 1);
+        records.putInt(SLOTS_USED, slotsUsed);
+        slots.put(need.getName(), slot);
+        totals.add(need);
+    }
+
+    /**
+     * Overwrites the cost and quantity of a stored {@linkplain Need need} in
+     * place
+     */
+    private void overwrite(Need need, int slot) {
+        int position = position(slot);
+        totals.subtract(read(need.getName(), slot));
+        records.putInt(position + QUANTITY, need.getQuantity());
+        records.putDouble(position + COST, need.getCost());
+        totals.add(need);
+    }
+
+    /**
+     ** {@inheritDoc}
+     */
+    public Need[] getNeeds() {
+        lock.readLock().lock();
+        try {
+            Need[] needArray = new Need[slots.size()];
+            int i = 0;
+            for (Map.Entry<String, Integer> entry : slots.entrySet())
+                needArray[i++] = read(entry.getKey(), entry.getValue());
+            return needArray;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     ** {@inheritDoc}
+     */
+    public long getVersion() {
+        return version.get();
+    }
+
+    /**
+     ** {@inheritDoc}
+     */
+    public NeedDelta getNeedsSince(long since) {
+        lock.readLock().lock();
+        try {
+            NeedDelta delta = changeLog.since(since);
+            return delta != null ? delta : NeedDelta.resync(version.get(), getNeeds());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     ** {@inheritDoc}
+     */
+    public Page<Need> getNeeds(String cursor, int limit) {
+        Page.checkLimit(limit);
+        String after = cursor != null ? Page.decodeCursor(cursor, 1)[0] : null;
+        lock.readLock().lock();
+        try {
+            NavigableMap<String, Integer> tail = after != null ? slots.tailMap(after, false) : slots;
+            List<Need> items = new ArrayList<>(Math.min(limit, tail.size()));
+            for (Map.Entry<String, Integer> entry : tail.entrySet()) {
+                if (items.size() == limit)
+                    return new Page<>(items, Page.encodeCursor(items.get(limit - 1).getName()));
+                items.add(read(entry.getKey(), entry.getValue()));
+            }
+            return new Page<>(items, null);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     ** {@inheritDoc}
+     * <br>
+     * Costs and quantities are not indexed on the heap, so ranges are found by
+     * scanning the mapping and keeping the first limit needs after the cursor
+     */
+    public Page<Need> findNeedsInRange(NeedOrder order, Double min, Double max, String cursor, int limit) {
+        Page.checkLimit(limit);
+        if (order != NeedOrder.COST && order != NeedOrder.QUANTITY)
+            throw new IllegalArgumentException("Needs are not indexed by " + order);
+        Need after = null;
+        if (cursor != null) {
+            String[] keys = Page.decodeCursor(cursor, 2);
+            double value = Double.parseDouble(keys[0]);
+            after = new Need(keys[1], value, (int) value);
+        }
+
+        Comparator<Need> comparator = order.comparator();
+        PriorityQueue<Need> best = new PriorityQueue<>(comparator.reversed()); // worst on top
+        lock.readLock().lock();
+        try {
+            for (Map.Entry<String, Integer> entry : slots.entrySet()) {
+                Need need = read(entry.getKey(), entry.getValue());
+                double value = order == NeedOrder.COST ? need.getCost() : need.getQuantity();
+                if (min != null && value < min || max != null && value > max
+                        || after != null && comparator.compare(need, after) <= 0)
+                    continue;
+                best.add(need);
+                if (best.size() > limit + 1) // one extra tells whether there is another page
+                    best.poll();
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<Need> items = new ArrayList<>(best);
+        items.sort(comparator);
+        String next = null;
+        if (items.size() > limit) {
+            items.remove(limit);
+            Need last = items.get(limit - 1);
+            double value = order == NeedOrder.COST ? last.getCost() : last.getQuantity();
+            next = Page.encodeCursor(Double.toString(value), last.getName());
+        }
+        return new Page<>(items, next);
+    }
+
+    /**
+     ** {@inheritDoc}
+     */
+    public Need[] findNeeds(String containsText) {
+        return findNeeds(containsText, false);
+    }
+
+    /**
+     ** {@inheritDoc}
+     */
+    public Need[] findNeeds(String containsText, boolean ignoreCase) {
+        ArrayList<Need> needArrayList = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            for (Map.Entry<String, Integer> entry : slots.entrySet())
+                if (NeedNameIndex.matches(entry.getKey(), containsText, ignoreCase))
+                    needArrayList.add(read(entry.getKey(), entry.getValue()));
+        } finally {
+            lock.readLock().unlock();
+        }
+        return needArrayList.toArray(new Need[needArrayList.size()]);
+    }
+
+    /**
+     ** {@inheritDoc}
+     */
+    public String[] suggestNeeds(String prefix, int limit, NeedOrder order) {
+        Comparator<Need> comparator = order.comparator();
+        PriorityQueue<Need> best = new PriorityQueue<>(comparator.reversed()); // worst on top
+        lock.readLock().lock();
+        try {
+            for (Map.Entry<String, Integer> entry : slots.tailMap(prefix, true).entrySet()) {
+                if (limit == 0 || !entry.getKey().startsWith(prefix)
+                        || order == NeedOrder.NAME && best.size() == limit)
+                    break; // names sharing the prefix are contiguous
+                best.add(read(entry.getKey(), entry.getValue()));
+                if (best.size() > limit)
+                    best.poll();
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        String[] suggestions = new String[best.size()];
+        for (int i = suggestions.length - 1; i >= 0; --i)
+            suggestions[i] = best.poll().getName();
+        return suggestions;
+    }
+
+    /**
+     ** {@inheritDoc}
+     */
+    public Need getNeed(String name) {
+        lock.readLock().lock();
+        try {
+            Integer slot = slots.get(name);
+            return slot != null ? read(name, slot) : null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     ** {@inheritDoc}
+     * <br>
+     * Every record is read under a single acquisition of the read lock
+     */
+    public Map<String, Need> getNeeds(Collection<String> names) {
+        Map<String, Need> found = new LinkedHashMap<>();
+        lock.readLock().lock();
+        try {
+            for (String name : names) {
+                Integer slot = slots.get(name);
+                if (slot != null)
+                    found.put(name, read(name, slot));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return found;
+    }
+
+    /**
+     ** {@inheritDoc}
+     * <br>
+     * Read straight from the mapped records, without creating a need object
+     * for each
+     */
+    public NeedStats getNeedStats() {
+        lock.readLock().lock();
+        try {
+            NeedColumns.Tally tally = new NeedColumns.Tally();
+            for (int slot : slots.values()) {
+                int position = position(slot);
+                tally.add(NeedColumns.toCents(records.getDouble(position + COST)),
+                        records.getInt(position + QUANTITY));
+            }
+            return tally.toStats();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     ** {@inheritDoc}
+     */
+    public NeedSummary getNeedSummary() {
+        lock.readLock().lock();
+        try {
+            return totals.toSummary();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     ** {@inheritDoc}
+     */
+    public Need createNeed(Need need) throws IOException, KeyAlreadyExistsException {
+        if (NeedFileDAO.RESERVED_NAMES.contains(need.getName()))
+            throw new KeyAlreadyExistsException(
+                    String.format(NeedFileDAO.NeedNameReservedException, need.getName()));
+        CompletableFuture<Void> commit;
+        lock.writeLock().lock();
+        try {
+            if (slots.containsKey(need.getName()))
+                throw new KeyAlreadyExistsException(String.format(NeedNameExistsException, need.getName()));
+            insert(need);
+            commit = commit(NeedChange.Type.CREATED, List.of(need)); // may throw an IOException
+        } finally {
+            lock.writeLock().unlock();
+        }
+        store.await(commit); // may throw an IOException
+        return need;
+    }
+
+    /**
+     ** {@inheritDoc}
+     */
+    public Need updateNeed(Need need) throws IOException {
+        CompletableFuture<Void> commit;
+        lock.writeLock().lock();
+        try {
+            Integer slot = slots.get(need.getName());
+            if (slot == null)
+                return null; // need does not exist
+
+            overwrite(need, slot);
+            commit = commit(NeedChange.Type.UPDATED, List.of(need)); // may throw an IOException
+        } finally {
+            lock.writeLock().unlock();
+        }
+        store.await(commit); // may throw an IOException
+        return need;
+    }
+
+    /**
+     ** {@inheritDoc}
+     */
+    public Need updateNeed(Need need, long expectedVersion) throws IOException, NeedVersionConflictException {
+        CompletableFuture<Void> commit;
+        lock.writeLock().lock();
+        try {
+            Integer slot = slots.get(need.getName());
+            if (slot == null)
+                return null; // need does not exist
+            if (stamps[slot] != expectedVersion)
+                throw new NeedVersionConflictException(need.getName(), expectedVersion, stamps[slot]);
+
+            overwrite(need, slot);
+            commit = commit(NeedChange.Type.UPDATED, List.of(need)); // may throw an IOException
+        } finally {
+            lock.writeLock().unlock();
+        }
+        store.await(commit); // may throw an IOException
+        return need;
+    }
+
+    /**
+     ** {@inheritDoc}
+     */
+    public NeedBatchResult[] createNeeds(List<Need> batch) throws IOException {
+        return applyBatch(batch, true);
+    }
+
+    /**
+     ** {@inheritDoc}
+     */
+    public NeedBatchResult[] updateNeeds(List<Need> batch) throws IOException {
+        return applyBatch(batch, false);
+    }
+
+    /**
+     * Validates a batch and, when every item is valid, applies it to the store
+     * and commits it once
+     *
+     * @param batch  The {@link Need needs} to apply, in order
+     * @param create Whether the {@link Need needs} are created rather than
+     *               updated
+     *
+     * @return the {@link NeedBatchResult result} of each {@link Need need}
+     *
+     * @throws IOException when a file cannot be accessed or written to
+     */
+    private NeedBatchResult[] applyBatch(List<Need> batch, boolean create) throws IOException {
+        NeedBatchResult[] results = new NeedBatchResult[batch.size()];
+        if (batch.isEmpty())
+            return results;
+
+        CompletableFuture<Void> commit;
+        lock.writeLock().lock();
+        try {
+            boolean valid = true;
+            Set<String> seen = new HashSet<>();
+            for (int i = 0; i < results.length; ++i) {
+                Need need = batch.get(i);
+                NeedBatchResult.Status status = NeedFileDAO.validate(need, create, seen, slots::containsKey);
+                valid &= status.isSuccess();
+                results[i] = new NeedBatchResult(i, need != null ? need.getName() : null, status);
+            }
+            if (!valid)
+                return results; // all-or-nothing, the store is untouched
+
+            NeedBatchResult.Status applied = create ? NeedBatchResult.Status.CREATED
+                    : NeedBatchResult.Status.UPDATED;
+            for (int i = 0; i < results.length; ++i) {
+                Need need = batch.get(i);
+                if (create)
+                    insert(need);
+                else
+                    overwrite(need, slots.get(need.getName()));
+                results[i] = new NeedBatchResult(i, need.getName(), applied);
+            }
+            NeedChange.Type type = create ? NeedChange.Type.CREATED : NeedChange.Type.UPDATED;
+            commit = commit(type, batch); // may throw an IOException
+        } finally {
+            lock.writeLock().unlock();
+        }
+        store.await(commit); // may throw an IOException
+        return results;
+    }
+
+    /**
+     ** {@inheritDoc}
+     */
+    public boolean deleteNeed(String name) throws IOException {
+        CompletableFuture<Void> commit;
+        lock.writeLock().lock();
+        try {
+            Integer slot = slots.get(name);
+            if (slot == null)
+                return false;
+
+            commit = remove(name, slot); // may throw an IOException
+        } finally {
+            lock.writeLock().unlock();
+        }
+        store.await(commit); // may throw an IOException
+        return true;
+    }
+
+    /**
+     ** {@inheritDoc}
+     */
+    public boolean deleteNeed(String name, long expectedVersion) throws IOException, NeedVersionConflictException {
+        CompletableFuture<Void> commit;
+        lock.writeLock().lock();
+        try {
+            Integer slot = slots.get(name);
+            if (slot == null)
+                return false;
+            if (stamps[slot] != expectedVersion)
+                throw new NeedVersionConflictException(name, expectedVersion, stamps[slot]);
+
+            commit = remove(name, slot); // may throw an IOException
+        } finally {
+            lock.writeLock().unlock();
+        }
+        store.await(commit); // may throw an IOException
+        return true;
+    }
+
+    /**
+     * Frees the slot of a stored {@linkplain Need need} and commits the delete
+     *
+     * @return a future completed once the delete is written
+     */
+    private CompletableFuture<Void> remove(String name, int slot) throws IOException {
+        Need removed = read(name, slot);
+        slots.remove(name);
+        totals.subtract(removed);
+        records.put(position(slot) + LIVE, (byte) 0);
+        free.add(slot);
+        return commit(NeedChange.Type.DELETED, List.of(removed)); // may throw an IOException
+    }
+
+    /**
+     ** {@inheritDoc}
+     */
+    public boolean reserveNeed(String name, int quantity) throws IOException {
+        return reserveNeeds(Map.of(name, quantity));
+    }
+
+    /**
+     ** {@inheritDoc}
+     * <br>
+     * Checked and taken under the write lock, as quantities live in the
+     * mapping rather than in atomic counters
+     */
+    public boolean reserveNeeds(Map<String, Integer> quantities) throws IOException {
+        for (int quantity : quantities.values())
+            if (quantity <= 0)
+                throw new IllegalArgumentException("Reserved quantities must be positive");
+        if (quantities.isEmpty())
+            return true; // nothing to reserve
+
+        CompletableFuture<Void> commit;
+        lock.writeLock().lock();
+        try {
+            for (Map.Entry<String, Integer> entry : quantities.entrySet()) {
+                Integer slot = slots.get(entry.getKey());
+                if (slot == null || records.getInt(position(slot) + QUANTITY) < entry.getValue())
+                    return false; // all-or-nothing, the store is untouched
+            }
+
+            List<Need> updated = new ArrayList<>();
+            List<Need> removed = new ArrayList<>();
+            for (Map.Entry<String, Integer> entry : quantities.entrySet()) {
+                int slot = slots.get(entry.getKey());
+                Need stored = read(entry.getKey(), slot);
+                Need need = new Need(stored.getName(), stored.getCost(), stored.getQuantity() - entry.getValue());
+                if (need.getQuantity() > 0) {
+                    overwrite(need, slot);
+                    updated.add(need);
+                } else {
+                    slots.remove(stored.getName());
+                    totals.subtract(stored);
+                    records.put(position(slot) + LIVE, (byte) 0);
+                    free.add(slot);
+                    removed.add(stored);
+                }
+            }
+            if (!updated.isEmpty())
+                commit(NeedChange.Type.UPDATED, updated); // may throw an IOException
+            commit = removed.isEmpty() ? store.committed()
+                    : commit(NeedChange.Type.DELETED, removed); // may throw an IOException
+        } finally {
+            lock.writeLock().unlock();
+        }
+        store.await(commit); // may throw an IOException
+        return true;
+    }
+
+    /**
+     ** {@inheritDoc}
+     */
+    public void flush() throws IOException {
+        store.flush();
+    }
+
+    /**
+     * Forces the mapping and the names to disk, called by the
+     * {@linkplain FileFlusher flusher} to write the store's commits
+     *
+     * @throws IOException when a file cannot be written to
+     */
+    private void write() throws IOException {
+        lock.readLock().lock();
+        try {
+            force();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     ** {@inheritDoc}
+     */
+    public void addChangeListener(NeedChangeListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     ** {@inheritDoc}
+     */
+    public void removeChangeListener(NeedChangeListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Writes every {@linkplain Need need} to the JSON file in name order, so the
+     * {@link NeedFileDAO file store} opens the cupboard as this store left it
+     * <br>
+     * The needs are streamed to a temporary file which is moved into place, and
+     * the journal and binary snapshot of the old JSON file are discarded first,
+     * as either would otherwise be read over the export
+     */
+    private void export() throws IOException {
+        File json = new File(filename);
+        File temporary = new File(filename + ".tmp");
+        Files.deleteIfExists(Path.of(filename + NeedJournal.SUFFIX));
+        BinarySnapshot.discard(json);
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(temporary, JsonEncoding.UTF8)) {
+            generator.writeStartArray();
+            for (Map.Entry<String, Integer> entry : slots.entrySet())
+                generator.writeObject(read(entry.getKey(), entry.getValue()));
+            generator.writeEndArray();
+        }
+        Files.move(temporary.toPath(), json.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Forces every mutation to disk, exports the cupboard to the JSON file,
+     * saves the store's {@linkplain StoreVersion version} beside both and closes
+     * its files
+     *
+     * @throws IOException when a file cannot be written to or closed
+     */
+    @PreDestroy
+    public void close() throws IOException {
+        store.flush();
+        lock.writeLock().lock();
+        try {
+            if (recordsChannel == null || !recordsChannel.isOpen())
+                return; // never opened, or already closed
+            force();
+            export();
+            StoreVersion.save(new File(filename), version.get());
+            StoreVersion.save(new File(filename + RECORDS_SUFFIX), version.get()); // marks the export current
+            recordsChannel.close();
+            namesChannel.close();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.ufund.api.ufundapi.persistence;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.ufund.api.ufundapi.model.Need;
+
+/**
+ * Trigram inverted index over {@linkplain Need need} names, used to narrow
+ * substring searches before verifying them
+ * <br>
+ * Trigrams are taken from case folded names, so a single index serves both
+ * case sensitive and case insensitive searches: every name containing the
+ * search text also contains each of its folded trigrams. Writers update the
+ * index while holding the cupboard's lock, readers query it without locking.
+ *
+ * @author Ethan Hartman
+ */
+class NeedNameIndex {
+    static final int GRAM_LENGTH = 3;
+
+    private final Map<String, Posting> postings = new ConcurrentHashMap<>(); // Postings keyed by folded trigram
+
+    /**
+     * Names containing a single trigram, in name order
+     */
+    private static class Posting {
+        final NavigableSet<String> names = new ConcurrentSkipListSet<>();
+        final AtomicInteger size = new AtomicInteger(); // skip list sizes take a full walk
+    }
+
+    /**
+     * Folds the case of every character of the given text, keeping its length
+     *
+     * @param text The text to fold
+     *
+     * @return The folded text
+     */
+    static String fold(String text) {
+        char[] chars = text.toCharArray();
+        for (int i = 0; i < chars.length; ++i)
+            chars[i] = Character.toLowerCase(Character.toUpperCase(chars[i]));
+        return new String(chars);
+    }
+
+    /**
+     * Checks whether the given name contains the given text
+     *
+     * @param name       The name to check
+     * @param text       The text to look for
+     * @param ignoreCase Whether differences in case are ignored
+     *
+     * @return true if the name contains the text
+     */
+    static boolean matches(String name, String text, boolean ignoreCase) {
+        return ignoreCase ? fold(name).contains(fold(text)) : name.contains(text);
+    }
+
+    /**
+     * Gets the distinct trigrams of the given text, after folding
+     */
+    private static Set<String> grams(String text) {
+        String folded = fold(text);
+        Set<String> grams = new LinkedHashSet<>();
+        for (int i = 0; i + GRAM_LENGTH <= folded.length(); ++i)
+            grams.add(folded.substring(i, i + GRAM_LENGTH));
+        return grams;
+    }
+
+    /**
+     * Adds the given name to the index
+     *
+     * @param name The name of the {@link Need need}
+     */
+    void add(String name) {
+        for (String gram : grams(name)) {
+            Posting posting = postings.computeIfAbsent(gram, key -> new Posting());
+            if (posting.names.add(name))
+                posting.size.incrementAndGet();
+        }
+    }
+
+    /**
+     * Removes the given name from the index
+     *
+     * @param name The name of the {@link Need need}
+     */
+    void remove(String name) {
+        for (String gram : grams(name))
+            postings.computeIfPresent(gram, (key, posting) -> {
+                if (posting.names.remove(name) && posting.size.decrementAndGet() == 0)
+                    return null;
+                return posting;
+            });
+    }
+
+    /**
+     * Finds the names which may contain the given text
+     * <br>
+     * Every name that does contain it is returned, but candidates still have to
+     * be verified since containing each trigram does not mean containing the
+     * text
+     *
+     * @param text The text being searched for
+     *
+     * @return The candidate names in name order, or null when the text is too
+     *         short to use the index and every name is a candidate
+     */
+    List<String> candidates(String text) {
+        Set<String> grams = grams(text);
+        if (grams.isEmpty())
+            return null;
+
+        List<Posting> lists = new ArrayList<>(grams.size());
+        for (String gram : grams) {
+            Posting posting = postings.get(gram);
+            if (posting == null)
+                return new ArrayList<>(); // no name contains this trigram
+            lists.add(posting);
+        }
+
+        // Walk the rarest trigram's names, keeping those every other list holds
+        lists.sort(Comparator.comparingInt(posting -> posting.size.get()));
+        List<String> candidates = new ArrayList<>();
+        for (String name : lists.get(0).names) {
+            boolean inAll = true;
+            for (int i = 1; inAll && i < lists.size(); ++i)
+                inAll = lists.get(i).names.contains(name);
+            if (inAll)
+                candidates.add(name);
+        }
+        return candidates;
+    }
+}
@@ -0,0 +1,45 @@
+package com.ufund.api.ufundapi.persistence;
+
+import java.util.Comparator;
+
+import com.ufund.api.ufundapi.model.Need;
+
+/**
+ * Orders in which {@linkplain Need needs} can be ranked
+ *
+ * @author Ethan Hartman
+ */
+public enum NeedOrder {
+    /** Alphabetically by name */
+    NAME(Comparator.comparing(Need::getName)),
+    /** Most remaining quantity first, ties by name */
+    QUANTITY(Comparator.comparingInt(Need::getQuantity).reversed().thenComparing(Need::getName)),
+    /** Cheapest unit cost first, ties by name */
+    COST(Comparator.comparingDouble(Need::getCost).thenComparing(Need::getName));
+
+    private final Comparator<Need> comparator;
+
+    NeedOrder(Comparator<Need> comparator) {
+        this.comparator = comparator;
+    }
+
+    /**
+     * @return the comparator ranking {@link Need needs} in this order
+     */
+    public Comparator<Need> comparator() {
+        return comparator;
+    }
+
+    /**
+     * Parses an order by name, ignoring case and surrounding whitespace
+     *
+     * @param value The name of the order
+     *
+     * @return The matching order
+     *
+     * @throws IllegalArgumentException if no order has the given name
+     */
+    public static NeedOrder parse(String value) {
+        return valueOf(value.trim().toUpperCase());
+    }
+}
@@ -0,0 +1,163 @@
+package com.ufund.api.ufundapi.persistence;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.ToDoubleFunction;
+
+import com.ufund.api.ufundapi.model.Need;
+
+/**
+ * Secondary index ordering {@linkplain Need needs} by a numeric attribute,
+ * ties broken by name, for range queries in O(log N + K)
+ * <br>
+ * Entries are keyed by the attribute's value when the {@link Need need} was
+ * indexed rather than by the need itself, since needs can be modified in
+ * place before they are updated. Writers update the index while holding the
+ * cupboard's lock, readers walk it without locking.
+ * <br>
+ * Re-indexing a need removes its old entry before adding the new one, so a
+ * walk overlapping the move could skip the need or find it twice. Each move
+ * bumps a sequence number before and after, and a walk that saw it change is
+ * retried, falling back to walking under the index's lock, so every walk sees
+ * the index between moves.
+ *
+ * @author Ethan Hartman
+ */
+class NeedRangeIndex {
+    /**
+     * Position of a {@linkplain Need need} in the index
+     */
+    static final class Key {
+        final double value;
+        final String name;
+
+        Key(double value, String name) {
+            this.value = value;
+            this.name = name;
+        }
+    }
+
+    private static final int OPTIMISTIC_WALKS = 3; // Walks retried without the lock before taking it
+
+    private final ToDoubleFunction<Need> attribute; // The attribute needs are ordered by
+    private final boolean descending; // Whether larger values come first
+    private final NavigableMap<Key, Need> entries; // Indexed needs in order
+    private final Map<String, Key> keys = new ConcurrentHashMap<>(); // Current key of each indexed need by name
+    private volatile long moves; // Odd while entries are being changed, written under this index's lock
+
+    /**
+     * Creates an empty index
+     *
+     * @param attribute  The attribute {@link Need needs} are ordered by
+     * @param descending Whether larger values come first
+     */
+    NeedRangeIndex(ToDoubleFunction<Need> attribute, boolean descending) {
+        this.attribute = attribute;
+        this.descending = descending;
+        Comparator<Key> byValue = Comparator.comparingDouble(key -> key.value);
+        this.entries = new ConcurrentSkipListMap<>(
+                (descending ? byValue.reversed() : byValue).thenComparing(key -> key.name));
+    }
+
+    /**
+     * Indexes the given {@linkplain Need need}, replacing any need with the same
+     * name
+     *
+     * @param need The {@link Need need} to index
+     */
+    synchronized void put(Need need) {
+        ++moves;
+        try {
+            unindex(need.getName());
+            Key key = new Key(attribute.applyAsDouble(need), need.getName());
+            entries.put(key, need);
+            keys.put(need.getName(), key);
+        } finally {
+            ++moves;
+        }
+    }
+
+    /**
+     * Removes the {@linkplain Need need} with the given name from the index
+     *
+     * @param name The name of the {@link Need need}
+     */
+    synchronized void remove(String name) {
+        ++moves;
+        try {
+            unindex(name);
+        } finally {
+            ++moves;
+        }
+    }
+
+    /**
+     * Removes the entry of the {@linkplain Need need} with the given name,
+     * while its move is in progress
+     */
+    private void unindex(String name) {
+        Key key = keys.remove(name);
+        if (key != null)
+            entries.remove(key);
+    }
+
+    /**
+     * Gets the indexed {@linkplain Need needs} with values between the given
+     * bounds, in index order
+     *
+     * @param min   The smallest value included, null for no lower bound
+     * @param max   The largest value included, null for no upper bound
+     * @param after The key of the last {@link Need need} already returned, null to
+     *              start from the first need in range
+     * @param limit The most {@link Need needs} to return
+     *
+     * @return The {@link Need needs} in range after the given key, along with
+     *         the keys they were found under
+     */
+    List<Map.Entry<Key, Need>> range(Double min, Double max, Key after, int limit) {
+        for (int attempt = 0; attempt < OPTIMISTIC_WALKS; ++attempt) {
+            long before = moves;
+            if ((before & 1) != 0)
+                continue; // a move is in progress
+            List<Map.Entry<Key, Need>> found = walk(min, max, after, limit);
+            if (moves == before)
+                return found;
+        }
+        synchronized (this) {
+            return walk(min, max, after, limit);
+        }
+    }
+
+    /**
+     * Walks the entries in range, which may be changed meanwhile unless the
+     * index's lock is held
+     */
+    private List<Map.Entry<Key, Need>> walk(Double min, Double max, Key after, int limit) {
+        Double first = descending ? max : min;
+        Double last = descending ? min : max;
+
+        NavigableMap<Key, Need> tail = entries;
+        if (after != null)
+            tail = entries.tailMap(after, false);
+        if (first != null) {
+            // The empty name sorts before every other, so this key starts the value's run
+            Key start = new Key(first, "");
+            if (after == null || entries.comparator().compare(start, after) > 0)
+                tail = entries.tailMap(start, true);
+        }
+
+        List<Map.Entry<Key, Need>> found = new ArrayList<>(Math.min(limit, 64));
+        for (Map.Entry<Key, Need> entry : tail.entrySet()) { // entries are immutable snapshots
+            double value = entry.getKey().value;
+            if (found.size() == limit || last != null && (descending ? value < last : value > last))
+                break;
+            found.add(entry);
+        }
+        return found;
+    }
+}
@@ -5,6 +5,7 @@ import java.util.Map;
 
 import com.ufund.api.ufundapi.model.Need;
 import com.ufund.api.ufundapi.model.NeedReceipt;
+import com.ufund.api.ufundapi.model.Page;
 import com.ufund.api.ufundapi.model.Supporter;
 
 /**
@@ -22,6 +23,32 @@ public interface NeedReceiptDAO {
      */
     NeedReceipt[] getReceipts() throws IOException;
 
+    /**
+     * Gets the version of the {@linkplain NeedReceipt needReceipts}, which
+     * increases with every change to them
+     * 
+     * @return The current version
+     */
+    long getVersion();
+
+    /**
+     * Retrieves one page of {@linkplain NeedReceipt needReceipts}, ordered by
+     * supporter username then {@linkplain Need need} name
+     * 
+     * @param cursor The cursor returned with the previous page, null for the
+     *               first page
+     * 
+     * @param limit  The most {@link NeedReceipt needReceipts} on the page
+     * 
+     * @return A {@link Page page} of {@link NeedReceipt needReceipt} objects, may
+     *         be empty
+     * 
+     * @throws IOException              if an issue with underlying storage
+     * 
+     * @throws IllegalArgumentException if the cursor or limit is invalid
+     */
+    Page<NeedReceipt> getReceipts(String cursor, int limit) throws IOException;
+
     /**
      * Retrieves all {@linkplain NeedReceipt needs} for the given {@linkplain supporter}'s username
      * 
@@ -74,4 +101,12 @@ public interface NeedReceiptDAO {
      * @return A {@linkplain Map map} of all of the users(key) and their total fundings(value)
      */
     String[] getSortedUserFunding();
+
+    /**
+     * Waits until every committed change to the {@linkplain NeedReceipt
+     * needReceipts} is written to underlying storage
+     * 
+     * @throws IOException if an issue with underlying storage
+     */
+    void flush() throws IOException;
 }
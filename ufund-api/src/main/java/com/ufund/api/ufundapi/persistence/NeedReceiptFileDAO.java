@@ -4,16 +4,22 @@ import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Comparator;
-import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.NavigableMap;
 import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
 
+import javax.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.ufund.api.ufundapi.model.Need;
 import com.ufund.api.ufundapi.model.NeedReceipt;
+import com.ufund.api.ufundapi.model.Page;
 
 /**
  * Implements the functionality for JSON file-based peristance for Need Receipts
@@ -26,52 +32,135 @@ import com.ufund.api.ufundapi.model.NeedReceipt;
  */
 @Component
 public class NeedReceiptFileDAO implements NeedReceiptDAO {
-    private Map<String, Map<String, NeedReceipt>> needReceipts; // Double map of receipts, keyed by username then need name
+    private TreeMap<String, TreeMap<String, NeedReceipt>> needReceipts; // Double map of receipts, keyed by username then need name
     private ObjectMapper objectMapper; // Used to serialize/deserialize Java Objects to/from JSON objects
     private String filename; // Filename to read from and write to
+    private FileFlusher.Store store; // Commits receipt writes with the configured durability
+    private volatile long version; // Increased after every change to the receipts
+    private boolean binary; // Whether a binary snapshot is kept alongside the JSON file
 
-    public NeedReceiptFileDAO(@Value("${need_receipts.file}") String filename, ObjectMapper objectMapper) throws IOException {
+    /**
+     * Creates a Need Receipt File Data Access Object which writes every change in
+     * the requesting thread
+     * 
+     * @param filename     Filename to read from and write to
+     * @param objectMapper Provides JSON Object to/from Java Object serialization
+     *                     and deserialization
+     * 
+     * @throws IOException when file cannot be accessed or read from
+     */
+    public NeedReceiptFileDAO(String filename, ObjectMapper objectMapper) throws IOException {
+        this(filename, FileFlusher.Durability.SYNC.name(), false, objectMapper, new FileFlusher(),
+                new StoreLoader());
+    }
+
+    /**
+     * Creates a Need Receipt File Data Access Object
+     * 
+     * @param filename     Filename to read from and write to
+     * @param durability   The {@link FileFlusher.Durability durability} of receipt
+     *                     writes
+     * @param binary       Whether a {@link BinarySnapshot binary snapshot} is kept
+     *                     alongside the file and preferred when loading
+     * @param objectMapper Provides JSON Object to/from Java Object serialization
+     *                     and deserialization
+     * @param flusher      The {@link FileFlusher flusher} which commits receipt
+     *                     writes
+     * @param loader       The {@link StoreLoader loader} which loads the file
+     * 
+     * @throws IOException when file cannot be accessed or read from
+     */
+    @Autowired
+    public NeedReceiptFileDAO(@Value("${need_receipts.file}") String filename,
+            @Value("${need_receipts.durability:sync}") String durability,
+            @Value("${need_receipts.binary:false}") boolean binary, ObjectMapper objectMapper,
+            FileFlusher flusher, StoreLoader loader) throws IOException {
         this.filename = filename;
+        this.binary = binary;
         this.objectMapper = objectMapper;
-        load(); // load the receipts from the file
+        this.store = flusher.register("need receipts", FileFlusher.Durability.parse(durability), this::write);
+        loader.load("need receipts", this::load); // load the receipts from the file
     }
 
     /**
-     * Saves the {@linkplain NeedReceipt receipts} from the map into the file as an
+     * Writes the {@linkplain NeedReceipt receipts} from the map into the file as an
      * array of JSON objects
      * 
-     * @return true if the {@link NeedReceipt receipts} were written successfully
+     * @throws IOException when file cannot be accessed or written to
+     */
+    private void write() throws IOException {
+        NeedReceipt[] receiptArray;
+        synchronized (this) {
+            receiptArray = getReceipts();
+        }
+        File file = new File(filename);
+        if (binary)
+            BinarySnapshot.discard(file);
+        objectMapper.writeValue(file, receiptArray);
+    }
+
+    /**
+     * Saves the {@linkplain StoreVersion version} of the receipts and, when
+     * kept, their {@linkplain BinarySnapshot binary snapshot}
      * 
      * @throws IOException when file cannot be accessed or written to
      */
-    private boolean save() throws IOException {
-        objectMapper.writeValue(new File(filename), getReceipts());
-        return true;
+    @PreDestroy
+    public void close() throws IOException {
+        File file = new File(filename);
+        store.flush();
+        NeedReceipt[] receiptArray;
+        synchronized (this) {
+            StoreVersion.save(file, version);
+            receiptArray = getReceipts();
+        }
+        if (binary)
+            BinarySnapshot.write(BinarySnapshot.RECEIPTS, file, receiptArray);
     }
 
     /**
-     * Loads {@linkplain NeedReceipt need receipts} from the JSON file into the map
+     * Loads {@linkplain NeedReceipt need receipts} from the JSON file into the map,
+     * or from its {@link BinarySnapshot binary snapshot} when one is kept and
+     * current
      * 
      * @return true if the file was read successfully
      * 
      * @throws IOException when file cannot be accessed or read from
      */
     private boolean load() throws IOException {
-        needReceipts = new HashMap<>();
+        needReceipts = new TreeMap<>();
 
-        for (NeedReceipt needReceipt : objectMapper.readValue(new File(filename), NeedReceipt[].class)){
-            if (!needReceipts.containsKey(needReceipt.getSupporterUsername()))
-                needReceipts.put(needReceipt.getSupporterUsername(), new HashMap<>());
-            needReceipts.get(needReceipt.getSupporterUsername()).put(needReceipt.getName(), needReceipt);
+        File file = new File(filename);
+        version = StoreVersion.seed(file);
+        NeedReceipt[] receiptArray = binary ? BinarySnapshot.read(BinarySnapshot.RECEIPTS, file) : null;
+        if (receiptArray != null) {
+            for (NeedReceipt needReceipt : receiptArray)
+                add(needReceipt);
+        } else {
+            // Each receipt goes straight into the map as it is parsed
+            JsonArrayReader.forEach(objectMapper, file, NeedReceipt.class, this::add);
+            if (binary)
+                BinarySnapshot.write(BinarySnapshot.RECEIPTS, file, getReceipts()); // faster the next time
         }
 
         return true;
     }
 
+    /**
+     * Adds a loaded {@linkplain NeedReceipt receipt} to the map
+     * 
+     * @param needReceipt The {@link NeedReceipt receipt} to add
+     */
+    private void add(NeedReceipt needReceipt) {
+        if (!needReceipts.containsKey(needReceipt.getSupporterUsername()))
+            needReceipts.put(needReceipt.getSupporterUsername(), new TreeMap<>());
+        needReceipts.get(needReceipt.getSupporterUsername()).put(needReceipt.getName(), needReceipt);
+    }
+
     /**
      * {@inheritDoc}
      */
-    public NeedReceipt[] getReceipts() {
+    public synchronized NeedReceipt[] getReceipts() {
         ArrayList<NeedReceipt> receiptList = new ArrayList<>();
 
         for (Map<String, NeedReceipt> userValue : needReceipts.values())
@@ -80,6 +169,40 @@ public class NeedReceiptFileDAO implements NeedReceiptDAO {
         
         return receiptList.toArray(new NeedReceipt[receiptList.size()]);
     }
+
+    /**
+     * {@inheritDoc}
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public synchronized Page<NeedReceipt> getReceipts(String cursor, int limit) {
+        Page.checkLimit(limit);
+        String[] after = cursor != null ? Page.decodeCursor(cursor, 2) : null;
+        NavigableMap<String, TreeMap<String, NeedReceipt>> users = after != null
+                ? needReceipts.tailMap(after[0], true)
+                : needReceipts;
+
+        List<NeedReceipt> items = new ArrayList<>(Math.min(limit, 64));
+        for (Map.Entry<String, TreeMap<String, NeedReceipt>> user : users.entrySet()) {
+            // Only the previous page's last supporter resumes part way through
+            NavigableMap<String, NeedReceipt> receipts = after != null && user.getKey().equals(after[0])
+                    ? user.getValue().tailMap(after[1], false)
+                    : user.getValue();
+            for (NeedReceipt needReceipt : receipts.values()) {
+                if (items.size() == limit) {
+                    NeedReceipt last = items.get(limit - 1);
+                    return new Page<>(items, Page.encodeCursor(last.getSupporterUsername(), last.getName()));
+                }
+                items.add(needReceipt);
+            }
+        }
+        return new Page<>(items, null);
+    }
     
     /**
      * {@inheritDoc}
@@ -104,24 +227,37 @@ public class NeedReceiptFileDAO implements NeedReceiptDAO {
     /**
      * {@inheritDoc}
      */
-    public synchronized NeedReceipt createOrUpdateReceipt(Need need, String supporterUsername) throws IOException {
-        if (!needReceipts.containsKey(supporterUsername))
-            needReceipts.put(supporterUsername, new HashMap<>());
-
-        NeedReceipt needReceipt = needReceipts.get(supporterUsername).get(need.getName());
-        if (needReceipt != null)
-            needReceipt.fundMore(need.getCost(), need.getQuantity());
-        else{
-            needReceipt = new NeedReceipt(supporterUsername, need.getName(), need.getCost(), need.getQuantity());
-            needReceipt.setCost(need.getCost() * need.getQuantity());
-        }
+    public NeedReceipt createOrUpdateReceipt(Need need, String supporterUsername) throws IOException {
+        NeedReceipt needReceipt;
+        CompletableFuture<Void> commit;
+        synchronized (this) {
+            if (!needReceipts.containsKey(supporterUsername))
+                needReceipts.put(supporterUsername, new TreeMap<>());
 
-        needReceipts.get(needReceipt.getSupporterUsername()).put(needReceipt.getName(), needReceipt);
-        save();
+            needReceipt = needReceipts.get(supporterUsername).get(need.getName());
+            if (needReceipt != null)
+                needReceipt.fundMore(need.getCost(), need.getQuantity());
+            else{
+                needReceipt = new NeedReceipt(supporterUsername, need.getName(), need.getCost(), need.getQuantity());
+                needReceipt.setCost(need.getCost() * need.getQuantity());
+            }
+
+            needReceipts.get(needReceipt.getSupporterUsername()).put(needReceipt.getName(), needReceipt);
+            ++version;
+            commit = store.commitAsync(); // may throw an IOException
+        }
+        store.await(commit); // may throw an IOException
 
         return needReceipt;
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    public void flush() throws IOException {
+        store.flush();
+    }
+
     /**
      * {@inheritDoc}
      */
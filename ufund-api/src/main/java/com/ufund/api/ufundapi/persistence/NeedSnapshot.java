@@ -0,0 +1,230 @@
+package com.ufund.api.ufundapi.persistence;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import com.ufund.api.ufundapi.model.Need;
+import com.ufund.api.ufundapi.model.NeedStats;
+
+/**
+ * Immutable, versioned view of the cupboard published by the
+ * {@linkplain NeedFileDAO Need File DAO} after every mutation
+ * <br>
+ * Readers take the current snapshot without locking and are served straight
+ * from its precomputed arrays, which must never be modified. When columnar,
+ * the snapshot also keeps the {@link NeedColumns columns} its stats are
+ * scanned from.
+ *
+ * @author Ethan Hartman
+ */
+final class NeedSnapshot {
+    static final NeedSnapshot EMPTY = new NeedSnapshot(0, new Need[0], false);
+
+    private final long version; // Version of the cupboard this snapshot captures
+    private final Need[] needs; // Needs in name order
+    private final String[] names; // Names of the needs, in the same order
+    private final NeedColumns columns; // Costs and quantities of the needs in the same order, null if not columnar
+
+    /**
+     * Creates a snapshot of the given {@linkplain Need needs}
+     *
+     * @param version  The version of the cupboard being captured
+     * @param needs    The {@link Need needs}, in name order
+     * @param columnar Whether to keep {@link NeedColumns columns} of the needs
+     */
+    private NeedSnapshot(long version, Need[] needs, boolean columnar) {
+        this.version = version;
+        this.needs = needs;
+        this.names = new String[needs.length];
+        for (int i = 0; i < needs.length; ++i)
+            names[i] = needs[i].getName();
+        this.columns = columnar ? new NeedColumns(needs) : null;
+    }
+
+    private NeedSnapshot(long version, Need[] needs, String[] names, NeedColumns columns) {
+        this.version = version;
+        this.needs = needs;
+        this.names = names;
+        this.columns = columns;
+    }
+
+    /**
+     * Captures the given {@linkplain Need needs}
+     *
+     * @param version The version of the cupboard being captured
+     * @param needs   The {@link Need needs}, iterated in name order
+     *
+     * @return The new snapshot
+     */
+    static NeedSnapshot of(long version, Collection<Need> needs) {
+        return of(version, needs, false);
+    }
+
+    /**
+     * Captures the given {@linkplain Need needs}, optionally with their
+     * {@link NeedColumns columns}
+     *
+     * @param version  The version of the cupboard being captured
+     * @param needs    The {@link Need needs}, iterated in name order
+     * @param columnar Whether to keep columns of the {@link Need needs}
+     *
+     * @return The new snapshot
+     */
+    static NeedSnapshot of(long version, Collection<Need> needs, boolean columnar) {
+        return new NeedSnapshot(version, needs.toArray(new Need[needs.size()]), columnar);
+    }
+
+    /**
+     * Captures this snapshot with some of its {@linkplain Need needs} replaced
+     * <br>
+     * Only the replaced needs are looked up. The names are shared, and the
+     * needs and columns copied flat rather than rebuilt from the map, so a
+     * change to a few quantities costs a copy of the arrays instead of a walk
+     * of the cupboard
+     *
+     * @param version  The version of the cupboard being captured
+     * @param replaced The {@link Need needs} replacing those of the same names,
+     *                 which must all be captured
+     *
+     * @return The new snapshot
+     */
+    NeedSnapshot replace(long version, List<Need> replaced) {
+        Need[] replacedNeeds = needs.clone();
+        int[] ids = new int[replaced.size()];
+        for (int i = 0; i < ids.length; ++i) {
+            Need need = replaced.get(i);
+            ids[i] = indexOf(need.getName());
+            if (ids[i] < 0)
+                throw new IllegalArgumentException("Not captured: " + need.getName());
+            replacedNeeds[ids[i]] = need;
+        }
+        return new NeedSnapshot(version, replacedNeeds, names,
+                columns != null ? columns.replace(ids, replaced) : null);
+    }
+
+    /**
+     * Captures this snapshot with a {@linkplain Need need} inserted in name
+     * order
+     * <br>
+     * Like {@link #replace(long, List)}, the arrays are copied flat around the
+     * new need instead of rebuilt from the map
+     *
+     * @param version The version of the cupboard being captured
+     * @param need    The {@link Need need} to insert, which must not be
+     *                captured
+     *
+     * @return The new snapshot
+     */
+    NeedSnapshot insert(long version, Need need) {
+        int index = indexOf(need.getName());
+        if (index >= 0)
+            throw new IllegalArgumentException("Already captured: " + need.getName());
+        int id = -index - 1;
+        Need[] insertedNeeds = new Need[needs.length + 1];
+        String[] insertedNames = new String[names.length + 1];
+        System.arraycopy(needs, 0, insertedNeeds, 0, id);
+        System.arraycopy(needs, id, insertedNeeds, id + 1, needs.length - id);
+        System.arraycopy(names, 0, insertedNames, 0, id);
+        System.arraycopy(names, id, insertedNames, id + 1, names.length - id);
+        insertedNeeds[id] = need;
+        insertedNames[id] = need.getName();
+        return new NeedSnapshot(version, insertedNeeds, insertedNames,
+                columns != null ? columns.insert(id, need) : null);
+    }
+
+    /**
+     * Captures this snapshot without the {@linkplain Need need} of the given
+     * name
+     * <br>
+     * Like {@link #replace(long, List)}, the arrays are copied flat around the
+     * removed need instead of rebuilt from the map
+     *
+     * @param version The version of the cupboard being captured
+     * @param name    The name of the {@link Need need} to remove, which must be
+     *                captured
+     *
+     * @return The new snapshot
+     */
+    NeedSnapshot remove(long version, String name) {
+        int id = indexOf(name);
+        if (id < 0)
+            throw new IllegalArgumentException("Not captured: " + name);
+        Need[] remainingNeeds = new Need[needs.length - 1];
+        String[] remainingNames = new String[names.length - 1];
+        System.arraycopy(needs, 0, remainingNeeds, 0, id);
+        System.arraycopy(needs, id + 1, remainingNeeds, id, remainingNeeds.length - id);
+        System.arraycopy(names, 0, remainingNames, 0, id);
+        System.arraycopy(names, id + 1, remainingNames, id, remainingNames.length - id);
+        return new NeedSnapshot(version, remainingNeeds, remainingNames,
+                columns != null ? columns.remove(id) : null);
+    }
+
+    /**
+     * @return the version of the cupboard this snapshot captures
+     */
+    long getVersion() {
+        return version;
+    }
+
+    /**
+     * @return the shared array of every {@link Need need} in name order
+     */
+    Need[] getNeeds() {
+        return needs;
+    }
+
+    /**
+     * @return the shared array of every {@link Need need} name in order
+     */
+    String[] getNames() {
+        return names;
+    }
+
+    /**
+     * @return the number of {@link Need needs} captured
+     */
+    int size() {
+        return needs.length;
+    }
+
+    /**
+     * Finds the position of the {@linkplain Need need} with the given name
+     *
+     * @param name The name to look for
+     *
+     * @return the index of the {@link Need need} if present, otherwise
+     *         {@code -(insertion point) - 1}
+     */
+    int indexOf(String name) {
+        return Arrays.binarySearch(names, name);
+    }
+
+    /**
+     * Gets the {@linkplain Need need} with the given name
+     *
+     * @param name The name of the {@link Need need}
+     *
+     * @return The {@link Need need}, or null if not captured
+     */
+    Need getNeed(String name) {
+        int index = indexOf(name);
+        return index >= 0 ? needs[index] : null;
+    }
+
+    /**
+     * @return the {@link NeedColumns columns} of the {@link Need needs}, or null
+     *         if the snapshot is not columnar
+     */
+    NeedColumns getColumns() {
+        return columns;
+    }
+
+    /**
+     * @return the {@link NeedStats stats} of the {@link Need needs}, scanned
+     *         from the columns when kept
+     */
+    NeedStats getStats() {
+        return columns != null ? columns.stats() : NeedColumns.stats(needs);
+    }
+}
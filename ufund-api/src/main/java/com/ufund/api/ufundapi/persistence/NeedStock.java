@@ -0,0 +1,86 @@
+package com.ufund.api.ufundapi.persistence;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.ufund.api.ufundapi.model.Need;
+
+/**
+ * The remaining quantity of a {@linkplain Need need}, taken by reservations
+ * with compare-and-set instead of a lock
+ * <br>
+ * The quantity is packed with the number of reservations holding some of it
+ * into a single atomic long. A reservation which falls short on another need
+ * gives its stock back, so a need only counts as sold out once its quantity
+ * is zero and no reservation is in flight
+ *
+ * @author Ethan Hartman
+ */
+final class NeedStock {
+    private final AtomicLong state; // Quantity in the high half, reservations in flight in the low half
+
+    /**
+     * Creates the stock of a {@linkplain Need need} holding the given quantity
+     *
+     * @param quantity The quantity of the {@link Need need}
+     */
+    NeedStock(int quantity) {
+        state = new AtomicLong(pack(quantity, 0));
+    }
+
+    private static long pack(int quantity, int holds) {
+        return (long) quantity << 32 | (holds & 0xFFFFFFFFL);
+    }
+
+    private static int quantity(long state) {
+        return (int) (state >>> 32);
+    }
+
+    private static int holds(long state) {
+        return (int) state;
+    }
+
+    /**
+     * @return the quantity not yet taken
+     */
+    int getQuantity() {
+        return quantity(state.get());
+    }
+
+    /**
+     * @return true if nothing is left and no reservation could give any back
+     */
+    boolean isSoldOut() {
+        return state.get() == 0;
+    }
+
+    /**
+     * Takes the given quantity, unless less is left, holding the stock until
+     * the reservation is {@linkplain #release(int) released}
+     *
+     * @param quantity How many to take
+     *
+     * @return true if the quantity was taken
+     */
+    boolean take(int quantity) {
+        long current;
+        do {
+            current = state.get();
+            if (quantity(current) < quantity)
+                return false;
+        } while (!state.compareAndSet(current, pack(quantity(current) - quantity, holds(current) + 1)));
+        return true;
+    }
+
+    /**
+     * Ends a reservation which {@linkplain #take(int) took} stock
+     *
+     * @param returned How many of the taken quantity to give back, zero once
+     *                 the reservation succeeded
+     */
+    void release(int returned) {
+        long current;
+        do {
+            current = state.get();
+        } while (!state.compareAndSet(current, pack(quantity(current) + returned, holds(current) - 1)));
+    }
+}
@@ -0,0 +1,115 @@
+package com.ufund.api.ufundapi.persistence;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import com.ufund.api.ufundapi.model.Need;
+import com.ufund.api.ufundapi.model.NeedSummary;
+
+/**
+ * Running totals of a cupboard, adjusted by every {@linkplain Need need}
+ * written or removed rather than recomputed
+ * <br>
+ * When needs are {@link #put(Need) put} and {@link #remove(String) removed}
+ * by name, each need's contribution is remembered, since needs can be
+ * modified in place before they are updated, so replacing or removing it takes
+ * back exactly what was added. Stores which can read back what they hold
+ * {@link #add(Need) add} and {@link #subtract(Need) subtract} needs instead,
+ * keeping nothing per need. Costs are summed in whole cents, so the totals
+ * always equal a full recomputation. Writers update the totals while holding
+ * the cupboard's lock.
+ *
+ * @author Ethan Hartman
+ */
+class NeedTotals {
+    /**
+     * What a {@linkplain Need need} added to the totals
+     */
+    private static final class Contribution {
+        final long cents;
+        final int quantity;
+
+        Contribution(long cents, int quantity) {
+            this.cents = cents;
+            this.quantity = quantity;
+        }
+    }
+
+    private final Map<String, Contribution> contributions = new HashMap<>(); // Contribution of each need put
+    private int count; // Needs counted
+    private long units; // Total quantity
+    private long value; // Total cost of every unit, in cents
+    private int lowStock; // Needs at or below the low stock quantity
+
+    /**
+     * Computes the totals of the given {@linkplain Need needs} from scratch
+     *
+     * @param needs The {@link Need needs}
+     *
+     * @return the totals
+     */
+    static NeedTotals of(Need[] needs) {
+        NeedTotals totals = new NeedTotals();
+        for (Need need : needs)
+            totals.add(need);
+        return totals;
+    }
+
+    /**
+     * Adds a {@linkplain Need need} to the totals, replacing any need with the
+     * same name
+     *
+     * @param need The {@link Need need} written
+     */
+    void put(Need need) {
+        remove(need.getName());
+        Contribution contribution = new Contribution(NeedColumns.toCents(need.getCost()), need.getQuantity());
+        contributions.put(need.getName(), contribution);
+        adjust(contribution.cents, contribution.quantity, 1);
+    }
+
+    /**
+     * Takes the {@linkplain Need need} with the given name out of the totals
+     *
+     * @param name The name of the {@link Need need} removed
+     */
+    void remove(String name) {
+        Contribution contribution = contributions.remove(name);
+        if (contribution != null)
+            adjust(contribution.cents, contribution.quantity, -1);
+    }
+
+    /**
+     * Adds a {@linkplain Need need} to the totals without remembering it
+     *
+     * @param need The {@link Need need} stored
+     */
+    void add(Need need) {
+        adjust(NeedColumns.toCents(need.getCost()), need.getQuantity(), 1);
+    }
+
+    /**
+     * Takes a {@linkplain Need need} {@link #add(Need) added} earlier out of the
+     * totals
+     *
+     * @param need The {@link Need need} as it was stored
+     */
+    void subtract(Need need) {
+        adjust(NeedColumns.toCents(need.getCost()), need.getQuantity(), -1);
+    }
+
+    private void adjust(long cents, int quantity, int sign) {
+        count += sign;
+        units += sign * quantity;
+        value += sign * cents * quantity;
+        if (quantity <= NeedSummary.LOW_STOCK_QUANTITY)
+            lowStock += sign;
+    }
+
+    /**
+     * @return the {@link NeedSummary summary} of the current totals
+     */
+    NeedSummary toSummary() {
+        return new NeedSummary(count, units, value / 100.0, lowStock);
+    }
+}
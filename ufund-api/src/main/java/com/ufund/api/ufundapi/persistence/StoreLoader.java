@@ -0,0 +1,193 @@
+package com.ufund.api.ufundapi.persistence;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Loads the file based DAOs' stores at startup and reports how long each took
+ * <br>
+ * Sequentially, each store loads in its DAO's constructor. In parallel, the
+ * constructors only submit their loads, so Spring can build every DAO while
+ * the files are parsed on their own threads, and the loads are awaited once
+ * every singleton exists. The web server starts after that, so no request is
+ * served, and no DAO reads another DAO, before every store has loaded.
+ *
+ * {@literal @}Component Spring annotation instantiates a single instance of
+ * this class and injects the instance into other classes as needed
+ *
+ * @author Ethan Hartman
+ */
+@Component
+public class StoreLoader implements SmartInitializingSingleton {
+    private static final Logger LOG = Logger.getLogger(StoreLoader.class.getName());
+
+    private final boolean parallel; // Whether stores load on their own threads
+    private final List<CompletableFuture<Void>> pending = new ArrayList<>(); // Loads not yet awaited
+    private final Map<String, Long> timings = Collections.synchronizedMap(new LinkedHashMap<>()); // Load ms by store
+    private ExecutorService executor; // Loads stores in parallel, started by the first load
+    private boolean started; // Whether a store has been submitted to load in parallel
+    private long startNanos; // When the first store started loading
+    private long endNanos; // When the last store finished loading
+
+    /**
+     * Loads the state of a store from its file
+     */
+    @FunctionalInterface
+    public interface Load {
+        /**
+         * @throws IOException when file cannot be accessed or read from
+         */
+        void load() throws IOException;
+    }
+
+    /**
+     * Creates a loader which loads each store in the requesting thread
+     */
+    public StoreLoader() {
+        this(false);
+    }
+
+    /**
+     * Creates a loader
+     *
+     * @param parallel Whether stores load on their own threads until every
+     *                 singleton has been created
+     */
+    @Autowired
+    public StoreLoader(@Value("${stores.parallel:true}") boolean parallel) {
+        this.parallel = parallel;
+    }
+
+    /**
+     * Loads a store, or submits it to be loaded when loading in parallel
+     *
+     * @param name The name of the store
+     * @param load Loads the state of the store
+     *
+     * @throws IOException when a sequential load fails
+     */
+    public void load(String name, Load load) throws IOException {
+        if (!parallel) {
+            timed(name, load);
+            return;
+        }
+
+        synchronized (this) {
+            if (!started) {
+                started = true;
+                startNanos = System.nanoTime();
+                endNanos = startNanos;
+            }
+            if (executor == null) {
+                executor = Executors.newCachedThreadPool(runnable -> {
+                    Thread thread = new Thread(runnable, "store-loader");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+            }
+            pending.add(CompletableFuture.runAsync(() -> {
+                try {
+                    timed(name, load);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }, executor));
+        }
+    }
+
+    /**
+     * Runs a load and records how long it took
+     */
+    private void timed(String name, Load load) throws IOException {
+        long start = System.nanoTime();
+        load.load();
+        long end = System.nanoTime();
+        synchronized (this) {
+            endNanos = Math.max(endNanos, end);
+        }
+        long ms = (end - start) / 1_000_000;
+        timings.put(name, ms);
+        LOG.info("Loaded " + name + " in " + ms + " ms");
+    }
+
+    /**
+     * Waits for every store submitted so far to load
+     *
+     * @throws IOException when any of the loads failed
+     */
+    public void await() throws IOException {
+        List<CompletableFuture<Void>> loads;
+        synchronized (this) {
+            loads = new ArrayList<>(pending);
+            pending.clear();
+            if (executor != null)
+                executor.shutdown();
+            executor = null;
+        }
+        if (loads.isEmpty())
+            return;
+
+        try {
+            CompletableFuture.allOf(loads.toArray(new CompletableFuture[loads.size()])).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof UncheckedIOException)
+                throw ((UncheckedIOException) e.getCause()).getCause();
+            throw new IOException(e.getCause());
+        }
+        LOG.info("Loaded " + loads.size() + " stores in parallel in " + getLoadingMillis() + " ms, "
+                + getTimings().values().stream().mapToLong(Long::longValue).sum() + " ms of loading in all");
+    }
+
+    /**
+     * Gets how long the parallel loads took, from the first starting to the
+     * last finishing
+     * <br>
+     * The loads are only awaited once every singleton exists, so the time
+     * until {@link #await()} returns would also count creating the beans
+     *
+     * @return the milliseconds the parallel loads took, 0 if none ran
+     */
+    public synchronized long getLoadingMillis() {
+        return started ? (endNanos - startNanos) / 1_000_000 : 0;
+    }
+
+    /**
+     * @return how long each store took to load in milliseconds, in the order
+     *         they finished
+     */
+    public Map<String, Long> getTimings() {
+        synchronized (timings) {
+            return new LinkedHashMap<>(timings);
+        }
+    }
+
+    /**
+     * Waits for the stores once Spring has created every singleton, failing
+     * startup if any of them could not be loaded
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        try {
+            await();
+        } catch (IOException e) {
+            LOG.log(Level.SEVERE, "Failed to load stores: " + e.getLocalizedMessage());
+            throw new UncheckedIOException(e);
+        }
+    }
+}
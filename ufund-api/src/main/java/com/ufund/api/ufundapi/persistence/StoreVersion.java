@@ -0,0 +1,82 @@
+package com.ufund.api.ufundapi.persistence;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Seeds the version of a store so it keeps increasing across restarts
+ * <br>
+ * Clients hold on to versions in entity tags and delta requests, so a
+ * restarted store must never hand out one it handed out before. Its last
+ * version is saved beside its file when its DAO closes, and it restarts past
+ * both that and the clock: the clock alone can be set back, and a crash skips
+ * the save.
+ *
+ * @author Ethan Hartman
+ */
+final class StoreVersion {
+    static final String SUFFIX = ".version";
+
+    private static final Logger LOG = Logger.getLogger(StoreVersion.class.getName());
+
+    private StoreVersion() {
+    }
+
+    /**
+     * Gets the version a store starts from
+     *
+     * @param file The file of the store
+     *
+     * @return a version after both the saved version and the clock
+     */
+    static long seed(File file) {
+        return Math.max(System.currentTimeMillis(), saved(file) + 1);
+    }
+
+    /**
+     * Gets the version last saved for a store
+     *
+     * @param file The file of the store
+     *
+     * @return the saved version, or -1 if none was saved or it cannot be read
+     */
+    static long saved(File file) {
+        File saved = versionFile(file);
+        if (!saved.exists())
+            return -1;
+        try {
+            return Long.parseLong(Files.readString(saved.toPath(), StandardCharsets.UTF_8).trim());
+        } catch (IOException | NumberFormatException e) {
+            LOG.log(Level.WARNING, "Ignoring unreadable " + saved, e);
+            return -1;
+        }
+    }
+
+    /**
+     * Saves the last version of a store, replacing the saved one
+     *
+     * @param file    The file of the store
+     * @param version The store's current version
+     *
+     * @throws IOException when the version cannot be written
+     */
+    static void save(File file, long version) throws IOException {
+        File saved = versionFile(file);
+        File temporary = new File(saved.getPath() + ".tmp");
+        Files.writeString(temporary.toPath(), Long.toString(version), StandardCharsets.UTF_8);
+        Files.move(temporary.toPath(), saved.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * @return the file the version of the store with the given file is saved in
+     */
+    static File versionFile(File file) {
+        return new File(file.getPath() + SUFFIX);
+    }
+}
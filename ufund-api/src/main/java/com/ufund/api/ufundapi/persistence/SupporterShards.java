@@ -0,0 +1,159 @@
+package com.ufund.api.ufundapi.persistence;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.function.Consumer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ufund.api.ufundapi.model.Supporter;
+
+/**
+ * Directory holding every {@linkplain Supporter supporter} in a file of their
+ * own, written next to the supporters file
+ * <br>
+ * Each file is named by a hash of the supporter's username, so any username
+ * maps to a short, portable file name, and changing one supporter rewrites
+ * only their record no matter how many supporters are registered. Files are
+ * written to a temporary file and moved into place, so a crash never leaves a
+ * torn record behind. The directory itself is filled under a temporary name
+ * and renamed into place once every shard is written, so a crash part way
+ * through creating it never leaves some supporters behind.
+ *
+ * @author Ethan Hartman
+ */
+class SupporterShards {
+    static final String SUFFIX = ".d";
+    private static final String EXTENSION = ".json";
+    private static final String TEMPORARY = ".tmp";
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private final File directory; // Holds a file per supporter
+    private final ObjectMapper objectMapper; // Used to serialize/deserialize supporters
+
+    /**
+     * Creates the shards of the given supporters file
+     *
+     * @param filename     The supporters file the shards replace
+     * @param objectMapper Provides JSON Object to/from Java Object
+     *                     serialization and deserialization
+     */
+    SupporterShards(String filename, ObjectMapper objectMapper) {
+        this.directory = new File(filename + SUFFIX);
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * @return true if the shards have been created, false if the supporters
+     *         are still only in the supporters file
+     */
+    boolean exists() {
+        return directory.isDirectory();
+    }
+
+    /**
+     * Creates the shards, writing one for every {@linkplain Supporter supporter}
+     * <br>
+     * Shards are written into a temporary directory which is only renamed into
+     * place once all of them are written, so the shards either hold every
+     * supporter or do not exist. A temporary directory left by an earlier crash
+     * is discarded first.
+     *
+     * @param supporters Every {@link Supporter supporter}
+     *
+     * @throws IOException when the shards cannot be written
+     */
+    void create(Collection<Supporter> supporters) throws IOException {
+        File temporary = new File(directory.getPath() + TEMPORARY);
+        delete(temporary);
+        if (!temporary.mkdirs())
+            throw new IOException("Could not create " + temporary);
+        for (Supporter supporter : supporters)
+            write(temporary, supporter);
+        Files.move(temporary.toPath(), directory.toPath(), StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Deletes the given directory and the files in it, if it exists
+     */
+    private static void delete(File dir) throws IOException {
+        File[] files = dir.listFiles();
+        if (files == null)
+            return;
+        for (File file : files)
+            Files.delete(file.toPath());
+        Files.delete(dir.toPath());
+    }
+
+    /**
+     * Reads every {@linkplain Supporter supporter} in the shards
+     * <br>
+     * Temporary files left by a crash part way through a write are ignored,
+     * since the write never completed
+     *
+     * @param action Called with each {@link Supporter supporter} read
+     *
+     * @throws IOException when a shard cannot be read
+     */
+    void forEach(Consumer<Supporter> action) throws IOException {
+        File[] files = directory.listFiles((dir, name) -> name.endsWith(EXTENSION));
+        if (files == null)
+            return;
+        for (File file : files)
+            action.accept(objectMapper.readValue(file, Supporter.class));
+    }
+
+    /**
+     * Writes the {@linkplain Supporter supporter's} shard, replacing the
+     * previous one
+     *
+     * @param supporter The {@link Supporter supporter} to write
+     *
+     * @throws IOException when the shard cannot be written, or the shards have
+     *                     not been {@link #create(Collection) created}
+     */
+    void write(Supporter supporter) throws IOException {
+        if (!exists())
+            throw new IOException(directory + " has not been created");
+        write(directory, supporter);
+    }
+
+    /**
+     * Writes the {@linkplain Supporter supporter's} shard into the given
+     * directory
+     */
+    private void write(File dir, Supporter supporter) throws IOException {
+        File file = new File(dir, fileOf(supporter.getUsername()).getName());
+        File temporary = new File(file.getPath() + TEMPORARY);
+        objectMapper.writeValue(temporary, supporter);
+        Files.move(temporary.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Gets the file of the {@linkplain Supporter supporter} with the given
+     * username
+     *
+     * @param username The username of the {@link Supporter supporter}
+     *
+     * @return the shard's file, whether or not it exists
+     */
+    File fileOf(String username) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(username.getBytes(StandardCharsets.UTF_8));
+            char[] name = new char[hash.length * 2];
+            for (int i = 0; i < hash.length; ++i) {
+                name[i * 2] = HEX[(hash[i] >> 4) & 0xF];
+                name[i * 2 + 1] = HEX[hash[i] & 0xF];
+            }
+            return new File(directory, new String(name) + EXTENSION);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e); // every Java platform provides SHA-256
+        }
+    }
+}
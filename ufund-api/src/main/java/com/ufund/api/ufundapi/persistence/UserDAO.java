@@ -1,12 +1,14 @@
 package com.ufund.api.ufundapi.persistence;
 
 import java.io.IOException;
+import java.util.List;
 
 import javax.management.openmbean.KeyAlreadyExistsException;
 
 import com.ufund.api.ufundapi.model.BasketNeed;
 import com.ufund.api.ufundapi.model.Need;
 import com.ufund.api.ufundapi.model.NeedMessage;
+import com.ufund.api.ufundapi.model.Page;
 import com.ufund.api.ufundapi.model.Supporter;
 import com.ufund.api.ufundapi.model.User;
 import com.ufund.api.ufundapi.exceptions.NeedNotFoundException;
@@ -27,6 +29,31 @@ public interface UserDAO {
          */
         Supporter[] getSupporters() throws IOException;
 
+        /**
+         * Gets the version of the {@linkplain User users}, which increases with every
+         * change to a {@link Supporter supporter} or to who is logged in
+         * 
+         * @return The current version
+         */
+        long getVersion();
+
+        /**
+         * Retrieves one page of {@linkplain Supporter supporters}, in username order
+         * 
+         * @param cursor The cursor returned with the previous page, null for the
+         *               first page
+         * 
+         * @param limit  The most {@link Supporter supporters} on the page
+         * 
+         * @return A {@link Page page} of {@link Supporter supporter} objects, may be
+         *         empty
+         * 
+         * @throws IOException              if an issue with underlying storage
+         * 
+         * @throws IllegalArgumentException if the cursor or limit is invalid
+         */
+        Page<Supporter> getSupporters(String cursor, int limit) throws IOException;
+
         /**
          * Creates and saves a {@linkplain Supporter supporter}
          * 
@@ -42,22 +69,30 @@ public interface UserDAO {
         Supporter createSupporter(Supporter supporter) throws IOException, KeyAlreadyExistsException;
 
         /**
-         * Logs out the current {@linkplain User user} (if there is one).
+         * Logs out the {@linkplain User user} signed in with the given session (if
+         * there is one).
+         * 
+         * @param session The session token issued when the {@link User user} logged
+         *                in
          */
-        void logoutCurUser();
+        void logoutCurUser(String session);
 
         /**
-         * Logs in the {@linkplain User user}.
+         * Logs in the {@linkplain User user}, opening a new session for them.
          * If the {@link User user} is a {@link Supporter supporter}, their basket will
          * be loaded
+         * <br>
+         * Every session is independent, logging in never signs out anyone else.
+         * Sessions left unused for too long are evicted.
          * 
          * @param user The {@link User user} to log in
          * 
-         * @return true if successful, false if user is not found
+         * @return the token of the new session, which every call acting for the
+         *         {@link User user} is given, or null if user is not found
          * 
          * @throws IOException if an issue with underlying storage
          */
-        boolean loginUser(User user) throws IOException;
+        String loginUser(User user) throws IOException;
 
         /**
          * Gets the {@linkplain User user} with the given username
@@ -71,11 +106,13 @@ public interface UserDAO {
         User getUser(String username) throws IOException;
 
         /*
-         * Updates the quantity of the given {@linkplain Need need} in the current
+         * Updates the quantity of the given {@linkplain Need need} in the session's
          * supporter's basket or adds it to the basket with the new quantity.
          * 
          * if quantity is 0, the need will be removed from the basket
          * 
+         * @param session The session token of the signed in supporter
+         * 
          * @param needKey The key of the {@link Need need} to update in the basket
          * 
          * @param newQuantity The new quantity of the {@link Need need} to update in the
@@ -83,90 +120,103 @@ public interface UserDAO {
          * 
          * @throws IOException if an issue with underlying storage
          * 
-         * @throws SupporterNotSignedInException if no supporter is signed in
+         * @throws SupporterNotSignedInException if no supporter is signed in with the session
          * 
          * @throws NeedNotFoundException if the {@link Need need} is not found in the basket
          */
-        void updateNeedInCurBasket(String needKey, int newQuantity)
+        void updateNeedInCurBasket(String session, String needKey, int newQuantity)
                 throws IOException, SupporterNotSignedInException, NeedNotFoundException;
 
         /**
          * Gets the {@linkplain BasketNeed need} with the given name and quantity in the basket.
          * If the need is not in the basket, the normal need will be returned with a quantity of 0.
          * 
+         * @param session The session token of the signed in supporter
+         * 
          * @param needName The name of the {@link BasketNeed need} to get
          * 
          * @return The corresponding {@link BasketNeed need}
          * 
          * @throws IOException if an issue with underlying storage
          * 
-         * @throws SupporterNotSignedInException if no supporter is signed in
+         * @throws SupporterNotSignedInException if no supporter is signed in with the session
          * 
          * @throws NeedNotFoundException if the {@link BasketNeed need} is not found in the basket nor the normal needs
          */
-        public BasketNeed getBasketOrNormalNeed(String needName) 
+        public BasketNeed getBasketOrNormalNeed(String session, String needName) 
                 throws IOException, SupporterNotSignedInException, NeedNotFoundException;
 
         /**
-         * Gets the needs which are available to add to this {@linkplain Supporter
-         * supporter's} basket
+         * Gets the needs which are available to add to the session's {@linkplain
+         * Supporter supporter's} basket
          * 
-         * @return The {@link Need needs} available to add to the {@link Supporter supporter's}
-         *         basket
+         * @param session The session token of the signed in {@link Supporter supporter}
+         * 
+         * @return A read-only list of the {@link Need needs} available to add to the
+         *         {@link Supporter supporter's} basket
          * 
          * @throws SupporterNotSignedInException if no {@link Supporter supporter's} is
-         *                                       signed in
+         *                                       signed in with the session
          * 
          * @throws IOException if an issue with underlying storage
          */
-        Need[] getBasketableNeeds() throws SupporterNotSignedInException, IOException;
+        List<Need> getBasketableNeeds(String session) throws SupporterNotSignedInException, IOException;
 
         /**
-         * Gets the current Needs in the current {@linkplain Supporter
+         * Gets the current Needs in the session's {@linkplain Supporter
          * supporter's} basket
          * 
-         * @return The {@link Need needs} in the current {@link Supporter supporter's}
+         * @param session The session token of the signed in {@link Supporter supporter}
+         * 
+         * @return The {@link Need needs} in the {@link Supporter supporter's}
          *         basket
          * 
          * @throws SupporterNotSignedInException if no {@link Supporter supporter's} is
-         *                                       signed in
+         *                                       signed in with the session
          * 
          * @throws IOException if an issue with underlying storage
          */
-        Need[] getCurBasket() throws SupporterNotSignedInException, IOException;
+        Need[] getCurBasket(String session) throws SupporterNotSignedInException, IOException;
 
          /**
-         * Checks out the current {@linkplain Supporter supporter's} basket
+         * Checks out the session's {@linkplain Supporter supporter's} basket
+         * 
+         * @param session The session token of the signed in {@link Supporter supporter}
          * 
          * @throws SupporterNotSignedInException if no {@link Supporter supporter's} is
-         *                                       signed in
+         *                                       signed in with the session
          *
          * @return true if successful, false if any basket needs costs have changed, or quantities decreased 
          *         more than what's in the basket while preparing to checkout.
          *  
          * @throws IOException if an issue with underlying storage
          */
-        boolean checkoutCurBasket() throws SupporterNotSignedInException, IOException;
+        boolean checkoutCurBasket(String session) throws SupporterNotSignedInException, IOException;
 
         /**
-         * Gets the current {@linkplain Supporter supporter's} basket
+         * Gets the {@linkplain User user} signed in with the given session
          * 
-         * @return The current {@link Supporter supporter's} basket
+         * @param session The session token issued when the {@link User user} logged
+         *                in
          * 
-         * @throws SupporterNotSignedInException if no {@link Supporter supporter's} is
-         *                                       signed in
+         * @return The signed in {@link User user}
+         * 
+         * @throws SupporterNotSignedInException if no {@link User user} is signed in
+         *                                       with the session
          */
-        User getCurUser() throws SupporterNotSignedInException;
+        User getCurUser(String session) throws SupporterNotSignedInException;
 
         /**
-         * Gets the current {@linkplain Supporter supporter's} inbox
+         * Gets the session's {@linkplain Supporter supporter's} inbox
+         * 
+         * @param session The session token of the signed in {@link Supporter supporter}
          * 
-         * @return The current {@link Supporter supporter's} inbox
+         * @return The {@link Supporter supporter's} inbox
          * 
          * @throws SupporterNotSignedInException if no {@link Supporter supporter's} is
-         *                                       signed in
+         *                                       signed in with the session
          */
-        NeedMessage[] getCurMessages() throws SupporterNotSignedInException;
+        NeedMessage[] getCurMessages(String session) throws SupporterNotSignedInException;
 
         /**
          * Sends the given {@linkplain NeedMessage message} to the user with the given username
@@ -193,11 +243,13 @@ public interface UserDAO {
         NeedMessage getMessageToUser(String receiverUsername, String needName);
 
         /**
-         * Deletes the {@linkplain NeedMessage message} if a user is logged in.
+         * Deletes the {@linkplain NeedMessage message} if a user is logged in with the session.
+         * 
+         * @param session The session token of the signed in {@link Supporter supporter}
          * 
          * @param needName The name of the {@linkplain Need need}.
          * 
          * @throws IOException if an issue with underlying storage
          */
-        void deleteCurMessage(String needName) throws SupporterNotSignedInException, IOException;
+        void deleteCurMessage(String session, String needName) throws SupporterNotSignedInException, IOException;
 }
@@ -5,8 +5,16 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.PreDestroy;
 import javax.management.openmbean.KeyAlreadyExistsException;
 
 import com.ufund.api.ufundapi.exceptions.NeedNotFoundException;
@@ -20,11 +28,29 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.ufund.api.ufundapi.model.BasketNeed;
 import com.ufund.api.ufundapi.model.Need;
 import com.ufund.api.ufundapi.model.NeedMessage;
+import com.ufund.api.ufundapi.model.Page;
 import com.ufund.api.ufundapi.model.Supporter;
 import com.ufund.api.ufundapi.model.User;
 
 /**
  * Implements the functionality for JSON file-based peristance for Users
+ * <br>
+ * By default every change rewrites every supporter into the one supporters
+ * file. When the persistence mode is {@value #PERSISTENCE_SHARDED}, each
+ * supporter is instead kept in a {@link SupporterShards shard} of their own,
+ * and a write only rewrites the shards of the supporters changed since the
+ * last one, so its cost does not grow with the number of supporters
+ * <br>
+ * Supporters are held in a concurrent map, and every change to a supporter
+ * is made under that supporter's own lock, so single edits to one supporter
+ * are linearizable while logins, basket edits and messages for different
+ * supporters never wait on each other
+ * <br>
+ * A checkout is not a single edit. It holds a checkout lock of its supporter,
+ * so checkouts from any of the supporter's sessions run one at a time and
+ * fund each basket line once, but it only holds the supporter's own lock to
+ * read the basket and then to take out what it funded. Basket edits made in
+ * between are kept, on top of the checked out quantities being taken out
  * 
  * {@literal @}Component Spring annotation instantiates a single instance of
  * this
@@ -34,90 +60,339 @@ import com.ufund.api.ufundapi.model.User;
  */
 @Component
 public class UserFileDAO implements UserDAO {
+    static final String PERSISTENCE_FILE = "file";
+    static final String PERSISTENCE_SHARDED = "sharded";
+
     private static String SupporterUsernameExistsException = "Supporter with the username '%s' already exists";
+    private static String UnknownPersistenceException = "Unknown supporters persistence mode '%s'";
+
+    private static final int STRIPES = 64; // Locks guarding shard writes, a power of two
 
-    private Map<String, Supporter> supporters; // Map of supporters, keyed by username
+    private ConcurrentNavigableMap<String, Supporter> supporters; // Map of supporters, keyed by username
     private ObjectMapper objectMapper; // Used to serialize/deserialize Java Objects to/from JSON objects
     private String filename; // Filename to read from and write to
 
-    private User curUser; // The current user logged in
-    Map<String, Need> supporterBasket; // The current supporter's basket of needs
-    Map<String, NeedMessage> supporterMessages; // The current supporter's messages
+    private UserSessions sessions; // The signed in users, keyed by session token
 
     private NeedDAO needDao;
     private NeedReceiptDAO needReceiptDao;
+    private volatile BasketableNeeds.Cupboard cupboard; // Indexed needs basketable views share, null until first used
+    private FileFlusher.Store store; // Commits supporter writes with the configured durability
+    private final AtomicLong version = new AtomicLong(); // Increased after every change to the supporters or login
+    private boolean binary; // Whether a binary snapshot is kept alongside the JSON file
+    private SupporterShards shards; // A file per supporter, null when every supporter is in the one file
+    private final Object fileLock = new Object(); // Serializes writes of the one supporters file
+    private final Object[] stripes = new Object[STRIPES]; // Serialize writes of the shards hashing to each
+    private final Set<String> dirty = ConcurrentHashMap.newKeySet(); // Supporters changed since their shards were saved
+    private final Map<String, Object> checkouts = new ConcurrentHashMap<>(); // Serializes each supporter's checkouts
+
+    /**
+     * Creates a Supporter File Data Access Object which writes every change in
+     * the requesting thread
+     * 
+     * @param filename     Filename to read from and write to
+     * 
+     * @param objectMapper Provides JSON Object to/from Java Object serialization
+     *                     and deserialization
+     * 
+     * @param needDao      The {@link NeedDAO Need Data Access Object} to perform
+     *                     CRUD operations
+     * 
+     * @param needReceiptDao The {@link NeedReceiptDAO Need Receipt Data Access
+     *                       Object} to record fundings with
+     * 
+     * @throws IOException when file cannot be accessed or read from
+     */
+    public UserFileDAO(String filename, ObjectMapper objectMapper, NeedDAO needDao, NeedReceiptDAO needReceiptDao)
+            throws IOException {
+        this(filename, PERSISTENCE_FILE, FileFlusher.Durability.SYNC.name(), false, UserSessions.DEFAULT_IDLE_MILLIS,
+                objectMapper, needDao, needReceiptDao, new FileFlusher(), new StoreLoader());
+    }
 
     /**
      * Creates a Supporter File Data Access Object
      * 
      * @param filename     Filename to read from and write to
      * 
+     * @param persistence  The persistence mode, either {@value #PERSISTENCE_FILE}
+     *                     or {@value #PERSISTENCE_SHARDED}. Sharded supporters
+     *                     are created from the file the first time they load
+     * 
+     * @param durability   The {@link FileFlusher.Durability durability} of
+     *                     supporter writes
+     * 
+     * @param binary       Whether a {@link BinarySnapshot binary snapshot} is kept
+     *                     alongside the file and preferred when loading, only
+     *                     when every supporter is in the one file
+     * 
+     * @param idleMillis   How long a session may go unused before it is
+     *                     evicted, in milliseconds
+     * 
      * @param objectMapper Provides JSON Object to/from Java Object serialization
      *                     and deserialization
      * 
      * @param needDao      The {@link NeedDAO Need Data Access Object} to perform
      *                     CRUD operations
      * 
+     * @param needReceiptDao The {@link NeedReceiptDAO Need Receipt Data Access
+     *                       Object} to record fundings with
+     * 
+     * @param flusher      The {@link FileFlusher flusher} which commits supporter
+     *                     writes
+     * 
+     * @param loader       The {@link StoreLoader loader} which loads the file,
+     *                     the supporters do not read the other DAOs while loading
+     * 
      * @throws IOException when file cannot be accessed or read from
      */
     @Autowired
-    public UserFileDAO(@Value("${supporters.file}") String filename, ObjectMapper objectMapper, NeedDAO needDao, NeedReceiptDAO needReceiptDao)
-            throws IOException {
+    public UserFileDAO(@Value("${supporters.file}") String filename,
+            @Value("${supporters.persistence:" + PERSISTENCE_FILE + "}") String persistence,
+            @Value("${supporters.durability:sync}") String durability,
+            @Value("${supporters.binary:false}") boolean binary,
+            @Value("${sessions.idle.ms:" + UserSessions.DEFAULT_IDLE_MILLIS + "}") long idleMillis,
+            ObjectMapper objectMapper, NeedDAO needDao, NeedReceiptDAO needReceiptDao, FileFlusher flusher,
+            StoreLoader loader) throws IOException {
         this.filename = filename;
+        if (PERSISTENCE_SHARDED.equals(persistence))
+            this.shards = new SupporterShards(filename, objectMapper);
+        else if (!PERSISTENCE_FILE.equals(persistence))
+            throw new IllegalArgumentException(String.format(UnknownPersistenceException, persistence));
+        this.binary = binary && shards == null;
+        for (int i = 0; i < STRIPES; ++i)
+            stripes[i] = new Object();
+        this.sessions = new UserSessions(idleMillis);
         this.objectMapper = objectMapper;
         this.needDao = needDao;
         this.needReceiptDao = needReceiptDao;
-        load(); // load the supporters from the file
+        this.store = flusher.register("supporters", FileFlusher.Durability.parse(durability), this::write);
+        loader.load("supporters", this::load); // load the supporters from the file
     }
 
     /**
-     * Saves the {@linkplain Supporter supporters} from the map into the file as an
-     * array of JSON objects
+     * Writes the {@linkplain Supporter supporters} from the map into the file as an
+     * array of JSON objects, or the changed supporters into their shards
      * 
-     * @return true if the {@link Supporter supporters} were written successfully
+     * @throws IOException when file cannot be accessed or written to
+     */
+    private void write() throws IOException {
+        if (shards != null) {
+            writeShards();
+            return;
+        }
+
+        synchronized (fileLock) {
+            Supporter[] supporterArray = getSupporters();
+            File file = new File(filename);
+            if (binary)
+                BinarySnapshot.discard(file);
+            objectMapper.writeValue(file, supporterArray);
+        }
+    }
+
+    /**
+     * Saves the {@linkplain StoreVersion version} of the supporters and, when
+     * every supporter is in the one file, its {@linkplain BinarySnapshot binary
+     * snapshot}
      * 
      * @throws IOException when file cannot be accessed or written to
      */
-    private boolean save() throws IOException {
-        objectMapper.writeValue(new File(filename), getSupporters());
-        return true;
+    @PreDestroy
+    public void close() throws IOException {
+        File file = new File(filename);
+        store.flush();
+        StoreVersion.save(file, version.get());
+        if (binary) {
+            synchronized (fileLock) {
+                BinarySnapshot.write(BinarySnapshot.SUPPORTERS, file, getSupporters());
+            }
+        }
     }
 
-    public User getCurUser() {
-        return curUser;
+    /**
+     * Writes the shard of every {@linkplain Supporter supporter} changed since
+     * the last write
+     * <br>
+     * A supporter is unmarked before their shard is written, so a change made
+     * during the write marks them again for the next one. Each shard is written
+     * under its stripe's lock, so writers racing on the same supporter always
+     * leave the newest state behind, while different supporters are written in
+     * parallel
+     * 
+     * @throws IOException when a shard cannot be written
+     */
+    private void writeShards() throws IOException {
+        for (String username : dirty) {
+            if (!dirty.remove(username))
+                continue; // written by a racing writer
+            try {
+                synchronized (stripeOf(username)) {
+                    shards.write(supporters.get(username));
+                }
+            } catch (IOException e) {
+                dirty.add(username); // retried by the next write
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Gets the lock guarding writes of the {@linkplain Supporter supporter's}
+     * shard
+     * 
+     * @param username The username of the {@link Supporter supporter}
+     * 
+     * @return the lock of the stripe the {@link Supporter supporter} hashes to
+     */
+    private Object stripeOf(String username) {
+        int hash = username.hashCode();
+        return stripes[(hash ^ (hash >>> 16)) & (STRIPES - 1)];
+    }
+
+    /**
+     * Commits the changed {@linkplain Supporter supporter} to the file, with the
+     * configured durability
+     * <br>
+     * May be called while holding the supporter's lock, callers wait on the
+     * returned commit with {@link FileFlusher.Store#await} once it is released
+     * 
+     * @param supporter The changed {@link Supporter supporter}
+     * 
+     * @return a future completed once the {@link Supporter supporter} is written
+     * 
+     * @throws IOException when file cannot be accessed or written to
+     */
+    private CompletableFuture<Void> save(Supporter supporter) throws IOException {
+        if (shards != null)
+            dirty.add(supporter.getUsername());
+        return store.commitAsync();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public User getCurUser(String session) throws SupporterNotSignedInException {
+        User user = sessions.get(session);
+        if (user == null)
+            throw new SupporterNotSignedInException();
+        return user;
+    }
+
+    /**
+     * Gets the {@linkplain Supporter supporter} signed in with the given session
+     * 
+     * @param session The session token
+     * 
+     * @return The signed in {@link Supporter supporter}
+     * 
+     * @throws SupporterNotSignedInException if the session is unknown, was
+     *                                       evicted or belongs to the admin
+     */
+    private Supporter getCurSupporter(String session) throws SupporterNotSignedInException {
+        User user = sessions.get(session);
+        if (!(user instanceof Supporter))
+            throw new SupporterNotSignedInException();
+        return (Supporter) user;
+    }
+
+    /**
+     * Gets the {@linkplain Need needs} in the {@linkplain Supporter supporter's}
+     * basket, keyed by name
+     * <br>
+     * The map is a copy, the supporter only sees changes once they are
+     * {@linkplain #update(Supporter, Map, Map) updated}
+     * 
+     * @param supporter The {@link Supporter supporter}, whose lock is held
+     * 
+     * @return The {@link Supporter supporter's} basket
+     */
+    private static Map<String, Need> basketOf(Supporter supporter) {
+        Map<String, Need> basket = new HashMap<>();
+        for (Need need : supporter.getFundingBasket())
+            basket.put(need.getName(), need);
+        return basket;
+    }
+
+    /**
+     * Gets the {@linkplain NeedMessage messages} in the {@linkplain Supporter
+     * supporter's} inbox, keyed by need name
+     * 
+     * @param supporter The {@link Supporter supporter}, whose lock is held
+     * 
+     * @return The {@link Supporter supporter's} inbox
+     */
+    private static Map<String, NeedMessage> messagesOf(Supporter supporter) {
+        Map<String, NeedMessage> messages = new HashMap<>();
+        for (NeedMessage message : supporter.getNeedMessages())
+            messages.put(message.getNeedName(), message);
+        return messages;
     }
 
     /**
-     * Loads {@linkplain Supporter supporters} from the JSON file into the map
+     * Loads {@linkplain Supporter supporters} from the JSON file into the map, or
+     * from its {@link BinarySnapshot binary snapshot} when one is kept and
+     * current, or from their shards once they have been written
      * 
      * @return true if the file was read successfully
      * 
      * @throws IOException when file cannot be accessed or read from
      */
     private boolean load() throws IOException {
-        supporters = new HashMap<>();
+        supporters = new ConcurrentSkipListMap<>();
+        version.set(StoreVersion.seed(new File(filename)));
+
+        if (shards != null && shards.exists()) {
+            shards.forEach(supporter -> supporters.put(supporter.getUsername(), supporter));
+            return true;
+        }
 
-        // Deserializes the JSON objects from the file into an array of supporters
-        // readValue will throw an IOException if there's an issue with the file
-        // or reading from the file
-        for (Supporter supporter : objectMapper.readValue(new File(filename), Supporter[].class))
-            supporters.put(supporter.getUsername(), supporter);
+        File file = new File(filename);
+        Supporter[] supporterArray = binary ? BinarySnapshot.read(BinarySnapshot.SUPPORTERS, file) : null;
+        if (supporterArray != null) {
+            for (Supporter supporter : supporterArray)
+                supporters.put(supporter.getUsername(), supporter);
+        } else {
+            // Deserializes the JSON objects from the file one at a time, adding each
+            // supporter to the tree map as it is parsed. Throws an IOException if
+            // there's an issue with the file or reading from the file
+            JsonArrayReader.forEach(objectMapper, file, Supporter.class,
+                    supporter -> supporters.put(supporter.getUsername(), supporter));
+            if (binary) // faster the next time
+                BinarySnapshot.write(BinarySnapshot.SUPPORTERS, file, getSupporters());
+        }
+
+        if (shards != null) // every later write only touches the changed shards
+            shards.create(supporters.values());
 
         return true;
     }
 
     /**
-     * Updates and saves the logged in {@linkplain Supporter supporter}
+     * Updates and saves the {@linkplain Supporter supporter}
+     * <br>
+     * The supporter's arrays are replaced rather than changed, so a write in
+     * progress always sees a whole basket and inbox
+     * 
+     * @param supporter The {@link Supporter supporter}, whose lock is held
+     * 
+     * @param basket    The new basket, or null to keep the current one
+     * 
+     * @param messages  The new inbox, or null to keep the current one
+     * 
+     * @return a future completed once the {@link Supporter supporter} is written,
+     *         callers wait on it with {@link FileFlusher.Store#await} once the
+     *         supporter's lock is released
      * 
      * @throws IOException if underlying storage cannot be accessed
      */
-    private void updateCurSupporter() throws IOException {
-        Supporter supporter = (Supporter) curUser;
-        synchronized (supporters) {
-            supporter.setFundingBasket(supporterBasket.values().toArray(new Need[supporterBasket.size()]));
-            supporter.setNeedMessages(supporterMessages.values().toArray(new NeedMessage[supporterMessages.size()]));
-            save(); // may throw an IOException
-        }
+    private CompletableFuture<Void> update(Supporter supporter, Map<String, Need> basket,
+            Map<String, NeedMessage> messages) throws IOException {
+        if (basket != null)
+            supporter.setFundingBasket(basket.values().toArray(new Need[basket.size()]));
+        if (messages != null)
+            supporter.setNeedMessages(messages.values().toArray(new NeedMessage[messages.size()]));
+        version.incrementAndGet();
+        return save(supporter); // may throw an IOException
     }
 
     /**
@@ -130,24 +405,45 @@ public class UserFileDAO implements UserDAO {
     /**
      * {@inheritDoc}
      */
-    public Supporter createSupporter(Supporter supporter) throws IOException, KeyAlreadyExistsException {
-        synchronized (supporters) {
-            if (supporters.containsKey(supporter.getUsername()) || supporter.isAdmin())
-                throw new KeyAlreadyExistsException(
-                        String.format(SupporterUsernameExistsException, supporter.getUsername()));
-            supporters.put(supporter.getUsername(), supporter);
-            save(); // may throw an IOException
-            return supporter;
+    public long getVersion() {
+        return version.get();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public Page<Supporter> getSupporters(String cursor, int limit) throws IOException {
+        Page.checkLimit(limit);
+        Map<String, Supporter> remaining = cursor != null
+                ? supporters.tailMap(Page.decodeCursor(cursor, 1)[0], false)
+                : supporters;
+        List<Supporter> items = new ArrayList<>(Math.min(limit, 64));
+        for (Supporter supporter : remaining.values()) {
+            if (items.size() == limit)
+                return new Page<>(items, Page.encodeCursor(items.get(limit - 1).getUsername()));
+            items.add(supporter);
         }
+        return new Page<>(items, null);
     }
 
     /**
      * {@inheritDoc}
      */
-    public void logoutCurUser() {
-        supporterBasket = null;
-        supporterMessages = null;
-        curUser = null;
+    public Supporter createSupporter(Supporter supporter) throws IOException, KeyAlreadyExistsException {
+        if (supporter.isAdmin() || supporters.putIfAbsent(supporter.getUsername(), supporter) != null)
+            throw new KeyAlreadyExistsException(
+                    String.format(SupporterUsernameExistsException, supporter.getUsername()));
+        version.incrementAndGet();
+        store.await(save(supporter)); // may throw an IOException
+        return supporter;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void logoutCurUser(String session) {
+        if (sessions.close(session))
+            version.incrementAndGet();
     }
 
 
@@ -160,27 +456,33 @@ public class UserFileDAO implements UserDAO {
      * 
      * @return The supporter's potentially updated basket
      */
-    private synchronized Need[] getAndUpdateSupporterBasket(Supporter supporter) throws IOException{
-        Need matchedNeed;
+    private Need[] getAndUpdateSupporterBasket(Supporter supporter) throws IOException {
+        CompletableFuture<Void> commit;
         Need[] updatedBasket;
-        supporterBasket = new HashMap<>();
-        boolean removedNeed = false;
-        for (Need need : supporter.getFundingBasket()) {
-            matchedNeed = needDao.getNeed(need.getName());
-            if (matchedNeed != null){
-                // Set quantity to be based on the avaliable quantity in the cupboard
-                need.setQuantity(Math.min(matchedNeed.getQuantity(), need.getQuantity()));
-                need.setCost(matchedNeed.getCost());
-                supporterBasket.put(need.getName(), need);
-            }else
-                removedNeed = true;
-        }
+        synchronized (supporter) {
+            Need[] fundingBasket = supporter.getFundingBasket();
+            // Every line is refreshed from the same read of the cupboard
+            Map<String, Need> stored = needDao.getNeeds(namesOf(Arrays.asList(fundingBasket)));
+            Map<String, Need> basket = new HashMap<>();
+            boolean changed = false;
+            for (Need need : fundingBasket) {
+                Need matchedNeed = stored.get(need.getName());
+                if (matchedNeed != null) {
+                    // Set quantity to be based on the avaliable quantity in the cupboard
+                    int quantity = Math.min(matchedNeed.getQuantity(), need.getQuantity());
+                    changed |= quantity != need.getQuantity() || matchedNeed.getCost() != need.getCost();
+                    basket.put(need.getName(), new Need(need.getName(), matchedNeed.getCost(), quantity));
+                } else
+                    changed = true;
+            }
 
-        updatedBasket = supporterBasket.values().toArray(new Need[supporterBasket.size()]);
-        if (removedNeed){
-            supporter.setFundingBasket(updatedBasket);
-            save();
+            if (!changed)
+                return fundingBasket; // nothing to trim, so nothing to save
+            // Trimmed lines are saved like any other edit, so they survive a restart and move the version
+            updatedBasket = basket.values().toArray(new Need[basket.size()]);
+            commit = update(supporter, basket, null);
         }
+        store.await(commit);
 
         return updatedBasket;
     }
@@ -188,24 +490,19 @@ public class UserFileDAO implements UserDAO {
     /**
      * {@inheritDoc}
      */
-    public boolean loginUser(User user) throws IOException {
-        if (curUser == user) {
-            return true;
-        }
-        logoutCurUser();
+    public String loginUser(User user) throws IOException {
         if (!user.isAdmin()) {
             // If the user is in the system
-            if (supporters.containsKey(user.getUsername())) {
-                Supporter supporter = supporters.get(user.getUsername());
-                supporterMessages = new HashMap<>();
-                for (NeedMessage message : supporter.getNeedMessages())
-                    supporterMessages.put(message.getNeedName(), message);
-                getAndUpdateSupporterBasket(supporter);
-            }else
-                return false;
-        }
-        curUser = user;
-        return true;
+            Supporter supporter = supporters.get(user.getUsername());
+            if (supporter == null)
+                return null;
+            getAndUpdateSupporterBasket(supporter);
+            user = supporter; // every session of a supporter shares their one basket and inbox
+        } else
+            user = User.ADMIN;
+        String session = sessions.open(user);
+        version.incrementAndGet();
+        return session;
     }
 
     /**
@@ -220,130 +517,210 @@ public class UserFileDAO implements UserDAO {
     /**
      * {@inheritDoc}
      */
-    public void updateNeedInCurBasket(String needKey, int newQuantity)
+    public void updateNeedInCurBasket(String session, String needKey, int newQuantity)
             throws IOException, SupporterNotSignedInException, NeedNotFoundException {
-        if (supporterBasket == null)
-            throw new SupporterNotSignedInException();
+        Supporter supporter = getCurSupporter(session);
         
         Need locatedNeed = needDao.getNeed(needKey);
         if (locatedNeed == null)
             throw new NeedNotFoundException(needKey);
 
-        Need basketNeed = !supporterBasket.containsKey(needKey) ? new Need(locatedNeed.getName(), locatedNeed.getCost(), 0) : supporterBasket.get(needKey);;
-        basketNeed.setQuantity(newQuantity);
-
-        if (basketNeed.getQuantity() <= 0)
-            supporterBasket.remove(needKey);
-        else
-            supporterBasket.put(needKey, basketNeed);
-
-        synchronized (supporterBasket) {
-            updateCurSupporter();
+        CompletableFuture<Void> commit;
+        synchronized (supporter) {
+            Map<String, Need> basket = basketOf(supporter);
+            Need basketNeed = basket.get(needKey);
+            if (newQuantity <= 0)
+                basket.remove(needKey);
+            else if (basketNeed == null)
+                basket.put(needKey, new Need(locatedNeed.getName(), locatedNeed.getCost(), newQuantity));
+            else
+                basket.put(needKey, new Need(basketNeed.getName(), basketNeed.getCost(), newQuantity));
+            commit = update(supporter, basket, null);
         }
+        store.await(commit); // may throw an IOException
     }
 
 
     /**
      * {@inheritDoc}
      */
-    public Need[] getCurBasket() throws SupporterNotSignedInException, IOException {
-        if (supporterBasket == null)
-            throw new SupporterNotSignedInException();
-        return getAndUpdateSupporterBasket((Supporter) curUser);
+    public Need[] getCurBasket(String session) throws SupporterNotSignedInException, IOException {
+        return getAndUpdateSupporterBasket(getCurSupporter(session));
     }
 
     /**
      * {@inheritDoc}
+     * <br>
+     * The basket is copied under the supporter's lock, then every need is
+     * funded with a single all-or-nothing {@link NeedDAO#reserveNeeds(Map)
+     * reservation}, so the basket lock is not held across the need DAO calls
+     * and no need is ever oversold. Checkouts of the same supporter, from a
+     * double submit or another session, run one at a time, so a later one only
+     * funds what the earlier one left in the basket.
      */
-    public boolean checkoutCurBasket() throws SupporterNotSignedInException, IOException {
-        if (supporterBasket == null)
-            throw new SupporterNotSignedInException();
+    public boolean checkoutCurBasket(String session) throws SupporterNotSignedInException, IOException {
+        Supporter supporter = getCurSupporter(session);
+        synchronized (checkouts.computeIfAbsent(supporter.getUsername(), username -> new Object())) {
+            return checkout(supporter);
+        }
+    }
 
-        synchronized (supporterBasket) {
-            // Update the need from the list of needs since it's been funded
-            Need matchedNeed;
-            // Verify needs
-            for (Need need : supporterBasket.values()){
-                matchedNeed = needDao.getNeed(need.getName());
-                // If match is null, return false
-                // If Available quantity has changed to be lower than what the user was requesting or cost increased, return false
-                if (matchedNeed == null || matchedNeed.getQuantity() < need.getQuantity() || need.getCost() < matchedNeed.getCost())
-                    return false;
-            }
+    /**
+     * Funds the {@linkplain Supporter supporter's} basket, while holding their
+     * checkout lock
+     * 
+     * @param supporter The {@link Supporter supporter} checking out
+     * 
+     * @return true if the basket was funded
+     * 
+     * @throws IOException if underlying storage cannot be accessed
+     */
+    private boolean checkout(Supporter supporter) throws IOException {
+        List<Need> checkout;
+        synchronized (supporter) {
+            checkout = Arrays.asList(supporter.getFundingBasket()); // never changed in place
+        }
 
-            // Update needs
-            for (Need need : supporterBasket.values()){
-                matchedNeed = needDao.getNeed(need.getName());
-                // If we find a matching need, update the quantity. If quantity is 0 or below, delete the need
-                matchedNeed.setQuantity(matchedNeed.getQuantity() - need.getQuantity());
-                if (matchedNeed.getQuantity() > 0)
-                    needDao.updateNeed(matchedNeed);
+        // Verify needs against one read of the cupboard, failing before anything is changed
+        Map<String, Need> stored = needDao.getNeeds(namesOf(checkout));
+        for (Need need : checkout)
+            if (!fundable(need, stored.get(need.getName())))
+                return false;
+
+        // Update needs, taking every quantity or none. A line trimmed to nothing
+        // by a sold out need funds nothing, so it is only cleared from the basket
+        Map<String, Integer> quantities = new HashMap<>();
+        for (Need need : checkout)
+            if (need.getQuantity() > 0)
+                quantities.put(need.getName(), need.getQuantity());
+        if (!quantities.isEmpty() && !needDao.reserveNeeds(quantities))
+            return false;
+
+        for (Need need : checkout)
+            if (need.getQuantity() > 0)
+                needReceiptDao.createOrUpdateReceipt(need, supporter.getUsername());
+
+        CompletableFuture<Void> commit;
+        synchronized (supporter) {
+            // Only what was checked out leaves the basket
+            Map<String, Need> basket = basketOf(supporter);
+            for (Need need : checkout) {
+                Need remaining = basket.get(need.getName());
+                if (remaining == null)
+                    continue;
+                int quantity = remaining.getQuantity() - need.getQuantity();
+                if (quantity <= 0 || need.getQuantity() == 0)
+                    basket.remove(need.getName());
                 else
-                    needDao.deleteNeed(matchedNeed.getName());
-                needReceiptDao.createOrUpdateReceipt(need, curUser.getUsername());
+                    basket.put(need.getName(), new Need(remaining.getName(), remaining.getCost(), quantity));
             }
-            
-            supporterBasket.clear();
-            updateCurSupporter();
+            commit = update(supporter, basket, null);
         }
+        store.await(commit); // may throw an IOException
+
+        // A checkout is only complete once every store has written it
+        needDao.flush();
+        needReceiptDao.flush();
+        store.flush();
         return true;
     }
 
+    /**
+     * Gets the names of the given {@linkplain Need needs}
+     * 
+     * @param needs The {@link Need needs} to name
+     * 
+     * @return the name of each {@link Need need}, in order
+     */
+    private static List<String> namesOf(List<Need> needs) {
+        List<String> names = new ArrayList<>(needs.size());
+        for (Need need : needs)
+            names.add(need.getName());
+        return names;
+    }
+
+    /**
+     * Checks whether a basket {@linkplain Need need} can be funded from the
+     * stored one
+     * 
+     * @param need   The {@link Need need} in the basket
+     * @param stored The stored {@link Need need}, may be null
+     * 
+     * @return true if the stored need still exists, holds at least the basket
+     *         quantity and costs no more than the basket cost
+     */
+    private static boolean fundable(Need need, Need stored) {
+        return stored != null && stored.getQuantity() >= need.getQuantity() && need.getCost() >= stored.getCost();
+    }
+
     /**
      * {@inheritDoc}
      */
-    public BasketNeed getBasketOrNormalNeed(String needName) throws IOException, SupporterNotSignedInException, NeedNotFoundException {
-        if (supporterBasket == null)
-            throw new SupporterNotSignedInException();
+    public BasketNeed getBasketOrNormalNeed(String session, String needName) throws IOException, SupporterNotSignedInException, NeedNotFoundException {
+        Supporter supporter = getCurSupporter(session);
 
         Need needMatch = needDao.getNeed(needName);
         if (needMatch == null)
             throw new NeedNotFoundException(needName);
         
         // If the need is in the basket, the quantity will be how many are in there, otherwise 0
-        return new BasketNeed(needMatch.getName(), needMatch.getCost(), Math.min(supporterBasket.containsKey(needName) ? supporterBasket.get(needName).getQuantity() : 0, needMatch.getQuantity()), needMatch.getQuantity());
+        int quantity = 0;
+        for (Need need : supporter.getFundingBasket())
+            if (need.getName().equals(needName))
+                quantity = need.getQuantity();
+        return new BasketNeed(needMatch.getName(), needMatch.getCost(), Math.min(quantity, needMatch.getQuantity()), needMatch.getQuantity());
     }
 
     /**
      * {@inheritDoc}
+     * <br>
+     * The view shares the cupboard, indexed once per version of the
+     * {@linkplain NeedDAO needs}, and only the supporter's basket lines are
+     * evaluated for each call
      */
-    public Need[] getBasketableNeeds() throws IOException, SupporterNotSignedInException {
-        if (supporterBasket == null)
-            throw new SupporterNotSignedInException();
+    public List<Need> getBasketableNeeds(String session) throws IOException, SupporterNotSignedInException {
+        Supporter supporter = getCurSupporter(session);
+        return getCupboard().without(supporter.getFundingBasket()); // never changed in place
+    }
 
-        ArrayList<Need> basketable = new ArrayList<>();
-        Need basketNeed;
-        for (Need need : needDao.getNeeds()){
-            basketNeed = supporterBasket.get(need.getName());
-            if (basketNeed == null)
-                basketable.add(need);
-            else if (need.getQuantity() > basketNeed.getQuantity()) {
-                // If the need is already in the basket, check if the quantity is less than the cupboard quantity
-                // If it is, add an updated need with remaining quantity
-                basketable.add(new Need(need.getName(), need.getCost(), need.getQuantity() - basketNeed.getQuantity()));
-            }
+    /**
+     * Gets the indexed cupboard, indexing it again only once the
+     * {@linkplain NeedDAO needs} have changed
+     * 
+     * @return The {@link BasketableNeeds.Cupboard cupboard} at the current or a
+     *         newer version
+     * 
+     * @throws IOException if underlying storage cannot be accessed
+     */
+    private BasketableNeeds.Cupboard getCupboard() throws IOException {
+        long needVersion = needDao.getVersion(); // read before the needs, so they are never older than it
+        BasketableNeeds.Cupboard current = cupboard;
+        if (current == null || current.getVersion() != needVersion) {
+            current = new BasketableNeeds.Cupboard(needVersion, needDao.getNeeds());
+            cupboard = current;
         }
-
-        return basketable.toArray(new Need[basketable.size()]);
+        return current;
     }
 
     /**
      * {@inheritDoc}
      */
-    public NeedMessage[] getCurMessages() throws SupporterNotSignedInException {
-        if (supporterMessages == null)
-            throw new SupporterNotSignedInException();
-        return supporterMessages.values().toArray(new NeedMessage[supporterMessages.size()]);
+    public NeedMessage[] getCurMessages(String session) throws SupporterNotSignedInException {
+        return getCurSupporter(session).getNeedMessages();
     }
 
     /**
      * {@inheritDoc}
      */
-    public void deleteCurMessage(String needName) throws SupporterNotSignedInException, IOException {
-        if (supporterMessages == null)
-            throw new SupporterNotSignedInException();
-        supporterMessages.remove(needName);
-        updateCurSupporter();
+    public void deleteCurMessage(String session, String needName) throws SupporterNotSignedInException, IOException {
+        Supporter supporter = getCurSupporter(session);
+        CompletableFuture<Void> commit;
+        synchronized (supporter) {
+            Map<String, NeedMessage> messages = messagesOf(supporter);
+            messages.remove(needName);
+            commit = update(supporter, null, messages);
+        }
+        store.await(commit); // may throw an IOException
     }
 
     /**
@@ -351,20 +728,25 @@ public class UserFileDAO implements UserDAO {
      */
     public NeedMessage sendOrUpdateMessageToUser(NeedMessage message, String receiverUsername)
             throws IOException {
-        Supporter receiver = (Supporter) supporters.get(receiverUsername);
+        Supporter receiver = supporters.get(receiverUsername);
         if (receiver == null)
             return null;
 
-        ArrayList<NeedMessage> receiverMessages = new ArrayList<>(Arrays.asList(receiver.getNeedMessages()));
-        for (NeedMessage compareMsg : receiverMessages)
-            if (compareMsg.getNeedName().equals(message.getNeedName())){
-                receiverMessages.remove(compareMsg);
-                break;
-            }
-        
-        receiverMessages.add(message);
-        receiver.setNeedMessages(receiverMessages.toArray(new NeedMessage[receiverMessages.size()]));
-        save();
+        CompletableFuture<Void> commit;
+        synchronized (receiver) {
+            ArrayList<NeedMessage> receiverMessages = new ArrayList<>(Arrays.asList(receiver.getNeedMessages()));
+            for (NeedMessage compareMsg : receiverMessages)
+                if (compareMsg.getNeedName().equals(message.getNeedName())){
+                    receiverMessages.remove(compareMsg);
+                    break;
+                }
+            
+            receiverMessages.add(message);
+            receiver.setNeedMessages(receiverMessages.toArray(new NeedMessage[receiverMessages.size()]));
+            version.incrementAndGet();
+            commit = save(receiver); // may throw an IOException
+        }
+        store.await(commit); // may throw an IOException
 
         return message;
     }
@@ -373,7 +755,7 @@ public class UserFileDAO implements UserDAO {
      * {@inheritDoc}
      */
     public NeedMessage getMessageToUser(String receiverUsername, String needName) {
-        Supporter receiver = (Supporter) supporters.get(receiverUsername);
+        Supporter receiver = supporters.get(receiverUsername);
         if (receiver == null)
             return null;
         ArrayList<NeedMessage> receiverMessages = new ArrayList<>(Arrays.asList(receiver.getNeedMessages()));
@@ -0,0 +1,136 @@
+package com.ufund.api.ufundapi.persistence;
+
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+import com.ufund.api.ufundapi.model.User;
+
+/**
+ * Table of the signed in {@linkplain User users}, keyed by the session token
+ * issued when each signs in
+ * <br>
+ * Any number of users, or sessions of the same user, may be signed in at once.
+ * A session which goes unused for longer than the idle timeout is evicted,
+ * both when it is next looked up and by sweeps run at most a few times per
+ * timeout as sessions are opened, so abandoned sessions never pile up.
+ *
+ * @author Ethan Hartman
+ */
+class UserSessions {
+    static final long DEFAULT_IDLE_MILLIS = 30 * 60 * 1000;
+    private static final int TOKEN_BYTES = 16;
+
+    /**
+     * A signed in {@linkplain User user} and when they last used the session
+     */
+    private static final class Session {
+        final User user;
+        volatile long lastUsed;
+
+        Session(User user, long now) {
+            this.user = user;
+            this.lastUsed = now;
+        }
+    }
+
+    private final Map<String, Session> sessions = new ConcurrentHashMap<>(); // Open sessions by token
+    private final SecureRandom random = new SecureRandom(); // Generates unguessable tokens
+    private final long idleMillis; // How long a session may go unused before it is evicted
+    private final LongSupplier clock; // Current time in milliseconds
+    private volatile long nextSweep; // Time of the next sweep for idle sessions
+
+    /**
+     * Creates an empty session table
+     *
+     * @param idleMillis How long a session may go unused before it is evicted
+     */
+    UserSessions(long idleMillis) {
+        this(idleMillis, System::currentTimeMillis);
+    }
+
+    /**
+     * Creates an empty session table reading the time from the given clock
+     *
+     * @param idleMillis How long a session may go unused before it is evicted
+     * @param clock      The current time in milliseconds
+     */
+    UserSessions(long idleMillis, LongSupplier clock) {
+        if (idleMillis <= 0)
+            throw new IllegalArgumentException("Sessions must be allowed to idle");
+        this.idleMillis = idleMillis;
+        this.clock = clock;
+        this.nextSweep = clock.getAsLong() + idleMillis;
+    }
+
+    /**
+     * Opens a session for the given {@linkplain User user}
+     *
+     * @param user The {@link User user} signing in
+     *
+     * @return the token of the new session
+     */
+    String open(User user) {
+        long now = clock.getAsLong();
+        if (now >= nextSweep)
+            sweep(now);
+
+        byte[] bytes = new byte[TOKEN_BYTES];
+        random.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        sessions.put(token, new Session(user, now));
+        return token;
+    }
+
+    /**
+     * Gets the {@linkplain User user} signed in with the given token, keeping
+     * the session alive
+     *
+     * @param token The session token, may be null
+     *
+     * @return the signed in {@link User user}, or null if the session is
+     *         unknown or was evicted
+     */
+    User get(String token) {
+        if (token == null)
+            return null;
+        Session session = sessions.get(token);
+        if (session == null)
+            return null;
+        long now = clock.getAsLong();
+        if (now - session.lastUsed > idleMillis) {
+            sessions.remove(token, session);
+            return null;
+        }
+        session.lastUsed = now;
+        return session.user;
+    }
+
+    /**
+     * Closes the session with the given token
+     *
+     * @param token The session token, may be null
+     *
+     * @return true if the session was open
+     */
+    boolean close(String token) {
+        return token != null && sessions.remove(token) != null;
+    }
+
+    /**
+     * @return the number of sessions open, including idle ones not yet evicted
+     */
+    int size() {
+        return sessions.size();
+    }
+
+    /**
+     * Evicts every session idle for longer than the timeout
+     */
+    private void sweep(long now) {
+        nextSweep = now + idleMillis / 4;
+        sessions.values().removeIf(session -> now - session.lastUsed > idleMillis);
+    }
+}
@@ -0,0 +1,87 @@
+package com.ufund.api.ufundapi.controller;
+
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.file.Path;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ufund.api.ufundapi.model.Need;
+import com.ufund.api.ufundapi.persistence.NeedFileDAO;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.ResponseEntity;
+
+/**
+ * Measures the bandwidth and CPU spent answering UI clients polling
+ * GET /needs, with and without conditional requests, while the cupboard
+ * changes occasionally
+ * <br>
+ * Run with {@code mvn test -P benchmark}
+ *
+ * @author Ethan Hartman
+ */
+@Tag("Benchmark")
+public class ConditionalGetBenchmark {
+    private static final int CATALOG_SIZE = 2_000;
+    private static final int CLIENTS = 20;
+    private static final int POLLS_PER_CLIENT = 250;
+    private static final int POLLS_PER_WRITE = 100;
+
+    private static class Result {
+        long bytes;
+        long cpuNanos;
+        int fullResponses;
+    }
+
+    /**
+     * Has every client poll in turn, serializing each full response the way the
+     * message converter would
+     */
+    private static Result poll(NeedController controller, NeedFileDAO dao, ObjectMapper objectMapper,
+            boolean conditional) throws Exception {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        String[] etags = new String[CLIENTS];
+        Result result = new Result();
+        long start = threads.getCurrentThreadCpuTime();
+        for (int poll = 0; poll < POLLS_PER_CLIENT * CLIENTS; ++poll) {
+            if (poll % POLLS_PER_WRITE == 0)
+                dao.updateNeed(new Need("Need " + poll % CATALOG_SIZE, 10, poll % 20 + 1));
+            int client = poll % CLIENTS;
+            ResponseEntity<Need[]> response = controller.getNeeds(conditional ? etags[client] : null);
+            etags[client] = response.getHeaders().getETag();
+            if (response.getBody() != null) {
+                result.bytes += objectMapper.writeValueAsBytes(response.getBody()).length;
+                ++result.fullResponses;
+            }
+        }
+        result.cpuNanos = threads.getCurrentThreadCpuTime() - start;
+        return result;
+    }
+
+    @Test
+    public void benchmarkPolling(@TempDir Path dir) throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper();
+        Need[] catalog = new Need[CATALOG_SIZE];
+        for (int i = 0; i < CATALOG_SIZE; ++i)
+            catalog[i] = new Need("Need " + i, i % 100 + 0.5, i % 20 + 1);
+        File snapshot = dir.resolve("needs.json").toFile();
+        objectMapper.writeValue(snapshot, catalog);
+        NeedFileDAO dao = new NeedFileDAO(snapshot.getPath(), objectMapper);
+        NeedController controller = new NeedController(dao, objectMapper);
+
+        System.out.printf("%-12s %10s %14s %12s%n", "polling", "full", "MB sent", "cpu ms");
+        for (int round = 0; round < 2; ++round) { // first round warms up
+            Result unconditional = poll(controller, dao, objectMapper, false);
+            Result conditional = poll(controller, dao, objectMapper, true);
+            if (round == 0)
+                continue;
+            System.out.printf("%-12s %10d %14.1f %12.0f%n", "plain", unconditional.fullResponses,
+                    unconditional.bytes / 1e6, unconditional.cpuNanos / 1e6);
+            System.out.printf("%-12s %10d %14.1f %12.0f%n", "if-none-match", conditional.fullResponses,
+                    conditional.bytes / 1e6, conditional.cpuNanos / 1e6);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.ufund.api.ufundapi.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test the ETags class
+ *
+ * @author Ethan Hartman
+ */
+@Tag("Controller-tier")
+public class ETagsTest {
+    @Test
+    public void testOf() {
+        // Invoke & Analyze
+        assertEquals("\"ff\"", ETags.of(255));
+        assertEquals("\"1-a\"", ETags.of(1, 10));
+    }
+
+    @Test
+    public void testOfOwner() {
+        // Invoke & Analyze
+        assertEquals("\"U3VwcG9ydGVy.1-a\"", ETags.of("Supporter", 1, 10));
+        assertNotEquals(ETags.of("First", 1, 10), ETags.of("Second", 1, 10));
+        assertFalse(ETags.of("Quote\"d", 1).substring(1, ETags.of("Quote\"d", 1).length() - 1).contains("\""));
+    }
+
+    @Test
+    public void testMatches() {
+        // Setup
+        String etag = ETags.of(1, 10);
+
+        // Invoke & Analyze
+        assertTrue(ETags.matches(etag, etag));
+        assertTrue(ETags.matches("\"2\", W/" + etag, etag));
+        assertTrue(ETags.matches("*", etag));
+        assertFalse(ETags.matches(ETags.of(1, 11), etag));
+        assertFalse(ETags.matches(null, etag));
+    }
+
+    @Test
+    public void testMatchesStrongly() {
+        // Setup
+        String etag = ETags.of(42);
+
+        // Invoke & Analyze
+        assertTrue(ETags.matchesStrongly(etag, etag));
+        assertTrue(ETags.matchesStrongly("\"2\", " + etag, etag));
+        assertTrue(ETags.matchesStrongly("*", etag));
+        assertFalse(ETags.matchesStrongly("W/" + etag, etag));
+        assertFalse(ETags.matchesStrongly(ETags.of(43), etag));
+    }
+}
@@ -0,0 +1,158 @@
+package com.ufund.api.ufundapi.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ufund.api.ufundapi.model.Need;
+
+import org.apache.catalina.connector.ClientAbortException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+/**
+ * Test the Json Streamer class
+ *
+ * @author Ethan Hartman
+ */
+@Tag("Controller-tier")
+public class JsonStreamerTest {
+    private ObjectMapper objectMapper;
+    private JsonStreamer streamer;
+    private Need[] needs;
+
+    @BeforeEach
+    public void setupJsonStreamer() {
+        objectMapper = new ObjectMapper();
+        streamer = new JsonStreamer(objectMapper);
+        needs = new Need[] { new Need("Test 0", 1.5, 1), new Need("Test \"1\"", 3, 15) };
+    }
+
+    /**
+     * Runs the body of a streamed response into a string
+     */
+    static String body(ResponseEntity<StreamingResponseBody> response) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        response.getBody().writeTo(out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void testAcceptsNdjson() {
+        // Invoke & Analyze
+        assertTrue(JsonStreamer.acceptsNdjson("application/json;q=0.5, application/x-ndjson"));
+        assertFalse(JsonStreamer.acceptsNdjson("application/json"));
+        assertFalse(JsonStreamer.acceptsNdjson(null));
+    }
+
+    @Test
+    public void testArrayMatchesBufferedBody() throws IOException {
+        // Invoke
+        ResponseEntity<StreamingResponseBody> response = streamer.stream("application/json", sink -> {
+            for (Need need : needs)
+                sink.accept(need);
+        });
+
+        // Analyze
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("application/json", response.getHeaders().getContentType().toString());
+        assertEquals(objectMapper.writeValueAsString(needs), body(response));
+    }
+
+    @Test
+    public void testEmptyArrayMatchesBufferedBody() throws IOException {
+        // Invoke
+        ResponseEntity<StreamingResponseBody> response = streamer.stream(null, sink -> {
+        });
+
+        // Analyze
+        assertEquals(objectMapper.writeValueAsString(new Need[0]), body(response));
+    }
+
+    @Test
+    public void testNdjson() throws IOException {
+        // Invoke
+        ResponseEntity<StreamingResponseBody> response = streamer.stream(JsonStreamer.NDJSON_VALUE, sink -> {
+            for (Need need : needs)
+                sink.accept(need);
+        });
+
+        // Analyze
+        assertEquals(JsonStreamer.NDJSON, response.getHeaders().getContentType());
+        assertEquals(objectMapper.writeValueAsString(needs[0]) + "\n" + objectMapper.writeValueAsString(needs[1])
+                + "\n", body(response));
+    }
+
+    @Test
+    public void testIsClientAbort() {
+        // Invoke & Analyze
+        assertTrue(JsonStreamer.isClientAbort(new ClientAbortException(new IOException("Broken pipe"))));
+        assertFalse(JsonStreamer.isClientAbort(new IOException(new EOFException())));
+        assertFalse(JsonStreamer.isClientAbort(new EOFException("Unexpected end of input")));
+        assertFalse(JsonStreamer.isClientAbort(new IOException("No space left on device")));
+    }
+
+    @Test
+    public void testClientAbortLoggedQuietly() {
+        // Setup
+        List<LogRecord> records = new ArrayList<>();
+        Handler handler = new Handler() {
+            @Override
+            public void publish(LogRecord record) {
+                records.add(record);
+            }
+
+            @Override
+            public void flush() {
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+        Logger logger = Logger.getLogger(JsonStreamer.class.getName());
+        Level level = logger.getLevel();
+        logger.addHandler(handler);
+        logger.setLevel(Level.ALL);
+        ClientAbortException abort = new ClientAbortException();
+        IOException failure = new IOException("No space left on device");
+
+        // Invoke
+        try {
+            assertThrows(ClientAbortException.class, () -> body(streamer.stream(null, sink -> {
+                throw abort;
+            })));
+            assertThrows(IOException.class, () -> body(streamer.stream(null, sink -> {
+                throw failure;
+            })));
+        } finally {
+            logger.removeHandler(handler);
+            logger.setLevel(level);
+        }
+
+        // Analyze
+        assertEquals(2, records.size());
+        assertEquals(Level.FINE, records.get(0).getLevel());
+        assertSame(abort, records.get(0).getThrown());
+        assertEquals(Level.WARNING, records.get(1).getLevel());
+        assertSame(failure, records.get(1).getThrown());
+    }
+}
@@ -0,0 +1,87 @@
+package com.ufund.api.ufundapi.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ufund.api.ufundapi.model.Need;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test the Need Batch Reader class
+ *
+ * @author Ethan Hartman
+ */
+@Tag("Controller-tier")
+public class NeedBatchReaderTest {
+    NeedBatchReader reader = new NeedBatchReader(new ObjectMapper());
+
+    private static InputStream body(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void assertNeed(String name, double cost, int quantity, Need need) {
+        assertEquals(name, need.getName());
+        assertEquals(cost, need.getCost());
+        assertEquals(quantity, need.getQuantity());
+    }
+
+    @Test
+    public void testReadJsonArray() throws IOException {
+        // Invoke
+        List<Need> batch = reader.read("application/json",
+                body("[{\"name\":\"Soap\",\"cost\":2.5,\"quantity\":4},{\"name\":\"Soup\",\"cost\":1,\"quantity\":2}]"));
+
+        // Analyze
+        assertEquals(2, batch.size());
+        assertNeed("Soap", 2.5, 4, batch.get(0));
+        assertNeed("Soup", 1, 2, batch.get(1));
+    }
+
+    @Test
+    public void testReadNdjson() throws IOException {
+        // Invoke
+        List<Need> batch = reader.read(JsonStreamer.NDJSON_VALUE,
+                body("{\"name\":\"Soap\",\"cost\":2.5,\"quantity\":4}\n\n{\"name\":\"Soup\",\"cost\":1,\"quantity\":2}\n"));
+
+        // Analyze
+        assertEquals(2, batch.size());
+        assertNeed("Soup", 1, 2, batch.get(1));
+    }
+
+    @Test
+    public void testReadCsv() throws IOException {
+        // Invoke
+        List<Need> batch = reader.read("text/csv; charset=utf-8",
+                body("name, cost, quantity\nSoap,2.5,4\n\"Socks, \"\"wool\"\"\", 3 ,7\n"));
+
+        // Analyze
+        assertEquals(2, batch.size());
+        assertNeed("Soap", 2.5, 4, batch.get(0));
+        assertNeed("Socks, \"wool\"", 3, 7, batch.get(1));
+    }
+
+    @Test
+    public void testReadMalformed() {
+        // Invoke & Analyze
+        assertThrows(IllegalArgumentException.class, () -> reader.read(null, body("[{\"name\":")));
+        assertThrows(IllegalArgumentException.class, () -> reader.read("text/csv", body("Soap,2.5")));
+        assertThrows(IllegalArgumentException.class, () -> reader.read("text/csv", body("Soap,cheap,4")));
+        assertThrows(IllegalArgumentException.class, () -> reader.read("text/csv", body("\"Soap,2.5,4")));
+    }
+
+    @Test
+    public void testSplitUnclosedQuote() {
+        // Invoke & Analyze
+        assertNull(NeedBatchReader.split("\"open,1,2"));
+    }
+}
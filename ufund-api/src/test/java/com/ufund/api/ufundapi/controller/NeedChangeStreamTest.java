@@ -0,0 +1,220 @@
+package com.ufund.api.ufundapi.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import com.ufund.api.ufundapi.model.Need;
+import com.ufund.api.ufundapi.model.NeedChange;
+import com.ufund.api.ufundapi.persistence.NeedDAO;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Test the Need Change Stream class
+ *
+ * @author Ethan Hartman
+ */
+@Tag("Controller-tier")
+public class NeedChangeStreamTest {
+    private NeedDAO mockNeedDAO;
+    private NeedChangeStream stream;
+
+    /**
+     * An emitter which records the events sent to it, optionally holding sends
+     * until released
+     */
+    private static class RecordingEmitter extends SseEmitter {
+        private final BlockingQueue<String> events = new LinkedBlockingQueue<>();
+        private final CountDownLatch completed = new CountDownLatch(1);
+        private volatile CountDownLatch gate; // Holds sends while set
+        private volatile boolean broken; // Whether sends fail
+
+        private RecordingEmitter() {
+            super(0L);
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            CountDownLatch held = gate;
+            if (held != null) {
+                try {
+                    held.await();
+                } catch (InterruptedException e) {
+                    throw new IOException(e);
+                }
+            }
+            if (broken)
+                throw new IOException("connection reset");
+            StringBuilder event = new StringBuilder();
+            for (ResponseBodyEmitter.DataWithMediaType part : builder.build())
+                event.append(part.getData());
+            events.add(event.toString());
+        }
+
+        @Override
+        public synchronized void complete() {
+            completed.countDown();
+        }
+
+        private String nextEvent() throws InterruptedException {
+            return events.poll(5, TimeUnit.SECONDS);
+        }
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean() && System.nanoTime() < deadline)
+            Thread.sleep(5);
+        assertTrue(condition.getAsBoolean());
+    }
+
+    /**
+     * Before each test, create a stream over a mock Need DAO with a small buffer
+     * and no heartbeat
+     */
+    @BeforeEach
+    public void setupNeedChangeStream() {
+        mockNeedDAO = mock(NeedDAO.class);
+        when(mockNeedDAO.getVersion()).thenReturn(5L);
+        stream = new NeedChangeStream(mockNeedDAO, 2, 0, 1);
+    }
+
+    @AfterEach
+    public void closeNeedChangeStream() {
+        stream.close();
+    }
+
+    @Test
+    public void testListensToDao() {
+        // Analyze
+        verify(mockNeedDAO).addChangeListener(stream);
+    }
+
+    @Test
+    public void testSubscribeSendsVersion() throws InterruptedException {
+        // Setup
+        RecordingEmitter emitter = new RecordingEmitter();
+
+        // Invoke
+        stream.subscribe(emitter);
+
+        // Analyze
+        String event = emitter.nextEvent();
+        assertTrue(event.startsWith("id:5\nevent:" + NeedChangeStream.VERSION_EVENT + "\ndata:5"));
+        assertEquals(1, stream.getSubscriberCount());
+    }
+
+    @Test
+    public void testChangeSent() throws InterruptedException {
+        // Setup
+        RecordingEmitter emitter = new RecordingEmitter();
+        stream.subscribe(emitter);
+        emitter.nextEvent(); // version
+        NeedChange change = new NeedChange(NeedChange.Type.UPDATED, 6, new Need("Test 0", 1.5, 1));
+
+        // Invoke
+        stream.needChanged(change);
+
+        // Analyze
+        String event = emitter.nextEvent();
+        assertNotNull(event);
+        assertTrue(event.startsWith("id:6\nevent:updated\ndata:"));
+        assertTrue(event.contains(change.toString()));
+    }
+
+    @Test
+    public void testChangesSentInOrder() throws InterruptedException {
+        // Setup
+        stream = new NeedChangeStream(mockNeedDAO, 100, 0, 4);
+        RecordingEmitter emitter = new RecordingEmitter();
+        stream.subscribe(emitter);
+        emitter.nextEvent(); // version
+
+        // Invoke
+        for (int i = 6; i < 106; ++i)
+            stream.needChanged(new NeedChange(NeedChange.Type.CREATED, i, new Need("Test " + i, 1, 1)));
+
+        // Analyze
+        for (int i = 6; i < 106; ++i)
+            assertTrue(emitter.nextEvent().startsWith("id:" + i + "\n"));
+    }
+
+    @Test
+    public void testSlowSubscriberDisconnected() throws InterruptedException {
+        // Setup
+        RecordingEmitter emitter = new RecordingEmitter();
+        stream.subscribe(emitter);
+        emitter.nextEvent(); // version
+        emitter.gate = new CountDownLatch(1);
+
+        // Invoke
+        for (int i = 6; i < 10; ++i) // one more than the buffer holds, even after a send starts
+            stream.needChanged(new NeedChange(NeedChange.Type.UPDATED, i, new Need("Test 0", i, 1)));
+
+        // Analyze
+        assertEquals(0, stream.getSubscriberCount());
+        emitter.gate.countDown();
+        assertTrue(emitter.completed.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testFailedSendDisconnects() throws InterruptedException {
+        // Setup
+        RecordingEmitter emitter = new RecordingEmitter();
+        stream.subscribe(emitter);
+        emitter.broken = true;
+
+        // Invoke
+        stream.needChanged(new NeedChange(NeedChange.Type.DELETED, 6, new Need("Test 0", 1.5, 1)));
+
+        // Analyze
+        await(() -> stream.getSubscriberCount() == 0);
+        assertTrue(emitter.completed.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testHeartbeat() throws InterruptedException {
+        // Setup
+        stream = new NeedChangeStream(mockNeedDAO, 2, 10, 1);
+        RecordingEmitter emitter = new RecordingEmitter();
+        stream.subscribe(emitter);
+        emitter.nextEvent(); // version
+
+        // Invoke
+        String event = emitter.nextEvent();
+
+        // Analyze
+        assertEquals(":\n\n", event);
+    }
+
+    @Test
+    public void testClose() throws InterruptedException {
+        // Setup
+        RecordingEmitter emitter = new RecordingEmitter();
+        stream.subscribe(emitter);
+
+        // Invoke
+        stream.close();
+
+        // Analyze
+        verify(mockNeedDAO).removeChangeListener(stream);
+        assertEquals(0, stream.getSubscriberCount());
+        assertTrue(emitter.completed.await(5, TimeUnit.SECONDS));
+    }
+}
@@ -1,22 +1,53 @@
 package com.ufund.api.ufundapi.controller;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 import javax.management.openmbean.KeyAlreadyExistsException;
 
+import com.ufund.api.ufundapi.exceptions.NeedVersionConflictException;
 import com.ufund.api.ufundapi.persistence.NeedDAO;
+import com.ufund.api.ufundapi.persistence.NeedOrder;
 import com.ufund.api.ufundapi.model.Need;
+import com.ufund.api.ufundapi.model.NeedBatchResult;
+import com.ufund.api.ufundapi.model.NeedDelta;
+import com.ufund.api.ufundapi.model.NeedStats;
+import com.ufund.api.ufundapi.model.NeedSummary;
+import com.ufund.api.ufundapi.model.Page;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 /**
  * Test the Need Controller class
@@ -53,6 +84,38 @@ public class NeedControllerTest {
         assertEquals(need, response.getBody());
     }
 
+    @Test
+    public void testGetNeedsNamed() throws IOException {
+        // Setup
+        Need first = new Need("Test 0", 1.5, 1);
+        Need second = new Need("Test 1", 2, 5);
+        List<String> names = List.of(second.getName(), "Not real need", first.getName());
+        Map<String, Need> found = new LinkedHashMap<>();
+        found.put(second.getName(), second);
+        found.put(first.getName(), first);
+        when(mockNeedDAO.getNeeds(names)).thenReturn(found);
+
+        // Invoke
+        ResponseEntity<Need[]> response = needController.getNeedsNamed(names);
+
+        // Analyze
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertArrayEquals(new Need[] { second, first }, response.getBody());
+    }
+
+    @Test
+    public void testGetNeedsNamedHandleException() throws IOException {
+        // Setup
+        List<String> names = List.of("Test 0");
+        doThrow(new IOException()).when(mockNeedDAO).getNeeds(names);
+
+        // Invoke
+        ResponseEntity<Need[]> response = needController.getNeedsNamed(names);
+
+        // Analyze
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
+    }
+
     @Test
     public void testGetNeedNotFound() throws Exception { // createNeed may throw IOException
         // Setup
@@ -140,15 +203,112 @@ public class NeedControllerTest {
         // when updateNeed is called, return true simulating successful
         // update and save
         when(mockNeedDAO.updateNeed(need)).thenReturn(need);
-        ResponseEntity<Need> response = needController.updateNeed(need);
+        ResponseEntity<Need> response = needController.updateNeed(need, null);
         need.setCost(144);
 
         // Invoke
-        response = needController.updateNeed(need);
+        response = needController.updateNeed(need, null);
+
+        // Analyze
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(need, response.getBody());
+    }
+
+    @Test
+    public void testGetNeedETag() throws IOException {
+        // Setup
+        Need need = new Need("Test 0", 1.5, 1);
+        need.setVersion(42);
+        when(mockNeedDAO.getNeed(need.getName())).thenReturn(need);
+
+        // Invoke
+        ResponseEntity<Need> response = needController.getNeed(need.getName());
+
+        // Analyze
+        assertEquals(ETags.of(42), response.getHeaders().getETag());
+    }
+
+    @Test
+    public void testUpdateNeedIfMatch() throws IOException, NeedVersionConflictException {
+        // Setup
+        Need current = new Need("Test 0", 312, 19);
+        current.setVersion(42);
+        Need need = new Need("Test 0", 144, 19);
+        when(mockNeedDAO.getNeed(need.getName())).thenReturn(current);
+        when(mockNeedDAO.updateNeed(need, 42)).thenAnswer(invocation -> {
+            need.setVersion(43);
+            return need;
+        });
+
+        // Invoke
+        ResponseEntity<Need> response = needController.updateNeed(need, ETags.of(42));
 
         // Analyze
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals(need, response.getBody());
+        assertEquals(ETags.of(43), response.getHeaders().getETag());
+    }
+
+    @Test
+    public void testUpdateNeedIfMatchWildcard() throws IOException, NeedVersionConflictException {
+        // Setup
+        Need current = new Need("Test 0", 312, 19);
+        current.setVersion(42);
+        Need need = new Need("Test 0", 144, 19);
+        when(mockNeedDAO.getNeed(need.getName())).thenReturn(current);
+        when(mockNeedDAO.updateNeed(need, 42)).thenReturn(need);
+
+        // Invoke
+        ResponseEntity<Need> response = needController.updateNeed(need, "*");
+
+        // Analyze
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+    }
+
+    @Test
+    public void testUpdateNeedIfMatchStale() throws IOException, NeedVersionConflictException {
+        // Setup
+        Need current = new Need("Test 0", 312, 19);
+        current.setVersion(43);
+        Need need = new Need("Test 0", 144, 19);
+        when(mockNeedDAO.getNeed(need.getName())).thenReturn(current);
+
+        // Invoke
+        ResponseEntity<Need> response = needController.updateNeed(need, ETags.of(42) + ", W/" + ETags.of(43));
+
+        // Analyze
+        assertEquals(HttpStatus.PRECONDITION_FAILED, response.getStatusCode());
+        verify(mockNeedDAO, never()).updateNeed(any(), anyLong());
+    }
+
+    @Test
+    public void testUpdateNeedIfMatchConflict() throws IOException, NeedVersionConflictException {
+        // Setup
+        Need current = new Need("Test 0", 312, 19);
+        current.setVersion(42);
+        Need need = new Need("Test 0", 144, 19);
+        when(mockNeedDAO.getNeed(need.getName())).thenReturn(current);
+        // Another update lands between the check and the write
+        doThrow(new NeedVersionConflictException(need.getName(), 42, 43)).when(mockNeedDAO).updateNeed(need, 42);
+
+        // Invoke
+        ResponseEntity<Need> response = needController.updateNeed(need, ETags.of(42));
+
+        // Analyze
+        assertEquals(HttpStatus.PRECONDITION_FAILED, response.getStatusCode());
+    }
+
+    @Test
+    public void testUpdateNeedIfMatchNotFound() throws IOException {
+        // Setup
+        Need need = new Need("Not real need", 1, 1);
+        when(mockNeedDAO.getNeed(need.getName())).thenReturn(null);
+
+        // Invoke
+        ResponseEntity<Need> response = needController.updateNeed(need, "*");
+
+        // Analyze
+        assertEquals(HttpStatus.PRECONDITION_FAILED, response.getStatusCode());
     }
 
     @Test
@@ -160,7 +320,7 @@ public class NeedControllerTest {
         when(mockNeedDAO.updateNeed(need)).thenReturn(null);
 
         // Invoke
-        ResponseEntity<Need> response = needController.updateNeed(need);
+        ResponseEntity<Need> response = needController.updateNeed(need, null);
 
         // Analyze
         assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
@@ -174,7 +334,7 @@ public class NeedControllerTest {
         doThrow(new IOException()).when(mockNeedDAO).updateNeed(need);
 
         // Invoke
-        ResponseEntity<Need> response = needController.updateNeed(need);
+        ResponseEntity<Need> response = needController.updateNeed(need, null);
 
         // Analyze
         assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
@@ -190,7 +350,7 @@ public class NeedControllerTest {
         when(mockNeedDAO.getNeeds()).thenReturn(needs);
 
         // Invoke
-        ResponseEntity<Need[]> response = needController.getNeeds();
+        ResponseEntity<Need[]> response = needController.getNeeds(null);
 
         // Analyze
         assertEquals(HttpStatus.OK, response.getStatusCode());
@@ -204,7 +364,169 @@ public class NeedControllerTest {
         doThrow(new IOException()).when(mockNeedDAO).getNeeds();
 
         // Invoke
-        ResponseEntity<Need[]> response = needController.getNeeds();
+        ResponseEntity<Need[]> response = needController.getNeeds(null);
+
+        // Analyze
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
+    }
+
+    @Test
+    public void testGetNeedsNotModified() throws IOException { // getNeeds may throw IOException
+        // Setup
+        when(mockNeedDAO.getVersion()).thenReturn(42L);
+        when(mockNeedDAO.getNeeds()).thenReturn(new Need[0]);
+        String etag = needController.getNeeds(null).getHeaders().getETag();
+
+        // Invoke
+        ResponseEntity<Need[]> unchanged = needController.getNeeds(etag);
+        when(mockNeedDAO.getVersion()).thenReturn(43L);
+        ResponseEntity<Need[]> changed = needController.getNeeds(etag);
+
+        // Analyze
+        assertEquals(HttpStatus.NOT_MODIFIED, unchanged.getStatusCode());
+        assertNull(unchanged.getBody());
+        assertEquals(HttpStatus.OK, changed.getStatusCode());
+        verify(mockNeedDAO, times(2)).getNeeds();
+    }
+
+    @Test
+    public void testStreamNeeds() throws IOException { // getNeeds may throw IOException
+        // Setup
+        Need[] needs = { new Need("Test 0", 1.5, 1), new Need("Test 1", 3, 15) };
+        when(mockNeedDAO.getNeeds()).thenReturn(needs);
+
+        // Invoke
+        ResponseEntity<StreamingResponseBody> response = needController.streamNeeds(null);
+
+        // Analyze
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(new ObjectMapper().writeValueAsString(needs), JsonStreamerTest.body(response));
+    }
+
+    @Test
+    public void testStreamNeedsHandleException() throws IOException { // getNeeds may throw IOException
+        // Setup
+        doThrow(new IOException()).when(mockNeedDAO).getNeeds();
+
+        // Invoke
+        ResponseEntity<StreamingResponseBody> response = needController.streamNeeds(null);
+
+        // Analyze
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
+    }
+
+    @Test
+    public void testStreamSearchNeeds() throws IOException { // findNeeds may throw IOException
+        // Setup
+        Need need = new Need("Test similar names", 1.5, 1);
+        when(mockNeedDAO.findNeeds("la", true)).thenReturn(new Need[] { need });
+
+        // Invoke
+        ResponseEntity<StreamingResponseBody> response = needController.streamSearchNeeds("la", true,
+                JsonStreamer.NDJSON_VALUE);
+
+        // Analyze
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(new ObjectMapper().writeValueAsString(need) + "\n", JsonStreamerTest.body(response));
+    }
+
+    @Test
+    public void testStreamSearchNeedsHandleException() throws IOException { // findNeeds may throw IOException
+        // Setup
+        doThrow(new IOException()).when(mockNeedDAO).findNeeds("an", false);
+
+        // Invoke
+        ResponseEntity<StreamingResponseBody> response = needController.streamSearchNeeds("an", false, null);
+
+        // Analyze
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
+    }
+
+    @Test
+    public void testGetNeedsPaged() throws IOException { // getNeeds may throw IOException
+        // Setup
+        Page<Need> page = new Page<>(List.of(new Need("Test 0", 1.5, 1)), Page.encodeCursor("Test 0"));
+        when(mockNeedDAO.getNeeds(null, 1)).thenReturn(page);
+
+        // Invoke
+        ResponseEntity<Page<Need>> response = needController.getNeeds(null, 1);
+
+        // Analyze
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(page, response.getBody());
+    }
+
+    @Test
+    public void testGetNeedsPagedBadRequest() throws IOException { // getNeeds may throw IOException
+        // Setup
+        doThrow(new IllegalArgumentException()).when(mockNeedDAO).getNeeds("bad", 1);
+
+        // Invoke
+        ResponseEntity<Page<Need>> response = needController.getNeeds("bad", 1);
+
+        // Analyze
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+    }
+
+    @Test
+    public void testGetNeedsPagedHandleException() throws IOException { // getNeeds may throw IOException
+        // Setup
+        doThrow(new IOException()).when(mockNeedDAO).getNeeds(null, 1);
+
+        // Invoke
+        ResponseEntity<Page<Need>> response = needController.getNeeds(null, 1);
+
+        // Analyze
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
+    }
+
+    @Test
+    public void testFindNeedsInRange() throws IOException { // findNeedsInRange may throw IOException
+        // Setup
+        Page<Need> page = new Page<>(List.of(new Need("Test 0", 1.5, 1)), null);
+        when(mockNeedDAO.findNeedsInRange(NeedOrder.COST, null, 50.0, null, 100)).thenReturn(page);
+        when(mockNeedDAO.findNeedsInRange(NeedOrder.QUANTITY, 1.0, null, null, 100)).thenReturn(page);
+
+        // Invoke
+        ResponseEntity<Page<Need>> byCost = needController.findNeedsInRange("cost", null, 50.0, null, null, null, 100);
+        ResponseEntity<Page<Need>> byQuantity = needController.findNeedsInRange("quantity", null, null, 1, null,
+                null, 100);
+
+        // Analyze
+        assertEquals(HttpStatus.OK, byCost.getStatusCode());
+        assertEquals(page, byCost.getBody());
+        assertEquals(HttpStatus.OK, byQuantity.getStatusCode());
+        assertEquals(page, byQuantity.getBody());
+    }
+
+    @Test
+    public void testFindNeedsInRangeBadRequest() throws IOException { // findNeedsInRange may throw IOException
+        // Setup
+        doThrow(new IllegalArgumentException()).when(mockNeedDAO).findNeedsInRange(NeedOrder.NAME, null, null,
+                null, 100);
+
+        // Invoke
+        ResponseEntity<Page<Need>> mismatched = needController.findNeedsInRange("cost", null, null, 1, null, null,
+                100);
+        ResponseEntity<Page<Need>> unknown = needController.findNeedsInRange("popularity", null, null, null, null,
+                null, 100);
+        ResponseEntity<Page<Need>> unindexed = needController.findNeedsInRange("name", null, null, null, null, null,
+                100);
+
+        // Analyze
+        assertEquals(HttpStatus.BAD_REQUEST, mismatched.getStatusCode());
+        assertEquals(HttpStatus.BAD_REQUEST, unknown.getStatusCode());
+        assertEquals(HttpStatus.BAD_REQUEST, unindexed.getStatusCode());
+    }
+
+    @Test
+    public void testFindNeedsInRangeHandleException() throws IOException { // findNeedsInRange may throw IOException
+        // Setup
+        doThrow(new IOException()).when(mockNeedDAO).findNeedsInRange(NeedOrder.COST, null, null, null, 100);
+
+        // Invoke
+        ResponseEntity<Page<Need>> response = needController.findNeedsInRange("cost", null, null, null, null, null,
+                100);
 
         // Analyze
         assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
@@ -219,10 +541,10 @@ public class NeedControllerTest {
         needs[1] = new Need("Test krampus lair", 3, 15);
         // When findNeeds is called with the search string, return the two
         /// needs above
-        when(mockNeedDAO.findNeeds(searchString)).thenReturn(needs);
+        when(mockNeedDAO.findNeeds(searchString, false)).thenReturn(needs);
 
         // Invoke
-        ResponseEntity<Need[]> response = needController.searchNeeds(searchString);
+        ResponseEntity<Need[]> response = needController.searchNeeds(searchString, false);
 
         // Analyze
         assertEquals(HttpStatus.OK, response.getStatusCode());
@@ -234,10 +556,99 @@ public class NeedControllerTest {
         // Setup
         String searchString = "an";
         // When createNeed is called on the Mock Need DAO, throw an IOException
-        doThrow(new IOException()).when(mockNeedDAO).findNeeds(searchString);
+        doThrow(new IOException()).when(mockNeedDAO).findNeeds(searchString, false);
+
+        // Invoke
+        ResponseEntity<Need[]> response = needController.searchNeeds(searchString, false);
+
+        // Analyze
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
+    }
+
+    @Test
+    public void testSuggestNeeds() throws IOException { // suggestNeeds may throw IOException
+        // Setup
+        String[] names = { "Test 1", "Test 12" };
+        when(mockNeedDAO.suggestNeeds("Test 1", 5, NeedOrder.QUANTITY)).thenReturn(names);
+
+        // Invoke
+        ResponseEntity<String[]> response = needController.suggestNeeds("Test 1", 5, "Quantity");
+
+        // Analyze
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(names, response.getBody());
+    }
+
+    @Test
+    public void testSuggestNeedsBadRequest() {
+        // Invoke
+        ResponseEntity<String[]> unknownSort = needController.suggestNeeds("Test", 5, "popularity");
+        ResponseEntity<String[]> negativeLimit = needController.suggestNeeds("Test", -1, "name");
+
+        // Analyze
+        assertEquals(HttpStatus.BAD_REQUEST, unknownSort.getStatusCode());
+        assertEquals(HttpStatus.BAD_REQUEST, negativeLimit.getStatusCode());
+    }
+
+    @Test
+    public void testSuggestNeedsHandleException() throws IOException { // suggestNeeds may throw IOException
+        // Setup
+        doThrow(new IOException()).when(mockNeedDAO).suggestNeeds("Test", 10, NeedOrder.NAME);
+
+        // Invoke
+        ResponseEntity<String[]> response = needController.suggestNeeds("Test", 10, "name");
+
+        // Analyze
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
+    }
+
+    @Test
+    public void testGetNeedStats() throws IOException { // getNeedStats may throw IOException
+        // Setup
+        NeedStats stats = new NeedStats(1, 1, 2, 3, new int[NeedStats.BUCKETS], new int[NeedStats.BUCKETS]);
+        when(mockNeedDAO.getNeedStats()).thenReturn(stats);
 
         // Invoke
-        ResponseEntity<Need[]> response = needController.searchNeeds(searchString);
+        ResponseEntity<NeedStats> response = needController.getNeedStats();
+
+        // Analyze
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(stats, response.getBody());
+    }
+
+    @Test
+    public void testGetNeedStatsHandleException() throws IOException { // getNeedStats may throw IOException
+        // Setup
+        doThrow(new IOException()).when(mockNeedDAO).getNeedStats();
+
+        // Invoke
+        ResponseEntity<NeedStats> response = needController.getNeedStats();
+
+        // Analyze
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
+    }
+
+    @Test
+    public void testGetNeedSummary() throws IOException { // getNeedSummary may throw IOException
+        // Setup
+        NeedSummary summary = new NeedSummary(2, 20, 45.5, 1);
+        when(mockNeedDAO.getNeedSummary()).thenReturn(summary);
+
+        // Invoke
+        ResponseEntity<NeedSummary> response = needController.getNeedSummary();
+
+        // Analyze
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(summary, response.getBody());
+    }
+
+    @Test
+    public void testGetNeedSummaryHandleException() throws IOException { // getNeedSummary may throw IOException
+        // Setup
+        doThrow(new IOException()).when(mockNeedDAO).getNeedSummary();
+
+        // Invoke
+        ResponseEntity<NeedSummary> response = needController.getNeedSummary();
 
         // Analyze
         assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
@@ -284,4 +695,161 @@ public class NeedControllerTest {
         // Analyze
         assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
     }
-}
\ No newline at end of file
+
+    private static InputStream body(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testCreateNeeds() throws IOException { // createNeeds may throw IOException
+        // Setup
+        List<Need> batch = List.of(new Need("Soap", 2.5, 4));
+        NeedBatchResult[] results = { new NeedBatchResult(0, "Soap", NeedBatchResult.Status.CREATED) };
+        when(mockNeedDAO.createNeeds(anyList())).thenReturn(results);
+
+        // Invoke
+        ResponseEntity<NeedBatchResult[]> response = needController.createNeeds("text/csv",
+                body("Soap,2.5,4\n"));
+
+        // Analyze
+        assertEquals(HttpStatus.CREATED, response.getStatusCode());
+        assertEquals(results, response.getBody());
+        verify(mockNeedDAO).createNeeds(argThat(needs -> needs.size() == batch.size()
+                && needs.get(0).getName().equals("Soap")));
+    }
+
+    @Test
+    public void testCreateNeedsConflict() throws IOException { // createNeeds may throw IOException
+        // Setup
+        NeedBatchResult[] results = { new NeedBatchResult(0, "Soap", NeedBatchResult.Status.VALID),
+                new NeedBatchResult(1, "Soup", NeedBatchResult.Status.CONFLICT) };
+        when(mockNeedDAO.createNeeds(anyList())).thenReturn(results);
+
+        // Invoke
+        ResponseEntity<NeedBatchResult[]> response = needController.createNeeds(null,
+                body("[{\"name\":\"Soap\",\"cost\":1,\"quantity\":1},{\"name\":\"Soup\",\"cost\":1,\"quantity\":1}]"));
+
+        // Analyze
+        assertEquals(HttpStatus.CONFLICT, response.getStatusCode());
+        assertEquals(results, response.getBody());
+    }
+
+    @Test
+    public void testCreateNeedsMalformed() throws IOException { // createNeeds may throw IOException
+        // Invoke
+        ResponseEntity<NeedBatchResult[]> response = needController.createNeeds(null, body("[{\"name\""));
+
+        // Analyze
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        verify(mockNeedDAO, times(0)).createNeeds(anyList());
+    }
+
+    @Test
+    public void testUpdateNeeds() throws IOException { // updateNeeds may throw IOException
+        // Setup
+        NeedBatchResult[] results = { new NeedBatchResult(0, "Soap", NeedBatchResult.Status.UPDATED) };
+        when(mockNeedDAO.updateNeeds(anyList())).thenReturn(results);
+
+        // Invoke
+        ResponseEntity<NeedBatchResult[]> response = needController.updateNeeds(JsonStreamer.NDJSON_VALUE,
+                body("{\"name\":\"Soap\",\"cost\":1,\"quantity\":1}\n"));
+
+        // Analyze
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(results, response.getBody());
+    }
+
+    @Test
+    public void testUpdateNeedsHandleException() throws IOException { // updateNeeds may throw IOException
+        // Setup
+        doThrow(new IOException()).when(mockNeedDAO).updateNeeds(anyList());
+
+        // Invoke
+        ResponseEntity<NeedBatchResult[]> response = needController.updateNeeds(null, body("[]"));
+
+        // Analyze
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
+    }
+
+    @Test
+    public void testStreamChanges() {
+        // Setup
+        NeedChangeStream mockChangeStream = mock(NeedChangeStream.class);
+        SseEmitter emitter = new SseEmitter();
+        when(mockChangeStream.subscribe()).thenReturn(emitter);
+        needController = new NeedController(mockNeedDAO, new ObjectMapper(), mockChangeStream);
+
+        // Invoke
+        ResponseEntity<SseEmitter> response = needController.streamChanges();
+
+        // Analyze
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(emitter, response.getBody());
+    }
+
+    @Test
+    public void testGetNeedsSince() throws IOException { // getNeedsSince may throw IOException
+        // Setup
+        NeedDelta delta = new NeedDelta(12, false, new Need[] { new Need("Soap", 1, 2) }, new String[] { "Tape" });
+        when(mockNeedDAO.getNeedsSince(10)).thenReturn(delta);
+
+        // Invoke
+        ResponseEntity<NeedDelta> response = needController.getNeedsSince(10);
+
+        // Analyze
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(delta, response.getBody());
+    }
+
+    @Test
+    public void testGetNeedsSinceHandleException() throws IOException { // getNeedsSince may throw IOException
+        // Setup
+        doThrow(new IOException()).when(mockNeedDAO).getNeedsSince(10);
+
+        // Invoke
+        ResponseEntity<NeedDelta> response = needController.getNeedsSince(10);
+
+        // Analyze
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
+    }
+
+    @Test
+    public void testGetNeedsConflictingParams() throws Exception { // perform may throw Exception
+        // Setup
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(needController).build();
+        String[][] conflicts = {
+                { "sinceVersion", "1", "limit", "5" },
+                { "sinceVersion", "1", "stream", "" },
+                { "names", "Soap", "stream", "" },
+                { "names", "Soap", "sort", "cost" },
+                { "names", "Soap", "sinceVersion", "1" },
+                { "stream", "", "limit", "5" },
+                { "limit", "5", "sinceVersion", "1" },
+                { "sort", "cost", "stream", "" },
+                { "cursor", "VGVzdCAx", "names", "Soap" } };
+
+        for (String[] conflict : conflicts) {
+            // Invoke & Analyze
+            mockMvc.perform(get("/needs").param(conflict[0], conflict[1]).param(conflict[2], conflict[3]))
+                    .andExpect(status().isBadRequest());
+        }
+        verify(mockNeedDAO, never()).getNeeds();
+        verify(mockNeedDAO, never()).getNeedsSince(anyLong());
+        when(mockNeedDAO.getNeeds(anyList())).thenReturn(Map.of());
+        mockMvc.perform(get("/needs").param("names", "Soap")).andExpect(status().isOk());
+    }
+
+    @Test
+    public void testFindNeedsInRangeWithoutSort() throws Exception { // perform may throw Exception
+        // Setup
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(needController).build();
+
+        // Invoke & Analyze
+        mockMvc.perform(get("/needs").param("minCost", "1").param("maxCost", "5"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/needs").param("maxQuantity", "5").param("limit", "10"))
+                .andExpect(status().isBadRequest());
+        verify(mockNeedDAO, never()).getNeeds();
+        verify(mockNeedDAO, never()).getNeeds(any(), anyInt());
+    }
+}
@@ -1,19 +1,27 @@
 package com.ufund.api.ufundapi.controller;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.io.IOException;
+import java.util.List;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 import com.ufund.api.ufundapi.model.Need;
 import com.ufund.api.ufundapi.model.NeedReceipt;
+import com.ufund.api.ufundapi.model.Page;
 import com.ufund.api.ufundapi.persistence.NeedReceiptDAO;
 
 /**
@@ -75,7 +83,7 @@ public class NeedReceiptControllerTest {
         when(mockNeedReceiptDao.getReceipts()).thenReturn(new NeedReceipt[] { testNeedReceipt });
 
         // Invoke
-        ResponseEntity<NeedReceipt[]> response = needReceiptController.getNeedReceipts();
+        ResponseEntity<NeedReceipt[]> response = needReceiptController.getNeedReceipts(null);
 
         // Analyze
         assertEquals(HttpStatus.OK, response.getStatusCode());
@@ -88,12 +96,87 @@ public class NeedReceiptControllerTest {
         doThrow(new IOException()).when(mockNeedReceiptDao).getReceipts();
 
         // Invoke
-        ResponseEntity<NeedReceipt[]> response = needReceiptController.getNeedReceipts();
+        ResponseEntity<NeedReceipt[]> response = needReceiptController.getNeedReceipts(null);
 
         // Analyze
         assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
     }
 
+    @Test
+    public void testGetNeedReceiptsNotModified() throws IOException {
+        // Setup
+        when(mockNeedReceiptDao.getVersion()).thenReturn(3L);
+        when(mockNeedReceiptDao.getReceipts()).thenReturn(new NeedReceipt[0]);
+        String etag = needReceiptController.getNeedReceipts(null).getHeaders().getETag();
+
+        // Invoke
+        ResponseEntity<NeedReceipt[]> response = needReceiptController.getNeedReceipts(etag);
+
+        // Analyze
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+        verify(mockNeedReceiptDao, times(1)).getReceipts();
+    }
+
+    @Test
+    public void testStreamNeedReceipts() throws IOException {
+        // Setup
+        NeedReceipt first = new NeedReceipt("TestUsername", "TestNeed", 5, 1);
+        NeedReceipt second = new NeedReceipt("TestUsername2", "TestNeed", 10, 2);
+        String cursor = Page.encodeCursor(first.getSupporterUsername(), first.getName());
+        when(mockNeedReceiptDao.getReceipts(null, Page.MAX_LIMIT)).thenReturn(new Page<>(List.of(first), cursor));
+        when(mockNeedReceiptDao.getReceipts(cursor, Page.MAX_LIMIT)).thenReturn(new Page<>(List.of(second), null));
+
+        // Invoke
+        ResponseEntity<StreamingResponseBody> response = needReceiptController.streamNeedReceipts(null);
+
+        // Analyze
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(new ObjectMapper().writeValueAsString(new NeedReceipt[] { first, second }),
+                JsonStreamerTest.body(response));
+    }
+
+    @Test
+    public void testStreamNeedReceipts_Failure() throws IOException {
+        // Setup
+        doThrow(new IOException()).when(mockNeedReceiptDao).getReceipts(null, Page.MAX_LIMIT);
+
+        // Invoke
+        ResponseEntity<StreamingResponseBody> response = needReceiptController.streamNeedReceipts(null);
+
+        // Analyze
+        assertThrows(IOException.class, () -> JsonStreamerTest.body(response));
+    }
+
+    @Test
+    public void testGetNeedReceiptsPaged() throws IOException {
+        // Setup
+        NeedReceipt testNeedReceipt = new NeedReceipt("TestUsername", "TestNeed", 5, 1);
+        Page<NeedReceipt> page = new Page<>(List.of(testNeedReceipt), null);
+        when(mockNeedReceiptDao.getReceipts(null, 10)).thenReturn(page);
+
+        // Invoke
+        ResponseEntity<Page<NeedReceipt>> response = needReceiptController.getNeedReceipts(null, 10);
+
+        // Analyze
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(page, response.getBody());
+    }
+
+    @Test
+    public void testGetNeedReceiptsPaged_Failure() throws IOException {
+        // Setup
+        doThrow(new IllegalArgumentException()).when(mockNeedReceiptDao).getReceipts("bad", 10);
+        doThrow(new IOException()).when(mockNeedReceiptDao).getReceipts(null, 10);
+
+        // Invoke
+        ResponseEntity<Page<NeedReceipt>> badRequest = needReceiptController.getNeedReceipts("bad", 10);
+        ResponseEntity<Page<NeedReceipt>> failure = needReceiptController.getNeedReceipts(null, 10);
+
+        // Analyze
+        assertEquals(HttpStatus.BAD_REQUEST, badRequest.getStatusCode());
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, failure.getStatusCode());
+    }
+
     @Test
     public void testGetNeedReceiptsByUsername() throws IOException {
         // Setup
@@ -104,7 +187,7 @@ public class NeedReceiptControllerTest {
         when(mockNeedReceiptDao.getReceipts(supporterUsername)).thenReturn(new NeedReceipt[] { testNeedReceipt });
 
         // Invoke
-        ResponseEntity<NeedReceipt[]> response = needReceiptController.getNeedReceipts(supporterUsername);
+        ResponseEntity<NeedReceipt[]> response = needReceiptController.getNeedReceipts(supporterUsername, null);
 
         // Analyze
         assertEquals(HttpStatus.OK, response.getStatusCode());
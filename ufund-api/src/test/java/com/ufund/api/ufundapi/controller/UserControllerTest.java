@@ -6,12 +6,16 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.io.IOException;
+import java.util.List;
 
 import javax.management.openmbean.KeyAlreadyExistsException;
 
+import com.ufund.api.ufundapi.persistence.NeedDAO;
 import com.ufund.api.ufundapi.persistence.UserDAO;
 import com.ufund.api.ufundapi.exceptions.NeedNotFoundException;
 import com.ufund.api.ufundapi.exceptions.SupporterNotSignedInException;
@@ -34,16 +38,22 @@ import org.springframework.http.ResponseEntity;
  */
 @Tag("Controller-tier")
 public class UserControllerTest {
+    private static final String SESSION = "session";
+
     private UserController userController;
     private UserDAO mockUserDAO;
+    private NeedDAO mockNeedDAO;
 
     /**
-     * Before each test, create a new UserController object and inject a mock User DAO
+     * Before each test, create a new UserController object and inject mock User and Need DAOs
      */
     @BeforeEach
-    public void setupUserController() {
+    public void setupUserController() throws SupporterNotSignedInException {
         mockUserDAO = mock(UserDAO.class);
-        userController = new UserController(mockUserDAO);
+        mockNeedDAO = mock(NeedDAO.class);
+        when(mockUserDAO.getCurUser(SESSION))
+                .thenReturn(new Supporter("CoolSupporter", new Need[0], new NeedMessage[0]));
+        userController = new UserController(mockUserDAO, mockNeedDAO);
     }
 
     @Test
@@ -52,6 +62,7 @@ public class UserControllerTest {
         User user = new User("TestUser");
         // When the same username is passed in, our mock DAO will return the User object
         when(mockUserDAO.getUser(user.getUsername())).thenReturn(user);
+        when(mockUserDAO.loginUser(user)).thenReturn(SESSION);
 
         // Invoke
         ResponseEntity<User> response = userController.loginUser(user.getUsername());
@@ -59,6 +70,21 @@ public class UserControllerTest {
         // Analyze
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals(user, response.getBody());
+        assertEquals(SESSION, response.getHeaders().getFirst(UserController.SESSION_HEADER));
+    }
+
+    @Test
+    public void testLoginUserNotSignedIn() throws IOException {
+        // Setup
+        User user = new User("TestUser");
+        // The user was found, but could not be signed in
+        when(mockUserDAO.getUser(user.getUsername())).thenReturn(user);
+
+        // Invoke
+        ResponseEntity<User> response = userController.loginUser(user.getUsername());
+
+        // Analyze
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
     }
 
     @Test
@@ -95,21 +121,22 @@ public class UserControllerTest {
         boolean expected_response = true;
 
         // Invoke
-        ResponseEntity<Boolean> response = userController.logout();
+        ResponseEntity<Boolean> response = userController.logout(SESSION);
 
         // Analyze
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals(expected_response, response.getBody());
+        verify(mockUserDAO).logoutCurUser(SESSION);
     }
 
     @Test
     public void testGetBasket() throws IOException, SupporterNotSignedInException {
         // Setup
         Need[] expected_basket = {new Need("TestNeed1", 1, 1), new Need("TestNeed2", 2, 2)};
-        when(mockUserDAO.getCurBasket()).thenReturn(expected_basket);
+        when(mockUserDAO.getCurBasket(SESSION)).thenReturn(expected_basket);
 
         // Invoke
-        ResponseEntity<Need[]> response = userController.getCurBasket();
+        ResponseEntity<Need[]> response = userController.getCurBasket(SESSION, null);
 
         // Analyze
         assertEquals(HttpStatus.OK, response.getStatusCode());
@@ -119,10 +146,10 @@ public class UserControllerTest {
     @Test
     public void testGetBasketSupporterNotSignedIn() throws IOException, SupporterNotSignedInException {
         // Setup
-        doThrow(new SupporterNotSignedInException()).when(mockUserDAO).getCurBasket();
+        doThrow(new SupporterNotSignedInException()).when(mockUserDAO).getCurBasket(SESSION);
 
         // Invoke
-        ResponseEntity<Need[]> response = userController.getCurBasket();
+        ResponseEntity<Need[]> response = userController.getCurBasket(SESSION, null);
         
         // Analyze
         assertEquals(HttpStatus.FORBIDDEN, response.getStatusCode());
@@ -131,10 +158,10 @@ public class UserControllerTest {
     @Test
     public void testGetBasketIOException() throws IOException, SupporterNotSignedInException {
         // Setup
-        doThrow(new IOException()).when(mockUserDAO).getCurBasket();
+        doThrow(new IOException()).when(mockUserDAO).getCurBasket(SESSION);
 
         // Invoke
-        ResponseEntity<Need[]> response = userController.getCurBasket();
+        ResponseEntity<Need[]> response = userController.getCurBasket(SESSION, null);
         
         // Analyze
         assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
@@ -143,7 +170,7 @@ public class UserControllerTest {
     @Test
     public void testRemoveNeedFromBasket() throws IOException, SupporterNotSignedInException, NeedNotFoundException {
         // Invoke
-        ResponseEntity<Void> response = userController.removeFromBasket("Chee");
+        ResponseEntity<Void> response = userController.removeFromBasket(SESSION, "Chee");
 
         // Analyze
         assertEquals(HttpStatus.OK, response.getStatusCode());
@@ -153,10 +180,10 @@ public class UserControllerTest {
     public void testRemoveNeedFromBasketNotSignedIn() throws IOException, SupporterNotSignedInException, NeedNotFoundException {
         // Setup
         String need_name = "TestNeed";
-        doThrow(new SupporterNotSignedInException()).when(mockUserDAO).updateNeedInCurBasket(need_name, 0);
+        doThrow(new SupporterNotSignedInException()).when(mockUserDAO).updateNeedInCurBasket(SESSION, need_name, 0);
 
         // Invoke
-        ResponseEntity<Void> response = userController.removeFromBasket(need_name);
+        ResponseEntity<Void> response = userController.removeFromBasket(SESSION, need_name);
 
         // Analyze
         assertEquals(HttpStatus.FORBIDDEN, response.getStatusCode());
@@ -166,10 +193,10 @@ public class UserControllerTest {
     public void testRemoveNeedFromBasketNeedNotFound() throws IOException, SupporterNotSignedInException, NeedNotFoundException {
         // Setup
         String need_name = "TestNeed";
-        doThrow(new NeedNotFoundException(need_name)).when(mockUserDAO).updateNeedInCurBasket(need_name, 0);
+        doThrow(new NeedNotFoundException(need_name)).when(mockUserDAO).updateNeedInCurBasket(SESSION, need_name, 0);
 
         // Invoke
-        ResponseEntity<Void> response = userController.removeFromBasket(need_name);
+        ResponseEntity<Void> response = userController.removeFromBasket(SESSION, need_name);
 
         // Analyze
         assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
@@ -179,10 +206,10 @@ public class UserControllerTest {
     public void testRemoveNeedFromBasketIOException() throws IOException, SupporterNotSignedInException, NeedNotFoundException {
         // Setup
         String need_name = "TestNeed";
-        doThrow(new IOException()).when(mockUserDAO).updateNeedInCurBasket(need_name, 0);
+        doThrow(new IOException()).when(mockUserDAO).updateNeedInCurBasket(SESSION, need_name, 0);
 
         // Invoke
-        ResponseEntity<Void> response = userController.removeFromBasket(need_name);
+        ResponseEntity<Void> response = userController.removeFromBasket(SESSION, need_name);
 
         // Analyze
         assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
@@ -194,7 +221,7 @@ public class UserControllerTest {
         Need test_need = new Need("TestNeed", 1, 1);
 
         // Invoke
-        ResponseEntity<Void> response = userController.updateNeedInBasket(test_need);
+        ResponseEntity<Void> response = userController.updateNeedInBasket(SESSION, test_need);
 
         // Analyze
         assertEquals(HttpStatus.OK, response.getStatusCode());
@@ -204,10 +231,10 @@ public class UserControllerTest {
     public void testUpdateNeedInBasketNotSignedIn() throws IOException, SupporterNotSignedInException, NeedNotFoundException {
         // Setup
         Need test_need = new Need("TestNeed", 1, 1);
-        doThrow(new SupporterNotSignedInException()).when(mockUserDAO).updateNeedInCurBasket(test_need.getName(), test_need.getQuantity());
+        doThrow(new SupporterNotSignedInException()).when(mockUserDAO).updateNeedInCurBasket(SESSION, test_need.getName(), test_need.getQuantity());
 
         // Invoke
-        ResponseEntity<Void> response = userController.updateNeedInBasket(test_need);
+        ResponseEntity<Void> response = userController.updateNeedInBasket(SESSION, test_need);
 
         // Analyze
         assertEquals(HttpStatus.FORBIDDEN, response.getStatusCode());
@@ -217,10 +244,10 @@ public class UserControllerTest {
     public void testUpdateNeedInBasketNeedNotFound() throws IOException, SupporterNotSignedInException, NeedNotFoundException {
         // Setup
         Need test_need = new Need("TestNeed", 1, 1);
-        doThrow(new NeedNotFoundException(test_need.getName())).when(mockUserDAO).updateNeedInCurBasket(test_need.getName(), test_need.getQuantity());
+        doThrow(new NeedNotFoundException(test_need.getName())).when(mockUserDAO).updateNeedInCurBasket(SESSION, test_need.getName(), test_need.getQuantity());
 
         // Invoke
-        ResponseEntity<Void> response = userController.updateNeedInBasket(test_need);
+        ResponseEntity<Void> response = userController.updateNeedInBasket(SESSION, test_need);
 
         // Analyze
         assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
@@ -230,10 +257,10 @@ public class UserControllerTest {
     public void testUpdateNeedInBasketIOException() throws IOException, SupporterNotSignedInException, NeedNotFoundException {
         // Setup
         Need test_need = new Need("TestNeed", 1, 1);
-        doThrow(new IOException()).when(mockUserDAO).updateNeedInCurBasket(test_need.getName(), test_need.getQuantity());
+        doThrow(new IOException()).when(mockUserDAO).updateNeedInCurBasket(SESSION, test_need.getName(), test_need.getQuantity());
 
         // Invoke
-        ResponseEntity<Void> response = userController.updateNeedInBasket(test_need);
+        ResponseEntity<Void> response = userController.updateNeedInBasket(SESSION, test_need);
 
         // Analyze
         assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
@@ -242,10 +269,10 @@ public class UserControllerTest {
     @Test
     public void testCheckoutBasket() throws IOException, SupporterNotSignedInException {
         // Setup
-        when(mockUserDAO.checkoutCurBasket()).thenReturn(true);
+        when(mockUserDAO.checkoutCurBasket(SESSION)).thenReturn(true);
 
         // Invoke
-        ResponseEntity<Boolean> response = userController.checkoutBasket();
+        ResponseEntity<Boolean> response = userController.checkoutBasket(SESSION);
 
         // Analyze
         assertEquals(HttpStatus.OK, response.getStatusCode());
@@ -255,10 +282,10 @@ public class UserControllerTest {
     @Test
     public void testCheckoutBasketNotSignedIn() throws IOException, SupporterNotSignedInException {
         // Setup
-        doThrow(new SupporterNotSignedInException()).when(mockUserDAO).checkoutCurBasket();
+        doThrow(new SupporterNotSignedInException()).when(mockUserDAO).checkoutCurBasket(SESSION);
 
         // Invoke
-        ResponseEntity<Boolean> response = userController.checkoutBasket();
+        ResponseEntity<Boolean> response = userController.checkoutBasket(SESSION);
 
         // Analyze
         assertEquals(HttpStatus.FORBIDDEN, response.getStatusCode());
@@ -267,10 +294,10 @@ public class UserControllerTest {
     @Test
     public void testCheckoutBasketIOException() throws IOException, SupporterNotSignedInException {
         // Setup
-        doThrow(new IOException()).when(mockUserDAO).checkoutCurBasket();
+        doThrow(new IOException()).when(mockUserDAO).checkoutCurBasket(SESSION);
 
         // Invoke
-        ResponseEntity<Boolean> response = userController.checkoutBasket();
+        ResponseEntity<Boolean> response = userController.checkoutBasket(SESSION);
 
         // Analyze
         assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
@@ -279,19 +306,38 @@ public class UserControllerTest {
     @Test
     public void testGetBasketable() throws IOException, SupporterNotSignedInException {
         // Invoke
-        ResponseEntity<Need[]> response = userController.getBasketableNeeds();
+        ResponseEntity<List<Need>> response = userController.getBasketableNeeds(SESSION, null);
 
         // Analyze
         assertEquals(HttpStatus.OK, response.getStatusCode());
     }
 
+    @Test
+    public void testGetBasketableNotModified() throws IOException, SupporterNotSignedInException {
+        // Setup
+        when(mockUserDAO.getVersion()).thenReturn(7L);
+        when(mockNeedDAO.getVersion()).thenReturn(3L);
+        String etag = userController.getBasketableNeeds(SESSION, null).getHeaders().getETag();
+
+        // Invoke
+        ResponseEntity<List<Need>> response = userController.getBasketableNeeds(SESSION, etag);
+
+        // Analyze
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+        verify(mockUserDAO, times(1)).getBasketableNeeds(SESSION);
+
+        // A change to the cupboard changes the tag
+        when(mockNeedDAO.getVersion()).thenReturn(4L);
+        assertEquals(HttpStatus.OK, userController.getBasketableNeeds(SESSION, etag).getStatusCode());
+    }
+
     @Test
     public void testGetBasketableNotSignedIn() throws IOException, SupporterNotSignedInException {
         // Setup
-        doThrow(new SupporterNotSignedInException()).when(mockUserDAO).getBasketableNeeds();
+        doThrow(new SupporterNotSignedInException()).when(mockUserDAO).getBasketableNeeds(SESSION);
 
         // Invoke
-        ResponseEntity<Need[]> response = userController.getBasketableNeeds();
+        ResponseEntity<List<Need>> response = userController.getBasketableNeeds(SESSION, null);
 
         // Analyze
         assertEquals(HttpStatus.FORBIDDEN, response.getStatusCode());
@@ -300,10 +346,10 @@ public class UserControllerTest {
     @Test
     public void testGetBasketableIOException() throws IOException, SupporterNotSignedInException {
         // Setup
-        doThrow(new IOException()).when(mockUserDAO).getBasketableNeeds();
+        doThrow(new IOException()).when(mockUserDAO).getBasketableNeeds(SESSION);
 
         // Invoke
-        ResponseEntity<Need[]> response = userController.getBasketableNeeds();
+        ResponseEntity<List<Need>> response = userController.getBasketableNeeds(SESSION, null);
 
         // Analyze
         assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
@@ -313,10 +359,10 @@ public class UserControllerTest {
     public void testGetBasketNeed() throws IOException, SupporterNotSignedInException, NeedNotFoundException {
         // Setup
         BasketNeed expected_need = new BasketNeed("TestNeed", 1, 1, 15);
-        when(mockUserDAO.getBasketOrNormalNeed(expected_need.getName())).thenReturn(expected_need);
+        when(mockUserDAO.getBasketOrNormalNeed(SESSION, expected_need.getName())).thenReturn(expected_need);
 
         // Invoke
-        ResponseEntity<BasketNeed> response = userController.getBasketNeed(expected_need.getName());
+        ResponseEntity<BasketNeed> response = userController.getBasketNeed(SESSION, expected_need.getName());
 
         // Analyze
         assertEquals(HttpStatus.OK, response.getStatusCode());
@@ -326,12 +372,12 @@ public class UserControllerTest {
     @Test
     public void testGetBasketNeed_Failure() throws IOException, SupporterNotSignedInException, NeedNotFoundException {
         // Setup
-        when(mockUserDAO.getBasketOrNormalNeed(any())).thenThrow(new NeedNotFoundException(""), new IOException(), new SupporterNotSignedInException());
+        when(mockUserDAO.getBasketOrNormalNeed(any(), any())).thenThrow(new NeedNotFoundException(""), new IOException(), new SupporterNotSignedInException());
         
         // Invoke
-        ResponseEntity<BasketNeed> response1 = userController.getBasketNeed("");
-        ResponseEntity<BasketNeed> response2 = userController.getBasketNeed("");
-        ResponseEntity<BasketNeed> response3 = userController.getBasketNeed("");
+        ResponseEntity<BasketNeed> response1 = userController.getBasketNeed(SESSION, "");
+        ResponseEntity<BasketNeed> response2 = userController.getBasketNeed(SESSION, "");
+        ResponseEntity<BasketNeed> response3 = userController.getBasketNeed(SESSION, "");
 
         // Analyze
         assertEquals(HttpStatus.NOT_FOUND, response1.getStatusCode());
@@ -343,10 +389,10 @@ public class UserControllerTest {
     public void testGetCurUser() throws SupporterNotSignedInException {
         // Setup
         User expected_user = new User("TestUser");
-        when(mockUserDAO.getCurUser()).thenReturn(expected_user);
+        when(mockUserDAO.getCurUser(SESSION)).thenReturn(expected_user);
 
         // Invoke
-        ResponseEntity<User> response = userController.getCurUser();
+        ResponseEntity<User> response = userController.getCurUser(SESSION);
 
         // Analyze
         assertEquals(HttpStatus.OK, response.getStatusCode());
@@ -356,10 +402,10 @@ public class UserControllerTest {
     @Test
     public void testGetCurUser_Failure() throws SupporterNotSignedInException {
         // Setup
-        when(mockUserDAO.getCurUser()).thenThrow(new SupporterNotSignedInException());
+        when(mockUserDAO.getCurUser(SESSION)).thenThrow(new SupporterNotSignedInException());
 
         // Invoke
-        ResponseEntity<User> response = userController.getCurUser();
+        ResponseEntity<User> response = userController.getCurUser(SESSION);
 
         // Analyze
         assertEquals(HttpStatus.FORBIDDEN, response.getStatusCode());
@@ -368,19 +414,90 @@ public class UserControllerTest {
     @Test
     public void testGetInbox() {
         // Invoke
-        ResponseEntity<NeedMessage[]> response = userController.getInbox();
+        ResponseEntity<NeedMessage[]> response = userController.getInbox(SESSION, null);
 
         // Analyze
         assertEquals(HttpStatus.OK, response.getStatusCode());
     }
 
+    @Test
+    public void testGetInboxNotModified() throws SupporterNotSignedInException {
+        // Setup
+        when(mockUserDAO.getVersion()).thenReturn(7L);
+        String etag = userController.getInbox(SESSION, null).getHeaders().getETag();
+
+        // Invoke
+        ResponseEntity<NeedMessage[]> response = userController.getInbox(SESSION, etag);
+
+        // Analyze
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+        assertEquals(etag, response.getHeaders().getETag());
+        verify(mockUserDAO, times(1)).getCurMessages(SESSION);
+    }
+
+    @Test
+    public void testGetCurBasketETagFollowsNeeds() throws SupporterNotSignedInException, IOException {
+        // Setup
+        when(mockUserDAO.getVersion()).thenReturn(7L);
+        when(mockNeedDAO.getVersion()).thenReturn(1L);
+        String etag = userController.getCurBasket(SESSION, null).getHeaders().getETag();
+
+        // Invoke
+        ResponseEntity<Need[]> unchanged = userController.getCurBasket(SESSION, etag);
+        when(mockNeedDAO.getVersion()).thenReturn(2L);
+        ResponseEntity<Need[]> changed = userController.getCurBasket(SESSION, etag);
+
+        // Analyze
+        assertEquals(HttpStatus.NOT_MODIFIED, unchanged.getStatusCode());
+        assertEquals(HttpStatus.OK, changed.getStatusCode());
+        verify(mockUserDAO, times(2)).getCurBasket(SESSION);
+    }
+
+    @Test
+    public void testNotModifiedNeedsSession() throws SupporterNotSignedInException {
+        // Setup
+        String etag = userController.getCurBasket(SESSION, null).getHeaders().getETag();
+        String basketableEtag = userController.getBasketableNeeds(SESSION, null).getHeaders().getETag();
+        String inboxEtag = userController.getInbox(SESSION, null).getHeaders().getETag();
+        when(mockUserDAO.getCurUser(null)).thenThrow(new SupporterNotSignedInException());
+        when(mockUserDAO.getCurUser("expired")).thenThrow(new SupporterNotSignedInException());
+        when(mockUserDAO.getCurUser("admin")).thenReturn(User.ADMIN);
+
+        // Invoke & Analyze
+        assertEquals(HttpStatus.FORBIDDEN, userController.getCurBasket(null, etag).getStatusCode());
+        assertEquals(HttpStatus.FORBIDDEN, userController.getCurBasket("expired", etag).getStatusCode());
+        assertEquals(HttpStatus.FORBIDDEN, userController.getCurBasket("admin", etag).getStatusCode());
+        assertEquals(HttpStatus.FORBIDDEN,
+                userController.getBasketableNeeds("expired", basketableEtag).getStatusCode());
+        assertEquals(HttpStatus.FORBIDDEN, userController.getInbox("expired", inboxEtag).getStatusCode());
+    }
+
+    @Test
+    public void testNotModifiedPerSupporter() throws SupporterNotSignedInException {
+        // Setup
+        String other = "other";
+        when(mockUserDAO.getCurUser(other)).thenReturn(new Supporter("OtherSupporter", new Need[0],
+                new NeedMessage[0]));
+        String basketEtag = userController.getCurBasket(SESSION, null).getHeaders().getETag();
+        String inboxEtag = userController.getInbox(SESSION, null).getHeaders().getETag();
+
+        // Invoke
+        ResponseEntity<Need[]> basket = userController.getCurBasket(other, basketEtag);
+        ResponseEntity<NeedMessage[]> inbox = userController.getInbox(other, inboxEtag);
+
+        // Analyze
+        assertEquals(HttpStatus.OK, basket.getStatusCode());
+        assertEquals(HttpStatus.OK, inbox.getStatusCode());
+        assertEquals(HttpStatus.NOT_MODIFIED, userController.getInbox(SESSION, inboxEtag).getStatusCode());
+    }
+
     @Test
     public void testGetInbox_Failure() throws SupporterNotSignedInException {
         // Setup
-        when(mockUserDAO.getCurMessages()).thenThrow(new SupporterNotSignedInException());
+        when(mockUserDAO.getCurMessages(SESSION)).thenThrow(new SupporterNotSignedInException());
 
         // Invoke
-        ResponseEntity<NeedMessage[]> response = userController.getInbox();
+        ResponseEntity<NeedMessage[]> response = userController.getInbox(SESSION, null);
 
         // Analyze
         assertEquals(HttpStatus.FORBIDDEN, response.getStatusCode());
@@ -414,7 +531,7 @@ public class UserControllerTest {
     @Test
     public void testDeleteMessage() {
         // Invoke
-        ResponseEntity<Void> response = userController.deleteMessage("TestMessage");
+        ResponseEntity<Void> response = userController.deleteMessage(SESSION, "TestMessage");
 
         // Analyze
         assertEquals(HttpStatus.OK, response.getStatusCode());
@@ -423,11 +540,11 @@ public class UserControllerTest {
     @Test
     public void testDeleteMessage_Failure() throws IOException, SupporterNotSignedInException{
         // Setup
-        doThrow(new IOException(), new SupporterNotSignedInException()).when(mockUserDAO).deleteCurMessage("TestMessage");
+        doThrow(new IOException(), new SupporterNotSignedInException()).when(mockUserDAO).deleteCurMessage(SESSION, "TestMessage");
 
         // Invoke
-        ResponseEntity<Void> response = userController.deleteMessage("TestMessage");
-        ResponseEntity<Void> response1 = userController.deleteMessage("TestMessage");
+        ResponseEntity<Void> response = userController.deleteMessage(SESSION, "TestMessage");
+        ResponseEntity<Void> response1 = userController.deleteMessage(SESSION, "TestMessage");
 
         // Analyze
         assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
@@ -0,0 +1,51 @@
+package com.ufund.api.ufundapi.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The unit test suite for the Need Batch Result class
+ * 
+ * @author Ethan Hartman
+ */
+@Tag("Model-tier")
+public class NeedBatchResultTest {
+    @Test
+    public void testCreateNeedBatchResult() {
+        // Setup
+        int expected_index = 3;
+        String expected_name = "Blankets";
+        NeedBatchResult.Status expected_status = NeedBatchResult.Status.CONFLICT;
+
+        // Invoke
+        NeedBatchResult result = new NeedBatchResult(expected_index, expected_name, expected_status);
+
+        // Analyze
+        assertEquals(expected_index, result.getIndex());
+        assertEquals(expected_name, result.getName());
+        assertEquals(expected_status, result.getStatus());
+    }
+
+    @Test
+    public void testStatusSuccess() {
+        // Invoke & Analyze
+        assertTrue(NeedBatchResult.Status.CREATED.isSuccess());
+        assertTrue(NeedBatchResult.Status.VALID.isSuccess());
+        assertFalse(NeedBatchResult.Status.DUPLICATE.isSuccess());
+        assertFalse(NeedBatchResult.Status.NOT_FOUND.isSuccess());
+    }
+
+    @Test
+    public void testToString() {
+        // Setup
+        NeedBatchResult result = new NeedBatchResult(0, "Soap", NeedBatchResult.Status.CREATED);
+        String expected_string = String.format(NeedBatchResult.STRING_FORMAT, 0, "Soap", "CREATED");
+
+        // Invoke & Analyze
+        assertEquals(expected_string, result.toString());
+    }
+}
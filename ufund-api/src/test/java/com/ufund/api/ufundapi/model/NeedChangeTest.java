@@ -0,0 +1,44 @@
+package com.ufund.api.ufundapi.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The unit test suite for the Need Change class
+ * 
+ * @author Ethan Hartman
+ */
+@Tag("Model-tier")
+public class NeedChangeTest {
+    @Test
+    public void testCreateNeedChange() {
+        // Setup
+        NeedChange.Type expected_type = NeedChange.Type.UPDATED;
+        long expected_version = 42;
+        Need expected_need = new Need("Blankets", 12.5, 30);
+
+        // Invoke
+        NeedChange change = new NeedChange(expected_type, expected_version, expected_need);
+
+        // Analyze
+        assertEquals(expected_type, change.getType());
+        assertEquals(expected_version, change.getVersion());
+        assertEquals(expected_need, change.getNeed());
+    }
+
+    @Test
+    public void testToString() {
+        // Setup
+        Need need = new Need("Blankets", 12.5, 30);
+        String expected_string = String.format(NeedChange.STRING_FORMAT, NeedChange.Type.DELETED, 7L, need);
+        NeedChange change = new NeedChange(NeedChange.Type.DELETED, 7, need);
+
+        // Invoke
+        String actual_string = change.toString();
+
+        // Analyze
+        assertEquals(expected_string, actual_string);
+    }
+}
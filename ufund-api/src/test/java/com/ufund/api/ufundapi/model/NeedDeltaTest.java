@@ -0,0 +1,66 @@
+package com.ufund.api.ufundapi.model;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The unit test suite for the Need Delta class
+ * 
+ * @author Ethan Hartman
+ */
+@Tag("Model-tier")
+public class NeedDeltaTest {
+    @Test
+    public void testCreateNeedDelta() {
+        // Setup
+        long expected_version = 42;
+        Need[] expected_upserts = { new Need("Blankets", 12.5, 30) };
+        String[] expected_deletes = { "Tape" };
+
+        // Invoke
+        NeedDelta delta = new NeedDelta(expected_version, false, expected_upserts, expected_deletes);
+
+        // Analyze
+        assertEquals(expected_version, delta.getVersion());
+        assertFalse(delta.isResync());
+        assertArrayEquals(expected_upserts, delta.getUpserts());
+        assertArrayEquals(expected_deletes, delta.getDeletes());
+    }
+
+    @Test
+    public void testResync() {
+        // Setup
+        Need[] needs = { new Need("Blankets", 12.5, 30) };
+
+        // Invoke
+        NeedDelta delta = NeedDelta.resync(7, needs);
+
+        // Analyze
+        assertTrue(delta.isResync());
+        assertEquals(7, delta.getVersion());
+        assertArrayEquals(needs, delta.getUpserts());
+        assertEquals(0, delta.getDeletes().length);
+    }
+
+    @Test
+    public void testToString() {
+        // Setup
+        Need[] upserts = { new Need("Blankets", 12.5, 30) };
+        String[] deletes = { "Tape" };
+        String expected_string = String.format(NeedDelta.STRING_FORMAT, 3L, false, Arrays.toString(upserts),
+                Arrays.toString(deletes));
+
+        // Invoke
+        String actual_string = new NeedDelta(3, false, upserts, deletes).toString();
+
+        // Analyze
+        assertEquals(expected_string, actual_string);
+    }
+}
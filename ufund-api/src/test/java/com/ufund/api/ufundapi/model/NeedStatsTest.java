@@ -0,0 +1,63 @@
+package com.ufund.api.ufundapi.model;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The unit test suite for the Need Stats class
+ * 
+ * @author Ethan Hartman
+ */
+@Tag("Model-tier")
+public class NeedStatsTest {
+    @Test
+    public void testCreateNeedStats() {
+        // Setup
+        int[] expected_costs = { 1, 0, 1, 0, 0 };
+        int[] expected_quantities = { 0, 1, 1, 0, 0 };
+
+        // Invoke
+        NeedStats stats = new NeedStats(2, 2, 15, 55.5, expected_costs, expected_quantities);
+
+        // Analyze
+        assertEquals(2, stats.getCount());
+        assertEquals(2, stats.getInStock());
+        assertEquals(15, stats.getUnits());
+        assertEquals(55.5, stats.getValue());
+        assertArrayEquals(expected_costs, stats.getCosts());
+        assertArrayEquals(expected_quantities, stats.getQuantities());
+    }
+
+    @Test
+    public void testBuckets() {
+        // Invoke & Analyze
+        assertEquals(0, NeedStats.costBucket(99));
+        assertEquals(1, NeedStats.costBucket(100));
+        assertEquals(2, NeedStats.costBucket(9_999));
+        assertEquals(4, NeedStats.costBucket(100_000));
+        assertEquals(0, NeedStats.quantityBucket(0));
+        assertEquals(1, NeedStats.quantityBucket(9));
+        assertEquals(3, NeedStats.quantityBucket(999));
+        assertEquals(4, NeedStats.quantityBucket(1_000));
+    }
+
+    @Test
+    public void testToString() {
+        // Setup
+        int[] costs = { 1, 0, 0, 0, 0 };
+        int[] quantities = { 0, 1, 0, 0, 0 };
+        String expected_string = String.format(NeedStats.STRING_FORMAT, 1, 1, 3L, 1.5, Arrays.toString(costs),
+                Arrays.toString(quantities));
+
+        // Invoke
+        String actual_string = new NeedStats(1, 1, 3, 1.5, costs, quantities).toString();
+
+        // Analyze
+        assertEquals(expected_string, actual_string);
+    }
+}
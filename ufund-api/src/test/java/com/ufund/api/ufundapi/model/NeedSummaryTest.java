@@ -0,0 +1,44 @@
+package com.ufund.api.ufundapi.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The unit test suite for the Need Summary class
+ * 
+ * @author Ethan Hartman
+ */
+@Tag("Model-tier")
+public class NeedSummaryTest {
+    @Test
+    public void testCreateNeedSummary() {
+        // Setup
+        int expected_count = 3;
+        long expected_units = 21;
+        double expected_value = 86.5;
+        int expected_low_stock = 2;
+
+        // Invoke
+        NeedSummary summary = new NeedSummary(expected_count, expected_units, expected_value, expected_low_stock);
+
+        // Analyze
+        assertEquals(expected_count, summary.getCount());
+        assertEquals(expected_units, summary.getUnits());
+        assertEquals(expected_value, summary.getValue());
+        assertEquals(expected_low_stock, summary.getLowStock());
+    }
+
+    @Test
+    public void testToString() {
+        // Setup
+        String expected_string = String.format(NeedSummary.STRING_FORMAT, 3, 21L, 86.5, 2);
+
+        // Invoke
+        String actual_string = new NeedSummary(3, 21, 86.5, 2).toString();
+
+        // Analyze
+        assertEquals(expected_string, actual_string);
+    }
+}
@@ -0,0 +1,60 @@
+package com.ufund.api.ufundapi.model;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The unit test suite for the Page class
+ * 
+ * @author Ethan Hartman
+ */
+@Tag("Model-tier")
+public class PageTest {
+    @Test
+    public void testCreatePage() {
+        // Setup
+        List<String> expected_items = List.of("a", "b");
+        String expected_next = "Yg";
+
+        // Invoke
+        Page<String> page = new Page<>(expected_items, expected_next);
+
+        // Analyze
+        assertEquals(expected_items, page.getItems());
+        assertEquals(expected_next, page.getNext());
+    }
+
+    @Test
+    public void testCursorRoundTrip() {
+        // Setup
+        String[] expected_keys = { "Cool Supporter", "Canned Soup/Large" };
+
+        // Invoke
+        String cursor = Page.encodeCursor(expected_keys);
+
+        // Analyze
+        assertArrayEquals(expected_keys, Page.decodeCursor(cursor, 2));
+    }
+
+    @Test
+    public void testMalformedCursor() {
+        // Invoke & Analyze
+        assertThrows(IllegalArgumentException.class, () -> Page.decodeCursor("not base64!", 1));
+        assertThrows(IllegalArgumentException.class, () -> Page.decodeCursor(Page.encodeCursor("one"), 2));
+    }
+
+    @Test
+    public void testCheckLimit() {
+        // Invoke & Analyze
+        assertDoesNotThrow(() -> Page.checkLimit(Page.MAX_LIMIT));
+        assertThrows(IllegalArgumentException.class, () -> Page.checkLimit(0));
+        assertThrows(IllegalArgumentException.class, () -> Page.checkLimit(Page.MAX_LIMIT + 1));
+    }
+}
@@ -0,0 +1,79 @@
+package com.ufund.api.ufundapi.persistence;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.ufund.api.ufundapi.model.Need;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Measures deriving a supporter's basketable needs from the indexed cupboard
+ * against walking and copying the whole cupboard the way every request used to
+ * <br>
+ * Run with {@code mvn test -P benchmark}
+ *
+ * @author Ethan Hartman
+ */
+@Tag("Benchmark")
+public class BasketableNeedsBenchmark {
+    private static final int[] CATALOG_SIZES = { 1_000, 10_000, 100_000 };
+    private static final int BASKET_SIZE = 5;
+    private static final int REQUESTS = 2_000;
+
+    private interface Deriver {
+        List<Need> derive(Need[] basket);
+    }
+
+    /**
+     * @return the mean microseconds per request
+     */
+    private static double time(Deriver deriver, Need[] basket) {
+        long blackhole = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < REQUESTS; ++i)
+            blackhole += deriver.derive(basket).get(i % BASKET_SIZE).getQuantity();
+        long elapsed = System.nanoTime() - start;
+        if (blackhole == 42)
+            System.out.print("");
+        return elapsed / 1_000.0 / REQUESTS;
+    }
+
+    @Test
+    public void benchmarkBasketable() {
+        System.out.printf("%-10s %16s %16s%n", "catalog", "walk us/req", "view us/req");
+        for (int size : CATALOG_SIZES) {
+            Need[] needs = new Need[size];
+            for (int i = 0; i < size; ++i)
+                needs[i] = new Need(String.format("Need %06d", i), 1 + i % 50, 100);
+            Need[] basket = new Need[BASKET_SIZE];
+            for (int i = 0; i < BASKET_SIZE; ++i)
+                basket[i] = new Need(needs[i * size / BASKET_SIZE].getName(), 1, 1 + i * 30);
+            BasketableNeeds.Cupboard cupboard = new BasketableNeeds.Cupboard(1, needs);
+
+            Deriver walk = lines -> {
+                Map<String, Need> lookup = new HashMap<>();
+                for (Need line : lines)
+                    lookup.put(line.getName(), line);
+                List<Need> basketable = new ArrayList<>();
+                for (Need need : needs) {
+                    Need line = lookup.get(need.getName());
+                    if (line == null)
+                        basketable.add(need);
+                    else if (need.getQuantity() > line.getQuantity())
+                        basketable.add(new Need(need.getName(), need.getCost(),
+                                need.getQuantity() - line.getQuantity()));
+                }
+                return basketable;
+            };
+            Deriver view = cupboard::without;
+
+            time(walk, basket); // warm up
+            time(view, basket);
+            System.out.printf("%-10d %16.2f %16.2f%n", size, time(walk, basket), time(view, basket));
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.ufund.api.ufundapi.persistence;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.ufund.api.ufundapi.model.Need;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test the Basketable Needs class
+ *
+ * @author Ethan Hartman
+ */
+@Tag("Persistence-tier")
+public class BasketableNeedsTest {
+    private Need[] needs;
+    private BasketableNeeds.Cupboard cupboard;
+
+    @BeforeEach
+    public void setupCupboard() {
+        needs = new Need[5];
+        for (int i = 0; i < needs.length; ++i)
+            needs[i] = new Need("Need " + i, i + 1, 10);
+        cupboard = new BasketableNeeds.Cupboard(1, needs);
+    }
+
+    /**
+     * Checks the view both by index and by iteration against the expected
+     * names and quantities
+     */
+    private static void assertView(List<String> names, List<Integer> quantities, List<Need> view) {
+        List<String> viewNames = new ArrayList<>();
+        List<Integer> viewQuantities = new ArrayList<>();
+        for (Need need : view) {
+            viewNames.add(need.getName());
+            viewQuantities.add(need.getQuantity());
+        }
+        assertEquals(names, viewNames);
+        assertEquals(quantities, viewQuantities);
+        assertEquals(names.size(), view.size());
+        for (int i = 0; i < view.size(); ++i)
+            assertEquals(names.get(i), view.get(i).getName());
+    }
+
+    @Test
+    public void testEmptyBasket() {
+        // Invoke
+        List<Need> view = cupboard.without(new Need[0]);
+
+        // Analyze
+        assertEquals(List.of(needs), view);
+        assertSame(needs[3], view.get(3)); // shared, not copied
+    }
+
+    @Test
+    public void testHiddenAndRemaining() {
+        // Setup
+        Need[] basket = { new Need("Need 3", 4, 4), new Need("Need 1", 2, 10), new Need("Gone", 1, 1) };
+
+        // Invoke
+        List<Need> view = cupboard.without(basket);
+
+        // Analyze
+        assertView(List.of("Need 0", "Need 2", "Need 3", "Need 4"), List.of(10, 10, 6, 10), view);
+        assertSame(needs[4], view.get(3));
+    }
+
+    @Test
+    public void testHiddenAtEnds() {
+        // Setup
+        Need[] basket = { new Need("Need 0", 1, 10), new Need("Need 1", 2, 12), new Need("Need 4", 5, 10) };
+
+        // Invoke
+        List<Need> view = cupboard.without(basket);
+
+        // Analyze
+        assertView(List.of("Need 2", "Need 3"), List.of(10, 10), view);
+    }
+
+    @Test
+    public void testEveryNeedHidden() {
+        // Setup
+        Need[] basket = new Need[needs.length];
+        for (int i = 0; i < needs.length; ++i)
+            basket[i] = needs[i];
+
+        // Invoke
+        List<Need> view = cupboard.without(basket);
+
+        // Analyze
+        assertView(List.of(), List.of(), view);
+        assertThrows(IndexOutOfBoundsException.class, () -> view.get(0));
+    }
+
+    @Test
+    public void testReadOnly() {
+        // Setup
+        List<Need> view = cupboard.without(new Need[0]);
+
+        // Invoke & Analyze
+        assertThrows(UnsupportedOperationException.class, () -> view.set(0, needs[1]));
+        assertThrows(UnsupportedOperationException.class, () -> view.remove(0));
+    }
+}
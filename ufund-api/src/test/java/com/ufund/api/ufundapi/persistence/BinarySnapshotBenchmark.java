@@ -0,0 +1,87 @@
+package com.ufund.api.ufundapi.persistence;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ufund.api.ufundapi.model.Need;
+import com.ufund.api.ufundapi.model.NeedMessage;
+import com.ufund.api.ufundapi.model.NeedReceipt;
+import com.ufund.api.ufundapi.model.Supporter;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Compares loading each store from its JSON file against loading it from its
+ * binary snapshot, across dataset sizes
+ * <br>
+ * Run with {@code mvn test -P benchmark}
+ *
+ * @author Ethan Hartman
+ */
+@Tag("Benchmark")
+public class BinarySnapshotBenchmark {
+    private static final int[] SIZES = { 10_000, 100_000, 1_000_000 };
+    private static final int ROUNDS = 3;
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    private interface Loader {
+        void load() throws IOException;
+    }
+
+    /**
+     * @return the fastest of a few loads, in milliseconds
+     */
+    private static double time(Loader loader) throws IOException {
+        loader.load(); // warm up
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < ROUNDS; ++i) {
+            long start = System.nanoTime();
+            loader.load();
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return best / 1e6;
+    }
+
+    private static <T> void compare(Path dir, String store, BinarySnapshot.Codec<T> codec, T[] records)
+            throws IOException {
+        File json = dir.resolve(store + "-" + records.length + ".json").toFile();
+        OBJECT_MAPPER.writeValue(json, records);
+        BinarySnapshot.write(codec, json, records);
+        Class<?> arrayType = records.getClass();
+        System.out.printf("%-12s %10d %12.1f %12.1f %12d %12d%n", store, records.length,
+                time(() -> OBJECT_MAPPER.readValue(json, arrayType)),
+                time(() -> BinarySnapshot.read(codec, json)), json.length() / 1024,
+                BinarySnapshot.binaryFile(json).length() / 1024);
+    }
+
+    @Test
+    public void benchmarkLoads(@TempDir Path dir) throws IOException {
+        System.out.printf("%-12s %10s %12s %12s %12s %12s%n", "store", "records", "json ms", "binary ms",
+                "json KiB", "binary KiB");
+        for (int size : SIZES) {
+            Need[] needs = new Need[size];
+            NeedReceipt[] receipts = new NeedReceipt[size];
+            Supporter[] supporters = new Supporter[size / 10];
+            for (int i = 0; i < size; ++i) {
+                needs[i] = new Need("Need " + i, i % 100 + 0.5, i % 20 + 1);
+                receipts[i] = new NeedReceipt("Supporter " + i % supporters.length, "Need " + i % 1_000,
+                        i % 100 + 0.5, i % 20 + 1);
+            }
+            for (int i = 0; i < supporters.length; ++i)
+                supporters[i] = new Supporter("Supporter " + i,
+                        new Need[] { needs[i % size], needs[(i + 1) % size] },
+                        new NeedMessage[] { new NeedMessage("admin", needs[i % size].getName(), "Thank you!") });
+
+            compare(dir, "needs", BinarySnapshot.NEEDS, needs);
+            compare(dir, "receipts", BinarySnapshot.RECEIPTS, receipts);
+            compare(dir, "supporters", BinarySnapshot.SUPPORTERS, supporters);
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.ufund.api.ufundapi.persistence;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ufund.api.ufundapi.model.Need;
+import com.ufund.api.ufundapi.model.NeedMessage;
+import com.ufund.api.ufundapi.model.NeedReceipt;
+import com.ufund.api.ufundapi.model.Supporter;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Test the Binary Snapshot class
+ *
+ * @author Ethan Hartman
+ */
+@Tag("Persistence-tier")
+public class BinarySnapshotTest {
+    ObjectMapper objectMapper = new ObjectMapper();
+
+    /**
+     * Writes the given records to a JSON file and its binary snapshot
+     */
+    private <T> File writeBoth(Path dir, BinarySnapshot.Codec<T> codec, T[] records) throws IOException {
+        File json = dir.resolve("store.json").toFile();
+        objectMapper.writeValue(json, records);
+        BinarySnapshot.write(codec, json, records);
+        return json;
+    }
+
+    @Test
+    public void testNeedsRoundTrip(@TempDir Path dir) throws IOException {
+        // Setup
+        Need[] needs = { new Need("Blankets", 20.5, 5), new Need("Café ☕", 2, 0), new Need(null, 1, 1) };
+        File json = writeBoth(dir, BinarySnapshot.NEEDS, needs);
+
+        // Invoke
+        Need[] read = BinarySnapshot.read(BinarySnapshot.NEEDS, json);
+
+        // Analyze
+        assertEquals(objectMapper.writeValueAsString(needs), objectMapper.writeValueAsString(read));
+    }
+
+    @Test
+    public void testReceiptsRoundTrip(@TempDir Path dir) throws IOException {
+        // Setup
+        NeedReceipt[] receipts = { new NeedReceipt("supporter", "Blankets", 41, 2),
+                new NeedReceipt("supporter", "Soap", 3.5, 7), new NeedReceipt("other", "Soap", 0.5, 1) };
+        File json = writeBoth(dir, BinarySnapshot.RECEIPTS, receipts);
+
+        // Invoke
+        NeedReceipt[] read = BinarySnapshot.read(BinarySnapshot.RECEIPTS, json);
+
+        // Analyze
+        assertEquals(objectMapper.writeValueAsString(receipts), objectMapper.writeValueAsString(read));
+    }
+
+    @Test
+    public void testSupportersRoundTrip(@TempDir Path dir) throws IOException {
+        // Setup
+        Supporter[] supporters = {
+                new Supporter("supporter", new Need[] { new Need("Soap", 3.5, 2) },
+                        new NeedMessage[] { new NeedMessage("admin", "Soap", "Thanks!") }),
+                new Supporter("empty", new Need[0], new NeedMessage[0]),
+                new Supporter("legacy", null, null) };
+        File json = writeBoth(dir, BinarySnapshot.SUPPORTERS, supporters);
+
+        // Invoke
+        Supporter[] read = BinarySnapshot.read(BinarySnapshot.SUPPORTERS, json);
+
+        // Analyze
+        assertEquals(objectMapper.writeValueAsString(supporters), objectMapper.writeValueAsString(read));
+    }
+
+    @Test
+    public void testDictionaryDeduplicates(@TempDir Path dir) throws IOException {
+        // Setup
+        NeedReceipt[] receipts = new NeedReceipt[1_000];
+        for (int i = 0; i < receipts.length; ++i)
+            receipts[i] = new NeedReceipt("a rather long supporter username", "a rather long need name", i, i);
+
+        // Invoke
+        File json = writeBoth(dir, BinarySnapshot.RECEIPTS, receipts);
+
+        // Analyze
+        assertTrue(BinarySnapshot.binaryFile(json).length() < json.length() / 2);
+    }
+
+    @Test
+    public void testStaleSnapshotIgnored(@TempDir Path dir) throws IOException {
+        // Setup
+        File json = writeBoth(dir, BinarySnapshot.NEEDS, new Need[] { new Need("Soap", 1, 1) });
+        objectMapper.writeValue(json, new Need[] { new Need("Soap", 1, 1), new Need("Soup", 2, 2) });
+
+        // Invoke & Analyze
+        assertNull(BinarySnapshot.read(BinarySnapshot.NEEDS, json));
+    }
+
+    @Test
+    public void testUnusableSnapshotsIgnored(@TempDir Path dir) throws IOException {
+        // Setup
+        File json = writeBoth(dir, BinarySnapshot.NEEDS, new Need[] { new Need("Soap", 1, 1) });
+
+        // Invoke & Analyze
+        assertNull(BinarySnapshot.read(BinarySnapshot.RECEIPTS, json)); // another store's codec
+        try (RandomAccessFile binary = new RandomAccessFile(BinarySnapshot.binaryFile(json), "rw")) {
+            binary.setLength(binary.length() - 3); // torn
+        }
+        assertNull(BinarySnapshot.read(BinarySnapshot.NEEDS, json));
+        BinarySnapshot.discard(json);
+        assertFalse(BinarySnapshot.binaryFile(json).exists());
+        assertNull(BinarySnapshot.read(BinarySnapshot.NEEDS, json));
+    }
+
+    @Test
+    public void testConvert(@TempDir Path dir) throws IOException {
+        // Setup
+        Need[] needs = { new Need("Blankets", 20.5, 5), new Need("Soap", 2, 3) };
+        File json = dir.resolve("needs.json").toFile();
+        objectMapper.writeValue(json, needs);
+        File converted = dir.resolve("converted.json").toFile();
+
+        // Invoke
+        BinarySnapshot.main(new String[] { "needs", json.getPath() });
+        BinarySnapshot.main(new String[] { "needs", json.getPath() + BinarySnapshot.SUFFIX, converted.getPath() });
+
+        // Analyze
+        assertEquals(2, BinarySnapshot.read(BinarySnapshot.NEEDS, json).length); // stamped with the input
+        assertEquals(objectMapper.writeValueAsString(needs),
+                objectMapper.writeValueAsString(objectMapper.readValue(converted, Need[].class)));
+    }
+
+    @Test
+    public void testConvertInvalid(@TempDir Path dir) throws IOException {
+        // Setup
+        File notBinary = dir.resolve("needs.json" + BinarySnapshot.SUFFIX).toFile();
+        objectMapper.writeValue(notBinary, new Need[0]);
+
+        // Invoke & Analyze
+        assertThrows(IllegalArgumentException.class,
+                () -> BinarySnapshot.main(new String[] { "pledges", notBinary.getPath() }));
+        assertThrows(IOException.class, () -> BinarySnapshot.main(new String[] { "needs", notBinary.getPath() }));
+    }
+}
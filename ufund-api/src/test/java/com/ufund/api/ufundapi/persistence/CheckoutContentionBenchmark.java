@@ -0,0 +1,125 @@
+package com.ufund.api.ufundapi.persistence;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ufund.api.ufundapi.model.Need;
+import com.ufund.api.ufundapi.model.NeedMessage;
+import com.ufund.api.ufundapi.model.NeedReceipt;
+import com.ufund.api.ufundapi.model.Supporter;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Measures many supporters concurrently checking out the same hot need
+ * <br>
+ * Each thread is a supporter signed in to the one User File DAO with their
+ * own session, which repeatedly puts one of the hot need in its basket and
+ * checks out. Checkouts reserve the need's stock with its atomic
+ * counter, and are compared against the same checkouts serialized behind one
+ * global lock, the only way the read, update and receipt calls could be made
+ * atomic with monitors. Every run checks that no funded quantity was lost.
+ * Run with {@code mvn test -P benchmark}
+ *
+ * @author Ethan Hartman
+ */
+@Tag("Benchmark")
+public class CheckoutContentionBenchmark {
+    private static final int[] THREADS = { 1, 4, 16, 64 };
+    private static final int CHECKOUTS = 4_000; // per run, split between the threads
+    private static final String HOT_NEED = "Hot";
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    /**
+     * Runs the checkouts with the given number of supporters
+     *
+     * @return the checkouts completed per second
+     */
+    private double timeCheckouts(Path dir, int threads, boolean globalLock) throws Exception {
+        File needs = dir.resolve("needs.json").toFile();
+        File receipts = dir.resolve("need_receipts.json").toFile();
+        objectMapper.writeValue(needs, new Need[] { new Need(HOT_NEED, 1, CHECKOUTS + 1) });
+        objectMapper.writeValue(receipts, new NeedReceipt[0]);
+        FileFlusher flusher = new FileFlusher();
+        NeedFileDAO needDao = new NeedFileDAO(needs.getPath(), NeedFileDAO.PERSISTENCE_SNAPSHOT,
+                NeedFileDAO.DEFAULT_CHECKPOINT_INTERVAL, "async", false, false, NeedChangeLog.DEFAULT_CAPACITY,
+                objectMapper, flusher, new StoreLoader());
+        NeedReceiptFileDAO needReceiptDao = new NeedReceiptFileDAO(receipts.getPath(), "async", false,
+                objectMapper, flusher, new StoreLoader());
+
+        File file = dir.resolve("supporters.json").toFile();
+        Supporter[] supporters = new Supporter[threads];
+        for (int i = 0; i < threads; ++i)
+            supporters[i] = new Supporter("Supporter " + i, new Need[0], new NeedMessage[0]);
+        objectMapper.writeValue(file, supporters);
+        UserFileDAO userDao = new UserFileDAO(file.getPath(), UserFileDAO.PERSISTENCE_FILE, "async", false,
+                UserSessions.DEFAULT_IDLE_MILLIS, objectMapper, needDao, needReceiptDao, flusher, new StoreLoader());
+        List<String> sessions = new ArrayList<>(threads);
+        for (Supporter supporter : supporters)
+            sessions.add(userDao.loginUser(supporter));
+
+        Object lock = new Object();
+        AtomicInteger funded = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<?>> runs = new ArrayList<>(threads);
+        for (String session : sessions) {
+            runs.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < CHECKOUTS / threads; ++i) {
+                    userDao.updateNeedInCurBasket(session, HOT_NEED, 1);
+                    boolean checkedOut;
+                    if (globalLock) {
+                        synchronized (lock) {
+                            checkedOut = userDao.checkoutCurBasket(session);
+                        }
+                    } else
+                        checkedOut = userDao.checkoutCurBasket(session);
+                    if (checkedOut)
+                        funded.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+
+        long begin = System.nanoTime();
+        start.countDown();
+        for (Future<?> run : runs)
+            run.get();
+        long elapsed = System.nanoTime() - begin;
+        executor.shutdown();
+        flusher.close();
+
+        // Every checkout which succeeded took exactly one from the hot need
+        assertEquals(CHECKOUTS + 1 - funded.get(), needDao.getNeed(HOT_NEED).getQuantity());
+        return funded.get() * 1e9 / elapsed;
+    }
+
+    @Test
+    public void benchmarkContention(@TempDir Path dir) throws Exception {
+        System.out.printf("%-10s %18s %18s%n", "threads", "atomic checkouts/s", "locked checkouts/s");
+        timeCheckouts(dir, 4, false); // warm up
+        timeCheckouts(dir, 4, true);
+        for (int threads : THREADS) {
+            double atomic = timeCheckouts(dir, threads, false);
+            double locked = timeCheckouts(dir, threads, true);
+            System.out.printf("%-10d %18.0f %18.0f%n", threads, atomic, locked);
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.ufund.api.ufundapi.persistence;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test the File Flusher class
+ *
+ * @author Ethan Hartman
+ */
+@Tag("Persistence-tier")
+public class FileFlusherTest {
+    private FileFlusher flusher;
+    private AtomicInteger writes;
+
+    /**
+     * Before each test, create a flusher whose interval is long enough that
+     * only explicit flushes and full batches write
+     */
+    @BeforeEach
+    public void setupFileFlusher() {
+        flusher = new FileFlusher(60_000, 4);
+        writes = new AtomicInteger();
+    }
+
+    @AfterEach
+    public void closeFileFlusher() {
+        flusher.close();
+    }
+
+    @Test
+    public void testParseDurability() {
+        assertEquals(FileFlusher.Durability.GROUP, FileFlusher.Durability.parse(" group "));
+        assertEquals(FileFlusher.Durability.ASYNC, FileFlusher.Durability.parse("ASYNC"));
+        assertThrows(IllegalArgumentException.class, () -> FileFlusher.Durability.parse("eventually"));
+    }
+
+    @Test
+    public void testSyncWritesInline() throws IOException {
+        // Setup
+        FileFlusher.Store store = flusher.register("test", FileFlusher.Durability.SYNC, writes::incrementAndGet);
+
+        // Invoke
+        CompletableFuture<Void> commit = store.commitAsync();
+        store.commit();
+
+        // Analyze
+        assertTrue(commit.isDone());
+        assertEquals(2, writes.get());
+    }
+
+    @Test
+    public void testSyncWriteException() {
+        // Setup
+        FileFlusher.Store store = flusher.register("test", FileFlusher.Durability.SYNC, () -> {
+            throw new IOException();
+        });
+
+        // Invoke & Analyze
+        assertThrows(IOException.class, () -> store.commit(), "IOException not thrown");
+    }
+
+    @Test
+    public void testAsyncCoalescesCommits() throws IOException {
+        // Setup
+        FileFlusher.Store store = flusher.register("test", FileFlusher.Durability.ASYNC, writes::incrementAndGet);
+
+        // Invoke
+        CompletableFuture<Void> first = store.commitAsync();
+        CompletableFuture<Void> second = store.commitAsync();
+        store.commit();
+
+        // Analyze
+        assertSame(first, second);
+        assertFalse(first.isDone());
+        assertEquals(0, writes.get());
+
+        store.flush();
+        assertTrue(first.isDone());
+        assertEquals(1, writes.get());
+    }
+
+    @Test
+    public void testBatchSizeForcesWrite() throws Exception {
+        // Setup
+        FileFlusher.Store store = flusher.register("test", FileFlusher.Durability.ASYNC, writes::incrementAndGet);
+
+        // Invoke
+        CompletableFuture<Void> commit = null;
+        for (int i = 0; i < 4; ++i)
+            commit = store.commitAsync();
+        commit.get();
+
+        // Analyze
+        assertEquals(1, writes.get());
+    }
+
+    @Test
+    public void testGroupCommitWaits() throws IOException {
+        // Setup
+        FileFlusher.Store store = flusher.register("test", FileFlusher.Durability.GROUP, writes::incrementAndGet);
+
+        // Invoke
+        CompletableFuture<Void> commit = store.commitAsync();
+        store.commitDurably();
+
+        // Analyze
+        assertTrue(commit.isDone());
+        assertEquals(1, writes.get());
+    }
+
+    @Test
+    public void testDeferredWriteException() {
+        // Setup
+        FileFlusher.Store store = flusher.register("test", FileFlusher.Durability.ASYNC, () -> {
+            throw new IOException();
+        });
+
+        // Invoke & Analyze
+        assertThrows(IOException.class, () -> store.commitDurably(), "IOException not thrown");
+    }
+
+    @Test
+    public void testCloseWritesPending() throws IOException {
+        // Setup
+        FileFlusher.Store store = flusher.register("test", FileFlusher.Durability.ASYNC, writes::incrementAndGet);
+        CompletableFuture<Void> commit = store.commitAsync();
+
+        // Invoke
+        flusher.close();
+
+        // Analyze
+        assertTrue(commit.isDone());
+        assertEquals(1, writes.get());
+    }
+
+    @Test
+    public void testCloseWaitsForRunningWrite() throws Exception {
+        // Setup
+        CountDownLatch started = new CountDownLatch(1);
+        FileFlusher.Store store = flusher.register("test", FileFlusher.Durability.ASYNC, () -> {
+            started.countDown();
+            try {
+                Thread.sleep(200);
+            } catch (InterruptedException e) {
+                throw new IOException(e);
+            }
+            writes.incrementAndGet();
+        });
+        CompletableFuture<Void> commit = store.commitAsync();
+        CompletableFuture.runAsync(() -> {
+            try {
+                store.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        started.await();
+
+        // Invoke
+        flusher.close();
+
+        // Analyze
+        assertTrue(commit.isDone());
+        assertEquals(1, writes.get());
+    }
+}
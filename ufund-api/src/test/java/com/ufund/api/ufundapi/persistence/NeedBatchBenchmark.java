@@ -0,0 +1,80 @@
+package com.ufund.api.ufundapi.persistence;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ufund.api.ufundapi.model.Need;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Compares importing a catalog one need at a time against importing it as a
+ * single batch
+ * <br>
+ * Per need imports rewrite the snapshot on every create, so they are only
+ * timed on the smaller catalog sizes. Run with {@code mvn test -P benchmark}
+ *
+ * @author Ethan Hartman
+ */
+@Tag("Benchmark")
+public class NeedBatchBenchmark {
+    private static final int[] IMPORT_SIZES = { 1_000, 5_000, 100_000 };
+    private static final int MAX_SINGLE_IMPORT = 5_000;
+
+    /**
+     * Creates an empty cupboard snapshot in the given directory
+     */
+    private static NeedFileDAO createDAO(Path dir, String persistence) throws IOException {
+        File snapshot = dir.resolve("needs-" + persistence + ".json").toFile();
+        new ObjectMapper().writeValue(snapshot, new Need[0]);
+        new File(snapshot.getPath() + NeedJournal.SUFFIX).delete();
+        return new NeedFileDAO(snapshot.getPath(), persistence, NeedFileDAO.DEFAULT_CHECKPOINT_INTERVAL, "sync",
+                false, false, NeedChangeLog.DEFAULT_CAPACITY, new ObjectMapper(), new FileFlusher(), new StoreLoader());
+    }
+
+    private static List<Need> catalog(int size) {
+        List<Need> catalog = new ArrayList<>(size);
+        for (int i = 0; i < size; ++i)
+            catalog.add(new Need("Need " + i, i % 100 + 0.5, i % 20 + 1));
+        return catalog;
+    }
+
+    /**
+     * @return the needs imported per second
+     */
+    private static double timeImport(Path dir, String persistence, List<Need> catalog, boolean batched)
+            throws IOException {
+        NeedFileDAO dao = createDAO(dir, persistence);
+        long start = System.nanoTime();
+        if (batched)
+            dao.createNeeds(catalog);
+        else
+            for (Need need : catalog)
+                dao.createNeed(need);
+        dao.flush();
+        return catalog.size() * 1e9 / (System.nanoTime() - start);
+    }
+
+    @Test
+    public void benchmarkImports(@TempDir Path dir) throws IOException {
+        System.out.printf("%-10s %-10s %-10s %14s%n", "needs", "mode", "import", "needs/s");
+        timeImport(dir, NeedFileDAO.PERSISTENCE_SNAPSHOT, catalog(10_000), true); // warm up
+        for (int size : IMPORT_SIZES) {
+            List<Need> catalog = catalog(size);
+            for (String persistence : new String[] { NeedFileDAO.PERSISTENCE_SNAPSHOT,
+                    NeedFileDAO.PERSISTENCE_JOURNAL }) {
+                if (size <= MAX_SINGLE_IMPORT)
+                    System.out.printf("%-10d %-10s %-10s %14.0f%n", size, persistence, "single",
+                            timeImport(dir, persistence, catalog, false));
+                System.out.printf("%-10d %-10s %-10s %14.0f%n", size, persistence, "batch",
+                        timeImport(dir, persistence, catalog, true));
+            }
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.ufund.api.ufundapi.persistence;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import com.ufund.api.ufundapi.model.Need;
+import com.ufund.api.ufundapi.model.NeedChange;
+import com.ufund.api.ufundapi.model.NeedDelta;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test the Need Change Log class
+ *
+ * @author Ethan Hartman
+ */
+@Tag("Persistence-tier")
+public class NeedChangeLogTest {
+    private NeedChangeLog log;
+
+    /**
+     * Before each test, create a log holding four changes starting at version 100
+     */
+    @BeforeEach
+    public void setupNeedChangeLog() {
+        log = new NeedChangeLog(4, 100);
+    }
+
+    private static NeedChange change(NeedChange.Type type, long version, String name, int quantity) {
+        return new NeedChange(type, version, new Need(name, 1, quantity));
+    }
+
+    private static String[] names(Need[] needs) {
+        String[] names = new String[needs.length];
+        for (int i = 0; i < needs.length; ++i)
+            names[i] = needs[i].getName();
+        return names;
+    }
+
+    @Test
+    public void testSinceCurrentVersion() {
+        // Invoke
+        NeedDelta delta = log.since(100);
+
+        // Analyze
+        assertFalse(delta.isResync());
+        assertEquals(100, delta.getVersion());
+        assertEquals(0, delta.getUpserts().length);
+        assertEquals(0, delta.getDeletes().length);
+    }
+
+    @Test
+    public void testSinceCollapsesChanges() {
+        // Setup
+        log.needChanged(change(NeedChange.Type.CREATED, 101, "Soap", 1));
+        log.needChanged(change(NeedChange.Type.UPDATED, 102, "Soap", 2));
+        log.needChanged(change(NeedChange.Type.CREATED, 103, "Tape", 1));
+        log.needChanged(change(NeedChange.Type.DELETED, 104, "Tape", 1));
+
+        // Invoke
+        NeedDelta fromStart = log.since(100);
+        NeedDelta fromMiddle = log.since(103);
+
+        // Analyze
+        assertEquals(104, fromStart.getVersion());
+        assertArrayEquals(new String[] { "Soap" }, names(fromStart.getUpserts()));
+        assertEquals(2, fromStart.getUpserts()[0].getQuantity()); // latest state only
+        assertArrayEquals(new String[] { "Tape" }, fromStart.getDeletes());
+        assertEquals(0, fromMiddle.getUpserts().length);
+        assertArrayEquals(new String[] { "Tape" }, fromMiddle.getDeletes());
+    }
+
+    @Test
+    public void testSinceUnknownVersion() {
+        // Invoke & Analyze
+        assertNull(log.since(99)); // before the log started
+        assertNull(log.since(101)); // not reached yet
+    }
+
+    @Test
+    public void testSinceRolledOver() {
+        // Setup
+        for (long version = 101; version <= 106; ++version)
+            log.needChanged(change(NeedChange.Type.UPDATED, version, "Need " + version, 1));
+
+        // Invoke & Analyze
+        assertNull(log.since(101)); // 102 was dropped
+        assertArrayEquals(new String[] { "Need 103", "Need 104", "Need 105", "Need 106" },
+                names(log.since(102).getUpserts()));
+    }
+
+    @Test
+    public void testSincePartlyDroppedBatch() {
+        // Setup
+        log.needChanged(change(NeedChange.Type.CREATED, 101, "A", 1));
+        log.needChanged(change(NeedChange.Type.CREATED, 101, "B", 1));
+        log.needChanged(change(NeedChange.Type.CREATED, 101, "C", 1));
+        log.needChanged(change(NeedChange.Type.UPDATED, 102, "D", 1));
+        log.needChanged(change(NeedChange.Type.UPDATED, 103, "E", 1)); // drops A of the batch
+
+        // Invoke & Analyze
+        assertNull(log.since(100));
+        assertArrayEquals(new String[] { "D", "E" }, names(log.since(101).getUpserts()));
+    }
+}
@@ -0,0 +1,71 @@
+package com.ufund.api.ufundapi.persistence;
+
+import com.ufund.api.ufundapi.model.Need;
+import com.ufund.api.ufundapi.model.NeedStats;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Measures the memory each {@linkplain Need need} takes and how long the
+ * cupboard's stats take to compute, with need objects against primitive
+ * {@link NeedColumns columns}
+ * <br>
+ * Names are created up front and shared, so the memory measured is only the
+ * cost and quantity representation. Run with {@code mvn test -P benchmark}
+ *
+ * @author Ethan Hartman
+ */
+@Tag("Benchmark")
+public class NeedColumnsBenchmark {
+    private static final int[] CATALOG_SIZES = { 10_000, 100_000, 1_000_000 };
+    private static final int ROUNDS = 20;
+
+    private static long usedMemory() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; ++i)
+            System.gc();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    /**
+     * @return the average time to compute the stats, in microseconds
+     */
+    private static double time(Runnable stats) {
+        for (int i = 0; i < ROUNDS; ++i) // warm up
+            stats.run();
+        long begin = System.nanoTime();
+        for (int i = 0; i < ROUNDS; ++i)
+            stats.run();
+        return (System.nanoTime() - begin) / 1e3 / ROUNDS;
+    }
+
+    @Test
+    public void benchmarkColumns() {
+        System.out.printf("%-10s %16s %16s %16s %16s%n", "needs", "object B/need", "columnar B/need",
+                "object stats us", "columnar stats us");
+        for (int size : CATALOG_SIZES) {
+            String[] names = new String[size];
+            for (int i = 0; i < size; ++i)
+                names[i] = "Need " + i;
+
+            long before = usedMemory();
+            Need[] needs = new Need[size];
+            for (int i = 0; i < size; ++i)
+                needs[i] = new Need(names[i], i % 10_000 / 100.0, i % 50);
+            long objects = usedMemory() - before;
+
+            before = usedMemory();
+            NeedColumns columns = new NeedColumns(needs);
+            long columnar = usedMemory() - before;
+
+            NeedStats[] blackhole = new NeedStats[1];
+            double objectTime = time(() -> blackhole[0] = NeedColumns.stats(needs));
+            double columnarTime = time(() -> blackhole[0] = columns.stats());
+            System.out.printf("%-10d %16.1f %16.1f %16.1f %16.1f%n", size, (double) objects / size,
+                    (double) columnar / size, objectTime, columnarTime);
+            if (blackhole[0].getCount() != columns.size())
+                throw new AssertionError("stats lost needs");
+        }
+    }
+}
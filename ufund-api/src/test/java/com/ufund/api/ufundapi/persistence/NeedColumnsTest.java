@@ -0,0 +1,80 @@
+package com.ufund.api.ufundapi.persistence;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import com.ufund.api.ufundapi.model.Need;
+import com.ufund.api.ufundapi.model.NeedStats;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test the Need Columns class
+ *
+ * @author Ethan Hartman
+ */
+@Tag("Persistence-tier")
+public class NeedColumnsTest {
+    private final Need[] needs = { new Need("Apple", 0.1, 0), new Need("Keyboard", 25.5, 3),
+            new Need("Steel", 1200, 1500) };
+
+    @Test
+    public void testColumnsById() {
+        // Invoke
+        NeedColumns columns = new NeedColumns(needs);
+
+        // Analyze
+        assertEquals(3, columns.size());
+        assertEquals(10, columns.getCents(0));
+        assertEquals(2550, columns.getCents(1));
+        assertEquals(1500, columns.getQuantity(2));
+    }
+
+    @Test
+    public void testStats() {
+        // Invoke
+        NeedStats stats = new NeedColumns(needs).stats();
+
+        // Analyze
+        assertEquals(3, stats.getCount());
+        assertEquals(2, stats.getInStock());
+        assertEquals(1503, stats.getUnits());
+        assertEquals(1_800_076.5, stats.getValue());
+        assertArrayEquals(new int[] { 1, 0, 1, 0, 1 }, stats.getCosts());
+        assertArrayEquals(new int[] { 1, 1, 0, 0, 1 }, stats.getQuantities());
+    }
+
+    @Test
+    public void testStatsMatchObjects() {
+        // Setup
+        Random random = new Random(261);
+        Need[] many = new Need[1000];
+        for (int i = 0; i < many.length; ++i)
+            many[i] = new Need("Need " + i, random.nextInt(200_000) / 100.0, random.nextInt(2000));
+
+        // Invoke
+        NeedStats columnar = new NeedColumns(many).stats();
+        NeedStats objects = NeedColumns.stats(many);
+
+        // Analyze
+        assertEquals(objects.toString(), columnar.toString());
+    }
+
+    @Test
+    public void testSnapshotColumns() {
+        // Invoke
+        NeedSnapshot columnar = NeedSnapshot.of(1, Arrays.asList(needs), true);
+        NeedSnapshot plain = NeedSnapshot.of(1, Arrays.asList(needs));
+
+        // Analyze
+        assertNotNull(columnar.getColumns());
+        assertNull(plain.getColumns());
+        assertEquals(plain.getStats().toString(), columnar.getStats().toString());
+    }
+}
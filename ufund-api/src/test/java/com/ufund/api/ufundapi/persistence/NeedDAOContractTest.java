@@ -0,0 +1,564 @@
+package com.ufund.api.ufundapi.persistence;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import javax.management.openmbean.KeyAlreadyExistsException;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ufund.api.ufundapi.exceptions.NeedVersionConflictException;
+import com.ufund.api.ufundapi.model.Need;
+import com.ufund.api.ufundapi.model.NeedBatchResult;
+import com.ufund.api.ufundapi.model.NeedChange;
+import com.ufund.api.ufundapi.model.NeedDelta;
+import com.ufund.api.ufundapi.model.NeedStats;
+import com.ufund.api.ufundapi.model.NeedSummary;
+import com.ufund.api.ufundapi.model.Page;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+/**
+ * Test the contract of the Need DAO interface against every need store, each
+ * opened from the same JSON file
+ *
+ * @author Ethan Hartman
+ */
+@Tag("Persistence-tier")
+public class NeedDAOContractTest {
+    /**
+     * The need stores the contract is run against
+     */
+    enum Store {
+        FILE {
+            NeedDAO open(File file, String durability, ObjectMapper objectMapper, FileFlusher flusher)
+                    throws IOException {
+                return new NeedFileDAO(file.getPath(), NeedFileDAO.PERSISTENCE_SNAPSHOT,
+                        NeedFileDAO.DEFAULT_CHECKPOINT_INTERVAL, durability, false, false,
+                        NeedChangeLog.DEFAULT_CAPACITY, objectMapper, flusher, new StoreLoader());
+            }
+
+            void close(NeedDAO needDao) throws IOException {
+                ((NeedFileDAO) needDao).close();
+            }
+        },
+        MAPPED {
+            NeedDAO open(File file, String durability, ObjectMapper objectMapper, FileFlusher flusher)
+                    throws IOException {
+                return new NeedMappedFileDAO(file.getPath(), durability, NeedChangeLog.DEFAULT_CAPACITY,
+                        objectMapper, flusher, new StoreLoader());
+            }
+
+            void close(NeedDAO needDao) throws IOException {
+                ((NeedMappedFileDAO) needDao).close();
+            }
+        };
+
+        abstract NeedDAO open(File file, String durability, ObjectMapper objectMapper, FileFlusher flusher)
+                throws IOException;
+
+        abstract void close(NeedDAO needDao) throws IOException;
+    }
+
+    @TempDir
+    Path dir;
+    File file;
+    ObjectMapper objectMapper = new ObjectMapper();
+    FileFlusher flusher = new FileFlusher();
+    Store store;
+    NeedDAO needDao;
+    Need[] testNeeds;
+
+    /**
+     * Before each test, we will write the test needs to a JSON file for the
+     * store to open
+     *
+     * @throws IOException
+     */
+    @BeforeEach
+    public void setupNeedDAO() throws IOException {
+        testNeeds = new Need[3];
+        testNeeds[0] = new Need("Test 0", 1.5, 1);
+        testNeeds[1] = new Need("Test 1", 2, 5);
+        testNeeds[2] = new Need("Test 12", 5, 15);
+        file = dir.resolve("needs.json").toFile();
+        objectMapper.writeValue(file, testNeeds);
+    }
+
+    @AfterEach
+    public void closeNeedDAO() throws IOException {
+        if (needDao != null)
+            store.close(needDao);
+        flusher.close();
+    }
+
+    /**
+     * Opens the given store, committing every mutation synchronously
+     */
+    private NeedDAO open(Store store) throws IOException {
+        this.store = store;
+        needDao = store.open(file, "sync", objectMapper, flusher);
+        return needDao;
+    }
+
+    /**
+     * Reopens the store from its files, without waiting for commits
+     */
+    private NeedDAO reopen(Store store) throws IOException {
+        store.close(needDao);
+        needDao = store.open(file, "async", objectMapper, flusher);
+        return needDao;
+    }
+
+    private static void assertNeed(Need expected, Need actual) {
+        assertEquals(expected.toString(), actual.toString());
+    }
+
+    private static void assertNeeds(List<Need> expected, List<Need> actual) {
+        assertEquals(expected.toString(), actual.toString());
+    }
+
+    @ParameterizedTest
+    @EnumSource(Store.class)
+    public void testGetNeeds(Store store) throws IOException {
+        // Setup
+        open(store);
+
+        // Invoke
+        Need[] needs = needDao.getNeeds();
+
+        // Analyze
+        assertNeeds(Arrays.asList(testNeeds), Arrays.asList(needs));
+    }
+
+    @ParameterizedTest
+    @EnumSource(Store.class)
+    public void testGetNeedsPaged(Store store) throws IOException {
+        // Setup
+        open(store);
+
+        // Invoke
+        Page<Need> first = needDao.getNeeds(null, 2);
+        needDao.deleteNeed(testNeeds[1].getName()); // the cursor survives its need
+        Page<Need> second = needDao.getNeeds(first.getNext(), 2);
+
+        // Analyze
+        assertNeeds(List.of(testNeeds[0], testNeeds[1]), first.getItems());
+        assertNeeds(List.of(testNeeds[2]), second.getItems());
+        assertNull(second.getNext());
+    }
+
+    @ParameterizedTest
+    @EnumSource(Store.class)
+    public void testFindNeedsInRange(Store store) throws IOException {
+        // Setup
+        open(store);
+
+        // Invoke
+        Page<Need> byCost = needDao.findNeedsInRange(NeedOrder.COST, 2.0, null, null, 10);
+        Page<Need> byQuantity = needDao.findNeedsInRange(NeedOrder.QUANTITY, null, 5.0, null, 10);
+
+        // Analyze
+        assertNeeds(List.of(testNeeds[1], testNeeds[2]), byCost.getItems());
+        assertNull(byCost.getNext());
+        assertNeeds(List.of(testNeeds[1], testNeeds[0]), byQuantity.getItems());
+        assertThrows(IllegalArgumentException.class,
+                () -> needDao.findNeedsInRange(NeedOrder.NAME, null, null, null, 10));
+    }
+
+    @ParameterizedTest
+    @EnumSource(Store.class)
+    public void testFindNeeds(Store store) throws IOException {
+        // Setup
+        open(store);
+
+        // Invoke
+        Need[] needs = needDao.findNeeds("1");
+        Need[] insensitive = needDao.findNeeds("test 1", true);
+
+        // Analyze
+        assertNeeds(List.of(testNeeds[1], testNeeds[2]), Arrays.asList(needs));
+        assertNeeds(List.of(testNeeds[1], testNeeds[2]), Arrays.asList(insensitive));
+        assertEquals(0, needDao.findNeeds("test 1").length);
+    }
+
+    @ParameterizedTest
+    @EnumSource(Store.class)
+    public void testSuggestNeeds(Store store) throws IOException {
+        // Setup
+        open(store);
+        needDao.createNeed(new Need("Other", 0.5, 100));
+
+        // Invoke & Analyze
+        assertArrayEquals(new String[] { "Test 1", "Test 12" }, needDao.suggestNeeds("Test 1", 10,
+                NeedOrder.NAME));
+        assertArrayEquals(new String[] { "Test 0", "Test 1" }, needDao.suggestNeeds("Test", 2,
+                NeedOrder.NAME));
+        assertArrayEquals(new String[] { "Test 12", "Test 1" }, needDao.suggestNeeds("Test", 2,
+                NeedOrder.QUANTITY));
+        assertEquals(0, needDao.suggestNeeds("Test", 0, NeedOrder.COST).length);
+    }
+
+    @ParameterizedTest
+    @EnumSource(Store.class)
+    public void testGetNeed(Store store) throws IOException {
+        // Setup
+        open(store);
+
+        // Invoke & Analyze
+        assertNeed(testNeeds[0], needDao.getNeed(testNeeds[0].getName()));
+        assertNull(needDao.getNeed("Not real need"));
+    }
+
+    @ParameterizedTest
+    @EnumSource(Store.class)
+    public void testGetNeedsNamed(Store store) throws IOException {
+        // Setup
+        open(store);
+
+        // Invoke
+        Map<String, Need> needs = needDao.getNeeds(List.of(testNeeds[2].getName(), "Not real need",
+                testNeeds[0].getName()));
+
+        // Analyze
+        assertNeeds(List.of(testNeeds[2], testNeeds[0]), new ArrayList<>(needs.values()));
+        assertEquals(List.of(testNeeds[2].getName(), testNeeds[0].getName()), new ArrayList<>(needs.keySet()));
+    }
+
+    @ParameterizedTest
+    @EnumSource(Store.class)
+    public void testCreateNeed(Store store) throws IOException {
+        // Setup
+        open(store);
+        Need need = new Need("Test New", 16, 25);
+        long version = needDao.getVersion();
+
+        // Invoke
+        Need result = needDao.createNeed(need);
+
+        // Analyze
+        assertEquals(need, result);
+        assertNeed(need, needDao.getNeed(need.getName()));
+        assertTrue(needDao.getVersion() > version);
+        assertThrows(KeyAlreadyExistsException.class, () -> needDao.createNeed(need));
+    }
+
+    @ParameterizedTest
+    @EnumSource(Store.class)
+    public void testCreateNeedReservedName(Store store) throws IOException {
+        // Setup
+        open(store);
+        Need need = new Need("suggest", 16, 25);
+        long version = needDao.getVersion();
+
+        // Invoke
+        assertThrows(KeyAlreadyExistsException.class, () -> needDao.createNeed(need));
+
+        // Analyze
+        assertNull(needDao.getNeed(need.getName()));
+        assertEquals(version, needDao.getVersion());
+        assertEquals(NeedBatchResult.Status.CONFLICT,
+                needDao.createNeeds(List.of(need))[0].getStatus());
+    }
+
+    @ParameterizedTest
+    @EnumSource(Store.class)
+    public void testUpdateNeed(Store store) throws IOException {
+        // Setup
+        open(store);
+        Need need = new Need(testNeeds[0].getName(), 16, 25);
+
+        // Invoke
+        Need result = needDao.updateNeed(need);
+
+        // Analyze
+        assertEquals(need, result);
+        assertNeed(need, needDao.getNeed(need.getName()));
+        assertNull(needDao.updateNeed(new Need("Not real need", 24, 22222)));
+    }
+
+    @ParameterizedTest
+    @EnumSource(Store.class)
+    public void testUpdateNeedIfVersion(Store store) throws IOException, NeedVersionConflictException {
+        // Setup
+        open(store);
+        Need stored = needDao.getNeed(testNeeds[0].getName());
+        Need need = new Need(stored.getName(), 16, 25);
+
+        // Invoke
+        Need result = needDao.updateNeed(need, stored.getVersion());
+
+        // Analyze
+        assertEquals(need, result);
+        assertTrue(result.getVersion() > stored.getVersion());
+        assertEquals(result.getVersion(), needDao.getNeed(need.getName()).getVersion());
+        assertEquals(need.toString(), needDao.getNeed(need.getName()).toString());
+    }
+
+    @ParameterizedTest
+    @EnumSource(Store.class)
+    public void testUpdateNeedIfVersionConflict(Store store) throws IOException, NeedVersionConflictException {
+        // Setup
+        open(store);
+        Need stored = needDao.getNeed(testNeeds[0].getName());
+        needDao.updateNeed(new Need(stored.getName(), 16, 25), stored.getVersion());
+
+        // Invoke & Analyze
+        assertThrows(NeedVersionConflictException.class,
+                () -> needDao.updateNeed(new Need(stored.getName(), 1, 1), stored.getVersion()));
+        assertEquals(25, needDao.getNeed(stored.getName()).getQuantity());
+        assertNull(needDao.updateNeed(new Need("Not real need", 1, 1), stored.getVersion()));
+    }
+
+    @ParameterizedTest
+    @EnumSource(Store.class)
+    public void testDeleteNeedIfVersion(Store store) throws IOException, NeedVersionConflictException {
+        // Setup
+        open(store);
+        Need stored = needDao.getNeed(testNeeds[0].getName());
+        needDao.updateNeed(new Need(stored.getName(), 16, 25));
+
+        // Invoke & Analyze
+        assertThrows(NeedVersionConflictException.class,
+                () -> needDao.deleteNeed(stored.getName(), stored.getVersion()));
+        assertNotNull(needDao.getNeed(stored.getName()));
+        long version = needDao.getNeed(stored.getName()).getVersion();
+        assertTrue(needDao.deleteNeed(stored.getName(), version));
+        assertNull(needDao.getNeed(stored.getName()));
+        assertFalse(needDao.deleteNeed(stored.getName(), stored.getVersion()));
+    }
+
+    @ParameterizedTest
+    @EnumSource(Store.class)
+    public void testCreatedNeedsStamped(Store store) throws IOException {
+        // Setup
+        open(store);
+        Need need = new Need("Stamped", 1, 1);
+
+        // Invoke
+        needDao.createNeed(need);
+
+        // Analyze
+        assertEquals(needDao.getVersion(), need.getVersion());
+        assertEquals(needDao.getVersion(), needDao.getNeed(need.getName()).getVersion());
+    }
+
+    @ParameterizedTest
+    @EnumSource(Store.class)
+    public void testReserveNeeds(Store store) throws IOException {
+        // Setup
+        open(store);
+
+        // Invoke & Analyze
+        assertTrue(needDao.reserveNeed(testNeeds[1].getName(), 2));
+        assertEquals(3, needDao.getNeed(testNeeds[1].getName()).getQuantity());
+        assertFalse(needDao.reserveNeeds(Map.of(testNeeds[1].getName(), 2, testNeeds[2].getName(), 16)));
+        assertEquals(3, needDao.getNeed(testNeeds[1].getName()).getQuantity());
+        assertTrue(needDao.reserveNeeds(Map.of(testNeeds[0].getName(), 1, testNeeds[2].getName(), 5)));
+        assertNull(needDao.getNeed(testNeeds[0].getName()));
+        assertEquals(10, needDao.getNeed(testNeeds[2].getName()).getQuantity());
+        assertThrows(IllegalArgumentException.class, () -> needDao.reserveNeed(testNeeds[1].getName(), -1));
+    }
+
+    @ParameterizedTest
+    @EnumSource(Store.class)
+    public void testReserveNeedsEmpty(Store store) throws IOException {
+        // Setup
+        open(store);
+        long version = needDao.getVersion();
+
+        // Invoke & Analyze
+        assertTrue(needDao.reserveNeeds(Map.of()));
+        assertEquals(version, needDao.getVersion());
+    }
+
+    @ParameterizedTest
+    @EnumSource(Store.class)
+    public void testReserveNeedsNeverOversell(Store store) throws Exception {
+        // Setup
+        open(store);
+        Need[] hot = { new Need("Hot 0", 1, 500), new Need("Hot 1", 2, 2000) };
+        needDao.createNeeds(Arrays.asList(hot));
+
+        // Invoke & Analyze
+        NeedFileDAOTest.assertNeverOversold(reopen(store), hot);
+    }
+
+    @ParameterizedTest
+    @EnumSource(Store.class)
+    public void testDeleteNeed(Store store) throws IOException {
+        // Setup
+        open(store);
+
+        // Invoke & Analyze
+        assertTrue(needDao.deleteNeed(testNeeds[0].getName()));
+        assertFalse(needDao.deleteNeed(testNeeds[0].getName()));
+        assertEquals(testNeeds.length - 1, needDao.getNeeds().length);
+    }
+
+    @ParameterizedTest
+    @EnumSource(Store.class)
+    public void testBatches(Store store) throws IOException {
+        // Setup
+        open(store);
+
+        // Invoke
+        NeedBatchResult[] rejected = needDao.createNeeds(
+                List.of(new Need("Batch 0", 1, 2), new Need(testNeeds[0].getName(), 3, 4)));
+        NeedBatchResult[] created = needDao.createNeeds(
+                List.of(new Need("Batch 0", 1, 2), new Need("Batch 1", 3, 4)));
+        NeedBatchResult[] updated = needDao.updateNeeds(List.of(new Need("Batch 1", 5, 6)));
+
+        // Analyze
+        assertEquals(NeedBatchResult.Status.CONFLICT, rejected[1].getStatus());
+        assertEquals(NeedBatchResult.Status.CREATED, created[0].getStatus());
+        assertEquals(NeedBatchResult.Status.UPDATED, updated[0].getStatus());
+        assertNeed(new Need("Batch 1", 5, 6), needDao.getNeed("Batch 1"));
+        assertEquals(testNeeds.length + 2, needDao.getNeeds().length);
+    }
+
+    @ParameterizedTest
+    @EnumSource(Store.class)
+    public void testChangeListener(Store store) throws IOException {
+        // Setup
+        open(store);
+        List<NeedChange> changes = new ArrayList<>();
+        NeedChangeListener listener = changes::add;
+        needDao.addChangeListener(listener);
+        Need created = new Need("Test New", 16, 25);
+        Need updated = new Need("Test 1", 3, 4);
+
+        // Invoke
+        needDao.createNeed(created);
+        needDao.updateNeed(updated);
+        needDao.createNeeds(List.of(new Need("Test A", 1, 1), new Need("Test B", 2, 2)));
+        needDao.deleteNeed("Test 0");
+        needDao.updateNeed(new Need("Not Found", 1, 1));
+        needDao.removeChangeListener(listener);
+        needDao.deleteNeed("Test 12");
+
+        // Analyze
+        assertEquals(5, changes.size());
+        assertEquals(NeedChange.Type.CREATED, changes.get(0).getType());
+        assertEquals(created.toString(), changes.get(0).getNeed().toString());
+        assertEquals(NeedChange.Type.UPDATED, changes.get(1).getType());
+        assertEquals(updated.toString(), changes.get(1).getNeed().toString());
+        assertEquals(NeedChange.Type.CREATED, changes.get(2).getType());
+        assertEquals(changes.get(2).getVersion(), changes.get(3).getVersion()); // one version per batch
+        assertEquals(NeedChange.Type.DELETED, changes.get(4).getType());
+        assertEquals(testNeeds[0].toString(), changes.get(4).getNeed().toString());
+        assertTrue(changes.get(0).getVersion() < changes.get(1).getVersion());
+        assertTrue(changes.get(1).getVersion() < changes.get(2).getVersion());
+        assertTrue(changes.get(3).getVersion() < changes.get(4).getVersion());
+        assertTrue(changes.get(4).getVersion() < needDao.getVersion());
+    }
+
+    @ParameterizedTest
+    @EnumSource(Store.class)
+    public void testGetNeedStats(Store store) throws IOException {
+        // Setup
+        open(store);
+        needDao.createNeed(new Need("Test New", 1000, 1000));
+
+        // Invoke
+        NeedStats stats = needDao.getNeedStats();
+
+        // Analyze
+        assertEquals(4, stats.getCount());
+        assertEquals(4, stats.getInStock());
+        assertEquals(1021, stats.getUnits());
+        assertEquals(1_000_086.5, stats.getValue());
+        assertArrayEquals(new int[] { 0, 3, 0, 0, 1 }, stats.getCosts());
+        assertArrayEquals(new int[] { 0, 2, 1, 0, 1 }, stats.getQuantities());
+    }
+
+    @ParameterizedTest
+    @EnumSource(Store.class)
+    public void testGetNeedSummary(Store store) throws IOException {
+        // Setup
+        open(store);
+        needDao.createNeed(new Need("Test New", 1000, 1000));
+        needDao.reserveNeed("Test 1", 1);
+        needDao.deleteNeed("Test 0");
+
+        // Invoke
+        NeedSummary summary = needDao.getNeedSummary();
+        NeedSummary reopened = reopen(store).getNeedSummary();
+
+        // Analyze
+        assertEquals(new NeedSummary(3, 1019, 1_000_083, 1).toString(), summary.toString());
+        assertEquals(summary.toString(), reopened.toString());
+    }
+
+    @ParameterizedTest
+    @EnumSource(Store.class)
+    public void testGetNeedSummaryTracksChanges(Store store) throws IOException {
+        // Setup
+        open(store);
+
+        // Invoke & Analyze
+        NeedFileDAOTest.assertSummaryTracksChanges(needDao);
+    }
+
+    @ParameterizedTest
+    @EnumSource(Store.class)
+    public void testGetNeedsSince(Store store) throws IOException {
+        // Setup
+        open(store);
+        long start = needDao.getVersion();
+        needDao.updateNeed(new Need("Test 1", 3, 4));
+        needDao.deleteNeed("Test 0");
+        needDao.createNeed(new Need("Test New", 16, 25));
+
+        // Invoke
+        NeedDelta delta = needDao.getNeedsSince(start);
+        NeedDelta current = needDao.getNeedsSince(needDao.getVersion());
+
+        // Analyze
+        assertFalse(delta.isResync());
+        assertEquals(needDao.getVersion(), delta.getVersion());
+        assertEquals(2, delta.getUpserts().length);
+        assertEquals("Test 1", delta.getUpserts()[0].getName());
+        assertEquals("Test New", delta.getUpserts()[1].getName());
+        assertArrayEquals(new String[] { "Test 0" }, delta.getDeletes());
+        assertEquals(0, current.getUpserts().length);
+        assertEquals(0, current.getDeletes().length);
+    }
+
+    @ParameterizedTest
+    @EnumSource(Store.class)
+    public void testGetNeedsSinceResync(Store store) throws IOException {
+        // Setup
+        open(store);
+        long start = needDao.getVersion();
+        for (int i = 0; i <= NeedChangeLog.DEFAULT_CAPACITY; ++i)
+            needDao.updateNeed(new Need("Test 1", 2, i));
+
+        // Invoke
+        NeedDelta stale = needDao.getNeedsSince(start);
+        NeedDelta unknown = needDao.getNeedsSince(start - 1);
+
+        // Analyze
+        assertTrue(stale.isResync());
+        assertEquals(needDao.getVersion(), stale.getVersion());
+        assertEquals(testNeeds.length, stale.getUpserts().length);
+        assertTrue(unknown.isResync());
+    }
+}
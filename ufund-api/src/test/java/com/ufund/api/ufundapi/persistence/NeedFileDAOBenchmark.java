@@ -0,0 +1,81 @@
+package com.ufund.api.ufundapi.persistence;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ufund.api.ufundapi.model.Need;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Compares the write latency and throughput of the Need File DAO persistence
+ * modes and snapshot durabilities
+ * <br>
+ * Run with {@code mvn test -P benchmark}
+ *
+ * @author Ethan Hartman
+ */
+@Tag("Benchmark")
+public class NeedFileDAOBenchmark {
+    private static final int[] CATALOG_SIZES = { 1_000, 10_000, 50_000 };
+    private static final int MUTATIONS = 500;
+
+    /**
+     * Writes a snapshot file holding a catalog of the given size
+     */
+    private static File writeCatalog(Path dir, int size) throws IOException {
+        Need[] catalog = new Need[size];
+        for (int i = 0; i < size; ++i)
+            catalog[i] = new Need("Need " + i, i % 100 + 0.5, i % 20 + 1);
+        File snapshot = dir.resolve("needs-" + size + ".json").toFile();
+        new ObjectMapper().writeValue(snapshot, catalog);
+        return snapshot;
+    }
+
+    private static final String[][] MODES = {
+            { NeedFileDAO.PERSISTENCE_SNAPSHOT, "sync" },
+            { NeedFileDAO.PERSISTENCE_SNAPSHOT, "async" },
+            { NeedFileDAO.PERSISTENCE_JOURNAL, "sync" } };
+
+    /**
+     * Times the given number of updates against a fresh DAO, including the wait
+     * for them all to be written
+     *
+     * @return the mean nanoseconds per mutation
+     */
+    private static double timeMutations(File snapshot, String persistence, String durability) throws IOException {
+        File journal = new File(snapshot.getPath() + NeedJournal.SUFFIX);
+        journal.delete();
+        FileFlusher flusher = new FileFlusher();
+        NeedFileDAO dao = new NeedFileDAO(snapshot.getPath(), persistence,
+                NeedFileDAO.DEFAULT_CHECKPOINT_INTERVAL, durability, false, false, NeedChangeLog.DEFAULT_CAPACITY,
+                new ObjectMapper(), flusher, new StoreLoader());
+
+        long start = System.nanoTime();
+        for (int i = 0; i < MUTATIONS; ++i)
+            dao.updateNeed(new Need("Need " + i, i % 100 + 0.5, i % 20 + 2));
+        dao.flush();
+        long elapsed = System.nanoTime() - start;
+        flusher.close();
+        return elapsed / (double) MUTATIONS;
+    }
+
+    @Test
+    public void benchmarkMutations(@TempDir Path dir) throws IOException {
+        System.out.printf("%-10s %-10s %-10s %14s %14s%n", "catalog", "mode", "durability", "us/mutation",
+                "mutations/s");
+        for (int size : CATALOG_SIZES) {
+            File snapshot = writeCatalog(dir, size);
+            for (String[] mode : MODES) {
+                timeMutations(snapshot, mode[0], mode[1]); // warm up
+                double nanos = timeMutations(snapshot, mode[0], mode[1]);
+                System.out.printf("%-10d %-10s %-10s %14.1f %14.0f%n", size, mode[0], mode[1], nanos / 1_000,
+                        1e9 / nanos);
+            }
+        }
+    }
+}
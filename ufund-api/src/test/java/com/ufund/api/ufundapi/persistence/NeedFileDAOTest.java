@@ -1,27 +1,57 @@
 package com.ufund.api.ufundapi.persistence;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.io.File;
+import java.io.FileWriter;
 import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.StringJoiner;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReference;
 
 import javax.management.openmbean.KeyAlreadyExistsException;
 
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ufund.api.ufundapi.exceptions.NeedVersionConflictException;
 import com.ufund.api.ufundapi.model.Need;
+import com.ufund.api.ufundapi.model.NeedBatchResult;
+import com.ufund.api.ufundapi.model.NeedChange;
+import com.ufund.api.ufundapi.model.NeedDelta;
+import com.ufund.api.ufundapi.model.NeedStats;
+import com.ufund.api.ufundapi.model.NeedSummary;
+import com.ufund.api.ufundapi.model.Page;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 /**
  * Test the Need File DAO class
@@ -50,12 +80,101 @@ public class NeedFileDAOTest {
 
         // When the object mapper is supposed to read from the file
         // the mock object mapper will return the need array above
-        when(mockObjectMapper
-                .readValue(new File("doesnt_matter.txt"), Need[].class))
-                .thenReturn(testNeeds);
+        mockJsonArray(mockObjectMapper, "doesnt_matter.txt", Need.class, testNeeds);
         needFileDAO = new NeedFileDAO("doesnt_matter.txt", mockObjectMapper);
     }
 
+    /**
+     * Makes the mock object mapper stream the given elements from the given file,
+     * as the file DAOs read it
+     * <br>
+     * The parser walks an array of indexes, which the mock maps back to the
+     * elements themselves
+     */
+    static <T> void mockJsonArray(ObjectMapper mockObjectMapper, String filename, Class<T> type, T[] elements)
+            throws IOException {
+        StringJoiner indexes = new StringJoiner(",", "[", "]");
+        for (int i = 0; i < elements.length; ++i)
+            indexes.add(Integer.toString(i));
+        ObjectMapper objectMapper = new ObjectMapper();
+        when(mockObjectMapper.createParser(new File(filename)))
+                .thenAnswer(invocation -> objectMapper.createParser(indexes.toString()));
+        when(mockObjectMapper.readValue(any(JsonParser.class), eq(type)))
+                .thenAnswer(invocation -> elements[invocation.<JsonParser>getArgument(0).getIntValue()]);
+    }
+
+    /**
+     * Applies random creates, updates, batches, reservations and deletes,
+     * checking after each that the summary equals a full recomputation
+     */
+    static void assertSummaryTracksChanges(NeedDAO dao) throws IOException {
+        Random random = new Random(261);
+        for (int i = 0; i < 500; ++i) {
+            Need[] stored = dao.getNeeds();
+            Need pick = stored.length > 0 ? stored[random.nextInt(stored.length)] : null;
+            double cost = random.nextInt(100_000) / (random.nextBoolean() ? 100.0 : 300.0);
+            int quantity = random.nextInt(12);
+            int op = pick == null ? 0 : random.nextInt(6);
+            if (op == 0)
+                dao.createNeed(new Need("Random " + i, cost, quantity));
+            else if (op == 1)
+                dao.updateNeed(new Need(pick.getName(), cost, quantity));
+            else if (op == 2) {
+                pick.setQuantity(quantity); // modified in place before it is updated
+                dao.updateNeed(pick);
+            } else if (op == 3)
+                dao.updateNeeds(List.of(new Need(pick.getName(), cost, quantity)));
+            else if (op == 4 && pick.getQuantity() > 0)
+                dao.reserveNeed(pick.getName(), random.nextInt(pick.getQuantity()) + 1);
+            else
+                dao.deleteNeed(pick.getName());
+
+            NeedSummary expected = NeedTotals.of(dao.getNeeds()).toSummary();
+            assertEquals(expected.toString(), dao.getNeedSummary().toString(), "after operation " + i);
+        }
+    }
+
+    /**
+     * Reserves random quantities of the given needs, alone and together, from
+     * many threads at once, then checks every unit reserved was taken from
+     * the stored quantity and none beyond it
+     */
+    static void assertNeverOversold(NeedDAO dao, Need... needs) throws Exception {
+        int threads = 16;
+        AtomicIntegerArray reserved = new AtomicIntegerArray(needs.length);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<?>> runs = new ArrayList<>(threads);
+        for (int t = 0; t < threads; ++t) {
+            runs.add(executor.submit(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < 500; ++i) {
+                    Map<String, Integer> quantities = new HashMap<>();
+                    int[] taken = new int[needs.length];
+                    for (int n = 0; n < needs.length; ++n) {
+                        if (quantities.isEmpty() || random.nextBoolean()) {
+                            taken[n] = random.nextInt(1, 4);
+                            quantities.put(needs[n].getName(), taken[n]);
+                        }
+                    }
+                    if (dao.reserveNeeds(quantities))
+                        for (int n = 0; n < needs.length; ++n)
+                            reserved.addAndGet(n, taken[n]);
+                }
+                return null;
+            }));
+        }
+        for (Future<?> run : runs)
+            run.get();
+        executor.shutdown();
+
+        for (int n = 0; n < needs.length; ++n) {
+            Need stored = dao.getNeed(needs[n].getName());
+            int remaining = stored != null ? stored.getQuantity() : 0;
+            assertTrue(remaining >= 0);
+            assertEquals(needs[n].getQuantity(), reserved.get(n) + remaining, needs[n].getName());
+        }
+    }
+
     @Test
     public void testGetNeeds() {
         // Invoke
@@ -67,6 +186,138 @@ public class NeedFileDAOTest {
             assertEquals(needs[i], testNeeds[i]);
     }
 
+    @Test
+    public void testGetNeedsPaged() {
+        // Invoke
+        Page<Need> first = needFileDAO.getNeeds(null, 2);
+        Page<Need> second = needFileDAO.getNeeds(first.getNext(), 2);
+
+        // Analyze
+        assertEquals(List.of(testNeeds[0], testNeeds[1]), first.getItems());
+        assertEquals(List.of(testNeeds[2]), second.getItems());
+        assertNull(second.getNext());
+    }
+
+    @Test
+    public void testGetNeedsPagedAfterDelete() throws IOException {
+        // Setup
+        Page<Need> first = needFileDAO.getNeeds(null, 2);
+
+        // Invoke
+        needFileDAO.deleteNeed(testNeeds[1].getName());
+        Page<Need> second = needFileDAO.getNeeds(first.getNext(), 2);
+
+        // Analyze
+        assertEquals(List.of(testNeeds[2]), second.getItems());
+    }
+
+    @Test
+    public void testGetNeedsPagedInvalid() {
+        // Invoke & Analyze
+        assertThrows(IllegalArgumentException.class, () -> needFileDAO.getNeeds(null, 0));
+        assertThrows(IllegalArgumentException.class, () -> needFileDAO.getNeeds("%%", 2));
+    }
+
+    @Test
+    public void testFindNeedsInRange() {
+        // Invoke
+        Page<Need> byCost = needFileDAO.findNeedsInRange(NeedOrder.COST, 2.0, null, null, 10);
+        Page<Need> byQuantity = needFileDAO.findNeedsInRange(NeedOrder.QUANTITY, null, 5.0, null, 10);
+
+        // Analyze
+        assertEquals(List.of(testNeeds[1], testNeeds[2]), byCost.getItems());
+        assertNull(byCost.getNext());
+        assertEquals(List.of(testNeeds[1], testNeeds[0]), byQuantity.getItems());
+    }
+
+    @Test
+    public void testFindNeedsInRangeInvalid() {
+        // Invoke & Analyze
+        assertThrows(IllegalArgumentException.class,
+                () -> needFileDAO.findNeedsInRange(NeedOrder.NAME, null, null, null, 10));
+        assertThrows(IllegalArgumentException.class,
+                () -> needFileDAO.findNeedsInRange(NeedOrder.COST, null, null, Page.encodeCursor("x", "y"), 10));
+    }
+
+    @Test
+    public void testFindNeedsInRangeMatchesOracle() throws IOException {
+        Random random = new Random(261);
+        for (int step = 0; step < 2_000; ++step) {
+            // Setup
+            String name = "Need " + random.nextInt(150);
+            Need need = new Need(name, random.nextInt(40) / 4.0, random.nextInt(30));
+            switch (random.nextInt(3)) {
+                case 0:
+                    needFileDAO.deleteNeed(name);
+                    break;
+                case 1:
+                    if (needFileDAO.updateNeed(need) != null)
+                        break;
+                default:
+                    if (needFileDAO.getNeed(name) == null)
+                        needFileDAO.createNeed(need);
+            }
+            if (step % 20 != 0)
+                continue;
+
+            NeedOrder order = random.nextBoolean() ? NeedOrder.COST : NeedOrder.QUANTITY;
+            double bound = order == NeedOrder.COST ? 10 : 30;
+            Double min = random.nextBoolean() ? random.nextInt((int) bound) * 1.0 : null;
+            Double max = random.nextBoolean() ? random.nextInt((int) bound) * 1.0 : null;
+
+            // Invoke
+            List<Need> actual = new ArrayList<>();
+            String cursor = null;
+            do {
+                Page<Need> page = needFileDAO.findNeedsInRange(order, min, max, cursor, 1 + random.nextInt(7));
+                actual.addAll(page.getItems());
+                cursor = page.getNext();
+            } while (cursor != null);
+
+            // Analyze
+            List<Need> expected = new ArrayList<>();
+            for (Need candidate : needFileDAO.getNeeds()) {
+                double value = order == NeedOrder.COST ? candidate.getCost() : candidate.getQuantity();
+                if ((min == null || value >= min) && (max == null || value <= max))
+                    expected.add(candidate);
+            }
+            expected.sort(order.comparator());
+            assertEquals(expected, actual, order + " between " + min + " and " + max);
+        }
+    }
+
+    @Test
+    public void testVersionIncreases() throws IOException {
+        // Setup
+        long loaded = needFileDAO.getVersion();
+
+        // Invoke
+        needFileDAO.createNeed(new Need("Test New", 16, 25));
+        long created = needFileDAO.getVersion();
+        needFileDAO.getNeeds();
+        needFileDAO.deleteNeed("Missing");
+
+        // Analyze
+        assertTrue(created > loaded);
+        assertEquals(created, needFileDAO.getVersion());
+    }
+
+    @Test
+    public void testGetNeedsSnapshotIsolation() throws IOException {
+        // Setup
+        Need[] before = needFileDAO.getNeeds();
+
+        // Invoke
+        needFileDAO.deleteNeed(testNeeds[0].getName());
+        needFileDAO.createNeed(new Need("Test New", 16, 25));
+
+        // Analyze
+        assertEquals(testNeeds.length, before.length);
+        assertEquals(testNeeds[0], before[0]);
+        assertEquals(testNeeds.length, needFileDAO.getNeeds().length);
+        assertEquals(testNeeds[1], needFileDAO.getNeeds()[0]);
+    }
+
     @Test
     public void testFindNeeds() {
         // Invoke
@@ -78,6 +329,65 @@ public class NeedFileDAOTest {
         assertEquals(needs[1], testNeeds[2]);
     }
 
+    @Test
+    public void testFindNeedsIgnoreCase() {
+        // Invoke
+        Need[] sensitive = needFileDAO.findNeeds("test 1");
+        Need[] insensitive = needFileDAO.findNeeds("test 1", true);
+
+        // Analyze
+        assertEquals(0, sensitive.length);
+        assertEquals(2, insensitive.length);
+        assertEquals(testNeeds[1], insensitive[0]);
+        assertEquals(testNeeds[2], insensitive[1]);
+    }
+
+    @Test
+    public void testFindNeedsAfterMutations() throws IOException {
+        // Setup
+        Need need = new Need("Another Test", 3, 4);
+
+        // Invoke
+        needFileDAO.createNeed(need);
+        needFileDAO.deleteNeed(testNeeds[1].getName());
+        Need[] needs = needFileDAO.findNeeds("Test");
+
+        // Analyze
+        assertEquals(3, needs.length);
+        assertEquals(need, needs[0]);
+        assertEquals(testNeeds[0], needs[1]);
+        assertEquals(testNeeds[2], needs[2]);
+    }
+
+    @Test
+    public void testSuggestNeeds() {
+        // Invoke
+        String[] byName = needFileDAO.suggestNeeds("Test 1", 10, NeedOrder.NAME);
+        String[] limited = needFileDAO.suggestNeeds("Test", 2, NeedOrder.NAME);
+        String[] none = needFileDAO.suggestNeeds("Tests", 10, NeedOrder.NAME);
+
+        // Analyze
+        assertArrayEquals(new String[] { "Test 1", "Test 12" }, byName);
+        assertArrayEquals(new String[] { "Test 0", "Test 1" }, limited);
+        assertEquals(0, none.length);
+    }
+
+    @Test
+    public void testSuggestNeedsRanked() throws IOException {
+        // Setup
+        needFileDAO.createNeed(new Need("Other", 0.5, 100));
+
+        // Invoke
+        String[] byQuantity = needFileDAO.suggestNeeds("Test", 2, NeedOrder.QUANTITY);
+        String[] byCost = needFileDAO.suggestNeeds("Test", 3, NeedOrder.COST);
+        String[] empty = needFileDAO.suggestNeeds("Test", 0, NeedOrder.COST);
+
+        // Analyze
+        assertArrayEquals(new String[] { "Test 12", "Test 1" }, byQuantity);
+        assertArrayEquals(new String[] { "Test 0", "Test 1", "Test 12" }, byCost);
+        assertEquals(0, empty.length);
+    }
+
     @Test
     public void testGetNeed() {
         // Invoke
@@ -87,6 +397,18 @@ public class NeedFileDAOTest {
         assertEquals(need, testNeeds[0]);
     }
 
+    @Test
+    public void testGetNeedsNamed() {
+        // Invoke
+        Map<String, Need> needs = needFileDAO.getNeeds(List.of(testNeeds[2].getName(), "Not real need",
+                testNeeds[0].getName()));
+
+        // Analzye
+        assertEquals(List.of(testNeeds[2].getName(), testNeeds[0].getName()), new ArrayList<>(needs.keySet()));
+        assertEquals(testNeeds[2], needs.get(testNeeds[2].getName()));
+        assertEquals(testNeeds[0], needs.get(testNeeds[0].getName()));
+    }
+
     @Test
     public void testDeleteNeed() {
         // Invoke
@@ -130,6 +452,34 @@ public class NeedFileDAOTest {
                 "KeyAlreadyExistsException not thrown");
     }
 
+    @Test
+    public void testCreateNeedReservedName() throws IOException {
+        // Setup
+        Need need = new Need("summary", 16, 25);
+
+        // Invoke
+        assertThrows(KeyAlreadyExistsException.class,
+                () -> needFileDAO.createNeed(need),
+                "KeyAlreadyExistsException not thrown");
+
+        // Analyze
+        assertNull(needFileDAO.getNeed(need.getName()));
+    }
+
+    @Test
+    public void testCreateNeedsReservedName() throws IOException {
+        // Setup
+        List<Need> batch = Arrays.asList(new Need("Batch 0", 1, 2), new Need("stream", 3, 4));
+
+        // Invoke
+        NeedBatchResult[] results = needFileDAO.createNeeds(batch);
+
+        // Analyze
+        assertEquals(NeedBatchResult.Status.VALID, results[0].getStatus());
+        assertEquals(NeedBatchResult.Status.CONFLICT, results[1].getStatus());
+        assertNull(needFileDAO.getNeed("Batch 0"));
+    }
+
     @Test
     public void testUpdateNeed() {
         // Setup
@@ -145,6 +495,269 @@ public class NeedFileDAOTest {
         assertEquals(actual, need);
     }
 
+    @Test
+    public void testUpdateNeedIfVersion() throws IOException, NeedVersionConflictException {
+        // Setup
+        Need stored = needFileDAO.getNeed(testNeeds[0].getName());
+        Need need = new Need(stored.getName(), 16, 25);
+
+        // Invoke
+        Need result = needFileDAO.updateNeed(need, stored.getVersion());
+
+        // Analyze
+        assertEquals(need, result);
+        assertTrue(result.getVersion() > stored.getVersion());
+        assertEquals(result.getVersion(), needFileDAO.getNeed(need.getName()).getVersion());
+        assertEquals(need.toString(), needFileDAO.getNeed(need.getName()).toString());
+    }
+
+    @Test
+    public void testUpdateNeedIfVersionConflict() throws IOException, NeedVersionConflictException {
+        // Setup
+        Need stored = needFileDAO.getNeed(testNeeds[0].getName());
+        needFileDAO.updateNeed(new Need(stored.getName(), 16, 25), stored.getVersion());
+
+        // Invoke & Analyze
+        assertThrows(NeedVersionConflictException.class,
+                () -> needFileDAO.updateNeed(new Need(stored.getName(), 1, 1), stored.getVersion()));
+        assertEquals(25, needFileDAO.getNeed(stored.getName()).getQuantity());
+        assertNull(needFileDAO.updateNeed(new Need("Not real need", 1, 1), stored.getVersion()));
+    }
+
+    @Test
+    public void testDeleteNeedIfVersion() throws IOException, NeedVersionConflictException {
+        // Setup
+        Need stored = needFileDAO.getNeed(testNeeds[0].getName());
+        needFileDAO.updateNeed(new Need(stored.getName(), 16, 25));
+
+        // Invoke & Analyze
+        assertThrows(NeedVersionConflictException.class,
+                () -> needFileDAO.deleteNeed(stored.getName(), stored.getVersion()));
+        assertNotNull(needFileDAO.getNeed(stored.getName()));
+        assertTrue(needFileDAO.deleteNeed(stored.getName(), needFileDAO.getNeed(stored.getName()).getVersion()));
+        assertNull(needFileDAO.getNeed(stored.getName()));
+        assertFalse(needFileDAO.deleteNeed(stored.getName(), stored.getVersion()));
+    }
+
+    @Test
+    public void testCreatedNeedsStamped() throws IOException {
+        // Setup
+        Need need = new Need("Stamped", 1, 1);
+
+        // Invoke
+        needFileDAO.createNeed(need);
+
+        // Analyze
+        assertEquals(needFileDAO.getVersion(), need.getVersion());
+        assertEquals(needFileDAO.getVersion(), needFileDAO.getNeed(need.getName()).getVersion());
+    }
+
+    @Test
+    public void testReserveNeed() throws IOException {
+        // Invoke & Analyze
+        assertTrue(needFileDAO.reserveNeed(testNeeds[1].getName(), 2));
+        assertEquals(3, needFileDAO.getNeed(testNeeds[1].getName()).getQuantity());
+        assertFalse(needFileDAO.reserveNeed(testNeeds[1].getName(), 4));
+        assertEquals(3, needFileDAO.getNeed(testNeeds[1].getName()).getQuantity());
+        assertFalse(needFileDAO.reserveNeed("Not real need", 1));
+        assertThrows(IllegalArgumentException.class, () -> needFileDAO.reserveNeed(testNeeds[1].getName(), 0));
+    }
+
+    @Test
+    public void testReserveNeedsAllOrNothing() throws IOException {
+        // Setup
+        long version = needFileDAO.getVersion();
+
+        // Invoke
+        boolean reserved = needFileDAO.reserveNeeds(Map.of(testNeeds[1].getName(), 2, testNeeds[2].getName(), 16));
+
+        // Analyze
+        assertFalse(reserved);
+        assertEquals(5, needFileDAO.getNeed(testNeeds[1].getName()).getQuantity());
+        assertEquals(15, needFileDAO.getNeed(testNeeds[2].getName()).getQuantity());
+        assertTrue(needFileDAO.getVersion() >= version);
+    }
+
+    @Test
+    public void testReserveNeedsSoldOut() throws IOException {
+        // Setup
+        long version = needFileDAO.getVersion();
+
+        // Invoke
+        boolean reserved = needFileDAO.reserveNeeds(Map.of(testNeeds[0].getName(), 1, testNeeds[2].getName(), 5));
+
+        // Analyze
+        assertTrue(reserved);
+        assertNull(needFileDAO.getNeed(testNeeds[0].getName()));
+        assertEquals(10, needFileDAO.getNeed(testNeeds[2].getName()).getQuantity());
+        assertEquals(version + 1, needFileDAO.getVersion());
+        assertEquals(needFileDAO.getVersion(), needFileDAO.getNeed(testNeeds[2].getName()).getVersion());
+        assertEquals(2, needFileDAO.findNeeds("Test").length);
+    }
+
+    @Test
+    public void testReserveNeedAfterUpdate() throws IOException {
+        // Setup
+        needFileDAO.updateNeed(new Need(testNeeds[0].getName(), 1.5, 4));
+
+        // Invoke & Analyze
+        assertTrue(needFileDAO.reserveNeed(testNeeds[0].getName(), 3));
+        assertEquals(1, needFileDAO.getNeed(testNeeds[0].getName()).getQuantity());
+        needFileDAO.deleteNeed(testNeeds[0].getName());
+        assertFalse(needFileDAO.reserveNeed(testNeeds[0].getName(), 1));
+    }
+
+    @Test
+    public void testReserveNeedReplacedMeanwhile() throws Exception {
+        // Setup
+        String name = testNeeds[1].getName();
+        AtomicReference<Thread> reserver = new AtomicReference<>();
+        ExecutorService executor = Executors.newSingleThreadExecutor(task -> {
+            reserver.set(new Thread(task));
+            return reserver.get();
+        });
+        Future<Boolean> reservation;
+
+        // Invoke
+        synchronized (needFileDAO.needs) {
+            reservation = executor.submit(() -> needFileDAO.reserveNeed(name, 2));
+            while (reserver.get() == null || reserver.get().getState() != Thread.State.BLOCKED)
+                Thread.sleep(1); // wait until the stock is taken and the lock is wanted
+            needFileDAO.deleteNeed(name);
+            needFileDAO.createNeed(new Need(name, 2, 7));
+        }
+        boolean reserved = reservation.get();
+        executor.shutdown();
+
+        // Analyze
+        assertTrue(reserved);
+        assertEquals(5, needFileDAO.getNeed(name).getQuantity()); // taken from the need created again
+    }
+
+    @Test
+    public void testReserveNeedUpdatedMeanwhile() throws Exception {
+        // Setup
+        String name = testNeeds[1].getName();
+        AtomicReference<Thread> reserver = new AtomicReference<>();
+        ExecutorService executor = Executors.newSingleThreadExecutor(task -> {
+            reserver.set(new Thread(task));
+            return reserver.get();
+        });
+        Future<Boolean> reservation;
+
+        // Invoke
+        synchronized (needFileDAO.needs) {
+            reservation = executor.submit(() -> needFileDAO.reserveNeed(name, 2));
+            while (reserver.get() == null || reserver.get().getState() != Thread.State.BLOCKED)
+                Thread.sleep(1); // wait until the stock is taken and the lock is wanted
+            needFileDAO.updateNeed(new Need(name, 2, 7)); // restocked by an admin
+        }
+        boolean reserved = reservation.get();
+        executor.shutdown();
+
+        // Analyze
+        assertTrue(reserved);
+        assertEquals(5, needFileDAO.getNeed(name).getQuantity()); // taken from the restocked quantity
+    }
+
+    @Test
+    public void testReserveNeedsEmpty() throws IOException {
+        // Setup
+        long version = needFileDAO.getVersion();
+
+        // Invoke & Analyze
+        assertTrue(needFileDAO.reserveNeeds(Map.of()));
+        assertEquals(version, needFileDAO.getVersion());
+    }
+
+    @Test
+    public void testReserveNeedsNeverOversell(@TempDir Path dir) throws Exception {
+        // Setup
+        Need[] hot = { new Need("Hot 0", 1, 500), new Need("Hot 1", 2, 2000), new Need("Hot 2", 3, 3000) };
+        File file = dir.resolve("needs.json").toFile();
+        new ObjectMapper().writeValue(file, hot);
+        NeedFileDAO dao = new NeedFileDAO(file.getPath(), new ObjectMapper());
+
+        // Invoke & Analyze
+        assertNeverOversold(dao, hot);
+    }
+
+    @Test
+    public void testCreateNeeds() throws IOException {
+        // Setup
+        List<Need> batch = List.of(new Need("Batch 0", 1, 2), new Need("Batch 1", 3, 4));
+
+        // Invoke
+        NeedBatchResult[] results = needFileDAO.createNeeds(batch);
+
+        // Analyze
+        assertEquals(2, results.length);
+        assertEquals(NeedBatchResult.Status.CREATED, results[1].getStatus());
+        assertEquals("Batch 1", results[1].getName());
+        assertEquals(batch.get(0), needFileDAO.getNeed("Batch 0"));
+        assertEquals(1, needFileDAO.findNeeds("Batch 1").length);
+        verify(mockObjectMapper, times(1)).writeValue(any(File.class), any(Need[].class));
+    }
+
+    @Test
+    public void testCreateNeedsAllOrNothing() throws IOException {
+        // Setup
+        List<Need> batch = Arrays.asList(new Need("Batch 0", 1, 2), new Need(testNeeds[0].getName(), 3, 4),
+                new Need("Batch 0", 5, 6), new Need("", 1, 1), new Need("Batch 1", -1, 1), null);
+        long version = needFileDAO.getVersion();
+
+        // Invoke
+        NeedBatchResult[] results = needFileDAO.createNeeds(batch);
+
+        // Analyze
+        assertEquals(NeedBatchResult.Status.VALID, results[0].getStatus());
+        assertEquals(NeedBatchResult.Status.CONFLICT, results[1].getStatus());
+        assertEquals(NeedBatchResult.Status.DUPLICATE, results[2].getStatus());
+        assertEquals(NeedBatchResult.Status.INVALID, results[3].getStatus());
+        assertEquals(NeedBatchResult.Status.INVALID, results[4].getStatus());
+        assertEquals(NeedBatchResult.Status.INVALID, results[5].getStatus());
+        assertNull(needFileDAO.getNeed("Batch 0"));
+        assertEquals(version, needFileDAO.getVersion());
+        verify(mockObjectMapper, never()).writeValue(any(File.class), any(Need[].class));
+    }
+
+    @Test
+    public void testUpdateNeeds() throws IOException {
+        // Setup
+        List<Need> batch = List.of(new Need(testNeeds[0].getName(), 8, 9), new Need(testNeeds[2].getName(), 1, 1));
+
+        // Invoke
+        NeedBatchResult[] results = needFileDAO.updateNeeds(batch);
+
+        // Analyze
+        assertEquals(NeedBatchResult.Status.UPDATED, results[0].getStatus());
+        assertEquals(9, needFileDAO.getNeed(testNeeds[0].getName()).getQuantity());
+        assertEquals(testNeeds[2].getName(),
+                needFileDAO.findNeedsInRange(NeedOrder.COST, null, 1.0, null, 10).getItems().get(0).getName());
+        verify(mockObjectMapper, times(1)).writeValue(any(File.class), any(Need[].class));
+    }
+
+    @Test
+    public void testUpdateNeedsNotFound() throws IOException {
+        // Setup
+        List<Need> batch = List.of(new Need(testNeeds[0].getName(), 8, 9), new Need("Not real need", 1, 1));
+
+        // Invoke
+        NeedBatchResult[] results = needFileDAO.updateNeeds(batch);
+
+        // Analyze
+        assertEquals(NeedBatchResult.Status.VALID, results[0].getStatus());
+        assertEquals(NeedBatchResult.Status.NOT_FOUND, results[1].getStatus());
+        assertEquals(testNeeds[0].getQuantity(), needFileDAO.getNeed(testNeeds[0].getName()).getQuantity());
+    }
+
+    @Test
+    public void testCreateNeedsEmpty() throws IOException {
+        // Invoke & Analyze
+        assertEquals(0, needFileDAO.createNeeds(List.of()).length);
+        verify(mockObjectMapper, never()).writeValue(any(File.class), any(Need[].class));
+    }
+
     @Test
     public void testSaveException() throws IOException {
         doThrow(new IOException())
@@ -198,16 +811,307 @@ public class NeedFileDAOTest {
         // We want to simulate with a Mock Object Mapper that an
         // exception was raised during JSON object deseerialization
         // into Java objects
-        // When the Mock Object Mapper readValue method is called
+        // When the Mock Object Mapper createParser method is called
         // from the NeedFileDAO load method, an IOException is
         // raised
         doThrow(new IOException())
                 .when(mockObjectMapper)
-                .readValue(new File("doesnt_matter.txt"), Need[].class);
+                .createParser(new File("doesnt_matter.txt"));
 
         // Invoke & Analyze
         assertThrows(IOException.class,
                 () -> new NeedFileDAO("doesnt_matter.txt", mockObjectMapper),
                 "IOException not thrown");
     }
+
+    /**
+     * Creates a journaled Need File DAO over a real snapshot file holding the
+     * test needs
+     */
+    private NeedFileDAO createJournaledDAO(Path dir, int checkpointInterval) throws IOException {
+        File snapshot = dir.resolve("needs.json").toFile();
+        if (!snapshot.exists())
+            new ObjectMapper().writeValue(snapshot, testNeeds);
+        return new NeedFileDAO(snapshot.getPath(), NeedFileDAO.PERSISTENCE_JOURNAL, checkpointInterval, "sync",
+                false, false, NeedChangeLog.DEFAULT_CAPACITY, new ObjectMapper(), new FileFlusher(), new StoreLoader());
+    }
+
+    @Test
+    public void testJournalReplay(@TempDir Path dir) throws IOException {
+        // Setup
+        NeedFileDAO journaled = createJournaledDAO(dir, 100);
+        journaled.createNeed(new Need("Test New", 16, 25));
+        journaled.updateNeed(new Need(testNeeds[1].getName(), 3, 7));
+        journaled.deleteNeed(testNeeds[0].getName());
+
+        // Invoke
+        NeedFileDAO reloaded = createJournaledDAO(dir, 100);
+
+        // Analyze
+        Need[] snapshot = new ObjectMapper().readValue(dir.resolve("needs.json").toFile(), Need[].class);
+        assertEquals(testNeeds.length, snapshot.length); // nothing checkpointed yet
+        assertEquals(3, reloaded.needs.size());
+        assertNull(reloaded.getNeed(testNeeds[0].getName()));
+        assertEquals(7, reloaded.getNeed(testNeeds[1].getName()).getQuantity());
+        assertEquals(16, reloaded.getNeed("Test New").getCost());
+    }
+
+    @Test
+    public void testJournalCheckpoint(@TempDir Path dir) throws IOException {
+        // Setup
+        NeedFileDAO journaled = createJournaledDAO(dir, 2);
+
+        // Invoke
+        journaled.createNeed(new Need("Test New", 16, 25));
+        journaled.deleteNeed(testNeeds[0].getName());
+
+        // Analyze
+        Need[] snapshot = new ObjectMapper().readValue(dir.resolve("needs.json").toFile(), Need[].class);
+        assertEquals(testNeeds.length, snapshot.length);
+        assertEquals("Test New", snapshot[2].getName());
+        assertEquals(0, dir.resolve("needs.json" + NeedJournal.SUFFIX).toFile().length());
+    }
+
+    @Test
+    public void testJournalBatch(@TempDir Path dir) throws IOException {
+        // Setup
+        NeedFileDAO journaled = createJournaledDAO(dir, 100);
+        File journal = dir.resolve("needs.json" + NeedJournal.SUFFIX).toFile();
+
+        // Invoke
+        journaled.createNeeds(List.of(new Need("Batch 0", 1, 2), new Need("Batch 1", 3, 4)));
+        NeedFileDAO reloaded = createJournaledDAO(dir, 100);
+        journaled.createNeeds(List.of(new Need("Batch 2", 1, 2), new Need("Batch 3", 3, 4)));
+        List<Need> large = new ArrayList<>();
+        for (int i = 0; i < 100; ++i)
+            large.add(new Need("Large " + i, i, i));
+        journaled.createNeeds(large);
+
+        // Analyze
+        assertEquals(testNeeds.length + 2, reloaded.needs.size());
+        Need[] snapshot = new ObjectMapper().readValue(dir.resolve("needs.json").toFile(), Need[].class);
+        assertEquals(testNeeds.length + 104, snapshot.length); // checkpointed instead of journaled
+        assertEquals(0, journal.length());
+    }
+
+    @Test
+    public void testJournalTornRecord(@TempDir Path dir) throws IOException {
+        // Setup
+        NeedFileDAO journaled = createJournaledDAO(dir, 100);
+        journaled.createNeed(new Need("Test New", 16, 25));
+        try (FileWriter writer = new FileWriter(dir.resolve("needs.json" + NeedJournal.SUFFIX).toFile(), true)) {
+            writer.write("{\"op\":\"put\",\"need\":{\"name\":\"Torn"); // crash mid append
+        }
+
+        // Invoke
+        NeedFileDAO reloaded = createJournaledDAO(dir, 100);
+
+        // Analyze
+        assertEquals(testNeeds.length + 1, reloaded.needs.size());
+        assertNull(reloaded.getNeed("Torn"));
+    }
+
+    @Test
+    public void testJournalCorrupt(@TempDir Path dir) throws IOException {
+        // Setup
+        createJournaledDAO(dir, 100);
+        try (FileWriter writer = new FileWriter(dir.resolve("needs.json" + NeedJournal.SUFFIX).toFile())) {
+            writer.write("not a record\n{\"op\":\"delete\",\"name\":\"Test 0\"}\n");
+        }
+
+        // Invoke & Analyze
+        assertThrows(IOException.class, () -> createJournaledDAO(dir, 100), "IOException not thrown");
+    }
+
+    @Test
+    public void testBinarySnapshot(@TempDir Path dir) throws IOException {
+        // Setup
+        File file = dir.resolve("needs.json").toFile();
+        new ObjectMapper().writeValue(file, testNeeds);
+        NeedFileDAO dao = new NeedFileDAO(file.getPath(), NeedFileDAO.PERSISTENCE_SNAPSHOT, 1, "sync", true, false,
+                NeedChangeLog.DEFAULT_CAPACITY, new ObjectMapper(), new FileFlusher(), new StoreLoader());
+        dao.createNeed(new Need("Test New", 16, 25));
+        assertFalse(BinarySnapshot.binaryFile(file).exists()); // discarded, not rewritten, by the save
+        dao.close();
+        doThrow(new IOException()).when(mockObjectMapper).createParser(any(File.class));
+
+        // Invoke
+        NeedFileDAO reloaded = new NeedFileDAO(file.getPath(), NeedFileDAO.PERSISTENCE_SNAPSHOT, 1, "sync", true, false,
+                NeedChangeLog.DEFAULT_CAPACITY, mockObjectMapper, new FileFlusher(), new StoreLoader());
+
+        // Analyze
+        assertEquals(testNeeds.length + 1, reloaded.getNeeds().length); // read from the binary snapshot
+        assertEquals(16, reloaded.getNeed("Test New").getCost());
+    }
+
+    @Test
+    public void testUnknownPersistence() {
+        // Invoke & Analyze
+        assertThrows(IllegalArgumentException.class,
+                () -> new NeedFileDAO("doesnt_matter.txt", "carrier pigeon", 1, "sync", false, false,
+                        NeedChangeLog.DEFAULT_CAPACITY, mockObjectMapper, new FileFlusher(), new StoreLoader()),
+                "IllegalArgumentException not thrown");
+    }
+
+    @Test
+    public void testChangeListener() throws IOException {
+        // Setup
+        List<NeedChange> changes = new ArrayList<>();
+        NeedChangeListener listener = changes::add;
+        needFileDAO.addChangeListener(listener);
+        Need created = new Need("Test New", 16, 25);
+        Need updated = new Need("Test 1", 3, 4);
+
+        // Invoke
+        needFileDAO.createNeed(created);
+        needFileDAO.updateNeed(updated);
+        needFileDAO.createNeeds(List.of(new Need("Test A", 1, 1), new Need("Test B", 2, 2)));
+        needFileDAO.deleteNeed("Test 0");
+        needFileDAO.updateNeed(new Need("Not Found", 1, 1));
+        needFileDAO.removeChangeListener(listener);
+        needFileDAO.deleteNeed("Test 12");
+
+        // Analyze
+        assertEquals(5, changes.size());
+        assertEquals(NeedChange.Type.CREATED, changes.get(0).getType());
+        assertEquals(created.toString(), changes.get(0).getNeed().toString());
+        assertEquals(NeedChange.Type.UPDATED, changes.get(1).getType());
+        assertEquals(updated.toString(), changes.get(1).getNeed().toString());
+        assertEquals(NeedChange.Type.CREATED, changes.get(2).getType());
+        assertEquals(changes.get(2).getVersion(), changes.get(3).getVersion()); // one version per batch
+        assertEquals(NeedChange.Type.DELETED, changes.get(4).getType());
+        assertEquals(testNeeds[0].toString(), changes.get(4).getNeed().toString());
+        assertTrue(changes.get(0).getVersion() < changes.get(1).getVersion());
+        assertTrue(changes.get(1).getVersion() < changes.get(2).getVersion());
+        assertTrue(changes.get(3).getVersion() < changes.get(4).getVersion());
+        assertTrue(changes.get(4).getVersion() < needFileDAO.getVersion());
+    }
+
+    @Test
+    public void testGetNeedStats() throws IOException {
+        // Setup
+        needFileDAO.createNeed(new Need("Test New", 1000, 1000));
+
+        // Invoke
+        NeedStats stats = needFileDAO.getNeedStats();
+
+        // Analyze
+        assertEquals(4, stats.getCount());
+        assertEquals(4, stats.getInStock());
+        assertEquals(1021, stats.getUnits());
+        assertEquals(1_000_086.5, stats.getValue());
+        assertArrayEquals(new int[] { 0, 3, 0, 0, 1 }, stats.getCosts());
+        assertArrayEquals(new int[] { 0, 2, 1, 0, 1 }, stats.getQuantities());
+    }
+
+    @Test
+    public void testGetNeedStatsColumnar() throws IOException {
+        // Setup
+        NeedFileDAO columnar = new NeedFileDAO("doesnt_matter.txt", NeedFileDAO.PERSISTENCE_SNAPSHOT, 1, "sync",
+                false, true, NeedChangeLog.DEFAULT_CAPACITY, mockObjectMapper, new FileFlusher(), new StoreLoader());
+        columnar.updateNeed(new Need("Test 1", 2000, 0));
+
+        // Invoke
+        NeedStats stats = columnar.getNeedStats();
+
+        // Analyze
+        assertEquals(2, stats.getInStock());
+        assertEquals(16, stats.getUnits());
+        assertEquals(76.5, stats.getValue());
+        assertArrayEquals(new int[] { 0, 2, 0, 0, 1 }, stats.getCosts());
+        assertArrayEquals(new int[] { 1, 1, 1, 0, 0 }, stats.getQuantities());
+    }
+
+    @Test
+    public void testPatchedSnapshotsMatchRebuild() throws IOException {
+        // Setup
+        NeedFileDAO columnar = new NeedFileDAO("doesnt_matter.txt", NeedFileDAO.PERSISTENCE_SNAPSHOT, 1, "sync",
+                false, true, NeedChangeLog.DEFAULT_CAPACITY, mockObjectMapper, new FileFlusher(), new StoreLoader());
+        Random random = new Random(3);
+
+        for (int i = 0; i < 300; ++i) {
+            // Invoke
+            String name = "Test " + random.nextInt(20);
+            Need stored = columnar.getNeed(name);
+            int op = random.nextInt(3);
+            if (stored == null)
+                columnar.createNeed(new Need(name, random.nextInt(1000) / 4.0, random.nextInt(10) + 1));
+            else if (op == 0)
+                columnar.updateNeed(new Need(name, random.nextInt(1000) / 4.0, random.nextInt(10)));
+            else if (op == 1 && stored.getQuantity() > 0)
+                columnar.reserveNeed(name, random.nextInt(stored.getQuantity()) + 1);
+            else
+                columnar.deleteNeed(name);
+
+            // Analyze
+            Need[] needs = columnar.getNeeds();
+            for (int n = 1; n < needs.length; ++n)
+                assertTrue(needs[n - 1].getName().compareTo(needs[n].getName()) < 0, "after operation " + i);
+            for (Need need : needs)
+                assertEquals(need, columnar.getNeed(need.getName()));
+            assertEquals(NeedColumns.stats(needs).toString(), columnar.getNeedStats().toString(),
+                    "after operation " + i);
+        }
+    }
+
+    @Test
+    public void testGetNeedSummary() throws IOException {
+        // Setup
+        needFileDAO.createNeed(new Need("Test New", 1000, 1000));
+        needFileDAO.reserveNeed("Test 1", 1);
+        needFileDAO.deleteNeed("Test 0");
+
+        // Invoke
+        NeedSummary summary = needFileDAO.getNeedSummary();
+
+        // Analyze
+        assertEquals(new NeedSummary(3, 1019, 1_000_083, 1).toString(), summary.toString());
+    }
+
+    @Test
+    public void testGetNeedSummaryTracksChanges() throws IOException {
+        // Invoke & Analyze
+        assertSummaryTracksChanges(needFileDAO);
+    }
+
+    @Test
+    public void testGetNeedsSince() throws IOException {
+        // Setup
+        long start = needFileDAO.getVersion();
+        needFileDAO.updateNeed(new Need("Test 1", 3, 4));
+        needFileDAO.deleteNeed("Test 0");
+        needFileDAO.createNeed(new Need("Test New", 16, 25));
+
+        // Invoke
+        NeedDelta delta = needFileDAO.getNeedsSince(start);
+        NeedDelta current = needFileDAO.getNeedsSince(needFileDAO.getVersion());
+
+        // Analyze
+        assertFalse(delta.isResync());
+        assertEquals(needFileDAO.getVersion(), delta.getVersion());
+        assertEquals(2, delta.getUpserts().length);
+        assertEquals("Test 1", delta.getUpserts()[0].getName());
+        assertEquals("Test New", delta.getUpserts()[1].getName());
+        assertArrayEquals(new String[] { "Test 0" }, delta.getDeletes());
+        assertEquals(0, current.getUpserts().length);
+        assertEquals(0, current.getDeletes().length);
+    }
+
+    @Test
+    public void testGetNeedsSinceResync() throws IOException {
+        // Setup
+        long start = needFileDAO.getVersion();
+        for (int i = 0; i <= NeedChangeLog.DEFAULT_CAPACITY; ++i)
+            needFileDAO.updateNeed(new Need("Test 1", 2, i));
+
+        // Invoke
+        NeedDelta stale = needFileDAO.getNeedsSince(start);
+        NeedDelta unknown = needFileDAO.getNeedsSince(start - 1);
+
+        // Analyze
+        assertTrue(stale.isResync());
+        assertEquals(needFileDAO.getVersion(), stale.getVersion());
+        assertEquals(testNeeds.length, stale.getUpserts().length);
+        assertTrue(unknown.isResync());
+    }
 }
@@ -0,0 +1,237 @@
+package com.ufund.api.ufundapi.persistence;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ufund.api.ufundapi.model.Need;
+import com.ufund.api.ufundapi.model.Page;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Test the Need Mapped File DAO class beyond the
+ * {@linkplain NeedDAOContractTest contract} it shares with the Need File DAO
+ *
+ * @author Ethan Hartman
+ */
+@Tag("Persistence-tier")
+public class NeedMappedFileDAOTest {
+    @TempDir
+    Path dir;
+    File file;
+    ObjectMapper objectMapper = new ObjectMapper();
+    NeedMappedFileDAO needMappedFileDAO;
+    Need[] testNeeds;
+
+    /**
+     * Before each test, we will write the test needs to a JSON file for a fresh
+     * store to import
+     *
+     * @throws IOException
+     */
+    @BeforeEach
+    public void setupNeedMappedFileDAO() throws IOException {
+        testNeeds = new Need[3];
+        testNeeds[0] = new Need("Test 0", 1.5, 1);
+        testNeeds[1] = new Need("Test 1", 2, 5);
+        testNeeds[2] = new Need("Test 12", 5, 15);
+        file = dir.resolve("needs.json").toFile();
+        objectMapper.writeValue(file, testNeeds);
+        needMappedFileDAO = new NeedMappedFileDAO(file.getPath(), objectMapper);
+    }
+
+    @AfterEach
+    public void closeNeedMappedFileDAO() throws IOException {
+        needMappedFileDAO.close();
+    }
+
+    /**
+     * Reopens the store from its files
+     */
+    private NeedMappedFileDAO reopen() throws IOException {
+        needMappedFileDAO.close();
+        needMappedFileDAO = new NeedMappedFileDAO(file.getPath(), "async", NeedChangeLog.DEFAULT_CAPACITY,
+                objectMapper, new FileFlusher(), new StoreLoader());
+        return needMappedFileDAO;
+    }
+
+    private static void assertNeed(Need expected, Need actual) {
+        assertEquals(expected.toString(), actual.toString());
+    }
+
+    private static void assertNeeds(List<Need> expected, List<Need> actual) {
+        assertEquals(expected.toString(), actual.toString());
+    }
+
+    @Test
+    public void testReopen() throws IOException {
+        // Setup
+        needMappedFileDAO.createNeed(new Need("Test New", 16, 25));
+        needMappedFileDAO.updateNeed(new Need(testNeeds[1].getName(), 3, 7));
+        needMappedFileDAO.deleteNeed(testNeeds[0].getName());
+        needMappedFileDAO.createNeed(new Need("Reused Slot", 1, 1));
+        Need[] expected = needMappedFileDAO.getNeeds();
+        needMappedFileDAO.close();
+        objectMapper.writeValue(file, new Need[0]); // only imported again once a file store saves a later version
+
+        // Invoke
+        Need[] reopened = reopen().getNeeds();
+
+        // Analyze
+        assertNeeds(Arrays.asList(expected), Arrays.asList(reopened));
+        assertEquals(NeedMappedFileDAO.HEADER_BYTES + NeedMappedFileDAO.MIN_CAPACITY * NeedMappedFileDAO.RECORD_BYTES,
+                new File(file.getPath() + NeedMappedFileDAO.RECORDS_SUFFIX).length());
+    }
+
+    @Test
+    public void testGrowth() throws IOException {
+        // Setup
+        List<Need> batch = new ArrayList<>();
+        for (int i = 0; i < NeedMappedFileDAO.MIN_CAPACITY * 3; ++i)
+            batch.add(new Need("Grown " + i, i, i));
+
+        // Invoke
+        needMappedFileDAO.createNeeds(batch);
+        reopen();
+
+        // Analyze
+        assertEquals(testNeeds.length + batch.size(), needMappedFileDAO.getNeeds().length);
+        assertNeed(batch.get(2_000), needMappedFileDAO.getNeed("Grown 2000"));
+    }
+
+    @Test
+    public void testCorruptStore() throws IOException {
+        // Setup
+        needMappedFileDAO.close();
+        try (RandomAccessFile records = new RandomAccessFile(file.getPath() + NeedMappedFileDAO.RECORDS_SUFFIX,
+                "rw")) {
+            records.setLength(records.length() - 1);
+        }
+
+        // Invoke & Analyze
+        assertThrows(IOException.class, () -> new NeedMappedFileDAO(file.getPath(), objectMapper));
+        needMappedFileDAO = new NeedMappedFileDAO(dir.resolve("other.json").toString(), objectMapper);
+    }
+
+    @Test
+    public void testMatchesNeedFileDAO() throws IOException {
+        // Setup
+        NeedFileDAO needFileDAO = new NeedFileDAO(file.getPath(), objectMapper);
+        Random random = new Random(261);
+
+        for (int step = 0; step < 2_000; ++step) {
+            // Invoke
+            String name = "Need " + random.nextInt(100);
+            Need need = new Need(name, random.nextInt(40) / 4.0, random.nextInt(30));
+            switch (random.nextInt(3)) {
+                case 0:
+                    assertEquals(needFileDAO.deleteNeed(name), needMappedFileDAO.deleteNeed(name));
+                    break;
+                case 1:
+                    assertEquals(needFileDAO.updateNeed(need) == null,
+                            needMappedFileDAO.updateNeed(new Need(name, need.getCost(), need.getQuantity())) == null);
+                    break;
+                default:
+                    if (needFileDAO.getNeed(name) == null) {
+                        needFileDAO.createNeed(need);
+                        needMappedFileDAO.createNeed(new Need(name, need.getCost(), need.getQuantity()));
+                    }
+            }
+            if (step % 50 != 0)
+                continue;
+
+            // Analyze
+            assertNeeds(Arrays.asList(needFileDAO.getNeeds()), Arrays.asList(needMappedFileDAO.getNeeds()));
+            for (NeedOrder order : new NeedOrder[] { NeedOrder.COST, NeedOrder.QUANTITY }) {
+                String expectedCursor = null;
+                String actualCursor = null;
+                do {
+                    Page<Need> expected = needFileDAO.findNeedsInRange(order, 2.0, 20.0, expectedCursor, 7);
+                    Page<Need> actual = needMappedFileDAO.findNeedsInRange(order, 2.0, 20.0, actualCursor, 7);
+                    assertNeeds(expected.getItems(), actual.getItems());
+                    assertEquals(expected.getNext(), actual.getNext());
+                    expectedCursor = expected.getNext();
+                    actualCursor = actual.getNext();
+                } while (expectedCursor != null);
+            }
+            assertArrayEquals(needFileDAO.suggestNeeds("Need 1", 5, NeedOrder.QUANTITY),
+                    needMappedFileDAO.suggestNeeds("Need 1", 5, NeedOrder.QUANTITY));
+        }
+        reopen();
+        assertNeeds(Arrays.asList(needFileDAO.getNeeds()), Arrays.asList(needMappedFileDAO.getNeeds()));
+    }
+
+    @Test
+    public void testExportsOnClose() throws IOException {
+        // Setup
+        needMappedFileDAO.createNeed(new Need("Test New", 16, 25));
+        needMappedFileDAO.reserveNeed(testNeeds[1].getName(), 2);
+        needMappedFileDAO.deleteNeed(testNeeds[0].getName());
+        Need[] expected = needMappedFileDAO.getNeeds();
+
+        // Invoke
+        needMappedFileDAO.close();
+        NeedFileDAO needFileDAO = new NeedFileDAO(file.getPath(), objectMapper); // switched back to the file store
+
+        // Analyze
+        assertNeeds(Arrays.asList(expected), Arrays.asList(needFileDAO.getNeeds()));
+        assertTrue(needFileDAO.getVersion() > needMappedFileDAO.getVersion());
+    }
+
+    @Test
+    public void testImportsLaterFileStore() throws IOException {
+        // Setup
+        needMappedFileDAO.createNeed(new Need("Mapped", 1, 1));
+        needMappedFileDAO.close();
+        NeedFileDAO needFileDAO = new NeedFileDAO(file.getPath(), NeedFileDAO.PERSISTENCE_JOURNAL,
+                NeedFileDAO.DEFAULT_CHECKPOINT_INTERVAL, "sync", false, false, NeedChangeLog.DEFAULT_CAPACITY,
+                objectMapper, new FileFlusher(), new StoreLoader());
+        needFileDAO.updateNeed(new Need(testNeeds[2].getName(), 5, 3)); // only in the journal
+        needFileDAO.deleteNeed("Mapped");
+        needFileDAO.close();
+
+        // Invoke
+        needMappedFileDAO = new NeedMappedFileDAO(file.getPath(), objectMapper); // switched back to the mapped store
+
+        // Analyze
+        assertNeeds(Arrays.asList(needFileDAO.getNeeds()), Arrays.asList(needMappedFileDAO.getNeeds()));
+        assertTrue(needMappedFileDAO.getVersion() > needFileDAO.getVersion());
+        needMappedFileDAO.close();
+        assertEquals(0, new File(file.getPath() + NeedJournal.SUFFIX).length()); // replayed into the export
+        assertNeeds(Arrays.asList(needFileDAO.getNeeds()),
+                Arrays.asList(new NeedFileDAO(file.getPath(), objectMapper).getNeeds()));
+    }
+
+    @Test
+    public void testGroupDurability() throws IOException {
+        // Setup
+        needMappedFileDAO.close();
+        FileFlusher flusher = new FileFlusher();
+        needMappedFileDAO = new NeedMappedFileDAO(file.getPath(), "group", NeedChangeLog.DEFAULT_CAPACITY,
+                objectMapper, flusher, new StoreLoader());
+
+        // Invoke
+        needMappedFileDAO.createNeed(new Need("Grouped", 1, 1)); // returns once the flusher forced it
+        needMappedFileDAO.flush();
+
+        // Analyze
+        assertNeed(new Need("Grouped", 1, 1), reopen().getNeed("Grouped"));
+        flusher.close();
+    }
+}
@@ -0,0 +1,97 @@
+package com.ufund.api.ufundapi.persistence;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeMap;
+
+import com.ufund.api.ufundapi.model.Need;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Compares need name searches served by the trigram index against scanning
+ * every need in the snapshot
+ * <br>
+ * Run with {@code mvn test -P benchmark}
+ *
+ * @author Ethan Hartman
+ */
+@Tag("Benchmark")
+public class NeedNameIndexBenchmark {
+    private static final int[] CATALOG_SIZES = { 10_000, 100_000, 1_000_000 };
+    private static final String[] WORDS = { "canned", "soup", "winter", "coat", "blanket", "diaper", "formula",
+            "rice", "beans", "socks", "gloves", "toothpaste", "shampoo", "pasta", "water", "juice" };
+    private static final String[] QUERIES = { "toothpaste", "Gloves kq", "zvw", "soup", "xyz" };
+    private static final int SEARCHES = 200;
+
+    /**
+     * Times the given number of searches for each query
+     *
+     * @return the mean microseconds per search
+     */
+    private static double time(NeedSearch search) {
+        long blackhole = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < SEARCHES; ++i)
+            blackhole += search.find(QUERIES[i % QUERIES.length]);
+        long elapsed = System.nanoTime() - start;
+        if (blackhole == 42)
+            System.out.print("");
+        return elapsed / 1_000.0 / SEARCHES;
+    }
+
+    /**
+     * Generates a random lowercase tag, giving names some rarer trigrams
+     */
+    private static String tag(Random random) {
+        char[] tag = new char[6];
+        for (int i = 0; i < tag.length; ++i)
+            tag[i] = (char) ('a' + random.nextInt(26));
+        return new String(tag);
+    }
+
+    private interface NeedSearch {
+        int find(String text);
+    }
+
+    @Test
+    public void benchmarkSearches() {
+        System.out.printf("%-10s %-10s %14s%n", "catalog", "search", "us/search");
+        Random random = new Random(261);
+        for (int size : CATALOG_SIZES) {
+            TreeMap<String, Need> needs = new TreeMap<>();
+            while (needs.size() < size) {
+                String name = WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)] + " "
+                        + tag(random);
+                needs.put(name, new Need(name, 1, 1));
+            }
+            NeedSnapshot snapshot = NeedSnapshot.of(1, needs.values());
+            NeedNameIndex index = new NeedNameIndex();
+            for (String name : needs.keySet())
+                index.add(name);
+            needs = null;
+
+            NeedSearch scan = text -> {
+                List<Need> found = new ArrayList<>();
+                for (Need need : snapshot.getNeeds())
+                    if (NeedNameIndex.matches(need.getName(), text, true))
+                        found.add(need);
+                return found.size();
+            };
+            NeedSearch indexed = text -> {
+                List<Need> found = new ArrayList<>();
+                for (String name : index.candidates(text))
+                    if (NeedNameIndex.matches(name, text, true))
+                        found.add(snapshot.getNeed(name));
+                return found.size();
+            };
+
+            time(scan); // warm up
+            System.out.printf("%-10d %-10s %14.1f%n", size, "scan", time(scan));
+            time(indexed); // warm up
+            System.out.printf("%-10d %-10s %14.1f%n", size, "trigram", time(indexed));
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.ufund.api.ufundapi.persistence;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test the Need Name Index class
+ *
+ * @author Ethan Hartman
+ */
+@Tag("Persistence-tier")
+public class NeedNameIndexTest {
+    NeedNameIndex index;
+
+    @BeforeEach
+    public void setupNeedNameIndex() {
+        index = new NeedNameIndex();
+        index.add("Canned Soup");
+        index.add("Soap");
+        index.add("Winter Coats");
+    }
+
+    @Test
+    public void testShortTextScansEverything() {
+        // Invoke & Analyze
+        assertNull(index.candidates("so"));
+    }
+
+    @Test
+    public void testCandidates() {
+        // Invoke
+        List<String> candidates = index.candidates("SOU");
+
+        // Analyze
+        assertEquals(List.of("Canned Soup"), candidates);
+    }
+
+    @Test
+    public void testMissingTrigram() {
+        // Invoke & Analyze
+        assertTrue(index.candidates("xyz").isEmpty());
+    }
+
+    @Test
+    public void testRemove() {
+        // Invoke
+        index.remove("Canned Soup");
+
+        // Analyze
+        assertTrue(index.candidates("sou").isEmpty());
+        assertEquals(List.of("Soap"), index.candidates("soa"));
+    }
+
+    @Test
+    public void testMatches() {
+        // Invoke & Analyze
+        assertTrue(NeedNameIndex.matches("Winter Coats", "coat", true));
+        assertFalse(NeedNameIndex.matches("Winter Coats", "coat", false));
+    }
+
+    @Test
+    public void testMatchesContainsOracle() {
+        // Setup
+        Random random = new Random(261);
+        String alphabet = "abAB c";
+        TreeSet<String> names = new TreeSet<>();
+        NeedNameIndex randomIndex = new NeedNameIndex();
+        for (int i = 0; i < 500; ++i) {
+            String name = randomText(random, alphabet, 1 + random.nextInt(10));
+            names.add(name);
+            randomIndex.add(name);
+        }
+        for (String name : new ArrayList<>(names))
+            if (random.nextInt(4) == 0) {
+                names.remove(name);
+                randomIndex.remove(name);
+            }
+
+        for (int i = 0; i < 500; ++i) {
+            String text = randomText(random, alphabet, 1 + random.nextInt(5));
+            boolean ignoreCase = random.nextBoolean();
+
+            // Invoke
+            List<String> candidates = randomIndex.candidates(text);
+            List<String> actual = new ArrayList<>();
+            for (String name : candidates == null ? names : candidates)
+                if (NeedNameIndex.matches(name, text, ignoreCase))
+                    actual.add(name);
+
+            // Analyze
+            List<String> expected = new ArrayList<>();
+            for (String name : names)
+                if (ignoreCase ? name.toLowerCase().contains(text.toLowerCase()) : name.contains(text))
+                    expected.add(name);
+            assertEquals(expected, actual, "Searching for '" + text + "'");
+        }
+    }
+
+    private static String randomText(Random random, String alphabet, int length) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < length; ++i)
+            text.append(alphabet.charAt(random.nextInt(alphabet.length())));
+        return text.toString();
+    }
+}
@@ -0,0 +1,122 @@
+package com.ufund.api.ufundapi.persistence;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import com.ufund.api.ufundapi.model.Need;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test the Need Range Index class
+ *
+ * @author Ethan Hartman
+ */
+@Tag("Persistence-tier")
+public class NeedRangeIndexTest {
+    NeedRangeIndex costIndex;
+    NeedRangeIndex quantityIndex;
+    Need[] testNeeds;
+
+    @BeforeEach
+    public void setupNeedRangeIndex() {
+        costIndex = new NeedRangeIndex(Need::getCost, false);
+        quantityIndex = new NeedRangeIndex(Need::getQuantity, true);
+        testNeeds = new Need[] { new Need("Blankets", 20, 5), new Need("Coats", 50, 5), new Need("Soap", 2.5, 40),
+                new Need("Soup", 2.5, 10) };
+        for (Need need : testNeeds) {
+            costIndex.put(need);
+            quantityIndex.put(need);
+        }
+    }
+
+    private static List<String> names(List<Map.Entry<NeedRangeIndex.Key, Need>> entries) {
+        List<String> names = new ArrayList<>();
+        for (Map.Entry<NeedRangeIndex.Key, Need> entry : entries)
+            names.add(entry.getValue().getName());
+        return names;
+    }
+
+    @Test
+    public void testRangeAscending() {
+        // Invoke & Analyze
+        assertEquals(List.of("Soap", "Soup", "Blankets"), names(costIndex.range(null, 20.0, null, 10)));
+        assertEquals(List.of("Blankets", "Coats"), names(costIndex.range(20.0, null, null, 10)));
+    }
+
+    @Test
+    public void testRangeDescending() {
+        // Invoke & Analyze
+        assertEquals(List.of("Soup", "Blankets", "Coats"), names(quantityIndex.range(5.0, 10.0, null, 10)));
+    }
+
+    @Test
+    public void testRangeAfter() {
+        // Setup
+        NeedRangeIndex.Key after = costIndex.range(2.5, null, null, 1).get(0).getKey();
+
+        // Invoke & Analyze
+        assertEquals(List.of("Soup", "Blankets"), names(costIndex.range(2.5, null, after, 2)));
+    }
+
+    @Test
+    public void testPutReindexesModifiedNeed() {
+        // Setup
+        testNeeds[1].setCost(1); // modified in place, as a checkout does
+
+        // Invoke
+        costIndex.put(testNeeds[1]);
+
+        // Analyze
+        assertEquals(List.of("Coats", "Soap", "Soup", "Blankets"), names(costIndex.range(null, null, null, 10)));
+    }
+
+    @Test
+    public void testRemove() {
+        // Invoke
+        costIndex.remove("Soap");
+        costIndex.remove("Missing");
+
+        // Analyze
+        assertEquals(List.of("Soup", "Blankets", "Coats"), names(costIndex.range(null, null, null, 10)));
+    }
+
+    @Test
+    public void testWalkSeesEachMovedNeedOnce() throws Exception {
+        // Setup
+        NeedRangeIndex index = new NeedRangeIndex(Need::getCost, false);
+        for (int i = 0; i < 200; ++i)
+            index.put(new Need(String.format("Need %03d", i), 2 + i % 50, 1));
+        AtomicBoolean done = new AtomicBoolean();
+        Thread mover = new Thread(() -> {
+            // Moves the need from one end of the index to the other and back
+            for (int i = 0; !done.get(); ++i)
+                index.put(new Need("Mover", i % 2 == 0 ? 1 : 100, 1));
+        });
+        index.put(new Need("Mover", 1, 1));
+        mover.start();
+
+        // Invoke
+        List<List<String>> walks = new ArrayList<>();
+        try {
+            for (int i = 0; i < 2_000; ++i)
+                walks.add(names(index.range(null, null, null, 1_000)));
+        } finally {
+            done.set(true);
+            mover.join();
+        }
+
+        // Analyze
+        for (List<String> walk : walks) {
+            assertEquals(201, walk.size());
+            assertEquals(201, new HashSet<>(walk).size());
+        }
+    }
+}
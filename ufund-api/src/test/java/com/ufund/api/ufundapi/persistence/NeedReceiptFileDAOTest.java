@@ -2,19 +2,26 @@ package com.ufund.api.ufundapi.persistence;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
-import static org.mockito.Mockito.when;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.ufund.api.ufundapi.model.Need;
 import com.ufund.api.ufundapi.model.NeedReceipt;
+import com.ufund.api.ufundapi.model.Page;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 /**
  * Test the Need Receipt File DAO
@@ -44,9 +51,7 @@ public class NeedReceiptFileDAOTest {
         testReceipts[2] = new NeedReceipt("testUsername3", testNeed.getName(), testNeed.getCost(), testNeed.getQuantity());
         testReceipts[3] = new NeedReceipt("testUsername3", testNeed2.getName(), testNeed2.getCost() * testNeed2.getQuantity(), testNeed2.getQuantity());
 
-        when(mockObjectMapper
-                .readValue(new File("doesnt_matter.txt"), NeedReceipt[].class))
-                .thenReturn(testReceipts);
+        NeedFileDAOTest.mockJsonArray(mockObjectMapper, "doesnt_matter.txt", NeedReceipt.class, testReceipts);
                 
         needReceiptFileDAO = new NeedReceiptFileDAO("doesnt_matter.txt", mockObjectMapper);
     }
@@ -62,6 +67,26 @@ public class NeedReceiptFileDAOTest {
             assertEquals(testReceipts[i], actualReceipts[i]);
     }
 
+    @Test
+    public void testGetReceiptsPaged() throws IOException {
+        // Invoke
+        Page<NeedReceipt> first = needReceiptFileDAO.getReceipts(null, 3);
+        Page<NeedReceipt> second = needReceiptFileDAO.getReceipts(first.getNext(), 3);
+
+        // Analyze
+        assertEquals(List.of(testReceipts[0], testReceipts[1], testReceipts[2]), first.getItems());
+        assertEquals(List.of(testReceipts[3]), second.getItems());
+        assertNull(second.getNext());
+    }
+
+    @Test
+    public void testGetReceiptsPagedInvalid() {
+        // Invoke & Analyze
+        assertThrows(IllegalArgumentException.class, () -> needReceiptFileDAO.getReceipts(null, -1));
+        assertThrows(IllegalArgumentException.class,
+                () -> needReceiptFileDAO.getReceipts(Page.encodeCursor("testUsername"), 3));
+    }
+
     @Test
     public void testGetReceiptsForSupporter() throws IOException{
         // Setup
@@ -121,6 +146,18 @@ public class NeedReceiptFileDAOTest {
         assertNull(actualReceipt2);
     }
 
+    @Test
+    public void testVersionIncreases() throws IOException {
+        // Setup
+        long loaded = needReceiptFileDAO.getVersion();
+
+        // Invoke
+        needReceiptFileDAO.createOrUpdateReceipt(new Need("Test0", 5, 1), "testUsername");
+
+        // Analyze
+        assertTrue(needReceiptFileDAO.getVersion() > loaded);
+    }
+
     @Test
     public void testCreateOrUpdateReceipt() throws IOException{
         // Setup
@@ -182,4 +219,21 @@ public class NeedReceiptFileDAOTest {
         for (int i = 0; i < result_sorted.length; i++)
             assertEquals(expected_sorting[i], result_sorted[i]);
     }
+
+    @Test
+    public void testBinarySnapshot(@TempDir Path dir) throws IOException {
+        // Setup
+        File file = dir.resolve("need_receipts.json").toFile();
+        new ObjectMapper().writeValue(file, testReceipts);
+        new NeedReceiptFileDAO(file.getPath(), "sync", true, new ObjectMapper(), new FileFlusher(), new StoreLoader());
+        doThrow(new IOException()).when(mockObjectMapper).createParser(any(File.class));
+
+        // Invoke
+        NeedReceiptFileDAO reloaded = new NeedReceiptFileDAO(file.getPath(), "sync", true, mockObjectMapper,
+                new FileFlusher(), new StoreLoader());
+
+        // Analyze
+        assertEquals(testReceipts.length, reloaded.getReceipts().length); // read from the binary snapshot
+        assertEquals(49, reloaded.getUserFundingSum("testUsername3"));
+    }
 }
@@ -0,0 +1,127 @@
+package com.ufund.api.ufundapi.persistence;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ufund.api.ufundapi.model.Need;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Measures cupboard read throughput while an admin writes at a steady rate,
+ * comparing the published snapshot against copying the map under its lock
+ * <br>
+ * Run with {@code mvn test -P benchmark}
+ *
+ * @author Ethan Hartman
+ */
+@Tag("Benchmark")
+public class NeedSnapshotBenchmark {
+    private static final int CATALOG_SIZE = 10_000;
+    private static final int WRITES_PER_SECOND = 100;
+    private static final long DURATION_MS = 3_000;
+
+    /**
+     * Reads the cupboard the way every request did before snapshots, by copying
+     * the map while holding its lock
+     */
+    private static class LockedCupboard {
+        private final Map<String, Need> needs = new TreeMap<>();
+
+        Need[] getNeeds() {
+            synchronized (needs) {
+                return new ArrayList<>(needs.values()).toArray(new Need[0]);
+            }
+        }
+
+        void updateNeed(Need need) {
+            synchronized (needs) {
+                needs.put(need.getName(), need);
+            }
+        }
+    }
+
+    /**
+     * Reads from the given source on every core while a single writer updates
+     * at a steady rate
+     *
+     * @return the number of reads served per second
+     */
+    private static double measure(NeedReader reader, NeedWriter writer) throws InterruptedException {
+        AtomicBoolean running = new AtomicBoolean(true);
+        LongAdder reads = new LongAdder();
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < Runtime.getRuntime().availableProcessors(); ++i)
+            threads.add(new Thread(() -> {
+                long blackhole = 0;
+                while (running.get()) {
+                    blackhole += reader.read().length;
+                    reads.increment();
+                }
+                if (blackhole == 42)
+                    System.out.print("");
+            }));
+        threads.add(new Thread(() -> {
+            int i = 0;
+            while (running.get()) {
+                try {
+                    writer.write(new Need("Need " + (i++ % CATALOG_SIZE), i % 100, i % 20 + 1));
+                    Thread.sleep(1_000 / WRITES_PER_SECOND);
+                } catch (IOException | InterruptedException e) {
+                    return;
+                }
+            }
+        }));
+
+        for (Thread thread : threads)
+            thread.start();
+        Thread.sleep(DURATION_MS);
+        running.set(false);
+        for (Thread thread : threads)
+            thread.join();
+        return reads.sum() * 1_000.0 / DURATION_MS;
+    }
+
+    private interface NeedReader {
+        Need[] read();
+    }
+
+    private interface NeedWriter {
+        void write(Need need) throws IOException;
+    }
+
+    @Test
+    public void benchmarkReadsUnderWrites(@TempDir Path dir) throws Exception {
+        Need[] catalog = new Need[CATALOG_SIZE];
+        LockedCupboard locked = new LockedCupboard();
+        for (int i = 0; i < CATALOG_SIZE; ++i) {
+            catalog[i] = new Need("Need " + i, i % 100, i % 20 + 1);
+            locked.updateNeed(catalog[i]);
+        }
+        File snapshot = dir.resolve("needs.json").toFile();
+        new ObjectMapper().writeValue(snapshot, catalog);
+        FileFlusher flusher = new FileFlusher();
+        NeedFileDAO dao = new NeedFileDAO(snapshot.getPath(), NeedFileDAO.PERSISTENCE_JOURNAL,
+                NeedFileDAO.DEFAULT_CHECKPOINT_INTERVAL, "async", false, false, NeedChangeLog.DEFAULT_CAPACITY,
+                new ObjectMapper(), flusher, new StoreLoader());
+
+        System.out.printf("%-22s %14s%n", "reader", "reads/s");
+        measure(locked::getNeeds, locked::updateNeed); // warm up
+        System.out.printf("%-22s %14.0f%n", "locked copy", measure(locked::getNeeds, locked::updateNeed));
+        measure(dao::getNeeds, dao::updateNeed); // warm up
+        System.out.printf("%-22s %14.0f%n", "snapshot getNeeds", measure(dao::getNeeds, dao::updateNeed));
+        System.out.printf("%-22s %14.0f%n", "snapshot findNeeds",
+                measure(() -> dao.findNeeds("99"), dao::updateNeed));
+        flusher.close();
+    }
+}
@@ -0,0 +1,132 @@
+package com.ufund.api.ufundapi.persistence;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+import java.util.TreeMap;
+
+import com.ufund.api.ufundapi.model.Need;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test the Need Snapshot class
+ * 
+ * @author Ethan Hartman
+ */
+@Tag("Persistence-tier")
+public class NeedSnapshotTest {
+    private TreeMap<String, Need> needs;
+    private NeedSnapshot snapshot;
+
+    @BeforeEach
+    public void setupNeedSnapshot() {
+        needs = new TreeMap<>();
+        for (String name : new String[] { "Keyboard", "Apple", "Steel" })
+            needs.put(name, new Need(name, 1, 1));
+        snapshot = NeedSnapshot.of(7, needs.values());
+    }
+
+    @Test
+    public void testCapturesInNameOrder() {
+        // Analyze
+        assertEquals(7, snapshot.getVersion());
+        assertEquals(3, snapshot.size());
+        assertEquals("Apple", snapshot.getNeeds()[0].getName());
+        assertEquals("Steel", snapshot.getNames()[2]);
+    }
+
+    @Test
+    public void testGetNeed() {
+        // Analyze
+        assertSame(needs.get("Keyboard"), snapshot.getNeed("Keyboard"));
+        assertNull(snapshot.getNeed("Bread"));
+        assertEquals(-2, snapshot.indexOf("Bread"));
+    }
+
+    @Test
+    public void testReplace() {
+        // Setup
+        NeedSnapshot columnar = NeedSnapshot.of(7, needs.values(), true);
+        Need keyboard = new Need("Keyboard", 4, 9);
+
+        // Invoke
+        NeedSnapshot replaced = columnar.replace(8, List.of(keyboard));
+
+        // Analyze
+        assertEquals(8, replaced.getVersion());
+        assertSame(keyboard, replaced.getNeed("Keyboard"));
+        assertSame(columnar.getNames(), replaced.getNames());
+        assertEquals(9, replaced.getColumns().getQuantity(replaced.indexOf("Keyboard")));
+        assertEquals(NeedSnapshot.of(8, List.of(replaced.getNeeds()), true).getStats().toString(),
+                replaced.getStats().toString());
+        assertSame(needs.get("Keyboard"), columnar.getNeed("Keyboard")); // the original is untouched
+        assertThrows(IllegalArgumentException.class, () -> columnar.replace(9, List.of(new Need("Bread", 1, 1))));
+    }
+
+    @Test
+    public void testInsert() {
+        // Setup
+        NeedSnapshot columnar = NeedSnapshot.of(7, needs.values(), true);
+        Need bread = new Need("Bread", 4, 9);
+
+        // Invoke
+        NeedSnapshot inserted = columnar.insert(8, bread);
+
+        // Analyze
+        assertEquals(8, inserted.getVersion());
+        assertArrayEquals(new String[] { "Apple", "Bread", "Keyboard", "Steel" }, inserted.getNames());
+        assertSame(bread, inserted.getNeed("Bread"));
+        assertEquals(9, inserted.getColumns().getQuantity(1));
+        assertEquals(NeedSnapshot.of(8, List.of(inserted.getNeeds()), true).getStats().toString(),
+                inserted.getStats().toString());
+        assertEquals(3, columnar.size()); // the original is untouched
+        assertThrows(IllegalArgumentException.class, () -> columnar.insert(9, new Need("Apple", 1, 1)));
+    }
+
+    @Test
+    public void testRemove() {
+        // Setup
+        NeedSnapshot columnar = NeedSnapshot.of(7, needs.values(), true);
+
+        // Invoke
+        NeedSnapshot removed = columnar.remove(8, "Keyboard");
+        NeedSnapshot emptied = removed.remove(9, "Apple").remove(10, "Steel");
+
+        // Analyze
+        assertEquals(8, removed.getVersion());
+        assertArrayEquals(new String[] { "Apple", "Steel" }, removed.getNames());
+        assertNull(removed.getNeed("Keyboard"));
+        assertEquals(NeedSnapshot.of(8, List.of(removed.getNeeds()), true).getStats().toString(),
+                removed.getStats().toString());
+        assertEquals(0, emptied.size());
+        assertEquals(0, emptied.getColumns().size());
+        assertSame(needs.get("Keyboard"), columnar.getNeed("Keyboard")); // the original is untouched
+        assertThrows(IllegalArgumentException.class, () -> columnar.remove(9, "Bread"));
+    }
+
+    @Test
+    public void testIsolatedFromLaterMutations() {
+        // Invoke
+        needs.remove("Apple");
+        needs.put("Zinc", new Need("Zinc", 1, 1));
+
+        // Analyze
+        assertEquals(3, snapshot.size());
+        assertEquals("Apple", snapshot.getNeeds()[0].getName());
+        assertNull(snapshot.getNeed("Zinc"));
+    }
+
+    @Test
+    public void testEmpty() {
+        // Analyze
+        assertEquals(0, NeedSnapshot.EMPTY.size());
+        assertNull(NeedSnapshot.EMPTY.getNeed("Apple"));
+    }
+}
@@ -0,0 +1,57 @@
+package com.ufund.api.ufundapi.persistence;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test the Need Stock class
+ *
+ * @author Ethan Hartman
+ */
+@Tag("Persistence-tier")
+public class NeedStockTest {
+    @Test
+    public void testTake() {
+        // Setup
+        NeedStock stock = new NeedStock(5);
+
+        // Invoke & Analyze
+        assertTrue(stock.take(3));
+        assertEquals(2, stock.getQuantity());
+        assertFalse(stock.take(3));
+        assertEquals(2, stock.getQuantity());
+    }
+
+    @Test
+    public void testSoldOutOnceReleased() {
+        // Setup
+        NeedStock stock = new NeedStock(2);
+
+        // Invoke
+        stock.take(2);
+
+        // Analyze
+        assertEquals(0, stock.getQuantity());
+        assertFalse(stock.isSoldOut()); // the reservation may still give it back
+        stock.release(0);
+        assertTrue(stock.isSoldOut());
+    }
+
+    @Test
+    public void testReleaseGivesBack() {
+        // Setup
+        NeedStock stock = new NeedStock(2);
+        stock.take(2);
+
+        // Invoke
+        stock.release(2);
+
+        // Analyze
+        assertEquals(2, stock.getQuantity());
+        assertFalse(stock.isSoldOut());
+    }
+}
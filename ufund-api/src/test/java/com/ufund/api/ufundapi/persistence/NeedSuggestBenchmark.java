@@ -0,0 +1,78 @@
+package com.ufund.api.ufundapi.persistence;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.Random;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ufund.api.ufundapi.model.Need;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Measures prefix suggestion latency against fetching every matching need and
+ * trimming it the way the search-as-you-type box used to
+ * <br>
+ * Run with {@code mvn test -P benchmark}
+ *
+ * @author Ethan Hartman
+ */
+@Tag("Benchmark")
+public class NeedSuggestBenchmark {
+    private static final int CATALOG_SIZE = 100_000;
+    private static final String[] PREFIXES = { "c", "ca", "can", "canned s", "w", "wint", "zz" };
+    private static final int SUGGESTIONS = 10;
+    private static final int REQUESTS = 2_000;
+
+    private interface Suggester {
+        int suggest(String prefix);
+    }
+
+    /**
+     * @return the mean microseconds per request
+     */
+    private static double time(Suggester suggester) {
+        long blackhole = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < REQUESTS; ++i)
+            blackhole += suggester.suggest(PREFIXES[i % PREFIXES.length]);
+        long elapsed = System.nanoTime() - start;
+        if (blackhole == 42)
+            System.out.print("");
+        return elapsed / 1_000.0 / REQUESTS;
+    }
+
+    @Test
+    public void benchmarkSuggestions(@TempDir Path dir) throws Exception {
+        String[] words = { "canned", "coats", "winter", "water", "blankets", "socks", "soup", "cereal" };
+        Random random = new Random(261);
+        Need[] catalog = new Need[CATALOG_SIZE];
+        for (int i = 0; i < CATALOG_SIZE; ++i)
+            catalog[i] = new Need(words[random.nextInt(words.length)] + " " + words[random.nextInt(words.length)]
+                    + " " + i, random.nextInt(5_000) / 100.0, random.nextInt(200));
+        File snapshot = dir.resolve("needs.json").toFile();
+        new ObjectMapper().writeValue(snapshot, catalog);
+        NeedFileDAO dao = new NeedFileDAO(snapshot.getPath(), new ObjectMapper());
+
+        Suggester search = prefix -> {
+            int found = 0;
+            for (Need need : dao.findNeeds(prefix))
+                if (need.getName().startsWith(prefix) && ++found == SUGGESTIONS)
+                    break;
+            return found;
+        };
+        System.out.printf("%-22s %14s%n", "suggester", "us/request");
+        for (int round = 0; round < 2; ++round) { // first round warms up
+            double searchTime = time(search);
+            double nameTime = time(prefix -> dao.suggestNeeds(prefix, SUGGESTIONS, NeedOrder.NAME).length);
+            double quantityTime = time(prefix -> dao.suggestNeeds(prefix, SUGGESTIONS, NeedOrder.QUANTITY).length);
+            if (round == 0)
+                continue;
+            System.out.printf("%-22s %14.1f%n", "findNeeds + filter", searchTime);
+            System.out.printf("%-22s %14.1f%n", "suggest by name", nameTime);
+            System.out.printf("%-22s %14.1f%n", "suggest by quantity", quantityTime);
+        }
+    }
+}
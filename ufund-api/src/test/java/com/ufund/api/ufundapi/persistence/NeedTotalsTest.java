@@ -0,0 +1,65 @@
+package com.ufund.api.ufundapi.persistence;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.ufund.api.ufundapi.model.Need;
+import com.ufund.api.ufundapi.model.NeedSummary;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test the Need Totals class
+ *
+ * @author Ethan Hartman
+ */
+@Tag("Persistence-tier")
+public class NeedTotalsTest {
+    @Test
+    public void testPutAndRemove() {
+        // Setup
+        NeedTotals totals = new NeedTotals();
+
+        // Invoke
+        totals.put(new Need("Soap", 1.5, 2));
+        totals.put(new Need("Tape", 0.1, 30));
+        totals.put(new Need("Soap", 2.25, 4)); // replaces the first
+        totals.remove("Tape");
+        totals.remove("Not real need");
+
+        // Analyze
+        assertEquals(new NeedSummary(1, 4, 9, 1).toString(), totals.toSummary().toString());
+    }
+
+    @Test
+    public void testPutAfterModifiedInPlace() {
+        // Setup
+        NeedTotals totals = new NeedTotals();
+        Need need = new Need("Soap", 1.5, 2);
+        totals.put(need);
+
+        // Invoke
+        need.setQuantity(10); // the stored need changes before it is updated
+        totals.put(need);
+
+        // Analyze
+        assertEquals(new NeedSummary(1, 10, 15, 0).toString(), totals.toSummary().toString());
+    }
+
+    @Test
+    public void testAddAndSubtract() {
+        // Setup
+        NeedTotals totals = new NeedTotals();
+        Need soap = new Need("Soap", 1.5, 2);
+
+        // Invoke
+        totals.add(soap);
+        totals.add(new Need("Tape", 0.1, 30));
+        totals.subtract(soap);
+
+        // Analyze
+        assertEquals(new NeedSummary(1, 30, 3, 0).toString(), totals.toSummary().toString());
+        assertEquals(NeedTotals.of(new Need[] { new Need("Tape", 0.1, 30) }).toSummary().toString(),
+                totals.toSummary().toString());
+    }
+}
@@ -0,0 +1,207 @@
+package com.ufund.api.ufundapi.persistence;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ufund.api.ufundapi.model.Need;
+import com.ufund.api.ufundapi.model.NeedMessage;
+import com.ufund.api.ufundapi.model.NeedReceipt;
+import com.ufund.api.ufundapi.model.Supporter;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Test the Store Loader class
+ *
+ * @author Ethan Hartman
+ */
+@Tag("Persistence-tier")
+public class StoreLoaderTest {
+    @Test
+    public void testSequentialLoadsInline() throws IOException {
+        // Setup
+        StoreLoader loader = new StoreLoader();
+        Thread[] loadedOn = new Thread[1];
+
+        // Invoke
+        loader.load("test", () -> loadedOn[0] = Thread.currentThread());
+
+        // Analyze
+        assertSame(Thread.currentThread(), loadedOn[0]);
+        assertTrue(loader.getTimings().containsKey("test"));
+    }
+
+    @Test
+    public void testSequentialLoadException() {
+        // Setup
+        StoreLoader loader = new StoreLoader();
+
+        // Invoke & Analyze
+        assertThrows(IOException.class, () -> loader.load("test", () -> {
+            throw new IOException();
+        }));
+    }
+
+    @Test
+    public void testParallelLoadsConcurrently() throws IOException {
+        // Setup
+        StoreLoader loader = new StoreLoader(true);
+        CountDownLatch started = new CountDownLatch(2);
+        StoreLoader.Load load = () -> {
+            started.countDown();
+            try {
+                // Only completes if the other load is running at the same time
+                if (!started.await(10, TimeUnit.SECONDS))
+                    throw new IOException("loads ran one after another");
+            } catch (InterruptedException e) {
+                throw new IOException(e);
+            }
+        };
+
+        // Invoke
+        loader.load("first", load);
+        loader.load("second", load);
+        loader.await();
+
+        // Analyze
+        assertEquals(2, loader.getTimings().size());
+        assertTrue(loader.getTimings().containsKey("first"));
+        assertTrue(loader.getTimings().containsKey("second"));
+    }
+
+    @Test
+    public void testParallelTimingExcludesWait() throws Exception {
+        // Setup
+        StoreLoader loader = new StoreLoader(true);
+        loader.load("test", () -> {
+        });
+        Thread.sleep(500); // the other singletons being created
+
+        // Invoke
+        loader.await();
+
+        // Analyze
+        assertTrue(loader.getLoadingMillis() < 500);
+    }
+
+    @Test
+    public void testParallelLoadOffCaller() throws IOException {
+        // Setup
+        StoreLoader loader = new StoreLoader(true);
+        Thread[] loadedOn = new Thread[1];
+
+        // Invoke
+        loader.load("test", () -> loadedOn[0] = Thread.currentThread());
+        loader.await();
+
+        // Analyze
+        assertNotNull(loadedOn[0]);
+        assertNotEquals(Thread.currentThread(), loadedOn[0]);
+    }
+
+    @Test
+    public void testParallelLoadException() throws IOException {
+        // Setup
+        StoreLoader loader = new StoreLoader(true);
+        IOException failure = new IOException();
+
+        // Invoke
+        loader.load("fine", () -> {
+        });
+        loader.load("broken", () -> {
+            throw failure;
+        });
+
+        // Analyze
+        assertSame(failure, assertThrows(IOException.class, loader::await));
+    }
+
+    @Test
+    public void testAfterSingletonsInstantiatedException() throws IOException {
+        // Setup
+        StoreLoader loader = new StoreLoader(true);
+        loader.load("broken", () -> {
+            throw new IOException();
+        });
+
+        // Invoke & Analyze
+        assertThrows(UncheckedIOException.class, loader::afterSingletonsInstantiated);
+    }
+
+    @Test
+    public void testAwaitWithoutLoads() throws IOException {
+        // Setup
+        StoreLoader loader = new StoreLoader(true);
+
+        // Invoke
+        loader.await();
+
+        // Analyze
+        assertTrue(loader.getTimings().isEmpty());
+    }
+
+    @Test
+    public void testParallelDaoLoads(@TempDir Path dir) throws IOException {
+        // Setup
+        ObjectMapper objectMapper = new ObjectMapper()
+                .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        Need need = new Need("Soap", 2.5, 10);
+        File needs = dir.resolve("needs.json").toFile();
+        File receipts = dir.resolve("need_receipts.json").toFile();
+        File supporters = dir.resolve("supporters.json").toFile();
+        objectMapper.writeValue(needs, new Need[] { need });
+        objectMapper.writeValue(receipts, new NeedReceipt[] { new NeedReceipt("Bob", "Soap", 2.5, 1) });
+        objectMapper.writeValue(supporters,
+                new Supporter[] { new Supporter("Bob", new Need[] { need }, new NeedMessage[0]) });
+        StoreLoader loader = new StoreLoader(true);
+        FileFlusher flusher = new FileFlusher();
+
+        // Invoke
+        NeedFileDAO needDao = new NeedFileDAO(needs.getPath(), NeedFileDAO.PERSISTENCE_SNAPSHOT,
+                NeedFileDAO.DEFAULT_CHECKPOINT_INTERVAL, "sync", false, false, NeedChangeLog.DEFAULT_CAPACITY,
+                objectMapper, flusher, loader);
+        NeedReceiptFileDAO needReceiptDao = new NeedReceiptFileDAO(receipts.getPath(), "sync", false,
+                objectMapper, flusher, loader);
+        UserFileDAO userDao = new UserFileDAO(supporters.getPath(), UserFileDAO.PERSISTENCE_FILE, "sync", false,
+                UserSessions.DEFAULT_IDLE_MILLIS, objectMapper, needDao, needReceiptDao, flusher, loader);
+        loader.afterSingletonsInstantiated();
+
+        // Analyze
+        assertEquals(need.toString(), needDao.getNeed("Soap").toString());
+        assertEquals(1, needReceiptDao.getReceipts().length);
+        assertEquals(1, userDao.getSupporters().length);
+        assertEquals(3, loader.getTimings().size());
+    }
+
+    @Test
+    public void testParallelMappedDaoCloseAfterFailedLoad(@TempDir Path dir) throws IOException {
+        // Setup
+        File needs = dir.resolve("needs.json").toFile();
+        Files.writeString(needs.toPath(), "{ not an array }");
+        StoreLoader loader = new StoreLoader(true);
+
+        // Invoke
+        NeedMappedFileDAO needDao = new NeedMappedFileDAO(needs.getPath(), "sync", NeedChangeLog.DEFAULT_CAPACITY,
+                new ObjectMapper(), new FileFlusher(), loader);
+
+        // Analyze
+        assertThrows(IOException.class, loader::await);
+        needDao.close(); // the failed load already closed the store's files
+    }
+}
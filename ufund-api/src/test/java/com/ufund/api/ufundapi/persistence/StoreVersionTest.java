@@ -0,0 +1,98 @@
+package com.ufund.api.ufundapi.persistence;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ufund.api.ufundapi.model.Need;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Test the Store Version class
+ *
+ * @author Ethan Hartman
+ */
+@Tag("Persistence-tier")
+public class StoreVersionTest {
+    @TempDir
+    Path dir;
+
+    @Test
+    public void testSeedFromClock() {
+        // Setup
+        long before = System.currentTimeMillis();
+
+        // Invoke
+        long seed = StoreVersion.seed(dir.resolve("needs.json").toFile());
+
+        // Analyze
+        assertTrue(seed >= before);
+        assertTrue(seed <= System.currentTimeMillis());
+    }
+
+    @Test
+    public void testSeedPastSavedVersion() throws IOException {
+        // Setup
+        File file = dir.resolve("needs.json").toFile();
+        long saved = System.currentTimeMillis() + 3_600_000; // the clock was set back an hour since
+
+        // Invoke
+        StoreVersion.save(file, saved);
+
+        // Analyze
+        assertEquals(saved + 1, StoreVersion.seed(file));
+    }
+
+    @Test
+    public void testSaved() throws IOException {
+        // Setup
+        File file = dir.resolve("needs.json").toFile();
+        long unsaved = StoreVersion.saved(file);
+
+        // Invoke
+        StoreVersion.save(file, 42);
+
+        // Analyze
+        assertEquals(-1, unsaved);
+        assertEquals(42, StoreVersion.saved(file));
+    }
+
+    @Test
+    public void testSeedIgnoresUnreadableVersion() throws IOException {
+        // Setup
+        File file = dir.resolve("needs.json").toFile();
+        Files.writeString(StoreVersion.versionFile(file).toPath(), "not a version");
+        long before = System.currentTimeMillis();
+
+        // Invoke & Analyze
+        assertTrue(StoreVersion.seed(file) >= before);
+    }
+
+    @Test
+    public void testDaoRestartsPastClosedVersion() throws IOException {
+        // Setup
+        File file = dir.resolve("needs.json").toFile();
+        new ObjectMapper().writeValue(file, new Need[] { new Need("Soap", 2.5, 10) });
+        NeedFileDAO dao = new NeedFileDAO(file.getPath(), new ObjectMapper());
+        for (int i = 1; i <= 5; ++i)
+            dao.updateNeed(new Need("Soap", 2.5, 10 + i));
+        dao.close();
+        long closed = Long.parseLong(Files.readString(StoreVersion.versionFile(file).toPath()));
+        StoreVersion.save(file, closed + 3_600_000); // as if the clock was set back an hour since
+
+        // Invoke
+        NeedFileDAO reloaded = new NeedFileDAO(file.getPath(), new ObjectMapper());
+
+        // Analyze
+        assertEquals(dao.getVersion(), closed);
+        assertTrue(reloaded.getVersion() > closed + 3_600_000);
+    }
+}
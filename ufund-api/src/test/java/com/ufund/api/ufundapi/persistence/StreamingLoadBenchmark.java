@@ -0,0 +1,103 @@
+package com.ufund.api.ufundapi.persistence;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.TreeMap;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ufund.api.ufundapi.model.Need;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Compares the peak heap and time of loading a need store by reading the whole
+ * JSON array first against streaming it element by element, across dataset
+ * sizes
+ * <br>
+ * Run with {@code mvn test -P benchmark}
+ *
+ * @author Ethan Hartman
+ */
+@Tag("Benchmark")
+public class StreamingLoadBenchmark {
+    private static final int[] SIZES = { 100_000, 1_000_000, 2_000_000 };
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private interface Loader {
+        Object load() throws IOException;
+    }
+
+    /**
+     * @return the heap high-water mark since the last reset, in bytes
+     */
+    private static long peakHeap() {
+        long peak = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans())
+            if (pool.getType() == MemoryType.HEAP)
+                peak += pool.getPeakUsage().getUsed();
+        return peak;
+    }
+
+    private static long usedHeap() {
+        long used = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans())
+            if (pool.getType() == MemoryType.HEAP)
+                used += pool.getUsage().getUsed();
+        return used;
+    }
+
+    /**
+     * Loads once after a collection and reports how far the heap rose above
+     * its starting point
+     */
+    private static void measure(String label, int size, Loader loader) throws IOException {
+        System.gc();
+        long before = usedHeap();
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans())
+            pool.resetPeakUsage();
+        long start = System.nanoTime();
+        Object loaded = loader.load();
+        long elapsed = System.nanoTime() - start;
+        long peak = peakHeap() - before;
+        System.gc();
+        long retained = usedHeap() - before;
+        System.out.printf("%-10s %10d %10.1f %12d %12d%n", label, size, elapsed / 1e6, peak >> 20,
+                retained >> 20);
+        if (loaded == null)
+            throw new IllegalStateException();
+    }
+
+    @Test
+    public void benchmarkLoads(@TempDir Path dir) throws IOException {
+        System.out.printf("%-10s %10s %10s %12s %12s%n", "loader", "needs", "ms", "peak MiB", "retained MiB");
+        for (int size : SIZES) {
+            Need[] needs = new Need[size];
+            for (int i = 0; i < size; ++i)
+                needs[i] = new Need("Need " + i, i % 100 + 0.5, i % 20 + 1);
+            File json = dir.resolve("needs-" + size + ".json").toFile();
+            OBJECT_MAPPER.writeValue(json, needs);
+            needs = null;
+
+            // The previous load: the whole array, then a copy into the map
+            measure("array", size, () -> {
+                Map<String, Need> map = new TreeMap<>();
+                for (Need need : OBJECT_MAPPER.readValue(json, Need[].class))
+                    map.put(need.getName(), need);
+                return map;
+            });
+            measure("streamed", size, () -> {
+                Map<String, Need> map = new TreeMap<>();
+                JsonArrayReader.forEach(OBJECT_MAPPER, json, Need.class, need -> map.put(need.getName(), need));
+                return map;
+            });
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.ufund.api.ufundapi.persistence;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ufund.api.ufundapi.model.Need;
+import com.ufund.api.ufundapi.model.NeedMessage;
+import com.ufund.api.ufundapi.model.Supporter;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Test the Supporter Shards class
+ *
+ * @author Ethan Hartman
+ */
+@Tag("Persistence-tier")
+public class SupporterShardsTest {
+    @TempDir
+    Path dir;
+
+    private SupporterShards shards;
+
+    @BeforeEach
+    public void setupShards() {
+        ObjectMapper objectMapper = new ObjectMapper()
+                .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        shards = new SupporterShards(dir.resolve("supporters.json").toString(), objectMapper);
+    }
+
+    private Map<String, Supporter> readAll() throws IOException {
+        Map<String, Supporter> read = new TreeMap<>();
+        shards.forEach(supporter -> read.put(supporter.getUsername(), supporter));
+        return read;
+    }
+
+    @Test
+    public void testWriteAndRead() throws IOException {
+        // Setup
+        Supporter first = new Supporter("First", new Need[] { new Need("Soap", 1.5, 2) }, new NeedMessage[0]);
+        Supporter second = new Supporter("Second", new Need[0],
+                new NeedMessage[] { new NeedMessage("admin", "Soap", "Thanks") });
+
+        shards.create(List.of());
+
+        // Invoke
+        shards.write(first);
+        shards.write(second);
+
+        // Analyze
+        assertTrue(shards.exists());
+        Map<String, Supporter> read = readAll();
+        assertEquals(2, read.size());
+        assertEquals(first.toString(), read.get("First").toString());
+        assertEquals("Thanks", read.get("Second").getNeedMessages()[0].getMessage());
+    }
+
+    @Test
+    public void testWriteReplaces() throws IOException {
+        // Setup
+        Supporter supporter = new Supporter("Supporter", new Need[0], new NeedMessage[0]);
+        shards.create(List.of(supporter));
+
+        // Invoke
+        supporter.setFundingBasket(new Need[] { new Need("Soap", 1.5, 2) });
+        shards.write(supporter);
+
+        // Analyze
+        Map<String, Supporter> read = readAll();
+        assertEquals(1, read.size());
+        assertEquals(1, read.get("Supporter").getFundingBasket().length);
+    }
+
+    @Test
+    public void testNotWritten() throws IOException {
+        // Invoke & Analyze
+        assertFalse(shards.exists());
+        assertTrue(readAll().isEmpty());
+    }
+
+    @Test
+    public void testWriteBeforeCreate() {
+        // Invoke & Analyze
+        assertThrows(IOException.class, () -> shards.write(new Supporter("Supporter", new Need[0],
+                new NeedMessage[0])));
+        assertFalse(shards.exists());
+    }
+
+    @Test
+    public void testCreateInterrupted() throws IOException {
+        // Setup
+        List<Supporter> supporters = new ArrayList<>();
+        for (int i = 0; i < 5; ++i)
+            supporters.add(new Supporter("Supporter " + i, new Need[0], new NeedMessage[0]));
+        AtomicInteger writes = new AtomicInteger();
+        ObjectMapper crashing = new ObjectMapper() {
+            @Override
+            public void writeValue(File resultFile, Object value) throws IOException {
+                if (writes.incrementAndGet() > 2)
+                    throw new IOException("Killed part way through");
+                super.writeValue(resultFile, value);
+            }
+        };
+        SupporterShards interrupted = new SupporterShards(dir.resolve("supporters.json").toString(), crashing);
+
+        // Invoke
+        assertThrows(IOException.class, () -> interrupted.create(supporters));
+        boolean existsAfterCrash = shards.exists();
+        shards.create(supporters); // the next start migrates again
+
+        // Analyze
+        assertFalse(existsAfterCrash);
+        assertEquals(5, readAll().size());
+    }
+
+    @Test
+    public void testTornWriteIgnored() throws IOException {
+        // Setup
+        shards.create(List.of(new Supporter("Supporter", new Need[0], new NeedMessage[0])));
+        File torn = shards.fileOf("Torn");
+        Files.writeString(new File(torn.getPath() + ".tmp").toPath(), "{\"username\": \"To");
+
+        // Invoke & Analyze
+        assertEquals(1, readAll().size());
+    }
+
+    @Test
+    public void testFileOf() {
+        // Invoke & Analyze
+        assertEquals(shards.fileOf("Supporter"), shards.fileOf("Supporter"));
+        assertNotEquals(shards.fileOf("Supporter"), shards.fileOf("supporter"));
+        assertEquals(shards.fileOf("a/../b").getParentFile(), shards.fileOf("Supporter").getParentFile());
+    }
+}
@@ -0,0 +1,141 @@
+package com.ufund.api.ufundapi.persistence;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ufund.api.ufundapi.model.Need;
+import com.ufund.api.ufundapi.model.NeedMessage;
+import com.ufund.api.ufundapi.model.Supporter;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Compares the latency of a basket edit with every supporter in the one file
+ * against each supporter in a shard of their own, and how edits scale across
+ * threads
+ * <br>
+ * Every edit is written synchronously, so its latency includes the write.
+ * Run with {@code mvn test -P benchmark}
+ *
+ * @author Ethan Hartman
+ */
+@Tag("Benchmark")
+public class UserFileDAOBenchmark {
+    private static final int[] SUPPORTER_COUNTS = { 1_000, 10_000, 100_000 };
+    private static final int EDITS = 50;
+    private static final int[] THREAD_COUNTS = { 1, 2, 4, 8 };
+    private static final int PARALLEL_EDITS = 20_000;
+    private static final String NEED = "Need";
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    /**
+     * Writes a supporters file holding the given number of supporters
+     */
+    private File writeSupporters(Path dir, int count) throws IOException {
+        Supporter[] supporters = new Supporter[count];
+        for (int i = 0; i < count; ++i)
+            supporters[i] = new Supporter("Supporter " + i, new Need[] { new Need(NEED, 1, 1) },
+                    new NeedMessage[] { new NeedMessage("admin", NEED, "Thank you") });
+        File file = dir.resolve("supporters-" + count + ".json").toFile();
+        objectMapper.writeValue(file, supporters);
+        return file;
+    }
+
+    /**
+     * Times basket edits by supporters spread across the file
+     *
+     * @return the mean microseconds per edit
+     */
+    private double timeEdits(File file, String persistence, int count) throws Exception {
+        NeedDAO needDao = mock(NeedDAO.class);
+        when(needDao.getNeed(NEED)).thenReturn(new Need(NEED, 1, 1_000));
+        UserFileDAOTests.mockGetNeeds(needDao);
+        UserFileDAO dao = new UserFileDAO(file.getPath(), persistence, "sync", false,
+                UserSessions.DEFAULT_IDLE_MILLIS, objectMapper, needDao, mock(NeedReceiptDAO.class),
+                new FileFlusher(), new StoreLoader());
+        String[] sessions = new String[EDITS];
+        for (int i = 0; i < EDITS; ++i)
+            sessions[i] = dao.loginUser(dao.getUser("Supporter " + (long) i * count / EDITS));
+
+        long begin = System.nanoTime();
+        for (int i = 0; i < EDITS; ++i)
+            dao.updateNeedInCurBasket(sessions[i], NEED, i % 5 + 2);
+        return (System.nanoTime() - begin) / 1e3 / EDITS;
+    }
+
+    @Test
+    public void benchmarkEdits(@TempDir Path dir) throws Exception {
+        System.out.printf("%-12s %16s %16s%n", "supporters", "file us/edit", "sharded us/edit");
+        for (int count : SUPPORTER_COUNTS) {
+            File file = writeSupporters(dir, count);
+            timeEdits(file, UserFileDAO.PERSISTENCE_FILE, count); // warm up
+            double whole = timeEdits(file, UserFileDAO.PERSISTENCE_FILE, count);
+            timeEdits(file, UserFileDAO.PERSISTENCE_SHARDED, count); // writes the shards
+            double sharded = timeEdits(file, UserFileDAO.PERSISTENCE_SHARDED, count);
+            System.out.printf("%-12d %16.1f %16.1f%n", count, whole, sharded);
+        }
+    }
+
+    /**
+     * Times basket edits split across the given number of threads, each
+     * editing its own supporter or all editing the same one
+     *
+     * @return the edits per second
+     */
+    private double timeParallelEdits(File file, int threads, boolean shared) throws Exception {
+        NeedDAO needDao = mock(NeedDAO.class);
+        when(needDao.getNeed(NEED)).thenReturn(new Need(NEED, 1, 1_000));
+        UserFileDAOTests.mockGetNeeds(needDao);
+        FileFlusher flusher = new FileFlusher();
+        UserFileDAO dao = new UserFileDAO(file.getPath(), UserFileDAO.PERSISTENCE_SHARDED, "async", false,
+                UserSessions.DEFAULT_IDLE_MILLIS, objectMapper, needDao, mock(NeedReceiptDAO.class), flusher,
+                new StoreLoader());
+        String[] sessions = new String[threads];
+        for (int t = 0; t < threads; ++t)
+            sessions[t] = dao.loginUser(dao.getUser("Supporter " + (shared ? 0 : t)));
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<?>> runs = new ArrayList<>(threads);
+        long begin = System.nanoTime();
+        for (int t = 0; t < threads; ++t) {
+            String session = sessions[t];
+            runs.add(executor.submit((Callable<Void>) () -> {
+                for (int i = 0; i < PARALLEL_EDITS / threads; ++i)
+                    dao.updateNeedInCurBasket(session, NEED, i % 5 + 2);
+                return null;
+            }));
+        }
+        for (Future<?> run : runs)
+            run.get();
+        double seconds = (System.nanoTime() - begin) / 1e9;
+        executor.shutdown();
+        flusher.close();
+        return PARALLEL_EDITS / seconds;
+    }
+
+    @Test
+    public void benchmarkParallelEdits(@TempDir Path dir) throws Exception {
+        File file = writeSupporters(dir, THREAD_COUNTS[THREAD_COUNTS.length - 1]);
+        timeParallelEdits(file, 1, false); // warm up, writes the shards
+        System.out.printf("%-8s %20s %20s%n", "threads", "own edits/s", "shared edits/s");
+        for (int threads : THREAD_COUNTS)
+            System.out.printf("%-8d %20.0f %20.0f%n", threads, timeParallelEdits(file, threads, false),
+                    timeParallelEdits(file, threads, true));
+    }
+}
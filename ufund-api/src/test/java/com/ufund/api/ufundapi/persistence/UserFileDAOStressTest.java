@@ -0,0 +1,259 @@
+package com.ufund.api.ufundapi.persistence;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.management.openmbean.KeyAlreadyExistsException;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ufund.api.ufundapi.model.Need;
+import com.ufund.api.ufundapi.model.NeedMessage;
+import com.ufund.api.ufundapi.model.Supporter;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Races many threads against the User File DAO, checking that no change to a
+ * supporter is ever lost, in memory or on disk
+ *
+ * @author Ethan Hartman
+ */
+@Tag("Persistence-tier")
+public class UserFileDAOStressTest {
+    private static final int THREADS = 8;
+    private static final int ROUNDS = 100;
+
+    @TempDir
+    Path dir;
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    private NeedDAO mockNeedDao;
+    private File file;
+
+    @BeforeEach
+    public void setupSupporters() throws Exception {
+        Supporter[] supporters = new Supporter[THREADS];
+        for (int t = 0; t < THREADS; ++t)
+            supporters[t] = new Supporter("Supporter " + t, new Need[0], new NeedMessage[0]);
+        file = dir.resolve("supporters.json").toFile();
+        objectMapper.writeValue(file, supporters);
+
+        mockNeedDao = mock(NeedDAO.class);
+        UserFileDAOTests.mockGetNeeds(mockNeedDao);
+        when(mockNeedDao.getNeed(anyString()))
+                .thenAnswer(invocation -> new Need(invocation.getArgument(0), 1, ROUNDS * THREADS));
+    }
+
+    private UserFileDAO open(String persistence, String durability) throws Exception {
+        return open(persistence, durability, new FileFlusher());
+    }
+
+    private UserFileDAO open(String persistence, String durability, FileFlusher flusher) throws Exception {
+        return new UserFileDAO(file.getPath(), persistence, durability, false, UserSessions.DEFAULT_IDLE_MILLIS,
+                objectMapper, mockNeedDao, mock(NeedReceiptDAO.class), flusher, new StoreLoader());
+    }
+
+    /**
+     * Runs the given task in every thread at once, numbering each thread
+     */
+    private static void race(TaskForThread task) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> runs = new ArrayList<>(THREADS);
+        for (int t = 0; t < THREADS; ++t) {
+            int thread = t;
+            runs.add(executor.submit((Callable<Void>) () -> {
+                start.await();
+                task.run(thread);
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> run : runs)
+            run.get();
+        executor.shutdown();
+    }
+
+    @FunctionalInterface
+    private interface TaskForThread {
+        void run(int thread) throws Exception;
+    }
+
+    /**
+     * @return the quantity of each need in the basket, by name
+     */
+    private static Map<String, Integer> quantities(Need[] basket) {
+        Map<String, Integer> quantities = new HashMap<>();
+        for (Need need : basket)
+            quantities.put(need.getName(), need.getQuantity());
+        return quantities;
+    }
+
+    @Test
+    public void testSameSupporterNoLostEdits() throws Exception {
+        // Setup
+        UserFileDAO dao = open(UserFileDAO.PERSISTENCE_FILE, "sync");
+        String[] sessions = new String[THREADS];
+        for (int t = 0; t < THREADS; ++t)
+            sessions[t] = dao.loginUser(dao.getUser("Supporter 0"));
+
+        // Invoke
+        race(thread -> {
+            for (int i = 1; i <= ROUNDS; ++i)
+                dao.updateNeedInCurBasket(sessions[thread], "Need " + thread, i);
+        });
+
+        // Analyze
+        Map<String, Integer> basket = quantities(dao.getCurBasket(sessions[0]));
+        Map<String, Integer> saved = quantities(((Supporter) open(UserFileDAO.PERSISTENCE_FILE, "sync")
+                .getUser("Supporter 0")).getFundingBasket());
+        assertEquals(THREADS, basket.size());
+        for (int t = 0; t < THREADS; ++t)
+            assertEquals(ROUNDS, basket.get("Need " + t));
+        assertEquals(basket, saved);
+    }
+
+    @Test
+    public void testDifferentSupportersNoLostEdits() throws Exception {
+        // Setup
+        FileFlusher flusher = new FileFlusher();
+        UserFileDAO dao = open(UserFileDAO.PERSISTENCE_SHARDED, "async", flusher);
+        String[] sessions = new String[THREADS];
+        for (int t = 0; t < THREADS; ++t)
+            sessions[t] = dao.loginUser(dao.getUser("Supporter " + t));
+
+        // Invoke
+        race(thread -> {
+            for (int i = 1; i <= ROUNDS; ++i)
+                dao.updateNeedInCurBasket(sessions[thread], "Need " + i % 4, i);
+        });
+        flusher.close(); // writes every pending shard
+
+        // Analyze
+        UserFileDAO reloaded = open(UserFileDAO.PERSISTENCE_SHARDED, "sync");
+        for (int t = 0; t < THREADS; ++t) {
+            Map<String, Integer> basket = quantities(dao.getCurBasket(sessions[t]));
+            assertEquals(4, basket.size());
+            assertEquals(ROUNDS, basket.get("Need 0"));
+            assertEquals(basket, quantities(((Supporter) reloaded.getUser("Supporter " + t)).getFundingBasket()));
+        }
+    }
+
+    @Test
+    public void testShardedSameSupporterKeepsNewest() throws Exception {
+        // Setup
+        UserFileDAO dao = open(UserFileDAO.PERSISTENCE_SHARDED, "sync");
+        String[] sessions = new String[THREADS];
+        for (int t = 0; t < THREADS; ++t)
+            sessions[t] = dao.loginUser(dao.getUser("Supporter " + t % 2));
+
+        // Invoke
+        race(thread -> {
+            for (int i = 1; i <= ROUNDS; ++i)
+                dao.updateNeedInCurBasket(sessions[thread], "Need " + thread, i);
+        });
+
+        // Analyze
+        UserFileDAO reloaded = open(UserFileDAO.PERSISTENCE_SHARDED, "sync");
+        for (int s = 0; s < 2; ++s) {
+            Map<String, Integer> basket = quantities(dao.getCurBasket(sessions[s]));
+            assertEquals(THREADS / 2, basket.size());
+            assertEquals(basket, quantities(((Supporter) reloaded.getUser("Supporter " + s)).getFundingBasket()));
+        }
+    }
+
+    @Test
+    public void testMessagesNoLostUpdates() throws Exception {
+        // Setup
+        UserFileDAO dao = open(UserFileDAO.PERSISTENCE_FILE, "sync");
+
+        // Invoke
+        race(thread -> {
+            for (int i = 0; i < ROUNDS; ++i)
+                dao.sendOrUpdateMessageToUser(new NeedMessage("admin", "Need " + thread + "-" + i % 10, "" + i),
+                        "Supporter 0");
+        });
+
+        // Analyze
+        NeedMessage[] messages = ((Supporter) dao.getUser("Supporter 0")).getNeedMessages();
+        assertEquals(THREADS * 10, messages.length);
+        for (NeedMessage message : messages)
+            assertEquals(message.getNeedName(), dao.getMessageToUser("Supporter 0", message.getNeedName())
+                    .getNeedName());
+    }
+
+    @Test
+    public void testCreateSupporterOnce() throws Exception {
+        // Setup
+        UserFileDAO dao = open(UserFileDAO.PERSISTENCE_SHARDED, "sync");
+        AtomicInteger created = new AtomicInteger();
+
+        // Invoke
+        race(thread -> {
+            for (int i = 0; i < ROUNDS; ++i) {
+                try {
+                    dao.createSupporter(new Supporter("New " + i, new Need[0], new NeedMessage[0]));
+                    created.incrementAndGet();
+                } catch (KeyAlreadyExistsException e) {
+                    // created by another thread
+                }
+            }
+        });
+
+        // Analyze
+        assertEquals(ROUNDS, created.get());
+        assertEquals(THREADS + ROUNDS, dao.getSupporters().length);
+        assertEquals(THREADS + ROUNDS, open(UserFileDAO.PERSISTENCE_SHARDED, "sync").getSupporters().length);
+    }
+
+    @Test
+    public void testSameSupporterChecksOutOnce() throws Exception {
+        // Setup
+        File needs = dir.resolve("needs.json").toFile();
+        objectMapper.writeValue(needs, new Need[] { new Need("Soap", 1, ROUNDS * 5) });
+        NeedDAO needDao = new NeedFileDAO(needs.getPath(), objectMapper);
+        NeedReceiptDAO mockReceiptDao = mock(NeedReceiptDAO.class);
+        UserFileDAO dao = new UserFileDAO(file.getPath(), UserFileDAO.PERSISTENCE_FILE, "sync", false,
+                UserSessions.DEFAULT_IDLE_MILLIS, objectMapper, needDao, mockReceiptDao, new FileFlusher(),
+                new StoreLoader());
+        String[] sessions = new String[THREADS];
+        for (int t = 0; t < THREADS; ++t)
+            sessions[t] = dao.loginUser(dao.getUser("Supporter 0"));
+
+        for (int round = 1; round <= ROUNDS / 10; ++round) {
+            dao.updateNeedInCurBasket(sessions[0], "Soap", 5);
+
+            // Invoke
+            race(thread -> dao.checkoutCurBasket(sessions[thread]));
+
+            // Analyze
+            assertEquals(0, dao.getCurBasket(sessions[0]).length);
+            assertEquals(ROUNDS * 5 - round * 5, needDao.getNeed("Soap").getQuantity());
+            verify(mockReceiptDao, times(round)).createOrUpdateReceipt(any(Need.class), eq("Supporter 0"));
+        }
+    }
+}
@@ -4,30 +4,52 @@ import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
 
 import javax.management.openmbean.KeyAlreadyExistsException;
 
+import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.ufund.api.ufundapi.exceptions.NeedNotFoundException;
 import com.ufund.api.ufundapi.exceptions.SupporterNotSignedInException;
 import com.ufund.api.ufundapi.model.BasketNeed;
 import com.ufund.api.ufundapi.model.Need;
 import com.ufund.api.ufundapi.model.NeedMessage;
+import com.ufund.api.ufundapi.model.NeedReceipt;
+import com.ufund.api.ufundapi.model.Page;
 import com.ufund.api.ufundapi.model.Supporter;
 import com.ufund.api.ufundapi.model.User;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 /**
  * Test the User File DAO class
@@ -59,15 +81,63 @@ public class UserFileDAOTests {
         testSupporter[0] = new Supporter("testUsername", basket, expected_messages);
         testSupporter[1] = new Supporter("testUsername2", basket, expected_messages);
         testSupporter[2] = new Supporter("testUsername3", basket, expected_messages);
-        when(mockObjectMapper
-                .readValue(new File("doesnt_matter.txt"), Supporter[].class))
-                .thenReturn(testSupporter);
+        NeedFileDAOTest.mockJsonArray(mockObjectMapper, "doesnt_matter.txt", Supporter.class, testSupporter);
                 
         mockNeedDao = mock(NeedDAO.class);
+        mockGetNeeds(mockNeedDao);
         mockNeedReceiptDao = mock(NeedReceiptDAO.class);
         userFileDAO = new UserFileDAO("doesnt_matter.txt", mockObjectMapper, mockNeedDao, mockNeedReceiptDao);
     }
 
+    /**
+     * Makes the mock need DAO answer a multi-get by looking up each name with
+     * {@link NeedDAO#getNeed(String)}, so tests only need to stub single needs
+     */
+    static void mockGetNeeds(NeedDAO mockNeedDao) throws IOException {
+        when(mockNeedDao.getNeeds(anyCollection())).thenAnswer(invocation -> {
+            Map<String, Need> found = new LinkedHashMap<>();
+            for (String name : invocation.<Collection<String>>getArgument(0)) {
+                Need need = mockNeedDao.getNeed(name);
+                if (need != null)
+                    found.put(name, need);
+            }
+            return found;
+        });
+    }
+
+    @Test
+    public void testGetSupportersPaged() throws IOException {
+        // Invoke
+        Page<Supporter> first = userFileDAO.getSupporters(null, 2);
+        Page<Supporter> second = userFileDAO.getSupporters(first.getNext(), 2);
+
+        // Analyze
+        assertEquals(List.of(testSupporter[0], testSupporter[1]), first.getItems());
+        assertEquals(List.of(testSupporter[2]), second.getItems());
+        assertNull(second.getNext());
+    }
+
+    @Test
+    public void testGetSupportersPagedInvalid() {
+        // Invoke & Analyze
+        assertThrows(IllegalArgumentException.class, () -> userFileDAO.getSupporters(null, Page.MAX_LIMIT + 1));
+    }
+
+    @Test
+    public void testVersionIncreases() throws IOException {
+        // Setup
+        long loaded = userFileDAO.getVersion();
+
+        // Invoke
+        String session = userFileDAO.loginUser(User.ADMIN);
+        long loggedIn = userFileDAO.getVersion();
+        userFileDAO.logoutCurUser(session);
+
+        // Analyze
+        assertTrue(loggedIn > loaded);
+        assertTrue(userFileDAO.getVersion() > loggedIn);
+    }
+
     @Test
     public void testCreateSupporter_alreadyExists() throws KeyAlreadyExistsException, IOException {
         // Setup
@@ -126,7 +196,7 @@ public class UserFileDAOTests {
     }
 
     @Test
-    public void testLoginUser_success() throws IOException {
+    public void testLoginUser_success() throws IOException, SupporterNotSignedInException {
         // Setup
         Need[] basket = new Need[]{new Need("Test1", 1, 5), new Need("Test2", 2, 3)};
         Supporter supporter = testSupporter[0];
@@ -135,34 +205,37 @@ public class UserFileDAOTests {
         when(mockNeedDao.getNeed(basket[1].getName())).thenReturn(null);
 
         // Invoke
-        boolean result1 = userFileDAO.loginUser(supporter);
+        String session = userFileDAO.loginUser(supporter);
 
         // Analyze
-        assertTrue(result1);
-        assertEquals(supporter, userFileDAO.getCurUser());
+        assertNotNull(session);
+        assertEquals(supporter, userFileDAO.getCurUser(session));
     }
 
     @Test
-    public void testLoginUser_sameUser() throws IOException {
+    public void testLoginUser_sameUser() throws IOException, SupporterNotSignedInException {
         // Setup
         Supporter supporter = testSupporter[0];
-        userFileDAO.loginUser(supporter);
+        String first = userFileDAO.loginUser(supporter);
 
         // Invoke
-        boolean result1 = userFileDAO.loginUser(supporter);
+        String second = userFileDAO.loginUser(supporter);
 
         // Analyze
-        assertTrue(result1);
+        assertNotEquals(first, second);
+        assertEquals(supporter, userFileDAO.getCurUser(first));
+        assertEquals(supporter, userFileDAO.getCurUser(second));
     }
 
     @Test
-    public void testLoginUser_admin() throws IOException {
+    public void testLoginUser_admin() throws IOException, SupporterNotSignedInException {
         // Invoke
-        boolean result = userFileDAO.loginUser(User.ADMIN);
+        String session = userFileDAO.loginUser(User.ADMIN);
 
         // Analyze
-        assertTrue(result);
-        assertEquals(User.ADMIN, userFileDAO.getCurUser());
+        assertNotNull(session);
+        assertEquals(User.ADMIN, userFileDAO.getCurUser(session));
+        assertThrows(SupporterNotSignedInException.class, () -> userFileDAO.getCurBasket(session));
     }
 
     @Test
@@ -171,24 +244,77 @@ public class UserFileDAOTests {
         Supporter supporter = new Supporter("testUsername4", new Need[0], new NeedMessage[0]);
 
         // Invoke
-        boolean result1 = userFileDAO.loginUser(supporter);
+        String session = userFileDAO.loginUser(supporter);
 
         // Analyze
-        assertFalse(result1);
-        assertNull(userFileDAO.getCurUser());
+        assertNull(session);
+        assertThrows(SupporterNotSignedInException.class, () -> userFileDAO.getCurUser(session));
     }
 
     @Test
     public void testLogoutCurUser() throws IOException {
         // Setup
         Supporter supporter = testSupporter[0];
-        userFileDAO.loginUser(supporter);
+        String session = userFileDAO.loginUser(supporter);
+
+        // Invoke
+        userFileDAO.logoutCurUser(session);
+
+        // Analyze
+        assertThrows(SupporterNotSignedInException.class, () -> userFileDAO.getCurUser(session));
+    }
+
+    @Test
+    public void testSessionsIndependent()
+            throws IOException, NeedNotFoundException, SupporterNotSignedInException {
+        // Setup
+        Need need = new Need("testNeed1", 1.5, 12);
+        when(mockNeedDao.getNeed(need.getName())).thenReturn(need);
+        String first = userFileDAO.loginUser(testSupporter[0]);
+        String second = userFileDAO.loginUser(testSupporter[1]);
+
+        // Invoke
+        userFileDAO.updateNeedInCurBasket(first, need.getName(), 2);
+        userFileDAO.logoutCurUser(second);
+
+        // Analyze
+        assertEquals(1, userFileDAO.getCurBasket(first).length);
+        assertEquals(0, testSupporter[1].getFundingBasket().length);
+        assertThrows(SupporterNotSignedInException.class, () -> userFileDAO.getCurBasket(second));
+    }
+
+    @Test
+    public void testSessionsShareSupporter()
+            throws IOException, NeedNotFoundException, SupporterNotSignedInException {
+        // Setup
+        Need need = new Need("testNeed1", 1.5, 12);
+        when(mockNeedDao.getNeed(need.getName())).thenReturn(need);
+        String first = userFileDAO.loginUser(testSupporter[0]);
+        String second = userFileDAO.loginUser(testSupporter[0]);
+
+        // Invoke
+        userFileDAO.updateNeedInCurBasket(first, need.getName(), 2);
+
+        // Analyze
+        Need[] basket = userFileDAO.getCurBasket(second);
+        assertEquals(1, basket.length);
+        assertEquals(2, basket[0].getQuantity());
+    }
+
+    @Test
+    public void testSessionIdleEvicted() throws IOException {
+        // Setup
+        UserFileDAO idleDao = new UserFileDAO("doesnt_matter.txt", UserFileDAO.PERSISTENCE_FILE, "sync", false, 1,
+                mockObjectMapper, mockNeedDao, mockNeedReceiptDao, new FileFlusher(), new StoreLoader());
+        String session = idleDao.loginUser(testSupporter[0]);
 
         // Invoke
-        userFileDAO.logoutCurUser();
+        long loggedIn = System.currentTimeMillis();
+        while (System.currentTimeMillis() - loggedIn < 5)
+            Thread.onSpinWait();
 
         // Analyze
-        assertNull(userFileDAO.getCurUser());
+        assertThrows(SupporterNotSignedInException.class, () -> idleDao.getCurMessages(session));
     }
 
     @Test
@@ -197,14 +323,14 @@ public class UserFileDAOTests {
         // Setup
         Need expected_need = new Need("testNeed1", 1.5, 12);
         Supporter supporter = testSupporter[0];
-        userFileDAO.loginUser(supporter);
+        String session = userFileDAO.loginUser(supporter);
         when(mockNeedDao.getNeed(any())).thenReturn(expected_need);
 
         // Invoke
-        userFileDAO.updateNeedInCurBasket(expected_need.getName(), 1);
+        userFileDAO.updateNeedInCurBasket(session, expected_need.getName(), 1);
 
         // Analyze
-        assertEquals(1, userFileDAO.getCurBasket().length);
+        assertEquals(1, userFileDAO.getCurBasket(session).length);
     }
 
     @Test
@@ -213,15 +339,15 @@ public class UserFileDAOTests {
         // Setup
         Need expected_need = new Need("testNeed1", 1.5, 12);
         Supporter supporter = testSupporter[0];
-        userFileDAO.loginUser(supporter);
+        String session = userFileDAO.loginUser(supporter);
         when(mockNeedDao.getNeed(any())).thenReturn(expected_need);
-        userFileDAO.updateNeedInCurBasket(expected_need.getName(), 1);
+        userFileDAO.updateNeedInCurBasket(session, expected_need.getName(), 1);
 
         // Invoke
-        userFileDAO.updateNeedInCurBasket(expected_need.getName(), 1);
+        userFileDAO.updateNeedInCurBasket(session, expected_need.getName(), 1);
 
         // Analyze
-        assertEquals(1, userFileDAO.getCurBasket().length);
+        assertEquals(1, userFileDAO.getCurBasket(session).length);
     }
 
 
@@ -230,7 +356,7 @@ public class UserFileDAOTests {
             throws IOException, NeedNotFoundException, SupporterNotSignedInException {
         // Analyze
         assertThrows(SupporterNotSignedInException.class, () -> {
-            userFileDAO.updateNeedInCurBasket("", 12);
+            userFileDAO.updateNeedInCurBasket(null, "", 12);
         });
     }
 
@@ -239,11 +365,11 @@ public class UserFileDAOTests {
             throws IOException, NeedNotFoundException, SupporterNotSignedInException {
         // Setup
         Supporter supporter = testSupporter[0];
-        userFileDAO.loginUser(supporter);
+        String session = userFileDAO.loginUser(supporter);
         
         // Analyze
         assertThrows(NeedNotFoundException.class, () -> {
-            userFileDAO.updateNeedInCurBasket("Not in basket obviously", 1);
+            userFileDAO.updateNeedInCurBasket(session, "Not in basket obviously", 1);
         });
     }    
 
@@ -253,16 +379,16 @@ public class UserFileDAOTests {
         // Setup
         Need need = new Need("testNeed1", 1.5, 6);
         Supporter supporter = testSupporter[0];
-        userFileDAO.loginUser(supporter);
+        String session = userFileDAO.loginUser(supporter);
 
         when(mockNeedDao.getNeed(need.getName())).thenReturn(need);
         
         // Invoke
-        userFileDAO.updateNeedInCurBasket(need.getName(), 1);
-        userFileDAO.updateNeedInCurBasket(need.getName(), 0);
+        userFileDAO.updateNeedInCurBasket(session, need.getName(), 1);
+        userFileDAO.updateNeedInCurBasket(session, need.getName(), 0);
 
         // Analyze
-        assertEquals(0, userFileDAO.getCurBasket().length);
+        assertEquals(0, userFileDAO.getCurBasket(session).length);
     }
 
     @Test
@@ -271,16 +397,16 @@ public class UserFileDAOTests {
         // Setup
         Need need = new Need("testNeed1", 1.5, 6);
         Supporter supporter = testSupporter[0];
-        userFileDAO.loginUser(supporter);
+        String session = userFileDAO.loginUser(supporter);
 
         when(mockNeedDao.getNeed(need.getName())).thenReturn(need);
         
         // Invoke
-        userFileDAO.updateNeedInCurBasket(need.getName(), 1);
-        userFileDAO.updateNeedInCurBasket(need.getName(), 3);
+        userFileDAO.updateNeedInCurBasket(session, need.getName(), 1);
+        userFileDAO.updateNeedInCurBasket(session, need.getName(), 3);
 
         // Analyze
-        assertEquals(1, userFileDAO.getCurBasket().length);
+        assertEquals(1, userFileDAO.getCurBasket(session).length);
     }
 
     @Test
@@ -288,11 +414,11 @@ public class UserFileDAOTests {
             throws IOException, SupporterNotSignedInException, NeedNotFoundException {
         // Setup
         Supporter supporter = testSupporter[0];
-        userFileDAO.loginUser(supporter);
+        String session = userFileDAO.loginUser(supporter);
 
         // Analyze
         assertThrows(NeedNotFoundException.class, () -> {
-            userFileDAO.updateNeedInCurBasket("testNeed23412", 1);
+            userFileDAO.updateNeedInCurBasket(session, "testNeed23412", 1);
         });
     }
 
@@ -301,7 +427,7 @@ public class UserFileDAOTests {
             throws IOException, SupporterNotSignedInException, NeedNotFoundException {
         // Analyze
         assertThrows(SupporterNotSignedInException.class, () -> {
-            userFileDAO.updateNeedInCurBasket("testNeed23412", 1);
+            userFileDAO.updateNeedInCurBasket(null, "testNeed23412", 1);
         });
     }
 
@@ -309,7 +435,7 @@ public class UserFileDAOTests {
     public void testGetCurBasket_SupporterNotSignedIn() throws SupporterNotSignedInException {
         // Analyze
         assertThrows(SupporterNotSignedInException.class, () -> {
-            userFileDAO.getCurBasket();
+            userFileDAO.getCurBasket(null);
         });
     }
 
@@ -318,15 +444,16 @@ public class UserFileDAOTests {
         // Setup
         Need expected_need = new Need("testNeed1", 1.5, 5);
         when(mockNeedDao.getNeed(any())).thenReturn(expected_need);
+        when(mockNeedDao.reserveNeeds(Map.of(expected_need.getName(), 5))).thenReturn(true);
 
-        userFileDAO.loginUser(testSupporter[0]);
-        userFileDAO.updateNeedInCurBasket(expected_need.getName(), 5);
+        String session = userFileDAO.loginUser(testSupporter[0]);
+        userFileDAO.updateNeedInCurBasket(session, expected_need.getName(), 5);
 
         // Invoke
-        userFileDAO.checkoutCurBasket();
+        userFileDAO.checkoutCurBasket(session);
 
         // Analyze
-        assertEquals(userFileDAO.getCurBasket().length, 0);
+        assertEquals(userFileDAO.getCurBasket(session).length, 0);
     }
 
     @Test
@@ -334,15 +461,154 @@ public class UserFileDAOTests {
         // Setup
         Need expected_need = new Need("testNeed1", 1.5, 5);
         when(mockNeedDao.getNeed(any())).thenReturn(expected_need);
+        when(mockNeedDao.reserveNeeds(any())).thenReturn(true);
+
+        String session = userFileDAO.loginUser(testSupporter[0]);
+        userFileDAO.updateNeedInCurBasket(session, expected_need.getName(), 3);
+
+        // Invoke
+        boolean response = userFileDAO.checkoutCurBasket(session);
+
+        // Analyze
+        assertTrue(response);
+        verify(mockNeedDao).reserveNeeds(Map.of(expected_need.getName(), 3));
+        verify(mockNeedReceiptDao).createOrUpdateReceipt(any(), eq(testSupporter[0].getUsername()));
+        assertEquals(5, expected_need.getQuantity()); // the stored need is never changed in place
+    }
+
+    @Test
+    public void testCheckoutBasketSkipsSoldOutLine()
+            throws IOException, SupporterNotSignedInException, NeedNotFoundException {
+        // Setup
+        Need soap = new Need("Soap", 1.5, 5);
+        Need shampoo = new Need("Shampoo", 2, 5);
+        when(mockNeedDao.getNeed(soap.getName())).thenReturn(soap);
+        when(mockNeedDao.getNeed(shampoo.getName())).thenReturn(shampoo);
+        when(mockNeedDao.reserveNeeds(any())).thenReturn(true);
+
+        String session = userFileDAO.loginUser(testSupporter[0]);
+        userFileDAO.updateNeedInCurBasket(session, soap.getName(), 2);
+        userFileDAO.updateNeedInCurBasket(session, shampoo.getName(), 3);
+        when(mockNeedDao.getNeed(soap.getName())).thenReturn(new Need("Soap", 1.5, 0)); // sold out by an admin
+        userFileDAO.getCurBasket(session); // trims the soap line to nothing
+
+        // Invoke
+        boolean response = userFileDAO.checkoutCurBasket(session);
+
+        // Analyze
+        assertTrue(response);
+        verify(mockNeedDao).reserveNeeds(Map.of(shampoo.getName(), 3)); // never asked to reserve nothing
+        verify(mockNeedReceiptDao).createOrUpdateReceipt(any(), eq(testSupporter[0].getUsername()));
+        assertEquals(0, userFileDAO.getCurBasket(session).length);
+    }
 
-        userFileDAO.loginUser(testSupporter[0]);
-        userFileDAO.updateNeedInCurBasket(expected_need.getName(), 3);
+    @Test
+    public void testGetCurBasketSavesTrimmedLines(@TempDir Path dir) throws Exception {
+        // Setup
+        ObjectMapper objectMapper = new ObjectMapper()
+                .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        File file = dir.resolve("supporters.json").toFile();
+        objectMapper.writeValue(file, testSupporter);
+        Need soap = new Need("Soap", 1.5, 5);
+        when(mockNeedDao.getNeed(soap.getName())).thenReturn(soap);
+        UserFileDAO userDao = new UserFileDAO(file.getPath(), objectMapper, mockNeedDao, mockNeedReceiptDao);
+        String session = userDao.loginUser(testSupporter[0]);
+        userDao.updateNeedInCurBasket(session, soap.getName(), 4);
+        when(mockNeedDao.getNeed(soap.getName())).thenReturn(new Need("Soap", 1.5, 2)); // partly funded meanwhile
+        long before = userDao.getVersion();
 
         // Invoke
-        userFileDAO.checkoutCurBasket();
+        Need[] trimmed = userDao.getCurBasket(session);
+        long afterTrim = userDao.getVersion();
+        userDao.getCurBasket(session);
 
         // Analyze
-        assertEquals(2, expected_need.getQuantity());
+        assertEquals(2, trimmed[0].getQuantity());
+        assertTrue(afterTrim > before);
+        assertEquals(afterTrim, userDao.getVersion()); // nothing left to trim
+        Supporter saved = (Supporter) new UserFileDAO(file.getPath(), objectMapper, mockNeedDao, mockNeedReceiptDao)
+                .getUser(testSupporter[0].getUsername());
+        assertEquals(2, saved.getFundingBasket()[0].getQuantity());
+    }
+
+    @Test
+    public void testCheckoutBasketReservesTogether()
+            throws IOException, SupporterNotSignedInException, NeedNotFoundException {
+        // Setup
+        Need first = new Need("testNeed1", 1.5, 5);
+        Need second = new Need("testNeed2", 3, 8);
+        when(mockNeedDao.getNeed(first.getName())).thenReturn(first);
+        when(mockNeedDao.getNeed(second.getName())).thenReturn(second);
+        when(mockNeedDao.reserveNeeds(any())).thenReturn(true);
+
+        String session = userFileDAO.loginUser(testSupporter[0]);
+        userFileDAO.updateNeedInCurBasket(session, first.getName(), 2);
+        userFileDAO.updateNeedInCurBasket(session, second.getName(), 5);
+
+        // Invoke
+        boolean response = userFileDAO.checkoutCurBasket(session);
+
+        // Analyze
+        assertTrue(response);
+        verify(mockNeedDao).reserveNeeds(Map.of(first.getName(), 2, second.getName(), 5));
+    }
+
+    @Test
+    public void testCheckoutBasketReservationFails()
+            throws IOException, SupporterNotSignedInException, NeedNotFoundException {
+        // Setup
+        Need first = new Need("testNeed1", 1.5, 5);
+        Need second = new Need("testNeed2", 3, 8);
+        when(mockNeedDao.getNeed(first.getName())).thenReturn(first);
+        when(mockNeedDao.getNeed(second.getName())).thenReturn(second);
+        // Another checkout takes the stock between the verify and the reservation
+        when(mockNeedDao.reserveNeeds(any())).thenReturn(false);
+
+        String session = userFileDAO.loginUser(testSupporter[0]);
+        userFileDAO.updateNeedInCurBasket(session, first.getName(), 2);
+        userFileDAO.updateNeedInCurBasket(session, second.getName(), 5);
+
+        // Invoke
+        boolean response = userFileDAO.checkoutCurBasket(session);
+
+        // Analyze
+        assertFalse(response);
+        verify(mockNeedReceiptDao, never()).createOrUpdateReceipt(any(), any());
+        assertEquals(2, userFileDAO.getCurBasket(session).length);
+    }
+
+    @Test
+    public void testCheckoutBasketTwiceAtOnce() throws Exception {
+        // Setup
+        Need soap = new Need("Soap", 1.5, 5);
+        when(mockNeedDao.getNeed(soap.getName())).thenReturn(soap);
+        CountDownLatch reserving = new CountDownLatch(1);
+        when(mockNeedDao.reserveNeeds(any())).thenAnswer(invocation -> {
+            reserving.countDown();
+            Thread.sleep(200); // the second checkout starts while this one is reserving
+            return true;
+        });
+
+        // A double submit, or the same supporter in another tab
+        String first = userFileDAO.loginUser(testSupporter[0]);
+        String second = userFileDAO.loginUser(testSupporter[0]);
+        userFileDAO.updateNeedInCurBasket(first, soap.getName(), 3);
+
+        // Invoke
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        Future<Boolean> firstCheckout = executor.submit(() -> userFileDAO.checkoutCurBasket(first));
+        Future<Boolean> secondCheckout = executor.submit(() -> {
+            reserving.await();
+            return userFileDAO.checkoutCurBasket(second);
+        });
+
+        // Analyze
+        assertTrue(firstCheckout.get());
+        assertTrue(secondCheckout.get()); // nothing was left to fund
+        executor.shutdown();
+        verify(mockNeedDao).reserveNeeds(Map.of(soap.getName(), 3));
+        verify(mockNeedReceiptDao).createOrUpdateReceipt(any(), eq(testSupporter[0].getUsername()));
+        assertEquals(0, userFileDAO.getCurBasket(second).length);
     }
 
     @Test
@@ -351,14 +617,14 @@ public class UserFileDAOTests {
         Need updated_need = new Need("testNeed1", 1.5, 5);
         when(mockNeedDao.getNeed(any())).thenReturn(updated_need);
 
-        userFileDAO.loginUser(testSupporter[0]);
-        userFileDAO.updateNeedInCurBasket(updated_need.getName(), 5);
+        String session = userFileDAO.loginUser(testSupporter[0]);
+        userFileDAO.updateNeedInCurBasket(session, updated_need.getName(), 5);
 
         updated_need.setQuantity(3);
         when(mockNeedDao.getNeed(any())).thenReturn(updated_need);
 
         // Invoke
-        boolean response = userFileDAO.checkoutCurBasket();
+        boolean response = userFileDAO.checkoutCurBasket(session);
 
         // Analyze
         assertFalse(response);
@@ -370,13 +636,13 @@ public class UserFileDAOTests {
         Need updated_need = new Need("testNeed1", 1.5, 5);
         when(mockNeedDao.getNeed(any())).thenReturn(updated_need);
 
-        userFileDAO.loginUser(testSupporter[0]);
-        userFileDAO.updateNeedInCurBasket(updated_need.getName(), 5);
+        String session = userFileDAO.loginUser(testSupporter[0]);
+        userFileDAO.updateNeedInCurBasket(session, updated_need.getName(), 5);
 
         when(mockNeedDao.getNeed(any())).thenReturn(null);
 
         // Invoke
-        boolean response = userFileDAO.checkoutCurBasket();
+        boolean response = userFileDAO.checkoutCurBasket(session);
 
         // Analyze
         assertFalse(response);
@@ -388,14 +654,14 @@ public class UserFileDAOTests {
         Need updated_need = new Need("testNeed1", 1.5, 5);
         when(mockNeedDao.getNeed(any())).thenReturn(updated_need);
 
-        userFileDAO.loginUser(testSupporter[0]);
-        userFileDAO.updateNeedInCurBasket(updated_need.getName(), 5);
+        String session = userFileDAO.loginUser(testSupporter[0]);
+        userFileDAO.updateNeedInCurBasket(session, updated_need.getName(), 5);
 
         updated_need.setCost(3);
         when(mockNeedDao.getNeed(any())).thenReturn(updated_need);
 
         // Invoke
-        boolean response = userFileDAO.checkoutCurBasket();
+        boolean response = userFileDAO.checkoutCurBasket(session);
 
         // Analyze
         assertFalse(response);
@@ -410,13 +676,13 @@ public class UserFileDAOTests {
         when(mockNeedDao.getNeed(non_expected_need.getName())).thenReturn(non_expected_need);
         int expected_new_quantity = 1;
 
-        userFileDAO.loginUser(testSupporter[0]);
-        userFileDAO.updateNeedInCurBasket(expected_need.getName(), 4);
-        userFileDAO.updateNeedInCurBasket(non_expected_need.getName(), 5);
+        String session = userFileDAO.loginUser(testSupporter[0]);
+        userFileDAO.updateNeedInCurBasket(session, expected_need.getName(), 4);
+        userFileDAO.updateNeedInCurBasket(session, non_expected_need.getName(), 5);
         when(mockNeedDao.getNeed(non_expected_need.getName())).thenReturn(null);
 
         // Invoke
-        boolean response = userFileDAO.checkoutCurBasket();
+        boolean response = userFileDAO.checkoutCurBasket(session);
 
         // Analyze
         assertFalse(response);
@@ -426,7 +692,7 @@ public class UserFileDAOTests {
     public void testCheckoutBasket_SupporterNotSignedIn() throws SupporterNotSignedInException {
         // Analyze
         assertThrows(SupporterNotSignedInException.class, () -> {
-            userFileDAO.checkoutCurBasket();
+            userFileDAO.checkoutCurBasket(null);
         });
     }
 
@@ -442,26 +708,49 @@ public class UserFileDAOTests {
         when(mockNeedDao.getNeed(available_needs[1].getName())).thenReturn(available_needs[1]);
         when(mockNeedDao.getNeed(available_needs[2].getName())).thenReturn(available_needs[2]);
 
-        userFileDAO.loginUser(testSupporter[0]);
-        userFileDAO.updateNeedInCurBasket(available_needs[1].getName(), 3);
-        userFileDAO.updateNeedInCurBasket(available_needs[2].getName(), 26);
+        String session = userFileDAO.loginUser(testSupporter[0]);
+        userFileDAO.updateNeedInCurBasket(session, available_needs[1].getName(), 3);
+        userFileDAO.updateNeedInCurBasket(session, available_needs[2].getName(), 26);
 
         int expected_available_size = 2;
         int expected_need_2_quantity = 21 - 3;
 
         // Invoke
-        Need[] basketable_needs = userFileDAO.getBasketableNeeds();
+        List<Need> basketable_needs = userFileDAO.getBasketableNeeds(session);
 
         // Analyze
-        assertEquals(expected_available_size, basketable_needs.length);
-        assertEquals(basketable_needs[1].getQuantity(), expected_need_2_quantity);
+        assertEquals(expected_available_size, basketable_needs.size());
+        assertEquals(basketable_needs.get(1).getQuantity(), expected_need_2_quantity);
+    }
+
+    @Test
+    public void testGetBasketableFollowsCupboard() throws SupporterNotSignedInException, IOException,
+            NeedNotFoundException {
+        // Setup
+        Need soap = new Need("Soap", 1, 5);
+        when(mockNeedDao.getNeeds()).thenReturn(new Need[] { soap });
+        when(mockNeedDao.getNeed(soap.getName())).thenReturn(soap);
+        String session = userFileDAO.loginUser(testSupporter[0]);
+        userFileDAO.updateNeedInCurBasket(session, soap.getName(), 5);
+        List<Need> before = userFileDAO.getBasketableNeeds(session);
+
+        // Invoke
+        Need restocked = new Need("Soap", 1, 8);
+        when(mockNeedDao.getNeeds()).thenReturn(new Need[] { restocked });
+        when(mockNeedDao.getVersion()).thenReturn(1L);
+        List<Need> after = userFileDAO.getBasketableNeeds(session);
+
+        // Analyze
+        assertTrue(before.isEmpty());
+        assertEquals(1, after.size());
+        assertEquals(3, after.get(0).getQuantity());
     }
 
     @Test
     public void testGetBasketable_SupporterNotSignedIn() throws SupporterNotSignedInException {
         // Analyze
         assertThrows(SupporterNotSignedInException.class, () -> {
-            userFileDAO.getBasketableNeeds();
+            userFileDAO.getBasketableNeeds(null);
         });
     }
 
@@ -473,11 +762,11 @@ public class UserFileDAOTests {
 
         int expected_quantity = 5;
 
-        userFileDAO.loginUser(testSupporter[0]);
-        userFileDAO.updateNeedInCurBasket(needInBasket.getName(), expected_quantity);
+        String session = userFileDAO.loginUser(testSupporter[0]);
+        userFileDAO.updateNeedInCurBasket(session, needInBasket.getName(), expected_quantity);
 
         // Invoke
-        BasketNeed basketNeed = userFileDAO.getBasketOrNormalNeed(needInBasket.getName());
+        BasketNeed basketNeed = userFileDAO.getBasketOrNormalNeed(session, needInBasket.getName());
 
         // Analyze
         assertEquals(needInBasket.getName(), basketNeed.getName());
@@ -493,10 +782,10 @@ public class UserFileDAOTests {
 
         int expected_quantity = 0;
 
-        userFileDAO.loginUser(testSupporter[0]);
+        String session = userFileDAO.loginUser(testSupporter[0]);
 
         // Invoke
-        BasketNeed basketNeed = userFileDAO.getBasketOrNormalNeed(needInBasket.getName());
+        BasketNeed basketNeed = userFileDAO.getBasketOrNormalNeed(session, needInBasket.getName());
 
         // Analyze
         assertEquals(needInBasket.getName(), basketNeed.getName());
@@ -508,7 +797,7 @@ public class UserFileDAOTests {
     public void testGetBasketNeed_SupporterNotSignedInException() throws SupporterNotSignedInException, IOException, NeedNotFoundException {
         // Analyze
         assertThrows(SupporterNotSignedInException.class, () -> {
-            userFileDAO.getBasketOrNormalNeed("");
+            userFileDAO.getBasketOrNormalNeed(null, "");
         });
     }
 
@@ -516,11 +805,11 @@ public class UserFileDAOTests {
     public void testGetBasketNeed_IOException() throws SupporterNotSignedInException, IOException, NeedNotFoundException {
         // Setup
         when(mockNeedDao.getNeed(any())).thenThrow(new IOException());
-        userFileDAO.loginUser(testSupporter[0]);
+        String session = userFileDAO.loginUser(testSupporter[0]);
 
         // Analyze
         assertThrows(IOException.class, () -> {
-            userFileDAO.getBasketOrNormalNeed("");
+            userFileDAO.getBasketOrNormalNeed(session, "");
         });
     }
 
@@ -528,11 +817,11 @@ public class UserFileDAOTests {
     public void testGetBasketNeed_NeedNotFoundException() throws SupporterNotSignedInException, IOException, NeedNotFoundException {
         // Setup
         when(mockNeedDao.getNeed(any())).thenReturn(null);
-        userFileDAO.loginUser(testSupporter[0]);
+        String session = userFileDAO.loginUser(testSupporter[0]);
 
         // Analyze
         assertThrows(NeedNotFoundException.class, () -> {
-            userFileDAO.getBasketOrNormalNeed("");
+            userFileDAO.getBasketOrNormalNeed(session, "");
         });
     }
 
@@ -541,7 +830,7 @@ public class UserFileDAOTests {
         // Setup
         NeedMessage message = new NeedMessage("CheeseBell", "testNeed", "testMessage");
         Supporter supporter = testSupporter[0];
-        userFileDAO.loginUser(testSupporter[1]);
+        String session = userFileDAO.loginUser(testSupporter[1]);
 
         // Invoke
         userFileDAO.sendOrUpdateMessageToUser(message, testSupporter[0].getUsername());
@@ -555,7 +844,7 @@ public class UserFileDAOTests {
     public void testSendOrUpdateMessageToUser_ReceiverNotFound() throws IOException {
         // Setup
         NeedMessage message = new NeedMessage("CheeseBell", "testNeed", "testMessage");
-        userFileDAO.loginUser(testSupporter[1]);
+        String session = userFileDAO.loginUser(testSupporter[1]);
 
         // Invoke
         NeedMessage response = userFileDAO.sendOrUpdateMessageToUser(message, "NOTREALUSER");
@@ -568,7 +857,7 @@ public class UserFileDAOTests {
     public void testSendOrUpdateMessageToUser_IOException() throws IOException {
         // Setup
         NeedMessage message = new NeedMessage("CheeseBell", "testNeed", "testMessage");
-        userFileDAO.loginUser(testSupporter[1]);
+        String session = userFileDAO.loginUser(testSupporter[1]);
         doThrow(new IOException())
                 .when(mockObjectMapper)
                 .writeValue(any(File.class), any(Supporter[].class));
@@ -583,7 +872,7 @@ public class UserFileDAOTests {
     public void testGetMessageToUser() throws IOException {
         // Setup
         NeedMessage message = new NeedMessage("CheeseBell", "testNeed", "testMessage");
-        userFileDAO.loginUser(testSupporter[1]);
+        String session = userFileDAO.loginUser(testSupporter[1]);
         userFileDAO.sendOrUpdateMessageToUser(message, testSupporter[0].getUsername());
 
         // Invoke
@@ -597,7 +886,7 @@ public class UserFileDAOTests {
     public void testGetMessageToUser_ReceiverNotFound() throws IOException {
         // Setup
         NeedMessage message = new NeedMessage("CheeseBell", "testNeed", "testMessage");
-        userFileDAO.loginUser(testSupporter[1]);
+        String session = userFileDAO.loginUser(testSupporter[1]);
         userFileDAO.sendOrUpdateMessageToUser(message, testSupporter[0].getUsername());
 
         // Invoke
@@ -611,7 +900,7 @@ public class UserFileDAOTests {
     public void testGetMessageToUser_NeedNotFound() throws IOException {
         // Setup
         NeedMessage message = new NeedMessage("CheeseBell", "testNeed", "testMessage");
-        userFileDAO.loginUser(testSupporter[1]);
+        String session = userFileDAO.loginUser(testSupporter[1]);
         userFileDAO.sendOrUpdateMessageToUser(message, testSupporter[0].getUsername());
 
         // Invoke
@@ -625,10 +914,10 @@ public class UserFileDAOTests {
     public void testGetCurMessages() throws IOException, SupporterNotSignedInException {
         // Setup
         NeedMessage expected = testSupporter[1].getNeedMessages()[0];
-        userFileDAO.loginUser(testSupporter[1]);
+        String session = userFileDAO.loginUser(testSupporter[1]);
 
         // Invoke
-        NeedMessage[] response = userFileDAO.getCurMessages();
+        NeedMessage[] response = userFileDAO.getCurMessages(session);
 
         // Analyze
         assertEquals(expected, response[0]);
@@ -638,7 +927,7 @@ public class UserFileDAOTests {
     public void testGetCurMessages_SupporterNotSignedIn() throws IOException {
         // Analyze
         assertThrows(SupporterNotSignedInException.class, () -> {
-            userFileDAO.getCurMessages();
+            userFileDAO.getCurMessages(null);
         });
     }
 
@@ -646,47 +935,209 @@ public class UserFileDAOTests {
     public void testDeleteCurMessage() throws IOException, SupporterNotSignedInException {
         // Setup
         NeedMessage expected = testSupporter[1].getNeedMessages()[0];
-        userFileDAO.loginUser(testSupporter[1]);
+        String session = userFileDAO.loginUser(testSupporter[1]);
 
         // Invoke
-        userFileDAO.deleteCurMessage(expected.getNeedName());
+        userFileDAO.deleteCurMessage(session, expected.getNeedName());
 
         // Analyze
-        assertEquals(0, userFileDAO.getCurMessages().length);
+        assertEquals(0, userFileDAO.getCurMessages(session).length);
     }
 
     @Test
     public void testDeleteCurMessage_SupporterNotSignedIn() throws IOException {
         // Analyze
         assertThrows(SupporterNotSignedInException.class, () -> {
-            userFileDAO.deleteCurMessage("");
+            userFileDAO.deleteCurMessage(null, "");
         });
     }
 
     @Test
     public void testDeleteCurMessage_MessageNotFound() throws IOException, SupporterNotSignedInException {
         // Setup
-        userFileDAO.loginUser(testSupporter[1]);
+        String session = userFileDAO.loginUser(testSupporter[1]);
 
         // Invoke
-        userFileDAO.deleteCurMessage("NOTREALNEED");
+        userFileDAO.deleteCurMessage(session, "NOTREALNEED");
 
         // Analyze
-        assertEquals(1, userFileDAO.getCurMessages().length);
+        assertEquals(1, userFileDAO.getCurMessages(session).length);
     }
 
     @Test
     public void testDeleteCurMessage_IOException() throws IOException, SupporterNotSignedInException {
         // Setup
         NeedMessage expected = testSupporter[1].getNeedMessages()[0];
-        userFileDAO.loginUser(testSupporter[1]);
+        String session = userFileDAO.loginUser(testSupporter[1]);
         doThrow(new IOException())
                 .when(mockObjectMapper)
                 .writeValue(any(File.class), any(Supporter[].class));
 
         // Analyze
         assertThrows(IOException.class, () -> {
-            userFileDAO.deleteCurMessage(expected.getNeedName());
+            userFileDAO.deleteCurMessage(session, expected.getNeedName());
         });
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testParallelSessions(@TempDir Path dir) throws Exception {
+        // Setup
+        ObjectMapper objectMapper = new ObjectMapper()
+                .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        Need[] needs = { new Need("Hot 0", 1, 300), new Need("Hot 1", 2, 600), new Need("Hot 2", 3, 900) };
+        File needsFile = dir.resolve("needs.json").toFile();
+        File receiptsFile = dir.resolve("need_receipts.json").toFile();
+        File supportersFile = dir.resolve("supporters.json").toFile();
+        objectMapper.writeValue(needsFile, needs);
+        objectMapper.writeValue(receiptsFile, new NeedReceipt[0]);
+        objectMapper.writeValue(supportersFile, testSupporter);
+        NeedDAO needDao = new NeedFileDAO(needsFile.getPath(), objectMapper);
+        NeedReceiptFileDAO needReceiptDao = new NeedReceiptFileDAO(receiptsFile.getPath(), objectMapper);
+        UserFileDAO userDao = new UserFileDAO(supportersFile.getPath(), objectMapper, needDao, needReceiptDao);
+
+        // Every supporter is signed in more than once
+        int threads = 12;
+        List<String> sessions = new ArrayList<>(threads);
+        for (int t = 0; t < threads; ++t)
+            sessions.add(userDao.loginUser(testSupporter[t % testSupporter.length]));
+
+        // Invoke
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<?>> runs = new ArrayList<>(threads);
+        for (String session : sessions) {
+            runs.add(executor.submit(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < 200; ++i) {
+                    if (i % 5 == 4)
+                        userDao.checkoutCurBasket(session);
+                    else {
+                        try {
+                            userDao.updateNeedInCurBasket(session, needs[random.nextInt(needs.length)].getName(),
+                                    random.nextInt(4));
+                        } catch (NeedNotFoundException e) {
+                            // sold out by another session
+                        }
+                    }
+                }
+                return null;
+            }));
+        }
+        for (Future<?> run : runs)
+            run.get();
+        executor.shutdown();
+
+        // Analyze
+        for (Need need : needs) {
+            int funded = 0;
+            for (NeedReceipt receipt : needReceiptDao.getReceipts())
+                if (receipt.getName().equals(need.getName()))
+                    funded += receipt.getQuantity();
+            Need stored = needDao.getNeed(need.getName());
+            assertEquals(need.getQuantity(), funded + (stored != null ? stored.getQuantity() : 0), need.getName());
+        }
+        for (String session : sessions)
+            for (Need need : userDao.getCurBasket(session))
+                assertTrue(need.getQuantity() > 0);
+    }
+
+    @Test
+    public void testShardedPersistence(@TempDir Path dir) throws Exception {
+        // Setup
+        ObjectMapper objectMapper = new ObjectMapper()
+                .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        File file = dir.resolve("supporters.json").toFile();
+        objectMapper.writeValue(file, testSupporter);
+        Need need = new Need("testNeed1", 1.5, 12);
+        when(mockNeedDao.getNeed(need.getName())).thenReturn(need);
+        UserFileDAO sharded = new UserFileDAO(file.getPath(), UserFileDAO.PERSISTENCE_SHARDED, "sync", false,
+                UserSessions.DEFAULT_IDLE_MILLIS, objectMapper, mockNeedDao, mockNeedReceiptDao, new FileFlusher(),
+                new StoreLoader());
+        SupporterShards shards = new SupporterShards(file.getPath(), objectMapper);
+        String untouched = Files.readString(shards.fileOf(testSupporter[1].getUsername()).toPath());
+        String whole = Files.readString(file.toPath());
+
+        // Invoke
+        String session = sharded.loginUser(testSupporter[0]);
+        sharded.updateNeedInCurBasket(session, need.getName(), 3);
+        sharded.sendOrUpdateMessageToUser(new NeedMessage("admin", "Soap", "Thanks"), testSupporter[2].getUsername());
+        sharded.createSupporter(new Supporter("testUsername4", new Need[0], new NeedMessage[0]));
+        String afterEdits = Files.readString(file.toPath());
+        file.delete(); // only read once, to create the shards
+        UserFileDAO reloaded = new UserFileDAO(file.getPath(), UserFileDAO.PERSISTENCE_SHARDED, "sync", false,
+                UserSessions.DEFAULT_IDLE_MILLIS, objectMapper, mockNeedDao, mockNeedReceiptDao, new FileFlusher(),
+                new StoreLoader());
+
+        // Analyze
+        assertEquals(untouched, Files.readString(shards.fileOf(testSupporter[1].getUsername()).toPath()));
+        assertEquals(whole, afterEdits);
+        assertEquals(4, reloaded.getSupporters().length);
+        Supporter supporter = (Supporter) reloaded.getUser(testSupporter[0].getUsername());
+        assertEquals(3, supporter.getFundingBasket()[0].getQuantity());
+        Supporter receiver = (Supporter) reloaded.getUser(testSupporter[2].getUsername());
+        assertEquals(2, receiver.getNeedMessages().length);
+    }
+
+    @Test
+    public void testShardMigrationInterrupted(@TempDir Path dir) throws Exception {
+        // Setup
+        ObjectMapper objectMapper = new ObjectMapper()
+                .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        File file = dir.resolve("supporters.json").toFile();
+        objectMapper.writeValue(file, testSupporter);
+        ObjectMapper writer = objectMapper.copy();
+        ObjectMapper killedAfterOneShard = new ObjectMapper() {
+            private int shardWrites;
+
+            @Override
+            public void writeValue(File resultFile, Object value) throws IOException {
+                if (++shardWrites > 1)
+                    throw new IOException("Killed part way through the migration");
+                writer.writeValue(resultFile, value);
+            }
+        }.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+        // Invoke
+        assertThrows(IOException.class, () -> new UserFileDAO(file.getPath(), UserFileDAO.PERSISTENCE_SHARDED,
+                "sync", false, UserSessions.DEFAULT_IDLE_MILLIS, killedAfterOneShard, mockNeedDao, mockNeedReceiptDao,
+                new FileFlusher(), new StoreLoader()));
+        UserFileDAO restarted = new UserFileDAO(file.getPath(), UserFileDAO.PERSISTENCE_SHARDED, "sync", false,
+                UserSessions.DEFAULT_IDLE_MILLIS, objectMapper, mockNeedDao, mockNeedReceiptDao, new FileFlusher(),
+                new StoreLoader());
+
+        // Analyze
+        assertEquals(testSupporter.length, restarted.getSupporters().length);
+        assertTrue(new SupporterShards(file.getPath(), objectMapper).exists());
+    }
+
+    @Test
+    public void testUnknownPersistence() {
+        // Invoke & Analyze
+        assertThrows(IllegalArgumentException.class, () -> new UserFileDAO("doesnt_matter.txt", "unknown", "sync",
+                false, UserSessions.DEFAULT_IDLE_MILLIS, mockObjectMapper, mockNeedDao, mockNeedReceiptDao,
+                new FileFlusher(), new StoreLoader()));
+    }
+
+    @Test
+    public void testBinarySnapshot(@TempDir Path dir) throws IOException {
+        // Setup
+        File file = dir.resolve("supporters.json").toFile();
+        new ObjectMapper().writeValue(file, testSupporter);
+        UserFileDAO userDao = new UserFileDAO(file.getPath(), UserFileDAO.PERSISTENCE_FILE, "sync", true,
+                UserSessions.DEFAULT_IDLE_MILLIS,
+                new ObjectMapper().configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false), mockNeedDao,
+                mockNeedReceiptDao, new FileFlusher(), new StoreLoader());
+        userDao.createSupporter(new Supporter("testUsername4", new Need[0], new NeedMessage[0]));
+        userDao.close();
+        doThrow(new IOException()).when(mockObjectMapper).createParser(any(File.class));
+
+        // Invoke
+        UserFileDAO reloaded = new UserFileDAO(file.getPath(), UserFileDAO.PERSISTENCE_FILE, "sync", true,
+                UserSessions.DEFAULT_IDLE_MILLIS, mockObjectMapper, mockNeedDao, mockNeedReceiptDao, new FileFlusher(),
+                new StoreLoader());
+
+        // Analyze
+        Supporter[] supporters = reloaded.getSupporters(); // read from the binary snapshot
+        assertEquals(testSupporter.length + 1, supporters.length);
+        assertEquals("I like cheese", supporters[0].getNeedMessages()[0].getMessage());
+    }
+}
@@ -0,0 +1,118 @@
+package com.ufund.api.ufundapi.persistence;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.ufund.api.ufundapi.model.User;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test the User Sessions class
+ *
+ * @author Ethan Hartman
+ */
+@Tag("Persistence-tier")
+public class UserSessionsTest {
+    private static final long IDLE = 1000;
+
+    private AtomicLong clock;
+    private UserSessions sessions;
+
+    @BeforeEach
+    public void setupSessions() {
+        clock = new AtomicLong();
+        sessions = new UserSessions(IDLE, clock::get);
+    }
+
+    @Test
+    public void testOpen() {
+        // Setup
+        User user = new User("TestUser");
+
+        // Invoke
+        String first = sessions.open(user);
+        String second = sessions.open(user);
+
+        // Analyze
+        assertNotEquals(first, second);
+        assertEquals(user, sessions.get(first));
+        assertEquals(user, sessions.get(second));
+        assertEquals(2, sessions.size());
+    }
+
+    @Test
+    public void testGetUnknown() {
+        // Invoke & Analyze
+        assertNull(sessions.get(null));
+        assertNull(sessions.get("unknown"));
+    }
+
+    @Test
+    public void testClose() {
+        // Setup
+        String session = sessions.open(User.ADMIN);
+
+        // Invoke & Analyze
+        assertTrue(sessions.close(session));
+        assertFalse(sessions.close(session));
+        assertFalse(sessions.close(null));
+        assertNull(sessions.get(session));
+    }
+
+    @Test
+    public void testIdleEvicted() {
+        // Setup
+        String session = sessions.open(User.ADMIN);
+
+        // Invoke
+        clock.set(IDLE + 1);
+
+        // Analyze
+        assertNull(sessions.get(session));
+        assertEquals(0, sessions.size());
+    }
+
+    @Test
+    public void testUseKeepsAlive() {
+        // Setup
+        String session = sessions.open(User.ADMIN);
+
+        // Invoke
+        clock.set(IDLE);
+        sessions.get(session);
+        clock.set(IDLE * 2);
+
+        // Analyze
+        assertEquals(User.ADMIN, sessions.get(session));
+    }
+
+    @Test
+    public void testSweep() {
+        // Setup
+        String abandoned = sessions.open(User.ADMIN);
+        clock.set(IDLE * 2);
+
+        // Invoke
+        String session = sessions.open(User.ADMIN);
+
+        // Analyze
+        assertEquals(1, sessions.size()); // swept without being looked up
+        assertNull(sessions.get(abandoned));
+        assertEquals(User.ADMIN, sessions.get(session));
+    }
+
+    @Test
+    public void testIdleRequired() {
+        // Invoke & Analyze
+        assertThrows(IllegalArgumentException.class, () -> new UserSessions(0));
+    }
+}
@@ -1,7 +1,7 @@
 import { BrowserModule } from '@angular/platform-browser';
 import { NgModule } from '@angular/core';
 import { FormsModule } from '@angular/forms';
-import { HttpClientModule } from '@angular/common/http';
+import { HTTP_INTERCEPTORS, HttpClientModule } from '@angular/common/http';
 
 import { AppComponent } from './app.component';
 import { NeedsComponent } from './needs/needs.component';
@@ -22,6 +22,7 @@ import { AllFundedComponent } from './all-funded/all-funded.component';
 import { NeedMessagesComponent } from './need-messages/need-messages.component';
 import { FundedDetailComponent } from './funded-detail/funded-detail.component';
 import { SupporterDetailComponent } from './supporter-detail/supporter-detail.component';
+import { SessionInterceptor } from './session.interceptor';
 
 @NgModule({
   declarations: [
@@ -50,7 +51,9 @@ import { SupporterDetailComponent } from './supporter-detail/supporter-detail.co
     AppRoutingModule,
     HttpClientModule,
   ],
-  providers: [],
+  providers: [
+    { provide: HTTP_INTERCEPTORS, useClass: SessionInterceptor, multi: true },
+  ],
   bootstrap: [AppComponent]
 })
 export class AppModule { }
@@ -1,5 +1,5 @@
 import { Injectable } from '@angular/core';
-import { HttpClient, HttpHeaders } from '@angular/common/http';
+import { HttpClient, HttpHeaders, HttpParams } from '@angular/common/http';
 
 import { Observable, of } from 'rxjs';
 import { catchError, map, tap } from 'rxjs/operators';
@@ -31,6 +31,15 @@ export class NeedService {
     return this.http.get<Need>(url).pipe(catchError(this.handleError<Need>(`getNeed name=${name}`)));
   }
 
+  /** GET every need with one of the given names in one round trip. Names not found are left out */
+  getNeedsNamed(names: string[]): Observable<Need[]> {
+    if (!names.length) {
+      return of([]);
+    }
+    const params = new HttpParams().set('names', names.join(','));
+    return this.http.get<Need[]>(this.needsUrl, { params }).pipe(catchError(this.handleError<Need[]>('getNeedsNamed', [])));
+  }
+
   /* GET needs whose name contains search term */
   searchNeeds(term: string): Observable<Need[]> {
     if (!term.trim()) {
@@ -0,0 +1,32 @@
+import { Injectable } from '@angular/core';
+import { HttpEvent, HttpHandler, HttpInterceptor, HttpRequest } from '@angular/common/http';
+
+import { Observable } from 'rxjs';
+
+/** Header carrying the session token the api issues at login */
+export const SESSION_HEADER = 'Session-Token';
+const SESSION_KEY = 'session';
+const USERS_URL = 'http://localhost:8080/users';
+
+/** The token of this tab's session, if signed in */
+export function getSession(): string | null {
+  return sessionStorage.getItem(SESSION_KEY);
+}
+
+export function setSession(session: string | null): void {
+  if (session)
+    sessionStorage.setItem(SESSION_KEY, session);
+  else
+    sessionStorage.removeItem(SESSION_KEY);
+}
+
+/** Sends this tab's session token with every user request */
+@Injectable()
+export class SessionInterceptor implements HttpInterceptor {
+  intercept(req: HttpRequest<any>, next: HttpHandler): Observable<HttpEvent<any>> {
+    const session = getSession();
+    if (session && req.url.startsWith(USERS_URL))
+      req = req.clone({ setHeaders: { [SESSION_HEADER]: session } });
+    return next.handle(req);
+  }
+}
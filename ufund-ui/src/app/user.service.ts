@@ -8,6 +8,7 @@ import { Need } from './need';
 import { User } from './user';
 import { ErrorService, HttpErrors } from './error.service';
 import { Location } from '@angular/common';
+import { SESSION_HEADER, setSession } from './session.interceptor';
 
 @Injectable({
   providedIn: 'root'
@@ -20,10 +21,13 @@ export class UserService {
 
   constructor(private http: HttpClient, private errorService: ErrorService, private location: Location) {}
 
-  /** Login a user */
+  /** Login a user, keeping the session token the api issues */
   loginUser(user: User): Observable<User> {
-    return this.http.get<User>(`${this.userUrl}/${user.username}`)
-      .pipe(catchError(this.handleError<User>('loginUser')));
+    return this.http.get<User>(`${this.userUrl}/${user.username}`, { observe: 'response' })
+      .pipe(
+        tap(response => setSession(response.headers.get(SESSION_HEADER))),
+        map(response => response.body as User),
+        catchError(this.handleError<User>('loginUser')));
   }
 
   signupUser(user: User): Observable<User> {
@@ -32,7 +36,8 @@ export class UserService {
 
   /** Logout current user */
   logout(): Observable<Boolean>{
-    return this.http.get<Boolean>(`${this.userUrl}/logout`);
+    return this.http.get<Boolean>(`${this.userUrl}/logout`)
+      .pipe(tap(() => setSession(null)));
   }
 
   /** GET basket of logged in user */